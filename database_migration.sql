@@ -60,6 +60,13 @@ ADD COLUMN IF NOT EXISTS max_abstraction_usage INT DEFAULT 1 AFTER unnecessary_a
 ALTER TABLE user_settings 
 ADD COLUMN IF NOT EXISTS memory_leak_enabled BOOLEAN DEFAULT TRUE AFTER max_abstraction_usage;
 
+-- Add Duplicate Code Detector parameters
+ALTER TABLE user_settings 
+ADD COLUMN IF NOT EXISTS duplicate_code_enabled BOOLEAN DEFAULT TRUE AFTER memory_leak_enabled;
+
+ALTER TABLE user_settings 
+ADD COLUMN IF NOT EXISTS min_clone_tokens INT DEFAULT 100 AFTER duplicate_code_enabled;
+
 -- Verify the changes
 SELECT 
     COLUMN_NAME, 
@@ -0,0 +1,84 @@
+package com.devsync.benchmarks;
+
+/**
+ * Deterministic Java sources for the benchmarks, so runs on different machines
+ * and commits measure the same input.
+ */
+final class BenchmarkSources {
+
+    private BenchmarkSources() {}
+
+    /**
+     * small: one short class. medium: a typical service class with a few dozen
+     * methods. pathological: the shapes that stress the detectors most, such as
+     * deep nesting, long boolean chains, very long methods and statements, and
+     * hundreds of literals.
+     */
+    static String source(String size) {
+        return switch (size) {
+            case "small" -> generate("Small", 3, 4, 1);
+            case "medium" -> generate("Medium", 40, 12, 3);
+            case "pathological" -> pathological();
+            default -> throw new IllegalArgumentException("Unknown size: " + size);
+        };
+    }
+
+    private static String generate(String name, int methods, int statementsPerMethod, int nesting) {
+        StringBuilder src = new StringBuilder(methods * statementsPerMethod * 60);
+        src.append("package com.sample.bench;\n\n")
+           .append("import java.util.*;\n")
+           .append("import java.io.*;\n\n")
+           .append("public class ").append(name).append("Service {\n")
+           .append("    public static List<String> cache = new ArrayList<>();\n")
+           .append("    public int counter;\n")
+           .append("    private String label;\n\n");
+        for (int m = 0; m < methods; m++) {
+            src.append("    public int process").append(m)
+               .append("(int a, int b, String c, List<String> d, Map<String, Integer> e) {\n");
+            src.append("        int unusedLocal").append(m).append(" = ").append(m * 7 + 3).append(";\n");
+            for (int s = 0; s < statementsPerMethod; s++) {
+                String indent = "        ";
+                for (int n = 0; n < nesting; n++) {
+                    src.append(indent).append("if (a > ").append(s + n + 3).append(" && b < ").append(s * 13 + 42).append(") {\n");
+                    indent += "    ";
+                }
+                src.append(indent).append("counter += a * ").append(s + 17).append(" + b;\n");
+                for (int n = nesting - 1; n >= 0; n--) {
+                    indent = indent.substring(4);
+                    src.append(indent).append("}\n");
+                }
+            }
+            src.append("        switch (a) {\n")
+               .append("            case 1: counter++; break;\n")
+               .append("            case 2: counter--; break;\n")
+               .append("        }\n");
+            src.append("        try {\n")
+               .append("            new FileInputStream(c).read();\n")
+               .append("        } catch (IOException ex) {\n")
+               .append("        }\n");
+            src.append("        return counter;\n    }\n\n");
+        }
+        return src.append("}\n").toString();
+    }
+
+    private static String pathological() {
+        StringBuilder src = new StringBuilder(generate("Pathological", 60, 30, 6));
+        src.setLength(src.length() - 2);
+        src.append("    public boolean veryLongCondition(int a, int b, int c, int d, int e, int f, int g, int h) {\n")
+           .append("        return ");
+        for (int i = 0; i < 200; i++) {
+            if (i > 0) {
+                src.append(i % 3 == 0 ? " || " : " && ");
+            }
+            src.append("(a + ").append(i).append(" > b * ").append(i + 3).append(")");
+        }
+        src.append(";\n    }\n\n");
+        src.append("    public String longChain(StringBuilder sb) {\n")
+           .append("        return sb");
+        for (int i = 0; i < 300; i++) {
+            src.append(".append(").append(i * 31).append(")");
+        }
+        src.append(".toString();\n    }\n}\n");
+        return src.toString();
+    }
+}
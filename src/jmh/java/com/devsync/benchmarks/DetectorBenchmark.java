@@ -0,0 +1,54 @@
+package com.devsync.benchmarks;
+
+import com.devsync.detectors.Detector;
+import com.devsync.detectors.DetectorRegistry;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each detector's {@code detect(CompilationUnit)} on an already parsed file, so
+ * parse cost stays out of the number (see {@link ParseBenchmark}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DetectorBenchmark {
+
+    @Param({
+        "MissingDefaultDetector", "EmptyCatchDetector", "LongMethodDetector", "LongParameterListDetector",
+        "MagicNumberDetector", "LongIdentifierDetector", "BrokenModularizationDetector",
+        "ComplexConditionalDetector", "DeficientEncapsulationDetector", "LongStatementDetector",
+        "UnnecessaryAbstractionDetector", "MemoryLeakDetector", "UnusedVariableDetector", "DuplicateCodeDetector"
+    })
+    public String detector;
+
+    @Param({"small", "medium", "pathological"})
+    public String size;
+
+    private Detector target;
+    private CompilationUnit cu;
+
+    @Setup
+    public void setUp() {
+        target = DetectorRegistry.createDetectors().stream()
+            .filter(d -> d.getName().equals(detector))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown detector: " + detector));
+        target.configure(null);
+        cu = new JavaParser().parse(BenchmarkSources.source(size)).getResult().orElseThrow();
+        cu.setStorage(Paths.get("Bench.java"));
+    }
+
+    @Benchmark
+    public List<String> detect() {
+        return target.detect(cu);
+    }
+}
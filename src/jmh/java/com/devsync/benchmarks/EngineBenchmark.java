@@ -0,0 +1,54 @@
+package com.devsync.benchmarks;
+
+import com.devsync.analyzer.CodeAnalysisEngine;
+import com.devsync.testsupport.SyntheticProjectGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Whole-project analysis over a synthetic corpus. The 50k-file size is left out
+ * of the default run; select it with {@code -p files=50000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"10", "1000"})
+    public int files;
+
+    private Path projectDir;
+
+    @Setup
+    public void setUp() throws IOException {
+        projectDir = Files.createTempDirectory("devsync-corpus");
+        new SyntheticProjectGenerator(new SyntheticProjectGenerator.Config()
+            .seed(2024)
+            .files(files)
+            .classesPerFile(2)
+            .smellDensity(0.1))
+            .writeTo(projectDir);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(projectDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> analyzeProject() {
+        return new CodeAnalysisEngine().analyzeProject(projectDir.toString());
+    }
+}
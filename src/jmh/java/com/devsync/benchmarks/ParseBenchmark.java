@@ -0,0 +1,68 @@
+package com.devsync.benchmarks;
+
+import com.devsync.analyzer.LOCCounter;
+import com.devsync.analyzer.ParseProfile;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JavaParser parse cost and LOC counting, the per-file work done before and
+ * alongside the detectors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"small", "medium", "pathological"})
+    public String size;
+
+    private String source;
+    private CompilationUnit cu;
+    private Path sourceFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        source = BenchmarkSources.source(size);
+        // LOCCounter reads the file behind the compilation unit
+        sourceFile = Files.createTempFile("devsync-bench", ".java");
+        Files.writeString(sourceFile, source);
+        cu = new JavaParser().parse(source).getResult().orElseThrow();
+        cu.setStorage(sourceFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(sourceFile);
+    }
+
+    @Benchmark
+    public ParseResult<CompilationUnit> parse() {
+        return new JavaParser().parse(source);
+    }
+
+    @Benchmark
+    public ParseResult<CompilationUnit> parseWithCommentsProfile() {
+        return ParseProfile.WITH_COMMENTS.parse(source);
+    }
+
+    @Benchmark
+    public ParseResult<CompilationUnit> parseLeanProfile() {
+        return ParseProfile.LEAN.parse(source);
+    }
+
+    @Benchmark
+    public int countLinesOfCode() {
+        return LOCCounter.countLinesOfCode(cu);
+    }
+}
@@ -0,0 +1,77 @@
+package com.devsync.benchmarks;
+
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.reports.ReportGenerator;
+import com.devsync.services.HighlightMapperService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report writing and reading over large result sets: the comprehensive report
+ * and the legacy line parser behind the highlight endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+    private static final String[] TYPES = {
+        "LongMethod", "MagicNumber", "LongStatement", "ComplexConditional", "EmptyCatch", "UnusedVariable"
+    };
+    private static final Severity[] SEVERITIES = { Severity.CRITICAL, Severity.HIGH, Severity.MEDIUM, Severity.LOW };
+
+    @Param({"1000", "50000"})
+    public int issueCount;
+
+    private Map<String, Object> analysisResults;
+    private String reportContent;
+    private ReportGenerator reportGenerator;
+    private HighlightMapperService highlightMapper;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<CodeIssue> issues = new ArrayList<>(issueCount);
+        int files = Math.max(1, issueCount / 20);
+        for (int i = 0; i < issueCount; i++) {
+            String type = TYPES[random.nextInt(TYPES.length)];
+            CodeIssue issue = new CodeIssue(type, "File" + random.nextInt(files) + ".java", 1 + random.nextInt(2000),
+                SEVERITIES[random.nextInt(SEVERITIES.length)], type + " finding number " + i, "Refactor this code");
+            issue.setDetailedReason("Flagged because measurement " + i + " exceeds its threshold");
+            issue.addMetric("value", random.nextInt(100))
+                .addMetric("threshold", 10)
+                .addMetric("score", random.nextDouble());
+            issues.add(issue);
+        }
+
+        analysisResults = new HashMap<>();
+        analysisResults.put("issues", issues);
+        analysisResults.put("totalFiles", files);
+        analysisResults.put("totalLOC", files * 300);
+        analysisResults.put("totalClasses", files);
+        analysisResults.put("totalMethods", files * 12);
+        analysisResults.put("totalPackages", Math.max(1, files / 10));
+        analysisResults.put("largeClasses", files / 50);
+        analysisResults.put("avgComplexity", 4.5);
+
+        reportGenerator = new ReportGenerator();
+        highlightMapper = new HighlightMapperService();
+        reportContent = reportGenerator.generateComprehensiveReport(analysisResults);
+    }
+
+    @Benchmark
+    public String generateComprehensiveReport() {
+        return reportGenerator.generateComprehensiveReport(analysisResults);
+    }
+
+    @Benchmark
+    public List<CodeIssue> parseIssues() {
+        return highlightMapper.parseIssues(reportContent);
+    }
+}
@@ -0,0 +1,80 @@
+package com.devsync.analyzer;
+
+import java.time.Duration;
+
+/**
+ * Time limits for one project analysis: an overall deadline and a budget for each
+ * file. Analysis is cooperative, so the engine checks these between files and
+ * between detectors rather than interrupting work in progress.
+ */
+public final class AnalysisDeadline {
+    
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+    
+    private final long projectDeadlineNanos;
+    private final long fileBudgetNanos;
+    private final Duration projectLimit;
+    private final Duration fileLimit;
+    
+    private AnalysisDeadline(Duration projectLimit, Duration fileLimit) {
+        long now = System.nanoTime();
+        this.projectLimit = projectLimit;
+        this.fileLimit = fileLimit;
+        this.projectDeadlineNanos = projectLimit != null ? now + projectLimit.toNanos() : NO_LIMIT;
+        this.fileBudgetNanos = fileLimit != null ? fileLimit.toNanos() : NO_LIMIT;
+    }
+    
+    /**
+     * Starts the clock now. A null or non-positive limit means unlimited.
+     */
+    public static AnalysisDeadline start(Duration projectLimit, Duration fileLimit) {
+        return new AnalysisDeadline(positiveOrNull(projectLimit), positiveOrNull(fileLimit));
+    }
+    
+    public static AnalysisDeadline unlimited() {
+        return new AnalysisDeadline(null, null);
+    }
+    
+    private static Duration positiveOrNull(Duration limit) {
+        return limit != null && !limit.isZero() && !limit.isNegative() ? limit : null;
+    }
+    
+    public boolean isProjectExpired() {
+        return projectDeadlineNanos != NO_LIMIT && System.nanoTime() - projectDeadlineNanos >= 0;
+    }
+    
+    public Duration getProjectLimit() {
+        return projectLimit;
+    }
+    
+    public Duration getFileLimit() {
+        return fileLimit;
+    }
+    
+    /**
+     * Budget for a file whose analysis starts now; it never outlives the project deadline.
+     */
+    public FileBudget startFile() {
+        long fileDeadline = NO_LIMIT;
+        if (fileBudgetNanos != NO_LIMIT) {
+            fileDeadline = System.nanoTime() + fileBudgetNanos;
+        }
+        return new FileBudget(fileDeadline);
+    }
+    
+    public final class FileBudget {
+        private final long fileDeadlineNanos;
+        
+        private FileBudget(long fileDeadlineNanos) {
+            this.fileDeadlineNanos = fileDeadlineNanos;
+        }
+        
+        public boolean isFileExpired() {
+            return fileDeadlineNanos != NO_LIMIT && System.nanoTime() - fileDeadlineNanos >= 0;
+        }
+        
+        public boolean isExpired() {
+            return isFileExpired() || isProjectExpired();
+        }
+    }
+}
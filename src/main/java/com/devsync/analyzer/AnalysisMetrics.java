@@ -0,0 +1,103 @@
+package com.devsync.analyzer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the analysis pipeline, published through Actuator at
+ * /actuator/prometheus. Stages share one timer name told apart by the
+ * stage tag; detectors get their own timer tagged by detector name.
+ * Every timer is also tagged with the outcome (success, error or timeout).
+ */
+public class AnalysisMetrics {
+
+    public static final String STAGE_TIMER = "devsync.analysis.stage";
+    public static final String DETECTOR_TIMER = "devsync.analysis.detector";
+    public static final String FILE_ISSUES = "devsync.analysis.file.issues";
+
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+    public static final String TIMEOUT = "timeout";
+
+    // Pipeline stages
+    public static final String EXTRACT = "extract";
+    public static final String COLLECT = "collect";
+    public static final String PARSE = "parse";
+    public static final String AST_WALK = "ast-walk";
+    public static final String LOC = "loc";
+    public static final String FINGERPRINT = "fingerprint";
+    public static final String CROSS_FILE = "cross-file";
+    public static final String PROJECT = "project";
+    public static final String REPORT = "report";
+    public static final String PERSIST = "persist";
+    public static final String AI = "ai";
+
+    private final MeterRegistry registry;
+
+    public AnalysisMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Metrics on Micrometer's global registry, which Spring Boot feeds into the
+     * Actuator registry. Without Actuator (plain unit tests) nothing is recorded.
+     */
+    public static AnalysisMetrics global() {
+        return new AnalysisMetrics(Metrics.globalRegistry);
+    }
+
+    @FunctionalInterface
+    public interface StageWork<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    /**
+     * Runs one stage and records it, tagged error when the stage throws.
+     */
+    public <T, E extends Exception> T timeStage(String stage, StageWork<T, E> work) throws E {
+        long start = start();
+        try {
+            T result = work.run();
+            recordStage(stage, start, SUCCESS);
+            return result;
+        } catch (Exception e) {
+            recordStage(stage, start, ERROR);
+            throw e;
+        }
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void recordStage(String stage, long startNanos, String outcome) {
+        Timer.builder(STAGE_TIMER)
+            .description("Time spent in one analysis pipeline stage")
+            .tag("stage", stage)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDetector(String detector, long startNanos, String outcome) {
+        Timer.builder(DETECTOR_TIMER)
+            .description("Time one detector spends on one file")
+            .tag("detector", detector)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFileIssues(int issueCount) {
+        DistributionSummary.builder(FILE_ISSUES)
+            .description("Issues reported per analyzed file")
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(issueCount);
+    }
+}
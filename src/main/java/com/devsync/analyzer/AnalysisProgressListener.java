@@ -0,0 +1,12 @@
+package com.devsync.analyzer;
+
+/**
+ * Receives progress updates while a project is analyzed. Called once with
+ * {@code completed == 0} when the file list is known and then after every file;
+ * with parallel analysis the calls come from worker threads.
+ */
+@FunctionalInterface
+public interface AnalysisProgressListener {
+
+    void onProgress(int completedFiles, int totalFiles);
+}
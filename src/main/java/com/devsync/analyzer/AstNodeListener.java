@@ -0,0 +1,27 @@
+package com.devsync.analyzer;
+
+import com.github.javaparser.ast.Node;
+
+/**
+ * Receives node events from {@link FusedAstWalker}. Several listeners share one
+ * walk of a compilation unit, so implementations should only react to the node
+ * types they care about and return quickly for everything else.
+ */
+public interface AstNodeListener {
+
+    /**
+     * Called before the children of {@code node} are walked.
+     *
+     * @return false to skip the subtree below {@code node} for this listener only
+     */
+    default boolean enter(Node node) {
+        return true;
+    }
+
+    /**
+     * Called after the children of {@code node} have been walked. Not called for
+     * nodes whose {@link #enter(Node)} returned false.
+     */
+    default void exit(Node node) {
+    }
+}
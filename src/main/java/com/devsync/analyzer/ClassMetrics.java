@@ -0,0 +1,238 @@
+package com.devsync.analyzer;
+
+import com.devsync.analyzer.FileSymbols.TypeSymbol;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Cohesion and coupling of one project type, computed from the field-access and
+ * call bits its {@link TypeSymbol} carries (one long word per 64 fields or
+ * methods) instead of comparing name sets method by method.
+ *
+ * <ul>
+ *   <li>LCOM4: connected groups of methods, two methods being linked when they
+ *   share a field or one calls the other. Above 1, the class could be split.</li>
+ *   <li>TCC: share of method pairs directly connected, i.e. using a common field
+ *   themselves or through the own methods they call.</li>
+ *   <li>LCC: share of method pairs connected directly or through other methods.</li>
+ *   <li>Field usage: share of the fields that some method uses.</li>
+ * </ul>
+ *
+ * LCOM4 and LCC come from union-find over fields and calls, so they are close to
+ * linear; TCC compares every pair of methods, one word at a time.
+ */
+public final class ClassMetrics {
+
+    private final int methodCount;
+    private final int fieldCount;
+    private final int lcom4;
+    private final double tcc;
+    private final double lcc;
+    private final double fieldUsage;
+    private final int efferentCoupling;
+    private final int afferentCoupling;
+    private final int coupling;
+
+    private ClassMetrics(int methodCount, int fieldCount, int lcom4, double tcc, double lcc, double fieldUsage,
+                         int efferentCoupling, int afferentCoupling, int coupling) {
+        this.methodCount = methodCount;
+        this.fieldCount = fieldCount;
+        this.lcom4 = lcom4;
+        this.tcc = tcc;
+        this.lcc = lcc;
+        this.fieldUsage = fieldUsage;
+        this.efferentCoupling = efferentCoupling;
+        this.afferentCoupling = afferentCoupling;
+        this.coupling = coupling;
+    }
+
+    public static ClassMetrics of(ProjectSymbolIndex index, int typeId) {
+        TypeSymbol type = index.getType(typeId);
+        long[][] accesses = type.getFieldAccesses();
+        long[][] calls = type.getMethodCalls();
+        int methods = accesses.length;
+        int fields = type.getFields().size();
+
+        // LCOM4: methods joined through each field's first user and through calls
+        UnionFind groups = new UnionFind(methods);
+        int[] firstUser = new int[fields];
+        Arrays.fill(firstUser, -1);
+        long[] used = new long[words(fields)];
+        for (int m = 0; m < methods; m++) {
+            long[] access = accesses[m];
+            for (int w = 0; w < access.length; w++) {
+                used[w] |= access[w];
+                for (long bits = access[w]; bits != 0; bits &= bits - 1) {
+                    int f = w * 64 + Long.numberOfTrailingZeros(bits);
+                    if (firstUser[f] < 0) {
+                        firstUser[f] = m;
+                    } else {
+                        groups.union(firstUser[f], m);
+                    }
+                }
+            }
+            for (int w = 0; w < calls[m].length; w++) {
+                for (long bits = calls[m][w]; bits != 0; bits &= bits - 1) {
+                    groups.union(m, w * 64 + Long.numberOfTrailingZeros(bits));
+                }
+            }
+        }
+
+        // TCC and LCC use the fields each method reaches, its callees' included
+        long[][] reach = reachableFields(accesses, calls, words(fields));
+        UnionFind connected = new UnionFind(methods);
+        Arrays.fill(firstUser, -1);
+        for (int m = 0; m < methods; m++) {
+            for (int w = 0; w < reach[m].length; w++) {
+                for (long bits = reach[m][w]; bits != 0; bits &= bits - 1) {
+                    int f = w * 64 + Long.numberOfTrailingZeros(bits);
+                    if (firstUser[f] < 0) {
+                        firstUser[f] = m;
+                    } else {
+                        connected.union(firstUser[f], m);
+                    }
+                }
+            }
+        }
+        long direct = 0;
+        for (int a = 0; a < methods; a++) {
+            for (int b = a + 1; b < methods; b++) {
+                if (intersects(reach[a], reach[b])) {
+                    direct++;
+                }
+            }
+        }
+        long pairs = (long) methods * (methods - 1) / 2;
+        double tcc = pairs == 0 ? 1.0 : (double) direct / pairs;
+        double lcc = pairs == 0 ? 1.0 : (double) connected.connectedPairs() / pairs;
+        int usedFields = 0;
+        for (long word : used) {
+            usedFields += Long.bitCount(word);
+        }
+        double fieldUsage = fields == 0 ? 1.0 : (double) usedFields / fields;
+
+        // Efferent: call scopes and field types; afferent: project types that use or extend this one
+        Set<String> efferent = new HashSet<>(type.getDependencies());
+        Set<String> afferent = new HashSet<>();
+        String nestedPrefix = type.getQualifiedName() + ".";
+        for (int[] dependents : new int[][] {index.referencedBy(typeId), index.subtypesOf(typeId)}) {
+            for (int dependent : dependents) {
+                TypeSymbol other = index.getType(dependent);
+                if (!other.getQualifiedName().startsWith(nestedPrefix)) {
+                    afferent.add(other.getName());
+                }
+            }
+        }
+        int efferentCoupling = efferent.size();
+        efferent.addAll(afferent);
+
+        return new ClassMetrics(methods, fields, groups.count(), tcc, lcc, fieldUsage,
+            efferentCoupling, afferent.size(), efferent.size());
+    }
+
+    /**
+     * Fields each method uses itself or through the own methods it calls, found
+     * by propagating along calls until nothing changes.
+     */
+    private static long[][] reachableFields(long[][] accesses, long[][] calls, int words) {
+        long[][] reach = new long[accesses.length][];
+        for (int m = 0; m < accesses.length; m++) {
+            reach[m] = Arrays.copyOf(accesses[m], words);
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int m = 0; m < accesses.length; m++) {
+                long[] target = reach[m];
+                for (int w = 0; w < calls[m].length; w++) {
+                    for (long bits = calls[m][w]; bits != 0; bits &= bits - 1) {
+                        long[] source = reach[w * 64 + Long.numberOfTrailingZeros(bits)];
+                        for (int i = 0; i < words; i++) {
+                            long merged = target[i] | source[i];
+                            if (merged != target[i]) {
+                                target[i] = merged;
+                                changed = true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return reach;
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) / 64;
+    }
+
+    public int getMethodCount() { return methodCount; }
+    public int getFieldCount() { return fieldCount; }
+    public int getLcom4() { return lcom4; }
+    public double getTcc() { return tcc; }
+    public double getLcc() { return lcc; }
+    public double getFieldUsage() { return fieldUsage; }
+    public int getEfferentCoupling() { return efferentCoupling; }
+    public int getAfferentCoupling() { return afferentCoupling; }
+
+    /**
+     * Distinct names coupled in either direction.
+     */
+    public int getCoupling() { return coupling; }
+
+    private static class UnionFind {
+        private final int[] parent;
+        private int count;
+
+        UnionFind(int size) {
+            parent = new int[size];
+            for (int i = 0; i < size; i++) {
+                parent[i] = i;
+            }
+            count = size;
+        }
+
+        int find(int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]];
+                x = parent[x];
+            }
+            return x;
+        }
+
+        void union(int a, int b) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA != rootB) {
+                parent[rootA] = rootB;
+                count--;
+            }
+        }
+
+        int count() {
+            return count;
+        }
+
+        // Pairs of elements that ended up in the same group
+        long connectedPairs() {
+            int[] sizes = new int[parent.length];
+            for (int i = 0; i < parent.length; i++) {
+                sizes[find(i)]++;
+            }
+            long pairs = 0;
+            for (int size : sizes) {
+                pairs += (long) size * (size - 1) / 2;
+            }
+            return pairs;
+        }
+    }
+}
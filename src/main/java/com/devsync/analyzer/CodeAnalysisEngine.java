@@ -1,299 +1,600 @@
 package com.devsync.analyzer;
 
+import com.devsync.analyzer.FileSymbols.TypeSymbol;
 import com.devsync.detectors.*;
 import com.devsync.config.AnalysisConfig;
-import com.github.javaparser.JavaParser;
+import com.devsync.config.PathExclusionMatcher;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
+import com.devsync.utils.HashUtil;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ParseResult;
 import org.springframework.stereotype.Component;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
 @Component
 public class CodeAnalysisEngine {
     
     private static final Logger logger = Logger.getLogger(CodeAnalysisEngine.class.getName());
     
-    private final Map<String, Object> detectors = new LinkedHashMap<>();
+    // Bump whenever detector logic changes in a way that invalidates cached results
+    private static final String CACHE_FORMAT_VERSION = "8";
     
-    private Map<String, Boolean> enabledDetectors;
-    private Integer maxMethodLength;
-    private Integer maxParameterCount;
-    private Integer maxIdentifierLength;
+    private final List<Detector> detectors;
+    
+    // Resolved once per configuration so the per-file loop never re-checks settings
+    private Detector[] activeDetectors;
+    // Shortest clone the active project detectors look for; 0 skips fingerprinting
+    private int minCloneTokens;
+    // Whether numeric literals are indexed for the project detectors
+    private boolean indexLiterals;
+    private int parallelism = AnalysisConfig.DEFAULT_ANALYSIS_PARALLELISM;
+    private FileResultCache resultCache;
+    private String configFingerprint;
+    private ParseProfile parseProfile;
+    private AnalysisProgressListener progressListener;
+    private Duration maxProjectTime;
+    private Duration maxFileTime;
+    private AnalysisMetrics analysisMetrics = AnalysisMetrics.global();
+    private PathExclusionMatcher pathExclusions = PathExclusionMatcher.defaults();
+    private Path spillDirectory;
+    private int streamingMinFiles;
+    private int spillRunSize = IssueSpill.DEFAULT_RUN_SIZE;
     
     public CodeAnalysisEngine() {
-        initializeDetectors();
+        detectors = DetectorRegistry.createDetectors();
+        for (Detector detector : detectors) {
+            detector.configure(null);
+        }
+        activeDetectors = detectors.toArray(new Detector[0]);
+        minCloneTokens = minCloneTokens(activeDetectors);
+        indexLiterals = indexesLiterals(activeDetectors);
+        parseProfile = ParseProfile.forDetectors(activeDetectors);
+        configFingerprint = computeConfigFingerprint();
     }
     
-    public void configureFromSettings(com.devsync.model.UserSettings settings) {
+    public void configureFromSettings(UserSettings settings) {
         if (settings == null) {
             logger.warning("Settings is null, using defaults");
-            return;
         }
         
-        this.enabledDetectors = new HashMap<>();
-        enabledDetectors.put("LongMethodDetector", settings.getLongMethodEnabled());
-        enabledDetectors.put("LongParameterListDetector", settings.getLongParameterEnabled());
-        enabledDetectors.put("LongIdentifierDetector", settings.getLongIdentifierEnabled());
-        enabledDetectors.put("MagicNumberDetector", settings.getMagicNumberEnabled());
-        enabledDetectors.put("MissingDefaultDetector", settings.getMissingDefaultEnabled());
-        enabledDetectors.put("EmptyCatchDetector", settings.getEmptyCatchEnabled());
-        enabledDetectors.put("ComplexConditionalDetector", settings.getComplexConditionalEnabled());
-        enabledDetectors.put("LongStatementDetector", settings.getLongStatementEnabled());
-        enabledDetectors.put("BrokenModularizationDetector", settings.getBrokenModularizationEnabled());
-        enabledDetectors.put("DeficientEncapsulationDetector", settings.getDeficientEncapsulationEnabled());
-        enabledDetectors.put("UnnecessaryAbstractionDetector", settings.getUnnecessaryAbstractionEnabled());
-        enabledDetectors.put("MemoryLeakDetector", settings.getMemoryLeakEnabled() != null ? settings.getMemoryLeakEnabled() : true);
-        enabledDetectors.put("UnusedVariableDetector", settings.getUnusedVariableEnabled() != null ? settings.getUnusedVariableEnabled() : true);
+        List<Detector> enabled = new ArrayList<>();
+        for (Detector detector : detectors) {
+            boolean isEnabled = detector.isEnabled(settings);
+            logger.fine(() -> "Detector " + detector.getName() + " enabled: " + isEnabled);
+            if (isEnabled) {
+                detector.configure(settings);
+                enabled.add(detector);
+            }
+        }
+        activeDetectors = enabled.toArray(new Detector[0]);
+        minCloneTokens = minCloneTokens(activeDetectors);
+        indexLiterals = indexesLiterals(activeDetectors);
+        parseProfile = ParseProfile.forDetectors(activeDetectors);
+        configFingerprint = computeConfigFingerprint();
+    }
+    
+    private static int minCloneTokens(Detector[] detectors) {
+        return Arrays.stream(detectors)
+            .filter(detector -> detector instanceof ProjectDetector)
+            .mapToInt(detector -> ((ProjectDetector) detector).getMinCloneTokens())
+            .filter(tokens -> tokens > 0)
+            .min().orElse(0);
+    }
+    
+    private static boolean indexesLiterals(Detector[] detectors) {
+        return Arrays.stream(detectors)
+            .anyMatch(detector -> detector instanceof ProjectDetector project && project.indexesNumericLiterals());
+    }
+    
+    /**
+     * Fingerprint of the effective detector configuration: which detectors run,
+     * with which thresholds, and how sources are parsed for them. Two runs with
+     * the same fingerprint produce the same issues for the same file content.
+     */
+    public String getConfigFingerprint() {
+        return configFingerprint;
+    }
+    
+    private String computeConfigFingerprint() {
+        StringBuilder description = new StringBuilder("v").append(CACHE_FORMAT_VERSION)
+            .append(";parse=").append(parseProfile.getSignature());
+        for (Detector detector : activeDetectors) {
+            description.append(';').append(detector.getName()).append('=').append(detector.getConfigSignature());
+        }
+        return HashUtil.sha256Hex(description.toString()).substring(0, 16);
+    }
+    
+    /**
+     * Enables incremental analysis: files whose content and configuration fingerprint
+     * match a cached entry are not parsed again. Pass null to disable.
+     */
+    public void setResultCache(FileResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+    
+    public void setMetrics(AnalysisMetrics analysisMetrics) {
+        this.analysisMetrics = analysisMetrics;
+    }
+    
+    /**
+     * Rules for which paths analyzeProject leaves out; defaults to test sources,
+     * build output and VCS metadata.
+     */
+    public void setPathExclusions(PathExclusionMatcher pathExclusions) {
+        this.pathExclusions = pathExclusions;
+    }
+    
+    public void setProgressListener(AnalysisProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+    
+    /**
+     * Hard ceilings for one analyzeProject call. A file that exceeds its budget is
+     * abandoned with a [Timeout] entry; once the project limit passes, remaining
+     * files are skipped and the results are marked incomplete. Null means unlimited.
+     */
+    public void setTimeLimits(Duration maxProjectTime, Duration maxFileTime) {
+        this.maxProjectTime = maxProjectTime;
+        this.maxFileTime = maxFileTime;
+    }
+    
+    /**
+     * Enables streaming mode for projects of at least {@code minFiles} files:
+     * each file's issues are spilled to a temp file under {@code directory} as
+     * soon as its detectors finish, and the results carry an {@link IssueSpill}
+     * under "issueSpill" instead of an "issues" list. The caller closes the spill.
+     */
+    public void setStreaming(Path directory, int minFiles, int runSize) {
+        this.spillDirectory = directory;
+        this.streamingMinFiles = Math.max(1, minFiles);
+        this.spillRunSize = runSize;
+    }
+    
+    public List<Detector> getActiveDetectors() {
+        return List.of(activeDetectors);
+    }
+    
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+    
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    public Map<String, Object> analyzeProject(String projectPath) {
+        long collectStart = analysisMetrics.start();
+        JavaFileCollector collector = new JavaFileCollector(pathExclusions);
+        List<SourceFile> sources = new ArrayList<>();
+        for (File file : collector.collectJavaFiles(projectPath)) {
+            sources.add(SourceFile.onDisk(file));
+        }
+        analysisMetrics.recordStage(AnalysisMetrics.COLLECT, collectStart, AnalysisMetrics.SUCCESS);
         
-        System.out.println("=== CodeAnalysisEngine Configuration ===");
-        enabledDetectors.forEach((name, enabled) -> 
-            System.out.println(name + ": " + enabled));
+        return analyzeSources(new File(projectPath).getName(), sources);
+    }
+    
+    /**
+     * Analyzes sources that have already been gathered, on disk or in memory. The
+     * caller is responsible for excluding files that should not be analyzed.
+     */
+    public Map<String, Object> analyzeSources(String projectName, List<SourceFile> filesToAnalyze) {
+        logger.info(() -> "🔍 Starting project analysis: " + projectName);
+        long projectStart = analysisMetrics.start();
         
-        // Configure Long Method Detector
-        if (detectors.get("LongMethodDetector") instanceof LongMethodDetector) {
-            LongMethodDetector detector = (LongMethodDetector) detectors.get("LongMethodDetector");
-            detector.setMaxLength(settings.getMaxMethodLength());
-            detector.setMaxComplexity(settings.getMaxMethodComplexity());
-        }
+        Map<String, Object> results = new HashMap<>();
+        AnalysisDeadline deadline = AnalysisDeadline.start(maxProjectTime, maxFileTime);
+        logger.fine(() -> "📁 Found " + filesToAnalyze.size() + " Java files");
         
-        // Configure Long Parameter List Detector
-        if (detectors.get("LongParameterListDetector") instanceof LongParameterListDetector) {
-            ((LongParameterListDetector) detectors.get("LongParameterListDetector"))
-                .setMaxParameters(settings.getMaxParameterCount());
-        }
+        int fileCount = filesToAnalyze.size();
+        IssueSpill spill = openSpill(fileCount);
+        // Each slot is written by exactly one task, so issue order follows file order
+        // no matter which worker finishes first. When streaming, issues go to the
+        // spill under their file index instead and no file result is kept.
+        FileAnalysisResult[] fileResults = spill == null ? new FileAnalysisResult[fileCount] : null;
+        // The symbols of every file are kept even when streaming; they feed the project
+        // index, which the cohesion section of the report needs even without project detectors
+        FileSymbols[] fileSymbols = new FileSymbols[fileCount];
+        ProjectTotals totals = new ProjectTotals();
+        reportProgress(0, fileCount);
         
-        // Configure Long Identifier Detector
-        if (detectors.get("LongIdentifierDetector") instanceof LongIdentifierDetector) {
-            LongIdentifierDetector detector = (LongIdentifierDetector) detectors.get("LongIdentifierDetector");
-            detector.setMaxLength(settings.getMaxIdentifierLength());
-            detector.setMinLength(settings.getMinIdentifierLength());
+        List<CodeIssue> projectIssues;
+        try {
+            analyzeAll(filesToAnalyze, deadline, fileResults, spill, fileSymbols, totals);
+            projectIssues = analyzeAcrossFiles(projectName, fileSymbols, totals);
+        } catch (RuntimeException e) {
+            closeQuietly(spill);
+            throw e;
         }
         
-        // Configure Magic Number Detector
-        if (detectors.get("MagicNumberDetector") instanceof MagicNumberDetector) {
-            ((MagicNumberDetector) detectors.get("MagicNumberDetector"))
-                .setThreshold(settings.getMagicNumberThreshold());
+        List<CodeIssue> allIssues = new ArrayList<>();
+        if (fileResults != null) {
+            for (FileAnalysisResult fileResult : fileResults) {
+                allIssues.addAll(fileResult.getIssues());
+            }
+            allIssues.addAll(projectIssues);
+        } else {
+            spill.add(fileCount, projectIssues);
         }
         
-        // Configure Complex Conditional Detector
-        if (detectors.get("ComplexConditionalDetector") instanceof ComplexConditionalDetector) {
-            ComplexConditionalDetector detector = (ComplexConditionalDetector) detectors.get("ComplexConditionalDetector");
-            detector.setMaxOperators(settings.getMaxConditionalOperators());
-            detector.setMaxNestingDepth(settings.getMaxNestingDepth());
+        int skippedFiles = totals.skippedFiles.get();
+        boolean incomplete = skippedFiles > 0 || totals.timedOutFiles.get() > 0;
+        if (skippedFiles > 0) {
+            CodeIssue timeoutIssue = analysisError("Timeout", projectName, "Analysis deadline of " +
+                describe(deadline.getProjectLimit()) + " reached; " + skippedFiles + " of " + fileCount +
+                " files were not analyzed");
+            if (spill != null) {
+                spill.add(fileCount + 1, List.of(timeoutIssue));
+            } else {
+                allIssues.add(timeoutIssue);
+            }
+            totals.countIssue(timeoutIssue);
         }
+        int issueCount = spill != null ? (int) spill.size() : allIssues.size();
         
-        // Configure Long Statement Detector
-        if (detectors.get("LongStatementDetector") instanceof LongStatementDetector) {
-            LongStatementDetector detector = (LongStatementDetector) detectors.get("LongStatementDetector");
-            detector.setMaxTokens(settings.getMaxStatementTokens());
-            detector.setMaxChars(settings.getMaxStatementChars());
-            detector.setMaxChainLength(settings.getMaxMethodChainLength());
-        }
+        Map<String, Integer> severityCounts = totals.severityCounts();
+        Map<String, Integer> detectorCounts = totals.detectorCounts();
+        int processedFiles = totals.processedFiles.get();
+        int cachedFiles = totals.cachedFiles.get();
+        int totalClasses = totals.totalClasses.get();
         
-        // Configure Broken Modularization Detector
-        if (detectors.get("BrokenModularizationDetector") instanceof BrokenModularizationDetector) {
-            BrokenModularizationDetector detector = (BrokenModularizationDetector) detectors.get("BrokenModularizationDetector");
-            detector.setMaxResponsibilities(settings.getMaxResponsibilities());
-            detector.setMinCohesion(settings.getMinCohesionIndex());
-            detector.setMaxCoupling(settings.getMaxCouplingCount());
+        analysisMetrics.recordStage(AnalysisMetrics.PROJECT, projectStart,
+            incomplete ? AnalysisMetrics.TIMEOUT : AnalysisMetrics.SUCCESS);
+        logger.info(String.format("✅ Analysis complete: %d files, %d processed, %d from cache, %d issues%s%s",
+            fileCount, processedFiles, cachedFiles, issueCount, spill != null ? " (streamed)" : "",
+            incomplete ? " (incomplete: " + totals.timedOutFiles.get() + " timed out, " + skippedFiles + " skipped)" : ""));
+        logger.fine(() -> "Severity breakdown: " + severityCounts + ", detector breakdown: " + detectorCounts);
+        
+        if (spill != null) {
+            results.put("issueSpill", spill);
+        } else {
+            results.put("issues", allIssues);
         }
+        results.put("totalFiles", fileCount);
+        results.put("processedFiles", processedFiles);
+        results.put("cachedFiles", cachedFiles);
+        results.put("timedOutFiles", totals.timedOutFiles.get());
+        results.put("skippedFiles", skippedFiles);
+        results.put("incomplete", incomplete);
+        results.put("totalIssues", issueCount);
+        results.put("severityCounts", severityCounts);
+        results.put("detectorCounts", detectorCounts);
+        results.put("totalLOC", totals.totalLOC.get());
+        results.put("totalClasses", totalClasses);
+        results.put("totalMethods", totals.totalMethods.get());
+        results.put("totalPackages", totals.packages.size());
+        results.put("largeClasses", totals.largeClasses.get());
+        results.put("avgComplexity", totalClasses > 0 ? (double) totals.totalComplexity.get() / totalClasses : 0.0);
+        if (totals.cohesionClasses > 0) {
+            results.put("avgLcom4", (double) totals.totalLcom4 / totals.cohesionClasses);
+            results.put("avgTcc", totals.totalTcc / totals.cohesionClasses);
+            results.put("splittableClasses", totals.splittableClasses);
+        }
+        results.put("summary", generateSummary(severityCounts, processedFiles));
         
-        // Configure Unnecessary Abstraction Detector
-        if (detectors.get("UnnecessaryAbstractionDetector") instanceof UnnecessaryAbstractionDetector) {
-            ((UnnecessaryAbstractionDetector) detectors.get("UnnecessaryAbstractionDetector"))
-                .setMaxUsage(settings.getMaxAbstractionUsage());
+        return results;
+    }
+    
+    private void analyzeAll(List<SourceFile> filesToAnalyze, AnalysisDeadline deadline, FileAnalysisResult[] fileResults,
+                            IssueSpill spill, FileSymbols[] fileSymbols, ProjectTotals totals) {
+        int fileCount = filesToAnalyze.size();
+        if (parallelism > 1 && fileCount > 1) {
+            logger.fine(() -> "⚡ Analyzing files in parallel (parallelism: " + parallelism + ")");
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.submit(() -> IntStream.range(0, fileCount).parallel().forEach(i ->
+                    collect(i, analyzeWithinDeadline(filesToAnalyze.get(i), deadline), fileResults, spill, fileSymbols, totals, fileCount)
+                )).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Parallel analysis interrupted", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Parallel analysis failed: " + e.getCause().getMessage(), e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            for (int i = 0; i < fileCount; i++) {
+                collect(i, analyzeWithinDeadline(filesToAnalyze.get(i), deadline), fileResults, spill, fileSymbols, totals, fileCount);
+            }
         }
     }
     
-    private void initializeDetectors() {
-        detectors.put("MissingDefaultDetector", new MissingDefaultDetector());
-        detectors.put("EmptyCatchDetector", new EmptyCatchDetector());
-        
-        LongMethodDetector longMethodDetector = new LongMethodDetector();
-        longMethodDetector.setMaxLength(AnalysisConfig.DEFAULT_MAX_METHOD_LENGTH);
-        detectors.put("LongMethodDetector", longMethodDetector);
-        
-        LongParameterListDetector paramDetector = new LongParameterListDetector();
-        paramDetector.setMaxParameters(AnalysisConfig.DEFAULT_MAX_PARAMETER_COUNT);
-        detectors.put("LongParameterListDetector", paramDetector);
-        
-        detectors.put("MagicNumberDetector", new MagicNumberDetector());
-        
-        LongIdentifierDetector identifierDetector = new LongIdentifierDetector();
-        identifierDetector.setMaxLength(AnalysisConfig.DEFAULT_MAX_IDENTIFIER_LENGTH);
-        detectors.put("LongIdentifierDetector", identifierDetector);
-        
-        detectors.put("BrokenModularizationDetector", new BrokenModularizationDetector());
-        detectors.put("ComplexConditionalDetector", new ComplexConditionalDetector());
-        detectors.put("DeficientEncapsulationDetector", new DeficientEncapsulationDetector());
-        detectors.put("LongStatementDetector", new LongStatementDetector());
-        detectors.put("UnnecessaryAbstractionDetector", new UnnecessaryAbstractionDetector());
-        detectors.put("MemoryLeakDetector", new MemoryLeakDetector());
-        detectors.put("UnusedVariableDetector", new UnusedVariableDetector());
+    private IssueSpill openSpill(int fileCount) {
+        if (spillDirectory == null || fileCount < streamingMinFiles) {
+            return null;
+        }
+        try {
+            return new IssueSpill(spillDirectory, spillRunSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create issue spill in " + spillDirectory, e);
+        }
     }
     
-    public Map<String, Object> analyzeProject(String projectPath) {
-        System.out.println("\n========================================");
-        System.out.println("🔍 STARTING PROJECT ANALYSIS");
-        System.out.println("Project Path: " + projectPath);
-        System.out.println("========================================\n");
-        
-        Map<String, Object> results = new HashMap<>();
-        List<String> allIssues = new ArrayList<>();
-        Map<String, Integer> severityCounts = new HashMap<>();
-        Map<String, Integer> detectorCounts = new HashMap<>();
-        
-        JavaFileCollector collector = new JavaFileCollector();
-        List<File> javaFiles = collector.collectJavaFiles(projectPath);
-        
-        System.out.println("📁 Found " + javaFiles.size() + " Java files");
-        
-        int processedFiles = 0;
-        int totalLOC = 0;
-        int totalClasses = 0;
-        int totalMethods = 0;
-        int largeClasses = 0;
-        int totalComplexity = 0;
-        Set<String> packages = new HashSet<>();
+    private static void closeQuietly(IssueSpill spill) {
+        if (spill == null) {
+            return;
+        }
+        try {
+            spill.close();
+        } catch (IOException e) {
+            logger.warning("Could not remove issue spill: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Hands a finished file to the project totals and to wherever its issues are
+     * kept. Streamed results are dropped here, along with their issues.
+     */
+    private void collect(int index, FileAnalysisResult result, FileAnalysisResult[] fileResults, IssueSpill spill,
+                         FileSymbols[] fileSymbols, ProjectTotals totals, int fileCount) {
+        fileSymbols[index] = result.getSymbols();
+        if (spill != null) {
+            spill.add(index, result.getIssues());
+        } else {
+            fileResults[index] = result;
+        }
+        reportProgress(totals.add(result), fileCount);
+    }
+    
+    /**
+     * Second phase: builds the symbol index from what the file pass collected,
+     * measures class cohesion on it and runs the project detectors against it. Files that were not parsed have no
+     * symbols and are left out of the index. The phase is timed as one stage, so
+     * the detector timers keep measuring per-file work only.
+     */
+    private List<CodeIssue> analyzeAcrossFiles(String projectName, FileSymbols[] fileSymbols, ProjectTotals totals) {
+        List<FileSymbols> indexed = new ArrayList<>();
+        for (FileSymbols symbols : fileSymbols) {
+            if (symbols != null) {
+                indexed.add(symbols);
+            }
+        }
+        long phaseStart = analysisMetrics.start();
+        ProjectSymbolIndex index = ProjectSymbolIndex.build(indexed);
+        logger.fine(() -> "📇 Indexed " + index.getTypeCount() + " types in " + index.getFileCount() + " files");
+        measureCohesion(index, totals);
         
-        for (File file : javaFiles) {
-            if (AnalysisConfig.shouldExclude(file.getPath())) {
+        List<CodeIssue> issues = new ArrayList<>();
+        for (Detector detector : activeDetectors) {
+            if (!(detector instanceof ProjectDetector projectDetector)) {
                 continue;
             }
-            
+            String detectorName = detector.getName();
             try {
-                JavaParser parser = new JavaParser();
-                ParseResult<CompilationUnit> parseResult = parser.parse(file);
-                
-                if (parseResult.isSuccessful() && parseResult.getResult().isPresent()) {
-                    CompilationUnit cu = parseResult.getResult().get();
-                    cu.setStorage(file.toPath());
-                    
-                    List<String> fileIssues = analyzeFile(cu, file.getName(), detectorCounts);
-                    allIssues.addAll(fileIssues);
-                    updateSeverityCounts(fileIssues, severityCounts);
-                    
-                    // Count lines of code
-                    int fileLOC = LOCCounter.countLinesOfCode(cu);
-                    totalLOC += fileLOC;
-                    
-                    // Count classes and methods
-                    int fileClasses = cu.findAll(com.github.javaparser.ast.body.ClassOrInterfaceDeclaration.class).size();
-                    totalClasses += fileClasses;
-                    
-                    int fileMethods = cu.findAll(com.github.javaparser.ast.body.MethodDeclaration.class).size();
-                    totalMethods += fileMethods;
-                    
-                    // Count large classes (>500 LOC)
-                    if (fileLOC > 500 && fileClasses > 0) {
-                        largeClasses++;
-                    }
-                    
-                    // Calculate complexity
-                    totalComplexity += cu.findAll(com.github.javaparser.ast.stmt.IfStmt.class).size() +
-                                      cu.findAll(com.github.javaparser.ast.stmt.ForStmt.class).size() +
-                                      cu.findAll(com.github.javaparser.ast.stmt.WhileStmt.class).size();
-                    
-                    // Extract package
-                    cu.getPackageDeclaration().ifPresent(pkg -> packages.add(pkg.getNameAsString()));
-                    
-                    processedFiles++;
-                } else {
-                    String errors = parseResult.getProblems().toString();
-                    allIssues.add("❌ [ParseError] " + file.getName() + " - Parse errors: " + errors);
+                List<CodeIssue> detectorIssues = projectDetector.analyzeProject(index);
+                if (detectorIssues != null && !detectorIssues.isEmpty()) {
+                    issues.addAll(detectorIssues);
+                    totals.countDetector(detectorName, detectorIssues.size());
                 }
             } catch (Exception e) {
-                allIssues.add("❌ [ParseError] " + file.getName() + " - Exception: " + e.getMessage());
+                logger.log(Level.WARNING, "❌ " + detectorName + " FAILED across " + projectName + ": " + e.getMessage(), e);
+                issues.add(analysisError("DetectorError", projectName, detectorName + " failed: " + e.getMessage()));
             }
         }
-        
-        System.out.println("\n========================================");
-        System.out.println("✅ ANALYSIS COMPLETE");
-        System.out.println("Total Files: " + javaFiles.size());
-        System.out.println("Processed Files: " + processedFiles);
-        System.out.println("Total Issues Found: " + allIssues.size());
-        System.out.println("Severity Breakdown: " + severityCounts);
-        System.out.println("Detector Breakdown: " + detectorCounts);
-        System.out.println("========================================\n");
-        
-        results.put("issues", allIssues);
-        results.put("totalFiles", javaFiles.size());
-        results.put("processedFiles", processedFiles);
-        results.put("totalIssues", allIssues.size());
-        results.put("severityCounts", severityCounts);
-        results.put("detectorCounts", detectorCounts);
-        results.put("totalLOC", totalLOC);
-        results.put("totalClasses", totalClasses);
-        results.put("totalMethods", totalMethods);
-        results.put("totalPackages", packages.size());
-        results.put("largeClasses", largeClasses);
-        results.put("avgComplexity", totalClasses > 0 ? (double) totalComplexity / totalClasses : 0.0);
-        results.put("summary", generateSummary(severityCounts, processedFiles));
-        
-        return results;
+        analysisMetrics.recordStage(AnalysisMetrics.CROSS_FILE, phaseStart, AnalysisMetrics.SUCCESS);
+        issues.forEach(totals::countIssue);
+        return issues;
+    }
+    
+    /**
+     * Adds the LCOM4 and TCC of every project class with methods to the totals.
+     */
+    private void measureCohesion(ProjectSymbolIndex index, ProjectTotals totals) {
+        for (int id = 0; id < index.getTypeCount(); id++) {
+            TypeSymbol type = index.getType(id);
+            if (!TypeSymbol.CLASS.equals(type.getKind()) || type.getMethods().isEmpty()) {
+                continue;
+            }
+            ClassMetrics metrics = ClassMetrics.of(index, id);
+            totals.cohesionClasses++;
+            totals.totalLcom4 += metrics.getLcom4();
+            totals.totalTcc += metrics.getTcc();
+            if (metrics.getLcom4() > 1) {
+                totals.splittableClasses++;
+            }
+        }
+    }
+    
+    private void reportProgress(int completed, int total) {
+        if (progressListener == null) {
+            return;
+        }
+        try {
+            progressListener.onProgress(completed, total);
+        } catch (Exception e) {
+            // A broken progress listener must never fail the analysis itself
+            logger.warning("Progress listener failed: " + e.getMessage());
+        }
+    }
+    
+    private FileAnalysisResult analyzeWithinDeadline(SourceFile file, AnalysisDeadline deadline) {
+        if (deadline.isProjectExpired()) {
+            FileAnalysisResult skipped = new FileAnalysisResult(file.getName());
+            skipped.setSkipped(true);
+            return skipped;
+        }
+        AnalysisDeadline.FileBudget budget = deadline.startFile();
+        try {
+            return analyzeSourceFile(file, budget);
+        } catch (FileTimeoutException e) {
+            // Partial findings are dropped so a timed-out file is never half-reported
+            FileAnalysisResult abandoned = new FileAnalysisResult(file.getName());
+            String limit = budget.isFileExpired()
+                ? "the per-file budget of " + describe(deadline.getFileLimit())
+                : "the project deadline of " + describe(deadline.getProjectLimit());
+            abandoned.getIssues().add(analysisError("Timeout", file.getName(), "Analysis exceeded " + limit +
+                " (stopped " + e.getMessage() + "); file skipped"));
+            abandoned.setTimedOut(true);
+            logger.warning("⏱️ " + file.getName() + " abandoned after exceeding " + limit);
+            return abandoned;
+        }
     }
     
-    private List<String> analyzeFile(CompilationUnit cu, String fileName, Map<String, Integer> detectorCounts) {
-        List<String> issues = new ArrayList<>();
+    private static String describe(Duration limit) {
+        if (limit == null) {
+            return "unlimited";
+        }
+        long seconds = limit.getSeconds();
+        return seconds % 60 == 0 ? (seconds / 60) + " min" : seconds + "s";
+    }
+    
+    private FileAnalysisResult analyzeSourceFile(SourceFile file, AnalysisDeadline.FileBudget budget) {
+        FileAnalysisResult result = new FileAnalysisResult(file.getName());
         
-        for (Map.Entry<String, Object> entry : detectors.entrySet()) {
-            String detectorName = entry.getKey();
-            Object detector = entry.getValue();
+        try {
+            byte[] content = file.readContent();
+            String cacheKey = null;
+            if (resultCache != null) {
+                cacheKey = FileResultCache.keyFor(file.getName(), content, configFingerprint);
+                Optional<FileAnalysisResult> cached = resultCache.get(cacheKey);
+                if (cached.isPresent()) {
+                    cached.get().setFromCache(true);
+                    return cached.get();
+                }
+            }
             
-            // Check if detector is enabled
-            if (enabledDetectors != null && enabledDetectors.containsKey(detectorName)) {
-                Boolean isEnabled = enabledDetectors.get(detectorName);
-                if (isEnabled == null || !isEnabled) {
-                    System.out.println("⏭️ Skipping " + detectorName + " (disabled by user)");
-                    continue;
+            long parseStart = analysisMetrics.start();
+            SourceBuffer source = SourceBuffer.of(content);
+            ParseResult<CompilationUnit> parseResult = parseProfile.parse(source.getText());
+            boolean parsed = parseResult.isSuccessful() && parseResult.getResult().isPresent();
+            analysisMetrics.recordStage(AnalysisMetrics.PARSE, parseStart, parsed ? AnalysisMetrics.SUCCESS : AnalysisMetrics.ERROR);
+            
+            if (parsed) {
+                CompilationUnit cu = parseResult.getResult().get();
+                cu.setStorage(file.getStoragePath());
+                
+                FileMetricsCollector metrics = new FileMetricsCollector();
+                SymbolCollector symbols = new SymbolCollector(indexLiterals);
+                checkBudget(budget, "after parsing");
+                result.setIssues(analyzeFile(cu, file.getName(), result.getDetectorCounts(), metrics, symbols, budget));
+                result.setSymbols(symbols.getSymbols());
+                if (minCloneTokens > 0) {
+                    symbols.getSymbols().setFingerprints(analysisMetrics.timeStage(AnalysisMetrics.FINGERPRINT,
+                        () -> TokenFingerprints.of(cu, minCloneTokens)));
                 }
+                
+                // Count lines of code from the buffer already in hand rather than re-reading the file
+                long locStart = analysisMetrics.start();
+                result.setLinesOfCode(source.countLinesOfCode());
+                analysisMetrics.recordStage(AnalysisMetrics.LOC, locStart, AnalysisMetrics.SUCCESS);
+                
+                // Classes, methods and decision points were counted during the detector walk
+                result.setClassCount(metrics.getClassCount());
+                result.setMethodCount(metrics.getMethodCount());
+                result.setComplexity(metrics.getComplexity());
+                
+                // Extract package
+                cu.getPackageDeclaration().ifPresent(pkg -> result.setPackageName(pkg.getNameAsString()));
+                
+                result.setProcessed(true);
+                analysisMetrics.recordFileIssues(result.getIssues().size());
             } else {
-                // Detector not in settings - enable by default
-                System.out.println("✅ Running " + detectorName + " (enabled by default)");
+                String errors = parseResult.getProblems().toString();
+                result.getIssues().add(analysisError("ParseError", file.getName(), "Parse errors: " + errors));
+            }
+            
+            // Detector crashes may be environmental (stack depth, memory), so only clean runs are cached
+            if (cacheKey != null && result.getIssues().stream().noneMatch(issue -> "DetectorError".equals(issue.getType()))) {
+                resultCache.put(cacheKey, result);
+            }
+        } catch (FileTimeoutException e) {
+            throw e;
+        } catch (Exception e) {
+            result.getIssues().add(analysisError("ParseError", file.getName(), "Exception: " + e.getMessage()));
+        }
+        
+        return result;
+    }
+    
+    private static void checkBudget(AnalysisDeadline.FileBudget budget, String where) {
+        if (budget.isExpired()) {
+            throw new FileTimeoutException(where);
+        }
+    }
+    
+    private List<CodeIssue> analyzeFile(CompilationUnit cu, String fileName, Map<String, Integer> detectorCounts,
+                                        FileMetricsCollector metrics, SymbolCollector symbols,
+                                        AnalysisDeadline.FileBudget budget) {
+        List<CodeIssue> issues = new ArrayList<>();
+        Detector[] detectorsToRun = activeDetectors;
+        
+        // Detectors that support it share a single walk of the tree with the metrics counters
+        FusedDetector.FileScan[] scans = new FusedDetector.FileScan[detectorsToRun.length];
+        List<AstNodeListener> listeners = new ArrayList<>();
+        List<Integer> listenerOwners = new ArrayList<>();
+        for (int i = 0; i < detectorsToRun.length; i++) {
+            if (detectorsToRun[i] instanceof FusedDetector fused) {
+                scans[i] = fused.startScan(cu);
+                listeners.add(scans[i].getListener());
+                listenerOwners.add(i);
             }
+        }
+        listeners.add(metrics);
+        listeners.add(symbols);
+        // The shared walk is timed as one stage; per-listener timing would cost a clock read per node
+        long walkStart = analysisMetrics.start();
+        RuntimeException[] walkFailures = FusedAstWalker.walk(cu, listeners, budget);
+        analysisMetrics.recordStage(AnalysisMetrics.AST_WALK, walkStart, AnalysisMetrics.SUCCESS);
+        RuntimeException[] failures = new RuntimeException[scans.length];
+        for (int i = 0; i < listenerOwners.size(); i++) {
+            failures[listenerOwners.get(i)] = walkFailures[i];
+        }
+        
+        for (int i = 0; i < detectorsToRun.length; i++) {
+            Detector detector = detectorsToRun[i];
+            String detectorName = detector.getName();
+            checkBudget(budget, "before " + detectorName);
             
-            System.out.println("🔍 Running detector: " + detectorName + " on file: " + fileName);
+            logger.fine(() -> "🔍 Running detector: " + detectorName + " on file: " + fileName);
             
+            long detectorStart = analysisMetrics.start();
             try {
-                List<String> detectorIssues = (List<String>) detector.getClass()
-                    .getMethod("detect", CompilationUnit.class)
-                    .invoke(detector, cu);
+                List<CodeIssue> detectorIssues;
+                if (failures[i] != null) {
+                    throw failures[i];
+                } else if (scans[i] != null) {
+                    detectorIssues = scans[i].finish();
+                } else if (detector instanceof ProjectDetector projectDetector) {
+                    detectorIssues = projectDetector.analyzeFile(cu);
+                } else {
+                    detectorIssues = detector.analyze(cu);
+                }
                 
-                if (detectorIssues != null && !detectorIssues.isEmpty()) {
-                    System.out.println("✅ " + detectorName + " found " + detectorIssues.size() + " issues in " + fileName);
+                analysisMetrics.recordDetector(detectorName, detectorStart, AnalysisMetrics.SUCCESS);
+                
+                int found = detectorIssues == null ? 0 : detectorIssues.size();
+                logger.fine(() -> "✅ " + detectorName + " found " + found + " issues in " + fileName);
+                if (found > 0) {
                     issues.addAll(detectorIssues);
-                    detectorCounts.merge(detectorName, detectorIssues.size(), Integer::sum);
-                } else {
-                    System.out.println("✅ " + detectorName + " found 0 issues in " + fileName);
+                    detectorCounts.merge(detectorName, found, Integer::sum);
                 }
             } catch (Exception e) {
-                System.err.println("❌ " + detectorName + " FAILED on " + fileName + ": " + e.getMessage());
-                e.printStackTrace();
-                issues.add("⚠️ [DetectorError] " + fileName + " - " + detectorName + " failed: " + e.getMessage());
+                analysisMetrics.recordDetector(detectorName, detectorStart, AnalysisMetrics.ERROR);
+                logger.log(Level.WARNING, "❌ " + detectorName + " FAILED on " + fileName + ": " + e.getMessage(), e);
+                issues.add(analysisError("DetectorError", fileName, detectorName + " failed: " + e.getMessage()));
             }
         }
         
         return issues;
     }
     
-    private void updateSeverityCounts(List<String> issues, Map<String, Integer> counts) {
-        for (String issue : issues) {
-            String severity;
-            if (issue.startsWith("🔴")) {
-                severity = "Critical";
-            } else if (issue.startsWith("🟡")) {
-                severity = "High";
-            } else if (issue.startsWith("🟠")) {
-                severity = "Medium";
-            } else if (issue.startsWith("⚪")) {
-                severity = "Low";
-            } else {
-                severity = "Error";
-            }
-            counts.merge(severity, 1, Integer::sum);
-        }
+    private static CodeIssue analysisError(String type, String fileName, String message) {
+        return new CodeIssue(type, fileName, CodeIssue.NO_LINE, Severity.ERROR, message, null);
     }
     
     private String generateSummary(Map<String, Integer> counts, int fileCount) {
@@ -305,4 +606,89 @@ public class CodeAnalysisEngine {
             counts.getOrDefault("Medium", 0),
             counts.getOrDefault("Low", 0));
     }
-}
\ No newline at end of file
+    
+    /**
+     * Project-wide accumulators. Workers add their file results as they finish,
+     * so every counter here has to tolerate concurrent updates.
+     */
+    private static class ProjectTotals {
+        private final Map<String, AtomicInteger> severityCounts = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> detectorCounts = new ConcurrentHashMap<>();
+        private final Set<String> packages = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger completedFiles = new AtomicInteger();
+        private final AtomicInteger processedFiles = new AtomicInteger();
+        private final AtomicInteger cachedFiles = new AtomicInteger();
+        private final AtomicInteger timedOutFiles = new AtomicInteger();
+        private final AtomicInteger skippedFiles = new AtomicInteger();
+        private final AtomicInteger totalLOC = new AtomicInteger();
+        private final AtomicInteger totalClasses = new AtomicInteger();
+        private final AtomicInteger totalMethods = new AtomicInteger();
+        private final AtomicInteger largeClasses = new AtomicInteger();
+        private final AtomicInteger totalComplexity = new AtomicInteger();
+        // Filled by the cross-file phase alone, after the workers are done
+        private int cohesionClasses;
+        private long totalLcom4;
+        private double totalTcc;
+        private int splittableClasses;
+        
+        /**
+         * @return how many files have been added so far, including this one
+         */
+        int add(FileAnalysisResult result) {
+            for (CodeIssue issue : result.getIssues()) {
+                countIssue(issue);
+            }
+            result.getDetectorCounts().forEach(this::countDetector);
+            
+            if (result.isFromCache()) {
+                cachedFiles.incrementAndGet();
+            }
+            if (result.isTimedOut()) {
+                timedOutFiles.incrementAndGet();
+            }
+            if (result.isSkipped()) {
+                skippedFiles.incrementAndGet();
+            }
+            if (result.isProcessed()) {
+                addProcessed(result);
+            }
+            return completedFiles.incrementAndGet();
+        }
+        
+        void countDetector(String detectorName, int found) {
+            detectorCounts.computeIfAbsent(detectorName, k -> new AtomicInteger()).addAndGet(found);
+        }
+        
+        void countIssue(CodeIssue issue) {
+            severityCounts.computeIfAbsent(issue.getSeverity().getLabel(), k -> new AtomicInteger()).incrementAndGet();
+        }
+        
+        private void addProcessed(FileAnalysisResult result) {
+            processedFiles.incrementAndGet();
+            totalLOC.addAndGet(result.getLinesOfCode());
+            totalClasses.addAndGet(result.getClassCount());
+            totalMethods.addAndGet(result.getMethodCount());
+            totalComplexity.addAndGet(result.getComplexity());
+            if (result.isLargeClass()) {
+                largeClasses.incrementAndGet();
+            }
+            if (result.getPackageName() != null) {
+                packages.add(result.getPackageName());
+            }
+        }
+        
+        Map<String, Integer> severityCounts() {
+            return snapshot(severityCounts);
+        }
+        
+        Map<String, Integer> detectorCounts() {
+            return snapshot(detectorCounts);
+        }
+        
+        private static Map<String, Integer> snapshot(Map<String, AtomicInteger> counters) {
+            Map<String, Integer> copy = new HashMap<>();
+            counters.forEach((key, value) -> copy.put(key, value.get()));
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.devsync.analyzer;
+
+import com.devsync.model.CodeIssue;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the engine learns from a single source file. Results are produced
+ * independently per file (possibly on different worker threads) and merged into
+ * the project totals afterwards, in file order.
+ */
+public class FileAnalysisResult {
+
+    private String fileName;
+    private boolean processed;
+    private List<CodeIssue> issues = new ArrayList<>();
+    private Map<String, Integer> detectorCounts = new LinkedHashMap<>();
+    private int linesOfCode;
+    private int classCount;
+    private int methodCount;
+    private int complexity;
+    private String packageName;
+    // Always collected for parsed files: the cohesion section of the report needs them
+    private FileSymbols symbols;
+    @JsonIgnore
+    private boolean fromCache;
+    @JsonIgnore
+    private boolean timedOut;
+    @JsonIgnore
+    private boolean skipped;
+
+    public FileAnalysisResult() {}
+
+    public FileAnalysisResult(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public boolean isProcessed() { return processed; }
+    public void setProcessed(boolean processed) { this.processed = processed; }
+
+    public List<CodeIssue> getIssues() { return issues; }
+    public void setIssues(List<CodeIssue> issues) { this.issues = issues; }
+
+    public Map<String, Integer> getDetectorCounts() { return detectorCounts; }
+    public void setDetectorCounts(Map<String, Integer> detectorCounts) { this.detectorCounts = detectorCounts; }
+
+    public int getLinesOfCode() { return linesOfCode; }
+    public void setLinesOfCode(int linesOfCode) { this.linesOfCode = linesOfCode; }
+
+    public int getClassCount() { return classCount; }
+    public void setClassCount(int classCount) { this.classCount = classCount; }
+
+    public int getMethodCount() { return methodCount; }
+    public void setMethodCount(int methodCount) { this.methodCount = methodCount; }
+
+    public int getComplexity() { return complexity; }
+    public void setComplexity(int complexity) { this.complexity = complexity; }
+
+    public String getPackageName() { return packageName; }
+    public void setPackageName(String packageName) { this.packageName = packageName; }
+
+    @JsonIgnore
+    public boolean isFromCache() { return fromCache; }
+    public void setFromCache(boolean fromCache) { this.fromCache = fromCache; }
+
+    @JsonIgnore
+    public boolean isTimedOut() { return timedOut; }
+    public void setTimedOut(boolean timedOut) { this.timedOut = timedOut; }
+
+    /**
+     * Not analyzed at all because the project deadline had already passed.
+     */
+    @JsonIgnore
+    public boolean isSkipped() { return skipped; }
+    public void setSkipped(boolean skipped) { this.skipped = skipped; }
+
+    public FileSymbols getSymbols() { return symbols; }
+    public void setSymbols(FileSymbols symbols) { this.symbols = symbols; }
+
+    @JsonIgnore
+    public boolean isLargeClass() {
+        return linesOfCode > 500 && classCount > 0;
+    }
+}
@@ -0,0 +1,48 @@
+package com.devsync.analyzer;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+
+/**
+ * Counts the structural metrics the project summary needs (classes, methods and
+ * decision points) while riding along on the shared detector walk. It also
+ * records every method's {@link MethodMetrics}, so detectors reporting after the
+ * walk read them instead of measuring each method again.
+ */
+public class FileMetricsCollector implements AstNodeListener {
+
+    private final MethodMetricsCollector methodMetrics = new MethodMetricsCollector();
+    private int classCount;
+    private int methodCount;
+
+    @Override
+    public boolean enter(Node node) {
+        if (node instanceof ClassOrInterfaceDeclaration) {
+            classCount++;
+        } else if (node instanceof MethodDeclaration) {
+            methodCount++;
+        }
+        return methodMetrics.enter(node);
+    }
+
+    @Override
+    public void exit(Node node) {
+        methodMetrics.exit(node);
+    }
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    public int getMethodCount() {
+        return methodCount;
+    }
+
+    /**
+     * Decision points counted the same way as a method's cyclomatic complexity.
+     */
+    public int getComplexity() {
+        return methodMetrics.getDecisionPoints();
+    }
+}
@@ -0,0 +1,111 @@
+package com.devsync.analyzer;
+
+import com.devsync.utils.HashUtil;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Disk-backed cache of per-file analysis results. An entry is addressed by the
+ * SHA-256 of the file name and bytes plus the engine's configuration fingerprint,
+ * so a file is only re-analyzed when its content or the effective detector
+ * configuration changes. Entries are plain JSON files sharded by hash prefix.
+ */
+public class FileResultCache {
+    
+    private static final Logger logger = Logger.getLogger(FileResultCache.class.getName());
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    
+    private final Path directory;
+    
+    public FileResultCache(Path directory) {
+        this.directory = directory;
+    }
+    
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * Builds the cache key for a file. The name is part of the key because issue
+     * lines embed it.
+     */
+    public static String keyFor(String fileName, byte[] content, String configFingerprint) {
+        MessageDigest digest = HashUtil.newSha256();
+        digest.update(fileName.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(content);
+        return HashUtil.toHex(digest.digest()) + "-" + configFingerprint;
+    }
+    
+    public Optional<FileAnalysisResult> get(String key) {
+        Path entry = entryPath(key);
+        if (!Files.isRegularFile(entry)) {
+            return Optional.empty();
+        }
+        try {
+            FileAnalysisResult result = MAPPER.readValue(entry.toFile(), FileAnalysisResult.class);
+            // Refresh the timestamp so eviction keeps entries that are still in use
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+            return Optional.of(result);
+        } catch (IOException e) {
+            logger.warning("⚠️ Ignoring unreadable cache entry " + entry + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    public void put(String key, FileAnalysisResult result) {
+        Path entry = entryPath(key);
+        try {
+            Files.createDirectories(entry.getParent());
+            Path temp = Files.createTempFile(entry.getParent(), key.substring(0, 8), ".tmp");
+            MAPPER.writeValue(temp.toFile(), result);
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("⚠️ Failed to write cache entry " + entry + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Deletes entries that have not been read or written for {@code maxAge}.
+     *
+     * @return the number of entries removed
+     */
+    public int evictOlderThan(Duration maxAge) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(maxAge);
+        int removed = 0;
+        try (Stream<Path> entries = Files.walk(directory)) {
+            for (Path entry : (Iterable<Path>) entries.filter(Files::isRegularFile)::iterator) {
+                try {
+                    if (Files.getLastModifiedTime(entry).toInstant().isBefore(cutoff)) {
+                        Files.delete(entry);
+                        removed++;
+                    }
+                } catch (IOException e) {
+                    logger.warning("⚠️ Failed to evict cache entry " + entry + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("⚠️ Failed to scan analysis cache: " + e.getMessage());
+        }
+        return removed;
+    }
+    
+    private Path entryPath(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".json");
+    }
+}
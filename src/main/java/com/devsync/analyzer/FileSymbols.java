@@ -0,0 +1,134 @@
+package com.devsync.analyzer;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The declarations and references of one source file, as names straight from the
+ * source. Collected during the file's detector walk and cached with its result;
+ * {@link ProjectSymbolIndex} resolves the names across files once every file of
+ * the project has been through the first pass.
+ */
+public class FileSymbols {
+
+    private String fileName;
+    private String packageName = "";
+    // Single-type imports by qualified name; on-demand imports end in ".*"
+    private List<String> imports = new ArrayList<>();
+    private List<TypeSymbol> types = new ArrayList<>();
+    // Only when a clone detector is enabled
+    private TokenFingerprints fingerprints;
+    // Only when a detector compares literals across files
+    private NumericLiterals numericLiterals;
+
+    public FileSymbols() {}
+
+    public FileSymbols(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getPackageName() { return packageName; }
+    public void setPackageName(String packageName) { this.packageName = packageName; }
+
+    public List<String> getImports() { return imports; }
+    public void setImports(List<String> imports) { this.imports = imports; }
+
+    public List<TypeSymbol> getTypes() { return types; }
+    public void setTypes(List<TypeSymbol> types) { this.types = types; }
+
+    public TokenFingerprints getFingerprints() { return fingerprints; }
+    public void setFingerprints(TokenFingerprints fingerprints) { this.fingerprints = fingerprints; }
+
+    public NumericLiterals getNumericLiterals() { return numericLiterals; }
+    public void setNumericLiterals(NumericLiterals numericLiterals) { this.numericLiterals = numericLiterals; }
+
+    /**
+     * One type declared in the file, nested and local types included.
+     */
+    public static class TypeSymbol {
+
+        public static final String CLASS = "class";
+        public static final String INTERFACE = "interface";
+        public static final String ENUM = "enum";
+        public static final String RECORD = "record";
+        public static final String ANNOTATION = "annotation";
+
+        private String name;
+        private String qualifiedName;
+        private String kind;
+        private int line;
+        // Names as written in the extends and implements clauses
+        private List<String> supertypes = new ArrayList<>();
+        // Other types named anywhere in the body: fields, signatures, casts, creations...
+        private List<String> referencedTypes = new ArrayList<>();
+        private List<String> fields = new ArrayList<>();
+        private List<String> methods = new ArrayList<>();
+        // Own fields read or written by name inside the type's methods
+        private List<String> usedFields = new ArrayList<>();
+        // Per method (in the order of methods): bits of the own fields it accesses
+        private long[][] fieldAccesses = new long[0][];
+        // Per method: bits of the own methods it calls without a scope or through this
+        private long[][] methodCalls = new long[0][];
+        // Call scopes other than this/super, plus non-primitive field types
+        private List<String> dependencies = new ArrayList<>();
+        // Names of methods called and fields accessed through a scope
+        private List<String> memberReferences = new ArrayList<>();
+
+        public TypeSymbol() {}
+
+        public TypeSymbol(String name, String qualifiedName, String kind, int line) {
+            this.name = name;
+            this.qualifiedName = qualifiedName;
+            this.kind = kind;
+            this.line = line;
+        }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getQualifiedName() { return qualifiedName; }
+        public void setQualifiedName(String qualifiedName) { this.qualifiedName = qualifiedName; }
+
+        public String getKind() { return kind; }
+        public void setKind(String kind) { this.kind = kind; }
+
+        public int getLine() { return line; }
+        public void setLine(int line) { this.line = line; }
+
+        public List<String> getSupertypes() { return supertypes; }
+        public void setSupertypes(List<String> supertypes) { this.supertypes = supertypes; }
+
+        public List<String> getReferencedTypes() { return referencedTypes; }
+        public void setReferencedTypes(List<String> referencedTypes) { this.referencedTypes = referencedTypes; }
+
+        public List<String> getFields() { return fields; }
+        public void setFields(List<String> fields) { this.fields = fields; }
+
+        public List<String> getMethods() { return methods; }
+        public void setMethods(List<String> methods) { this.methods = methods; }
+
+        public List<String> getUsedFields() { return usedFields; }
+        public void setUsedFields(List<String> usedFields) { this.usedFields = usedFields; }
+
+        public long[][] getFieldAccesses() { return fieldAccesses; }
+        public void setFieldAccesses(long[][] fieldAccesses) { this.fieldAccesses = fieldAccesses; }
+
+        public long[][] getMethodCalls() { return methodCalls; }
+        public void setMethodCalls(long[][] methodCalls) { this.methodCalls = methodCalls; }
+
+        public List<String> getDependencies() { return dependencies; }
+        public void setDependencies(List<String> dependencies) { this.dependencies = dependencies; }
+
+        public List<String> getMemberReferences() { return memberReferences; }
+        public void setMemberReferences(List<String> memberReferences) { this.memberReferences = memberReferences; }
+
+        @JsonIgnore
+        public boolean isInterface() {
+            return INTERFACE.equals(kind);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.devsync.analyzer;
+
+/**
+ * Unwinds a file's analysis once its time budget is spent. The message says
+ * where the analysis stopped.
+ */
+class FileTimeoutException extends RuntimeException {
+    FileTimeoutException(String where) {
+        super(where, null, false, false);
+    }
+}
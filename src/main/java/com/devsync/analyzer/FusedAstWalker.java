@@ -0,0 +1,117 @@
+package com.devsync.analyzer;
+
+import com.github.javaparser.ast.Node;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Walks an AST exactly once and fans every node out to a set of listeners, so the
+ * detectors and the metrics counters of a file no longer each pay for their own
+ * traversal. The walk uses an explicit stack, which keeps very deep expression
+ * trees (long generated string concatenations, for example) off the call stack.
+ */
+public final class FusedAstWalker {
+
+    private static final int FAILED = -1;
+    // Nodes entered between two reads of the clock
+    static final int BUDGET_CHECK_INTERVAL = 4096;
+
+    private FusedAstWalker() {
+    }
+
+    /**
+     * Walks {@code root} and delivers enter/exit events to every listener.
+     * A listener that throws is dropped for the rest of the walk; the others keep
+     * receiving events.
+     *
+     * @return the failure of each listener, by index, or null where it completed
+     */
+    public static RuntimeException[] walk(Node root, List<? extends AstNodeListener> listeners) {
+        return walk(root, listeners, null);
+    }
+    
+    /**
+     * Walks like {@link #walk(Node, List)}, checking {@code budget} every
+     * {@value #BUDGET_CHECK_INTERVAL} nodes so a huge file cannot hold the worker
+     * past its time limit. A null budget is never checked.
+     *
+     * @throws FileTimeoutException once the budget is spent; the walk is abandoned
+     */
+    static RuntimeException[] walk(Node root, List<? extends AstNodeListener> listeners,
+                                   AnalysisDeadline.FileBudget budget) {
+        AstNodeListener[] targets = listeners.toArray(new AstNodeListener[0]);
+        RuntimeException[] failures = new RuntimeException[targets.length];
+        // 0 = active, > 0 = level of the subtree the listener skipped, FAILED = dropped
+        int[] mutedAt = new int[targets.length];
+        
+        Node[] path = new Node[32];
+        int[] nextChild = new int[32];
+        int depth = 0;
+        int untilCheck = BUDGET_CHECK_INTERVAL;
+        path[0] = root;
+        enter(root, 1, targets, mutedAt, failures);
+        
+        while (depth >= 0) {
+            List<Node> children = path[depth].getChildNodes();
+            int index = nextChild[depth];
+            
+            if (index < children.size()) {
+                nextChild[depth] = index + 1;
+                depth++;
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                    nextChild = Arrays.copyOf(nextChild, depth * 2);
+                }
+                path[depth] = children.get(index);
+                nextChild[depth] = 0;
+                if (budget != null && --untilCheck == 0) {
+                    untilCheck = BUDGET_CHECK_INTERVAL;
+                    if (budget.isExpired()) {
+                        throw new FileTimeoutException("during the AST walk");
+                    }
+                }
+                enter(path[depth], depth + 1, targets, mutedAt, failures);
+            } else {
+                exit(path[depth], depth + 1, targets, mutedAt, failures);
+                path[depth] = null;
+                depth--;
+            }
+        }
+        
+        return failures;
+    }
+    
+    private static void enter(Node node, int level, AstNodeListener[] targets, int[] mutedAt, RuntimeException[] failures) {
+        for (int i = 0; i < targets.length; i++) {
+            if (mutedAt[i] != 0) {
+                continue;
+            }
+            try {
+                if (!targets[i].enter(node)) {
+                    mutedAt[i] = level;
+                }
+            } catch (RuntimeException e) {
+                failures[i] = e;
+                mutedAt[i] = FAILED;
+            }
+        }
+    }
+    
+    private static void exit(Node node, int level, AstNodeListener[] targets, int[] mutedAt, RuntimeException[] failures) {
+        for (int i = 0; i < targets.length; i++) {
+            if (mutedAt[i] == level) {
+                mutedAt[i] = 0;
+                continue;
+            }
+            if (mutedAt[i] != 0) {
+                continue;
+            }
+            try {
+                targets[i].exit(node);
+            } catch (RuntimeException e) {
+                failures[i] = e;
+                mutedAt[i] = FAILED;
+            }
+        }
+    }
+}
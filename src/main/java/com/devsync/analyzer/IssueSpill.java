@@ -0,0 +1,285 @@
+package com.devsync.analyzer;
+
+import com.devsync.model.CodeIssue;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Issues of a streaming analysis, kept on disk instead of the heap. Findings are
+ * buffered up to a fixed number and then written out as a sorted run; reading
+ * them back is an external merge sort, so memory stays bounded by the run size
+ * whatever the size of the project.
+ *
+ * Reading happens in two passes that give the same result as the in-memory
+ * report: {@link #deduplicate} merges the runs by finding (file, line, type) and
+ * keeps the first occurrence of each, then {@link #forEachBySeverity} merges the
+ * survivors by severity. Ties keep analysis order, which is file order.
+ */
+public class IssueSpill implements Closeable {
+
+    public static final int DEFAULT_RUN_SIZE = 20_000;
+
+    // Runs merged at once; more are merged in rounds so open files stay bounded
+    private static final int MAX_FAN_IN = 64;
+    // Sequence numbers are the file index followed by the issue's index within its file
+    private static final int ISSUE_INDEX_BITS = 24;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final Comparator<Entry> BY_FINDING = Comparator
+        .comparing((Entry entry) -> entry.issue.getFile(), Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparingInt(entry -> entry.issue.getLine())
+        .thenComparing(entry -> entry.issue.getType(), Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparingLong(entry -> entry.sequence);
+
+    private static final Comparator<Entry> BY_SEVERITY = Comparator
+        .comparing((Entry entry) -> entry.issue.getSeverity(), Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparingLong(entry -> entry.sequence);
+
+    /**
+     * Receives issues in order; may write them out as it goes.
+     */
+    public interface IssueConsumer {
+        void accept(CodeIssue issue) throws IOException;
+    }
+
+    private final Path directory;
+    private final int runSize;
+    private final Runs findings;
+    private Runs bySeverity;
+    private long size;
+    private long uniqueSize;
+
+    public IssueSpill(Path parentDirectory, int runSize) throws IOException {
+        Files.createDirectories(parentDirectory);
+        this.directory = Files.createTempDirectory(parentDirectory, "issues-");
+        this.runSize = Math.max(1, runSize);
+        this.findings = new Runs("finding", BY_FINDING);
+    }
+
+    /**
+     * Adds the issues of one file. Files may arrive in any order; {@code fileIndex}
+     * decides where their issues rank among equals.
+     */
+    public synchronized void add(int fileIndex, List<CodeIssue> issues) {
+        if (bySeverity != null) {
+            throw new IllegalStateException("Issues can no longer be added once they are being read");
+        }
+        try {
+            for (int i = 0; i < issues.size(); i++) {
+                findings.add(new Entry(((long) fileIndex << ISSUE_INDEX_BITS) | i, issues.get(i)));
+                size++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill issues to " + directory, e);
+        }
+    }
+
+    /**
+     * Every issue added, duplicates included.
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * First pass: drops repeated findings, handing each remaining issue to
+     * {@code onUnique} (in no particular order) so totals can be gathered before
+     * the report body is written.
+     */
+    public synchronized void deduplicate(IssueConsumer onUnique) throws IOException {
+        if (bySeverity != null) {
+            throw new IllegalStateException("Already deduplicated");
+        }
+        bySeverity = new Runs("severity", BY_SEVERITY);
+        Entry[] previous = new Entry[1];
+        findings.merge(entry -> {
+            if (previous[0] != null && sameFinding(previous[0].issue, entry.issue)) {
+                return;
+            }
+            previous[0] = entry;
+            uniqueSize++;
+            onUnique.accept(entry.issue);
+            bySeverity.add(entry);
+        });
+    }
+
+    public synchronized long uniqueSize() {
+        return uniqueSize;
+    }
+
+    /**
+     * Second pass: the deduplicated issues, most severe first.
+     */
+    public synchronized void forEachBySeverity(IssueConsumer consumer) throws IOException {
+        if (bySeverity == null) {
+            throw new IllegalStateException("deduplicate() has to run first");
+        }
+        bySeverity.merge(entry -> consumer.accept(entry.issue));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private static boolean sameFinding(CodeIssue a, CodeIssue b) {
+        return a.getLine() == b.getLine() && Objects.equals(a.getFile(), b.getFile()) && Objects.equals(a.getType(), b.getType());
+    }
+
+    private static void write(DataOutputStream out, Entry entry) throws IOException {
+        byte[] json = MAPPER.writeValueAsBytes(entry.issue);
+        out.writeLong(entry.sequence);
+        out.writeInt(json.length);
+        out.write(json);
+    }
+
+    private interface EntryConsumer {
+        void accept(Entry entry) throws IOException;
+    }
+
+    private static class Entry {
+        private final long sequence;
+        private final CodeIssue issue;
+
+        Entry(long sequence, CodeIssue issue) {
+            this.sequence = sequence;
+            this.issue = issue;
+        }
+    }
+
+    /**
+     * One sort order: an in-memory buffer plus the sorted run files flushed from it.
+     */
+    private class Runs {
+        private final String name;
+        private final Comparator<Entry> order;
+        private final List<Entry> buffer = new ArrayList<>();
+        private final List<Path> files = new ArrayList<>();
+
+        Runs(String name, Comparator<Entry> order) {
+            this.name = name;
+            this.order = order;
+        }
+
+        void add(Entry entry) throws IOException {
+            buffer.add(entry);
+            if (buffer.size() >= runSize) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            buffer.sort(order);
+            Path run = Files.createTempFile(directory, name + "-", ".run");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+                for (Entry entry : buffer) {
+                    write(out, entry);
+                }
+            }
+            files.add(run);
+            buffer.clear();
+        }
+
+        /**
+         * Hands out every entry in order. A result that fits one buffer never
+         * touches the disk.
+         */
+        void merge(EntryConsumer consumer) throws IOException {
+            if (files.isEmpty()) {
+                buffer.sort(order);
+                for (Entry entry : buffer) {
+                    consumer.accept(entry);
+                }
+                buffer.clear();
+                return;
+            }
+            flush();
+            while (files.size() > MAX_FAN_IN) {
+                List<Path> group = new ArrayList<>(files.subList(0, MAX_FAN_IN));
+                files.subList(0, MAX_FAN_IN).clear();
+                Path merged = Files.createTempFile(directory, name + "-", ".run");
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(merged), 1 << 16))) {
+                    mergeFiles(group, entry -> write(out, entry));
+                }
+                files.add(merged);
+            }
+            mergeFiles(files, consumer);
+        }
+
+        private void mergeFiles(List<Path> runs, EntryConsumer consumer) throws IOException {
+            PriorityQueue<RunReader> heads = new PriorityQueue<>((a, b) -> order.compare(a.head, b.head));
+            List<RunReader> readers = new ArrayList<>();
+            try {
+                for (Path run : runs) {
+                    RunReader reader = new RunReader(run);
+                    readers.add(reader);
+                    if (reader.advance()) {
+                        heads.add(reader);
+                    }
+                }
+                while (!heads.isEmpty()) {
+                    RunReader reader = heads.poll();
+                    consumer.accept(reader.head);
+                    if (reader.advance()) {
+                        heads.add(reader);
+                    }
+                }
+            } finally {
+                for (RunReader reader : readers) {
+                    reader.close();
+                }
+            }
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    private static class RunReader implements Closeable {
+        private final DataInputStream in;
+        private Entry head;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+        }
+
+        boolean advance() throws IOException {
+            long sequence;
+            try {
+                sequence = in.readLong();
+            } catch (EOFException end) {
+                head = null;
+                return false;
+            }
+            byte[] json = new byte[in.readInt()];
+            in.readFully(json);
+            head = new Entry(sequence, MAPPER.readValue(json, CodeIssue.class));
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
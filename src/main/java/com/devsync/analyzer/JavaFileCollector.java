@@ -1,38 +1,121 @@
 package com.devsync.analyzer;
 
-import com.devsync.config.AnalysisConfig;
+import com.devsync.config.PathExclusionMatcher;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.logging.Logger;
 
+/**
+ * Finds the Java sources of a project. Excluded directories are pruned before
+ * they are entered, and a .gitignore in any directory adds rules for the tree
+ * beneath it.
+ */
 public class JavaFileCollector {
 
+    private static final Logger logger = Logger.getLogger(JavaFileCollector.class.getName());
+
+    public static final String GITIGNORE = ".gitignore";
+
+    private final PathExclusionMatcher exclusions;
+
+    public JavaFileCollector() {
+        this(PathExclusionMatcher.defaults());
+    }
+
+    public JavaFileCollector(PathExclusionMatcher exclusions) {
+        this.exclusions = exclusions;
+    }
+
     public List<File> collectJavaFiles(String directoryPath) {
         List<File> javaFiles = new ArrayList<>();
-        File directory = new File(directoryPath);
-        
-        if (!directory.exists() || !directory.isDirectory()) {
+        Path root = Paths.get(directoryPath);
+
+        if (!Files.isDirectory(root)) {
             return javaFiles;
         }
-        
-        collectRecursively(directory, javaFiles);
+
+        try {
+            Files.walkFileTree(root, new Walker(root, javaFiles));
+        } catch (IOException e) {
+            logger.warning("Could not walk " + root + ": " + e.getMessage());
+        }
         return javaFiles;
     }
 
-    private void collectRecursively(File folder, List<File> javaFiles) {
-        File[] files = folder.listFiles();
-        if (files == null) return;
+    private class Walker extends SimpleFileVisitor<Path> {
+        private final Path root;
+        private final List<File> javaFiles;
+        // Project-relative segments of the directory being visited
+        private final List<String> segments = new ArrayList<>();
+        private final Deque<PathExclusionMatcher> matchers = new ArrayDeque<>();
+
+        Walker(Path root, List<File> javaFiles) {
+            this.root = root;
+            this.javaFiles = javaFiles;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            PathExclusionMatcher matcher = matchers.isEmpty() ? exclusions : matchers.peek();
+            if (!dir.equals(root)) {
+                segments.add(dir.getFileName().toString());
+                if (matcher.isExcluded(segments, true)) {
+                    segments.remove(segments.size() - 1);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+            }
+            matchers.push(withGitignore(dir, matcher));
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            String name = file.getFileName().toString();
+            if (attrs.isRegularFile() && name.endsWith(".java")) {
+                segments.add(name);
+                if (!matchers.peek().isExcluded(segments, false)) {
+                    javaFiles.add(file.toFile());
+                }
+                segments.remove(segments.size() - 1);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            logger.fine(() -> "Skipping unreadable " + file + ": " + exc.getMessage());
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+            matchers.pop();
+            if (!dir.equals(root)) {
+                segments.remove(segments.size() - 1);
+            }
+            return FileVisitResult.CONTINUE;
+        }
 
-        for (File file : files) {
-            // Skip excluded directories and files
-            if (AnalysisConfig.shouldExclude(file.getPath())) {
-                continue;
+        private PathExclusionMatcher withGitignore(Path dir, PathExclusionMatcher matcher) {
+            Path gitignore = dir.resolve(GITIGNORE);
+            if (!Files.isRegularFile(gitignore)) {
+                return matcher;
             }
-            
-            if (file.isDirectory()) {
-                collectRecursively(file, javaFiles);
-            } else if (file.getName().endsWith(".java")) {
-                javaFiles.add(file);
+            try {
+                return matcher.withRules(List.copyOf(segments), Files.readAllLines(gitignore));
+            } catch (IOException e) {
+                logger.fine(() -> "Ignoring unreadable " + gitignore + ": " + e.getMessage());
+                return matcher;
             }
         }
     }
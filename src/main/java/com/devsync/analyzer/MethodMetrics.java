@@ -0,0 +1,38 @@
+package com.devsync.analyzer;
+
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import java.util.List;
+
+/**
+ * Size and complexity of one method or constructor, measured in a single walk of
+ * its body by {@link MethodMetricsCollector} and kept on the declaration node, so
+ * every detector (and the project summary) that needs them shares one
+ * computation per method.
+ *
+ * @param cyclomaticComplexity 1 + if/for/while/do, case labels, ternaries and && / ||
+ * @param cognitiveComplexity if/for/while/switch weighted by their nesting, + && / ||
+ * @param nestingDepth deepest if/for/while/try nesting
+ * @param statementCount statements in the declaration, its body block included
+ * @param lineCount physical lines from the declaration's first to last token
+ */
+public record MethodMetrics(int cyclomaticComplexity, int cognitiveComplexity, int nestingDepth,
+                            int statementCount, int lineCount) {
+
+    static final DataKey<MethodMetrics> KEY = new DataKey<>() {};
+
+    /**
+     * Metrics of {@code method}: the ones recorded during the shared walk when it
+     * already ran, otherwise measured now (and kept for the next caller).
+     */
+    public static MethodMetrics of(CallableDeclaration<?> method) {
+        if (method.containsData(KEY)) {
+            return method.getData(KEY);
+        }
+        RuntimeException failure = FusedAstWalker.walk(method, List.of(new MethodMetricsCollector()))[0];
+        if (failure != null) {
+            throw failure;
+        }
+        return method.getData(KEY);
+    }
+}
@@ -0,0 +1,134 @@
+package com.devsync.analyzer;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.ConditionalExpr;
+import com.github.javaparser.ast.stmt.DoStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import com.github.javaparser.ast.stmt.SwitchEntry;
+import com.github.javaparser.ast.stmt.SwitchStmt;
+import com.github.javaparser.ast.stmt.TryStmt;
+import com.github.javaparser.ast.stmt.WhileStmt;
+import java.util.Arrays;
+
+/**
+ * Measures every method and constructor of a walk in one pass and stores the
+ * {@link MethodMetrics} on the declaration when its walk ends. Nesting levels are
+ * plain counters raised on enter and lowered on exit, so nothing is allocated per
+ * node; only the open declarations get a frame. A node inside a local or
+ * anonymous class counts for its own method and for every enclosing one.
+ */
+public class MethodMetricsCollector implements AstNodeListener {
+
+    private Frame[] open = new Frame[4];
+    private int depth;
+    // Decision points of the whole walk, methods or not, for the project summary
+    private int decisionPoints;
+
+    @Override
+    public boolean enter(Node node) {
+        if (node instanceof CallableDeclaration<?>) {
+            if (depth == open.length) {
+                open = Arrays.copyOf(open, depth * 2);
+            }
+            open[depth++] = new Frame(node);
+        }
+        boolean decision = isDecisionPoint(node);
+        if (decision) {
+            decisionPoints++;
+        }
+        if (depth == 0) {
+            return true;
+        }
+
+        boolean cognitive = isCognitiveNesting(node);
+        boolean nesting = isNesting(node);
+        boolean logical = isLogicalOperator(node);
+        boolean statement = node instanceof Statement;
+        for (int i = 0; i < depth; i++) {
+            Frame frame = open[i];
+            if (decision) {
+                frame.cyclomatic++;
+            }
+            if (cognitive) {
+                frame.cognitive += 1 + frame.cognitiveNesting++;
+            } else if (logical) {
+                frame.cognitive++;
+            }
+            if (nesting) {
+                frame.maxNesting = Math.max(frame.maxNesting, ++frame.nesting);
+            }
+            if (statement) {
+                frame.statements++;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void exit(Node node) {
+        if (depth == 0) {
+            return;
+        }
+        boolean cognitive = isCognitiveNesting(node);
+        boolean nesting = isNesting(node);
+        for (int i = 0; i < depth; i++) {
+            if (cognitive) {
+                open[i].cognitiveNesting--;
+            }
+            if (nesting) {
+                open[i].nesting--;
+            }
+        }
+        if (open[depth - 1].node == node) {
+            Frame frame = open[--depth];
+            open[depth] = null;
+            int lines = node.getRange().map(range -> range.end.line - range.begin.line + 1).orElse(0);
+            node.setData(MethodMetrics.KEY, new MethodMetrics(frame.cyclomatic, frame.cognitive, frame.maxNesting,
+                frame.statements, lines));
+        }
+    }
+
+    public int getDecisionPoints() {
+        return decisionPoints;
+    }
+
+    private static boolean isDecisionPoint(Node node) {
+        return node instanceof IfStmt || node instanceof ForStmt || node instanceof WhileStmt
+            || node instanceof DoStmt || node instanceof ConditionalExpr
+            || (node instanceof SwitchEntry entry && !entry.getLabels().isEmpty())
+            || isLogicalOperator(node);
+    }
+
+    private static boolean isCognitiveNesting(Node node) {
+        return node instanceof IfStmt || node instanceof ForStmt || node instanceof WhileStmt
+            || node instanceof SwitchStmt;
+    }
+
+    private static boolean isNesting(Node node) {
+        return node instanceof IfStmt || node instanceof ForStmt || node instanceof WhileStmt
+            || node instanceof TryStmt;
+    }
+
+    private static boolean isLogicalOperator(Node node) {
+        return node instanceof BinaryExpr binary
+            && (binary.getOperator() == BinaryExpr.Operator.AND || binary.getOperator() == BinaryExpr.Operator.OR);
+    }
+
+    private static class Frame {
+        private final Node node;
+        private int cyclomatic = 1;
+        private int cognitive;
+        private int cognitiveNesting;
+        private int nesting;
+        private int maxNesting;
+        private int statements;
+
+        Frame(Node node) {
+            this.node = node;
+        }
+    }
+}
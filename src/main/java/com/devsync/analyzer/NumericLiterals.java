@@ -0,0 +1,113 @@
+package com.devsync.analyzer;
+
+import java.util.Arrays;
+
+/**
+ * The numeric literals of a file, for detectors that compare them across the
+ * project. Each occurrence is kept as parallel primitive arrays: its value (the
+ * integral value, or the raw bits of a floating-point one), its source text, its
+ * line and the method it appears in. Literals initializing {@code static final}
+ * fields are left out, since those are the named constants themselves.
+ */
+public class NumericLiterals {
+
+    private int count;
+    private long[] values = new long[16];
+    private boolean[] floating = new boolean[16];
+    private String[] texts = new String[16];
+    private int[] lines = new int[16];
+    // Index into methodNames, or -1 outside any method
+    private int[] methods = new int[16];
+    private int methodCount;
+    private String[] methodNames = new String[4];
+    private boolean[] publicMethods = new boolean[4];
+
+    public NumericLiterals() {}
+
+    /**
+     * Starts a method; the literals added until the next call belong to it.
+     *
+     * @return the method's index
+     */
+    int addMethod(String name, boolean isPublic) {
+        int method = methodCount++;
+        if (method == methodNames.length) {
+            methodNames = Arrays.copyOf(methodNames, method * 2);
+            publicMethods = Arrays.copyOf(publicMethods, method * 2);
+        }
+        methodNames[method] = name;
+        publicMethods[method] = isPublic;
+        return method;
+    }
+
+    void add(long value, boolean isFloating, String text, int line, int method) {
+        if (count == values.length) {
+            values = Arrays.copyOf(values, count * 2);
+            floating = Arrays.copyOf(floating, count * 2);
+            texts = Arrays.copyOf(texts, count * 2);
+            lines = Arrays.copyOf(lines, count * 2);
+            methods = Arrays.copyOf(methods, count * 2);
+        }
+        values[count] = value;
+        floating[count] = isFloating;
+        texts[count] = text;
+        lines[count] = line;
+        methods[count] = method;
+        count++;
+    }
+
+    /**
+     * Drops the spare capacity left by collection, before the symbols are kept.
+     */
+    void trim() {
+        values = Arrays.copyOf(values, count);
+        floating = Arrays.copyOf(floating, count);
+        texts = Arrays.copyOf(texts, count);
+        lines = Arrays.copyOf(lines, count);
+        methods = Arrays.copyOf(methods, count);
+        methodNames = Arrays.copyOf(methodNames, methodCount);
+        publicMethods = Arrays.copyOf(publicMethods, methodCount);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the enclosing method's name, or "" outside methods
+     */
+    public String methodNameAt(int i) {
+        return methods[i] < 0 ? "" : methodNames[methods[i]];
+    }
+
+    public boolean isInPublicMethod(int i) {
+        return methods[i] >= 0 && publicMethods[methods[i]];
+    }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public long[] getValues() { return values; }
+    public void setValues(long[] values) { this.values = values; }
+
+    public boolean[] getFloating() { return floating; }
+    public void setFloating(boolean[] floating) { this.floating = floating; }
+
+    public String[] getTexts() { return texts; }
+    public void setTexts(String[] texts) { this.texts = texts; }
+
+    public int[] getLines() { return lines; }
+    public void setLines(int[] lines) { this.lines = lines; }
+
+    public int[] getMethods() { return methods; }
+    public void setMethods(int[] methods) { this.methods = methods; }
+
+    public int getMethodCount() { return methodCount; }
+    public void setMethodCount(int methodCount) { this.methodCount = methodCount; }
+
+    public String[] getMethodNames() { return methodNames; }
+    public void setMethodNames(String[] methodNames) { this.methodNames = methodNames; }
+
+    public boolean[] getPublicMethods() { return publicMethods; }
+    public void setPublicMethods(boolean[] publicMethods) { this.publicMethods = publicMethods; }
+}
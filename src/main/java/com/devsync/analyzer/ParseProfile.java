@@ -0,0 +1,71 @@
+package com.devsync.analyzer;
+
+import com.devsync.detectors.Detector;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ParserConfiguration.LanguageLevel;
+import com.github.javaparser.ast.CompilationUnit;
+
+/**
+ * How sources are parsed for analysis. The language level is fixed and lexical
+ * preservation stays off; comments are only attributed to nodes when a detector
+ * reads them. Tokens are kept because node ranges, and so every reported line
+ * number, come from them.
+ *
+ * Each thread keeps one parser per profile and reuses it for every file it
+ * parses, instead of building a parser and its configuration per file.
+ */
+public final class ParseProfile {
+
+    public static final LanguageLevel LANGUAGE_LEVEL = LanguageLevel.JAVA_17;
+
+    public static final ParseProfile WITH_COMMENTS = new ParseProfile(true);
+    public static final ParseProfile LEAN = new ParseProfile(false);
+
+    private final boolean attributeComments;
+    private final ThreadLocal<JavaParser> parsers;
+
+    private ParseProfile(boolean attributeComments) {
+        this.attributeComments = attributeComments;
+        this.parsers = ThreadLocal.withInitial(() -> new JavaParser(newConfiguration()));
+    }
+
+    /**
+     * The leanest profile that still gives every detector what it reads.
+     */
+    public static ParseProfile forDetectors(Detector... detectors) {
+        for (Detector detector : detectors) {
+            if (detector.needsComments()) {
+                return WITH_COMMENTS;
+            }
+        }
+        return LEAN;
+    }
+
+    public ParserConfiguration newConfiguration() {
+        return new ParserConfiguration()
+            .setLanguageLevel(LANGUAGE_LEVEL)
+            .setLexicalPreservationEnabled(false)
+            .setAttributeComments(attributeComments);
+    }
+
+    /**
+     * Parses with this thread's parser for the profile.
+     */
+    public ParseResult<CompilationUnit> parse(String source) {
+        return parsers.get().parse(source);
+    }
+
+    public boolean isAttributingComments() {
+        return attributeComments;
+    }
+
+    /**
+     * Part of the engine's configuration fingerprint, since comment attribution
+     * and the language level both change what detectors see.
+     */
+    public String getSignature() {
+        return LANGUAGE_LEVEL + (attributeComments ? "+comments" : "");
+    }
+}
@@ -0,0 +1,367 @@
+package com.devsync.analyzer;
+
+import com.devsync.analyzer.FileSymbols.TypeSymbol;
+import com.github.javaparser.ast.CompilationUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Every type declared in a project, with the edges between them resolved once:
+ * supertypes and their reverse (subtypes and implementors), type references and
+ * their reverse, import edges between files and the types referencing each member
+ * name, plus each file's token fingerprints when they were collected. Types and
+ * files are numbered and the edges kept as int arrays, so
+ * cross-file detectors answer questions like "how many classes implement this
+ * interface" with a lookup instead of another pass over the sources.
+ *
+ * Names are resolved the way the compiler would for the common cases: types
+ * declared in the same file, then single-type imports, the same package and
+ * on-demand imports, and finally a name declared exactly once in the project.
+ * Names that match no project type (JDK and library types) are dropped.
+ */
+public final class ProjectSymbolIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final String[] files;
+    private final TokenFingerprints[] fingerprints;
+    private final NumericLiterals[] numericLiterals;
+    private final TypeSymbol[] types;
+    private final int[] fileOf;
+    private final int[][] supertypes;
+    private final int[][] subtypes;
+    private final int[][] references;
+    private final int[][] referencedBy;
+    // File id -> ids of the files declaring a type it imports
+    private final int[][] importedFiles;
+    private final Map<String, Integer> byQualifiedName;
+    private final Map<String, int[]> bySimpleName;
+    private final Map<String, int[]> memberReferences;
+
+    private ProjectSymbolIndex(String[] files, TokenFingerprints[] fingerprints, NumericLiterals[] numericLiterals, TypeSymbol[] types, int[] fileOf, int[][] supertypes, int[][] subtypes,
+                               int[][] references, int[][] referencedBy, int[][] importedFiles,
+                               Map<String, Integer> byQualifiedName, Map<String, int[]> bySimpleName,
+                               Map<String, int[]> memberReferences) {
+        this.files = files;
+        this.fingerprints = fingerprints;
+        this.numericLiterals = numericLiterals;
+        this.types = types;
+        this.fileOf = fileOf;
+        this.supertypes = supertypes;
+        this.subtypes = subtypes;
+        this.references = references;
+        this.referencedBy = referencedBy;
+        this.importedFiles = importedFiles;
+        this.byQualifiedName = byQualifiedName;
+        this.bySimpleName = bySimpleName;
+        this.memberReferences = memberReferences;
+    }
+
+    /**
+     * An index of the given compilation units alone, for running a project
+     * detector outside the engine.
+     */
+    public static ProjectSymbolIndex of(CompilationUnit... units) {
+        return of(0, units);
+    }
+
+    /**
+     * Same, with token fingerprints for clones of at least {@code minCloneTokens}
+     * tokens; 0 leaves them out.
+     */
+    public static ProjectSymbolIndex of(int minCloneTokens, CompilationUnit... units) {
+        return of(minCloneTokens, false, units);
+    }
+
+    /**
+     * Same, also recording the numeric literals of every unit when
+     * {@code numericLiterals} is set.
+     */
+    public static ProjectSymbolIndex of(int minCloneTokens, boolean numericLiterals, CompilationUnit... units) {
+        List<FileSymbols> symbols = new ArrayList<>();
+        for (CompilationUnit cu : units) {
+            FileSymbols fileSymbols = SymbolCollector.collect(cu, numericLiterals);
+            if (minCloneTokens > 0) {
+                fileSymbols.setFingerprints(TokenFingerprints.of(cu, minCloneTokens));
+            }
+            symbols.add(fileSymbols);
+        }
+        return build(symbols);
+    }
+
+    public static ProjectSymbolIndex build(List<FileSymbols> fileSymbols) {
+        String[] files = new String[fileSymbols.size()];
+        TokenFingerprints[] fingerprints = new TokenFingerprints[files.length];
+        NumericLiterals[] numericLiterals = new NumericLiterals[files.length];
+        List<TypeSymbol> typeList = new ArrayList<>();
+        List<Integer> fileList = new ArrayList<>();
+        Map<String, Integer> byQualifiedName = new HashMap<>();
+        Map<String, List<Integer>> simpleNames = new HashMap<>();
+        for (int file = 0; file < files.length; file++) {
+            FileSymbols symbols = fileSymbols.get(file);
+            files[file] = symbols.getFileName();
+            fingerprints[file] = symbols.getFingerprints();
+            numericLiterals[file] = symbols.getNumericLiterals();
+            for (TypeSymbol type : symbols.getTypes()) {
+                int id = typeList.size();
+                typeList.add(type);
+                fileList.add(file);
+                byQualifiedName.putIfAbsent(type.getQualifiedName(), id);
+                simpleNames.computeIfAbsent(type.getName(), k -> new ArrayList<>()).add(id);
+            }
+        }
+        Map<String, int[]> bySimpleName = new HashMap<>();
+        simpleNames.forEach((name, ids) -> bySimpleName.put(name, toArray(ids)));
+
+        TypeSymbol[] types = typeList.toArray(new TypeSymbol[0]);
+        int[] fileOf = fileList.stream().mapToInt(Integer::intValue).toArray();
+        Resolver resolver = new Resolver(byQualifiedName, bySimpleName);
+
+        List<Set<Integer>> supertypeSets = sets(types.length);
+        List<Set<Integer>> subtypeSets = sets(types.length);
+        List<Set<Integer>> referenceSets = sets(types.length);
+        List<Set<Integer>> referencedBySets = sets(types.length);
+        List<Set<Integer>> importSets = sets(files.length);
+        Map<String, Set<Integer>> memberSets = new HashMap<>();
+
+        int id = 0;
+        for (int file = 0; file < files.length; file++) {
+            FileSymbols symbols = fileSymbols.get(file);
+            int firstType = id;
+            int typeCount = symbols.getTypes().size();
+            for (String imported : symbols.getImports()) {
+                Integer target = imported.endsWith(".*") ? null : byQualifiedName.get(imported);
+                if (target != null && fileOf[target] != file) {
+                    importSets.get(file).add(fileOf[target]);
+                }
+            }
+            for (; id < firstType + typeCount; id++) {
+                TypeSymbol type = types[id];
+                for (String name : type.getSupertypes()) {
+                    int target = resolver.resolve(name, symbols, firstType, typeCount, types);
+                    if (target >= 0 && target != id) {
+                        supertypeSets.get(id).add(target);
+                        subtypeSets.get(target).add(id);
+                    }
+                }
+                for (String name : type.getReferencedTypes()) {
+                    int target = resolver.resolve(name, symbols, firstType, typeCount, types);
+                    if (target >= 0 && target != id) {
+                        referenceSets.get(id).add(target);
+                        referencedBySets.get(target).add(id);
+                    }
+                }
+                for (String member : type.getMemberReferences()) {
+                    memberSets.computeIfAbsent(member, k -> new LinkedHashSet<>()).add(id);
+                }
+            }
+        }
+
+        Map<String, int[]> memberReferences = new HashMap<>();
+        memberSets.forEach((member, ids) -> memberReferences.put(member, toArray(ids)));
+        return new ProjectSymbolIndex(files, fingerprints, numericLiterals, types, fileOf, toTable(supertypeSets), toTable(subtypeSets),
+            toTable(referenceSets), toTable(referencedBySets), toTable(importSets), byQualifiedName, bySimpleName,
+            memberReferences);
+    }
+
+    public int getTypeCount() {
+        return types.length;
+    }
+
+    public int getFileCount() {
+        return files.length;
+    }
+
+    /**
+     * Name of a file by its id (as opposed to {@link #getFileName}, which takes a type id).
+     */
+    public String getFile(int fileId) {
+        return files[fileId];
+    }
+
+    /**
+     * @return the file's fingerprints, or null when none were collected
+     */
+    public TokenFingerprints getFingerprints(int fileId) {
+        return fingerprints[fileId];
+    }
+
+    /**
+     * @return the file's numeric literals, or null when none were collected
+     */
+    public NumericLiterals getNumericLiterals(int fileId) {
+        return numericLiterals[fileId];
+    }
+
+    public TypeSymbol getType(int typeId) {
+        return types[typeId];
+    }
+
+    public String getFileName(int typeId) {
+        return files[fileOf[typeId]];
+    }
+
+    public int getFileId(int typeId) {
+        return fileOf[typeId];
+    }
+
+    /**
+     * @return the type's id, or -1 when no project type has that qualified name
+     */
+    public int findQualified(String qualifiedName) {
+        return byQualifiedName.getOrDefault(qualifiedName, -1);
+    }
+
+    /**
+     * Every project type with this simple name.
+     */
+    public int[] findByName(String simpleName) {
+        return bySimpleName.getOrDefault(simpleName, NONE);
+    }
+
+    /**
+     * Project types this type directly extends or implements.
+     */
+    public int[] supertypesOf(int typeId) {
+        return supertypes[typeId];
+    }
+
+    /**
+     * Project types that directly extend or implement this type.
+     */
+    public int[] subtypesOf(int typeId) {
+        return subtypes[typeId];
+    }
+
+    /**
+     * Non-interface types that implement this type, directly or through other
+     * project types.
+     */
+    public int[] implementorsOf(int typeId) {
+        Set<Integer> found = new LinkedHashSet<>();
+        boolean[] seen = new boolean[types.length];
+        int[] pending = new int[types.length];
+        int size = 0;
+        pending[size++] = typeId;
+        seen[typeId] = true;
+        while (size > 0) {
+            for (int subtype : subtypes[pending[--size]]) {
+                if (!seen[subtype]) {
+                    seen[subtype] = true;
+                    pending[size++] = subtype;
+                    if (!types[subtype].isInterface()) {
+                        found.add(subtype);
+                    }
+                }
+            }
+        }
+        return toArray(found);
+    }
+
+    /**
+     * Project types this type names outside its extends/implements clauses.
+     */
+    public int[] referencesOf(int typeId) {
+        return references[typeId];
+    }
+
+    /**
+     * Project types that name this type outside their extends/implements clauses.
+     */
+    public int[] referencedBy(int typeId) {
+        return referencedBy[typeId];
+    }
+
+    /**
+     * Files holding a type that the given file imports by name.
+     */
+    public int[] importedFiles(int fileId) {
+        return importedFiles[fileId];
+    }
+
+    /**
+     * Types that call a method or access a field of this name through a scope.
+     * Member names are not resolved to their declaring type.
+     */
+    public int[] typesReferencingMember(String memberName) {
+        return memberReferences.getOrDefault(memberName, NONE);
+    }
+
+    private static List<Set<Integer>> sets(int count) {
+        List<Set<Integer>> sets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sets.add(new LinkedHashSet<>());
+        }
+        return sets;
+    }
+
+    private static int[][] toTable(List<Set<Integer>> sets) {
+        int[][] table = new int[sets.size()][];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = sets.get(i).isEmpty() ? NONE : toArray(sets.get(i));
+        }
+        return table;
+    }
+
+    private static int[] toArray(Iterable<Integer> ids) {
+        List<Integer> list = new ArrayList<>();
+        ids.forEach(list::add);
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Maps a type name as written in one file to a project type id.
+     */
+    private static class Resolver {
+        private final Map<String, Integer> byQualifiedName;
+        private final Map<String, int[]> bySimpleName;
+
+        Resolver(Map<String, Integer> byQualifiedName, Map<String, int[]> bySimpleName) {
+            this.byQualifiedName = byQualifiedName;
+            this.bySimpleName = bySimpleName;
+        }
+
+        int resolve(String name, FileSymbols file, int firstType, int typeCount, TypeSymbol[] types) {
+            int dot = name.indexOf('.');
+            String first = dot < 0 ? name : name.substring(0, dot);
+            String rest = dot < 0 ? "" : name.substring(dot);
+
+            // Declared in this file, nested types included
+            for (int id = firstType; id < firstType + typeCount; id++) {
+                if (types[id].getName().equals(first)) {
+                    Integer nested = byQualifiedName.get(types[id].getQualifiedName() + rest);
+                    if (nested != null) {
+                        return nested;
+                    }
+                }
+            }
+            for (String imported : file.getImports()) {
+                if (!imported.endsWith(".*") && (imported.equals(first) || imported.endsWith("." + first))) {
+                    return byQualifiedName.getOrDefault(imported + rest, -1);
+                }
+            }
+            String samePackage = file.getPackageName().isEmpty() ? name : file.getPackageName() + "." + name;
+            Integer local = byQualifiedName.get(samePackage);
+            if (local != null) {
+                return local;
+            }
+            for (String imported : file.getImports()) {
+                if (imported.endsWith(".*")) {
+                    Integer onDemand = byQualifiedName.get(imported.substring(0, imported.length() - 1) + name);
+                    if (onDemand != null) {
+                        return onDemand;
+                    }
+                }
+            }
+            if (dot >= 0) {
+                return byQualifiedName.getOrDefault(name, -1);
+            }
+            int[] candidates = bySimpleName.getOrDefault(name, NONE);
+            return candidates.length == 1 ? candidates[0] : -1;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.devsync.analyzer;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.EnumConstantDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.RecordDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.LambdaExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.expr.PatternExpr;
+import com.github.javaparser.ast.expr.ThisExpr;
+import com.github.javaparser.ast.expr.VariableDeclarationExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.expr.SwitchExpr;
+import com.github.javaparser.ast.stmt.SwitchEntry;
+import com.github.javaparser.ast.stmt.SwitchStmt;
+import com.github.javaparser.ast.stmt.TryStmt;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the simple names of a file to the variables they refer to, in one
+ * walk, and counts the uses of every variable. Declarations are numbered in the
+ * order they are seen; each keeps its kind, node and the declaration of the same
+ * name it shadows.
+ *
+ * Scopes follow the tree: classes (whose fields are all declared on entry, so
+ * earlier methods see later fields), methods and constructors, lambdas, blocks,
+ * switches, arrow-form switch entries, for loops, try statements and catch
+ * clauses. A local declared under a classic {@code case x:} label stays in scope
+ * for the rest of the switch, as the language has it. A name resolves
+ * to the innermost visible declaration, found through a per-name slot rather
+ * than by searching, so the cost is linear in the size of the file. Pattern
+ * variables stay visible until the enclosing scope ends, which covers both
+ * {@code if (o instanceof T t)} and its negated early-return form.
+ *
+ * Names that match no declaration (types, inherited fields, packages) are
+ * ignored. Field accesses on anything but {@code this} are not resolved; their
+ * names are kept so callers can stay conservative about fields they may reach.
+ */
+public class ScopeResolver implements AstNodeListener {
+
+    public static final int FIELD = 0;
+    public static final int PARAMETER = 1;
+    public static final int LOCAL = 2;
+    public static final int LAMBDA_PARAMETER = 3;
+    public static final int CATCH_PARAMETER = 4;
+    public static final int PATTERN = 5;
+
+    private static final int NONE = -1;
+
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    // Name id -> innermost visible declaration of that name
+    private int[] visibleByName = new int[16];
+
+    private int count;
+    private Node[] nodes = new Node[16];
+    private int[] kinds = new int[16];
+    private int[] names = new int[16];
+    private int[] shadowed = new int[16];
+    private int[] uses = new int[16];
+
+    // Declarations in scope, innermost last, and where each open scope starts among them
+    private int[] visible = new int[16];
+    private int visibleCount;
+    private Node[] scopes = new Node[8];
+    private int[] scopeStarts = new int[8];
+    private int depth;
+
+    private final Set<String> memberAccessNames = new HashSet<>();
+
+    @Override
+    public boolean enter(Node node) {
+        if (opensScope(node)) {
+            openScope(node);
+        }
+        if (node instanceof NameExpr name) {
+            use(lookup(name.getNameAsString()));
+        } else if (node instanceof FieldAccessExpr access) {
+            if (access.getScope() instanceof ThisExpr) {
+                use(lookupField(access.getNameAsString()));
+            } else {
+                memberAccessNames.add(access.getNameAsString());
+            }
+        } else if (node instanceof VariableDeclarator variable && variable.getParentNode().orElse(null) instanceof VariableDeclarationExpr) {
+            declare(variable.getNameAsString(), LOCAL, variable);
+        } else if (node instanceof PatternExpr pattern) {
+            declare(pattern.getNameAsString(), PATTERN, pattern);
+        } else if (node instanceof TypeDeclaration<?> type) {
+            if (type instanceof RecordDeclaration record) {
+                record.getParameters().forEach(component -> declare(component.getNameAsString(), FIELD, component));
+            }
+            declareFields(type.getMembers());
+        } else if (node instanceof ObjectCreationExpr creation) {
+            creation.getAnonymousClassBody().ifPresent(this::declareFields);
+        } else if (node instanceof EnumConstantDeclaration constant) {
+            declareFields(constant.getClassBody());
+        } else if (node instanceof CallableDeclaration<?> callable) {
+            declareParameters(callable.getParameters(), PARAMETER);
+        } else if (node instanceof LambdaExpr lambda) {
+            declareParameters(lambda.getParameters(), LAMBDA_PARAMETER);
+        } else if (node instanceof CatchClause clause) {
+            declare(clause.getParameter().getNameAsString(), CATCH_PARAMETER, clause.getParameter());
+        }
+        return true;
+    }
+
+    @Override
+    public void exit(Node node) {
+        if (depth > 0 && scopes[depth - 1] == node) {
+            depth--;
+            scopes[depth] = null;
+            while (visibleCount > scopeStarts[depth]) {
+                int declaration = visible[--visibleCount];
+                visibleByName[names[declaration]] = shadowed[declaration];
+            }
+        }
+    }
+
+    private static boolean opensScope(Node node) {
+        return node instanceof TypeDeclaration<?> || node instanceof CallableDeclaration<?>
+            || node instanceof LambdaExpr || node instanceof BlockStmt
+            || node instanceof SwitchStmt || node instanceof SwitchExpr
+            || (node instanceof SwitchEntry entry && entry.getType() != SwitchEntry.Type.STATEMENT_GROUP)
+            || node instanceof ForStmt || node instanceof ForEachStmt || node instanceof TryStmt
+            || node instanceof CatchClause || node instanceof EnumConstantDeclaration
+            || (node instanceof ObjectCreationExpr creation && creation.getAnonymousClassBody().isPresent());
+    }
+
+    private void openScope(Node node) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+            scopeStarts = Arrays.copyOf(scopeStarts, depth * 2);
+        }
+        scopes[depth] = node;
+        scopeStarts[depth] = visibleCount;
+        depth++;
+    }
+
+    private void declareFields(NodeList<BodyDeclaration<?>> members) {
+        for (BodyDeclaration<?> member : members) {
+            if (member instanceof FieldDeclaration field) {
+                field.getVariables().forEach(variable -> declare(variable.getNameAsString(), FIELD, variable));
+            }
+        }
+    }
+
+    private void declareParameters(NodeList<Parameter> parameters, int kind) {
+        parameters.forEach(parameter -> declare(parameter.getNameAsString(), kind, parameter));
+    }
+
+    private void declare(String name, int kind, Node node) {
+        if (count == nodes.length) {
+            nodes = Arrays.copyOf(nodes, count * 2);
+            kinds = Arrays.copyOf(kinds, count * 2);
+            names = Arrays.copyOf(names, count * 2);
+            shadowed = Arrays.copyOf(shadowed, count * 2);
+            uses = Arrays.copyOf(uses, count * 2);
+        }
+        int nameId = nameIds.computeIfAbsent(name, key -> {
+            int id = nameIds.size();
+            if (id == visibleByName.length) {
+                visibleByName = Arrays.copyOf(visibleByName, id * 2);
+            }
+            visibleByName[id] = NONE;
+            return id;
+        });
+        int declaration = count++;
+        nodes[declaration] = node;
+        kinds[declaration] = kind;
+        names[declaration] = nameId;
+        shadowed[declaration] = visibleByName[nameId];
+        visibleByName[nameId] = declaration;
+
+        if (visibleCount == visible.length) {
+            visible = Arrays.copyOf(visible, visibleCount * 2);
+        }
+        visible[visibleCount++] = declaration;
+    }
+
+    private int lookup(String name) {
+        Integer nameId = nameIds.get(name);
+        return nameId == null ? NONE : visibleByName[nameId];
+    }
+
+    // this.x skips locals and parameters that shadow the field
+    private int lookupField(String name) {
+        int declaration = lookup(name);
+        while (declaration != NONE && kinds[declaration] != FIELD) {
+            declaration = shadowed[declaration];
+        }
+        return declaration;
+    }
+
+    private void use(int declaration) {
+        if (declaration != NONE) {
+            uses[declaration]++;
+        }
+    }
+
+    public int getDeclarationCount() {
+        return count;
+    }
+
+    public int getKind(int declaration) {
+        return kinds[declaration];
+    }
+
+    /**
+     * The declaring node: a {@link VariableDeclarator} for fields and locals, a
+     * {@link Parameter} for parameters, a {@link PatternExpr} for pattern variables.
+     */
+    public Node getNode(int declaration) {
+        return nodes[declaration];
+    }
+
+    public int getUseCount(int declaration) {
+        return uses[declaration];
+    }
+
+    /**
+     * Whether {@code name} is accessed on some object other than {@code this}
+     * anywhere in the file, e.g. {@code other.name}.
+     */
+    public boolean isAccessedAsMember(String name) {
+        return memberAccessNames.contains(name);
+    }
+}
@@ -0,0 +1,116 @@
+package com.devsync.analyzer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The decoded text of one source file with an index of where each line starts.
+ * A file is read once into a buffer, and the parser, the LOC count and snippet
+ * extraction all work from it. Lines end at \n, \r or \r\n, as with
+ * {@code Files.readAllLines}, and are only materialized as strings on request.
+ */
+public class SourceBuffer {
+
+    private final String text;
+    // lineStarts[i] is the offset of line i + 1; one extra slot marks the end of the text
+    private int[] lineStarts;
+    private int lineCount = -1;
+
+    public SourceBuffer(String text) {
+        this.text = text;
+    }
+
+    public static SourceBuffer of(byte[] content) {
+        return new SourceBuffer(new String(content, StandardCharsets.UTF_8));
+    }
+
+    public static SourceBuffer read(Path file) throws IOException {
+        return of(Files.readAllBytes(file));
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getLineCount() {
+        indexLines();
+        return lineCount;
+    }
+
+    /**
+     * @param lineNumber 1-based
+     * @return the line without its terminator
+     */
+    public String getLine(int lineNumber) {
+        indexLines();
+        if (lineNumber < 1 || lineNumber > lineCount) {
+            throw new IndexOutOfBoundsException("Line " + lineNumber + " of " + lineCount);
+        }
+        return text.substring(lineStarts[lineNumber - 1], lineEnd(lineNumber));
+    }
+
+    /**
+     * Lines that hold something other than whitespace or the start of a comment,
+     * counted in place without copying any line.
+     */
+    public int countLinesOfCode() {
+        indexLines();
+        int count = 0;
+        for (int line = 1; line <= lineCount; line++) {
+            int start = lineStarts[line - 1];
+            int end = lineEnd(line);
+            // Same whitespace rule as String.trim()
+            while (start < end && text.charAt(start) <= ' ') {
+                start++;
+            }
+            if (start == end || text.charAt(start) == '*' || text.startsWith("//", start) || text.startsWith("/*", start)) {
+                continue;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    // Offset just past the content of a line, before its terminator
+    private int lineEnd(int lineNumber) {
+        int start = lineStarts[lineNumber - 1];
+        int end = lineStarts[lineNumber];
+        if (end > start && text.charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end > start && text.charAt(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    private void indexLines() {
+        if (lineStarts != null) {
+            return;
+        }
+        int[] starts = new int[16];
+        int count = 0;
+        int length = text.length();
+        int position = 0;
+        while (position < length) {
+            if (count + 1 >= starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            starts[count++] = position;
+            int next = position;
+            while (next < length && text.charAt(next) != '\n' && text.charAt(next) != '\r') {
+                next++;
+            }
+            if (next < length && text.charAt(next) == '\r' && next + 1 < length && text.charAt(next + 1) == '\n') {
+                next++;
+            }
+            position = next + 1;
+        }
+        starts[count] = Math.min(position, length);
+        lineCount = count;
+        lineStarts = starts;
+    }
+}
@@ -0,0 +1,57 @@
+package com.devsync.analyzer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * One Java source handed to the engine, either a file on disk (read when it is
+ * analyzed) or content already held in memory, such as an entry streamed out of
+ * an uploaded archive.
+ */
+public class SourceFile {
+
+    private final String path;
+    private final File file;
+    private final byte[] content;
+
+    private SourceFile(String path, File file, byte[] content) {
+        this.path = path;
+        this.file = file;
+        this.content = content;
+    }
+
+    public static SourceFile onDisk(File file) {
+        return new SourceFile(file.getPath(), file, null);
+    }
+
+    /**
+     * @param path the source's path inside its project, e.g. the archive entry name
+     */
+    public static SourceFile inMemory(String path, byte[] content) {
+        return new SourceFile(path, null, content);
+    }
+
+    public String getPath() { return path; }
+
+    public String getName() {
+        int slash = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        return path.substring(slash + 1);
+    }
+
+    public boolean isInMemory() { return file == null; }
+
+    /**
+     * Location recorded as the compilation unit's storage. Detectors only read the
+     * file name from it, so in-memory sources never touch the disk.
+     */
+    public Path getStoragePath() {
+        return file != null ? file.toPath() : Paths.get(path);
+    }
+
+    public byte[] readContent() throws IOException {
+        return content != null ? content : Files.readAllBytes(file.toPath());
+    }
+}
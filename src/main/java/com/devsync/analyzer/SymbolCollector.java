@@ -0,0 +1,355 @@
+package com.devsync.analyzer;
+
+import com.devsync.analyzer.FileSymbols.TypeSymbol;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.AnnotationDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.RecordDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.DoubleLiteralExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.LiteralExpr;
+import com.github.javaparser.ast.expr.LiteralStringValueExpr;
+import com.github.javaparser.ast.expr.LongLiteralExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.SuperExpr;
+import com.github.javaparser.ast.expr.ThisExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gathers a file's {@link FileSymbols} while riding along on the shared detector
+ * walk. Only names are recorded here; resolving them to project types is left to
+ * {@link ProjectSymbolIndex}, which sees every file. On request it also records
+ * the file's {@link NumericLiterals}.
+ */
+public class SymbolCollector implements AstNodeListener {
+
+    // Field types that never count as a dependency on another type
+    private static final Set<String> VALUE_TYPES =
+        Set.of("int", "long", "double", "float", "boolean", "char", "byte", "short", "String");
+
+    private FileSymbols symbols = new FileSymbols("UnknownFile");
+    private final Deque<TypeFrame> types = new ArrayDeque<>();
+    // Methods being walked, innermost first, each with the type it belongs to
+    private final Deque<MethodFrame> methods = new ArrayDeque<>();
+    private final boolean collectLiterals;
+    private NumericLiterals literals;
+    // Method the next literal belongs to, and those enclosing it
+    private int literalMethod = -1;
+    private final Deque<Integer> outerLiteralMethods = new ArrayDeque<>();
+    // The static final field being walked, whose literals are not recorded
+    private Node constantField;
+
+    public SymbolCollector() {
+        this(false);
+    }
+
+    public SymbolCollector(boolean collectLiterals) {
+        this.collectLiterals = collectLiterals;
+    }
+
+    /**
+     * Collects the symbols of {@code cu} on a walk of its own.
+     */
+    public static FileSymbols collect(CompilationUnit cu) {
+        return collect(cu, false);
+    }
+
+    public static FileSymbols collect(CompilationUnit cu, boolean collectLiterals) {
+        SymbolCollector collector = new SymbolCollector(collectLiterals);
+        RuntimeException failure = FusedAstWalker.walk(cu, List.of(collector))[0];
+        if (failure != null) {
+            throw failure;
+        }
+        return collector.getSymbols();
+    }
+
+    public FileSymbols getSymbols() {
+        return symbols;
+    }
+
+    @Override
+    public boolean enter(Node node) {
+        if (literals != null) {
+            enterForLiterals(node);
+        }
+        if (node instanceof CompilationUnit cu) {
+            symbols = new FileSymbols(cu.getStorage().map(s -> s.getFileName()).orElse("UnknownFile"));
+            cu.getPackageDeclaration().ifPresent(pkg -> symbols.setPackageName(pkg.getNameAsString()));
+            literals = collectLiterals ? new NumericLiterals() : null;
+            symbols.setNumericLiterals(literals);
+        } else if (node instanceof ImportDeclaration imp) {
+            if (!imp.isStatic()) {
+                symbols.getImports().add(imp.isAsterisk() ? imp.getNameAsString() + ".*" : imp.getNameAsString());
+            }
+            return false;
+        } else if (node instanceof TypeDeclaration<?> type) {
+            enterType(type);
+        } else if (types.isEmpty()) {
+            return true;
+        } else if (node instanceof MethodDeclaration method) {
+            TypeFrame owner = types.peek();
+            if (method.getParentNode().orElse(null) == owner.node) {
+                owner.symbol.getMethods().add(method.getNameAsString());
+                MethodFrame frame = new MethodFrame(method, owner);
+                owner.methodFrames.add(frame);
+                methods.push(frame);
+            }
+        } else if (node instanceof FieldDeclaration field) {
+            TypeFrame owner = types.peek();
+            if (field.getParentNode().orElse(null) == owner.node) {
+                field.getVariables().forEach(variable -> owner.symbol.getFields().add(variable.getNameAsString()));
+                String type = field.getElementType().asString();
+                if (!VALUE_TYPES.contains(type)) {
+                    owner.dependencies.add(type);
+                }
+            }
+        } else if (node instanceof NameExpr name) {
+            for (MethodFrame method : methods) {
+                method.accessed.set(method.owner.idOf(name.getNameAsString()));
+            }
+        } else if (node instanceof MethodCallExpr call) {
+            Expression scope = call.getScope().orElse(null);
+            if (scope == null || scope instanceof ThisExpr) {
+                for (MethodFrame method : methods) {
+                    method.called.set(method.owner.idOf(call.getNameAsString()));
+                }
+            } else if (isForeignScope(scope)) {
+                String dependency = scope.toString();
+                for (TypeFrame type : types) {
+                    type.dependencies.add(dependency);
+                }
+                types.peek().memberReferences.add(call.getNameAsString());
+            }
+        } else if (node instanceof FieldAccessExpr access) {
+            if (access.getScope() instanceof ThisExpr) {
+                for (MethodFrame method : methods) {
+                    method.accessed.set(method.owner.idOf(access.getNameAsString()));
+                }
+            } else if (isForeignScope(access.getScope())) {
+                types.peek().memberReferences.add(access.getNameAsString());
+            }
+        } else if (node instanceof ClassOrInterfaceType type && !isHierarchyOrQualifier(type)) {
+            types.peek().referencedTypes.add(type.getNameWithScope());
+        }
+        return true;
+    }
+
+    @Override
+    public void exit(Node node) {
+        if (literals != null) {
+            exitForLiterals(node);
+        }
+        if (!methods.isEmpty() && methods.peek().node == node) {
+            methods.pop();
+        } else if (!types.isEmpty() && types.peek().node == node) {
+            types.pop().finish();
+        }
+    }
+
+    private void enterForLiterals(Node node) {
+        if (node instanceof MethodDeclaration method) {
+            outerLiteralMethods.push(literalMethod);
+            literalMethod = literals.addMethod(method.getNameAsString(), method.isPublic());
+        } else if (node instanceof FieldDeclaration field) {
+            if (constantField == null && field.isStatic() && field.isFinal()) {
+                constantField = field;
+            }
+        } else if (node instanceof LiteralExpr && constantField == null) {
+            try {
+                if (node instanceof IntegerLiteralExpr literal) {
+                    addLiteral(literal.asNumber().longValue(), false, literal);
+                } else if (node instanceof LongLiteralExpr literal) {
+                    addLiteral(literal.asNumber().longValue(), false, literal);
+                } else if (node instanceof DoubleLiteralExpr literal) {
+                    addLiteral(Double.doubleToLongBits(literal.asDouble()), true, literal);
+                }
+            } catch (NumberFormatException e) {
+                // Out-of-range literals do not compile; nothing to compare
+            }
+        }
+    }
+
+    private void addLiteral(long value, boolean isFloating, LiteralStringValueExpr literal) {
+        literals.add(value, isFloating, literal.getValue(), literal.getBegin().map(pos -> pos.line).orElse(0), literalMethod);
+    }
+
+    private void exitForLiterals(Node node) {
+        if (node == constantField) {
+            constantField = null;
+        } else if (node instanceof MethodDeclaration) {
+            literalMethod = outerLiteralMethods.pop();
+        } else if (node instanceof CompilationUnit) {
+            literals.trim();
+        }
+    }
+
+    private void enterType(TypeDeclaration<?> type) {
+        String name = type.getNameAsString();
+        String qualifiedName;
+        if (!types.isEmpty()) {
+            qualifiedName = types.peek().symbol.getQualifiedName() + "." + name;
+        } else {
+            qualifiedName = symbols.getPackageName().isEmpty() ? name : symbols.getPackageName() + "." + name;
+        }
+        TypeSymbol symbol = new TypeSymbol(name, qualifiedName, kindOf(type), type.getBegin().map(pos -> pos.line).orElse(0));
+        if (type instanceof ClassOrInterfaceDeclaration decl) {
+            decl.getExtendedTypes().forEach(t -> symbol.getSupertypes().add(t.getNameWithScope()));
+            decl.getImplementedTypes().forEach(t -> symbol.getSupertypes().add(t.getNameWithScope()));
+        } else if (type instanceof EnumDeclaration decl) {
+            decl.getImplementedTypes().forEach(t -> symbol.getSupertypes().add(t.getNameWithScope()));
+        } else if (type instanceof RecordDeclaration decl) {
+            decl.getImplementedTypes().forEach(t -> symbol.getSupertypes().add(t.getNameWithScope()));
+        }
+        symbols.getTypes().add(symbol);
+        types.push(new TypeFrame(type, symbol));
+    }
+
+    private static String kindOf(TypeDeclaration<?> type) {
+        if (type instanceof ClassOrInterfaceDeclaration decl) {
+            return decl.isInterface() ? TypeSymbol.INTERFACE : TypeSymbol.CLASS;
+        }
+        if (type instanceof EnumDeclaration) {
+            return TypeSymbol.ENUM;
+        }
+        if (type instanceof RecordDeclaration) {
+            return TypeSymbol.RECORD;
+        }
+        return type instanceof AnnotationDeclaration ? TypeSymbol.ANNOTATION : TypeSymbol.CLASS;
+    }
+
+    private static boolean isForeignScope(Expression scope) {
+        return !(scope instanceof ThisExpr) && !(scope instanceof SuperExpr);
+    }
+
+    /**
+     * Types in an extends/implements clause are already supertypes, and the
+     * qualifier of a qualified type name is not a reference of its own.
+     */
+    private boolean isHierarchyOrQualifier(ClassOrInterfaceType type) {
+        Node parent = type.getParentNode().orElse(null);
+        if (parent == types.peek().node) {
+            return true;
+        }
+        return parent instanceof ClassOrInterfaceType outer && outer.getScope().orElse(null) == type;
+    }
+
+    private static class TypeFrame {
+        private final Node node;
+        private final TypeSymbol symbol;
+        // Names used inside the type's methods, numbered in order of first use
+        private final Map<String, Integer> nameIds = new HashMap<>();
+        private final List<MethodFrame> methodFrames = new ArrayList<>();
+        private final Set<String> referencedTypes = new LinkedHashSet<>();
+        private final Set<String> dependencies = new LinkedHashSet<>();
+        private final Set<String> memberReferences = new LinkedHashSet<>();
+
+        TypeFrame(Node node, TypeSymbol symbol) {
+            this.node = node;
+            this.symbol = symbol;
+        }
+
+        int idOf(String name) {
+            Integer id = nameIds.get(name);
+            if (id == null) {
+                id = nameIds.size();
+                nameIds.put(name, id);
+            }
+            return id;
+        }
+
+        /**
+         * Turns each method's used names into bits over the type's own fields and
+         * methods. Calls to an overloaded name link to every overload.
+         */
+        void finish() {
+            List<String> fields = symbol.getFields();
+            List<String> methodNames = symbol.getMethods();
+            int[] fieldOfName = new int[nameIds.size()];
+            int[] firstMethodOfName = new int[nameIds.size()];
+            Arrays.fill(fieldOfName, -1);
+            Arrays.fill(firstMethodOfName, -1);
+            for (int f = fields.size() - 1; f >= 0; f--) {
+                Integer id = nameIds.get(fields.get(f));
+                if (id != null) {
+                    fieldOfName[id] = f;
+                }
+            }
+            // Overloads chained from the first method of each name
+            int[] nextOverload = new int[methodNames.size()];
+            for (int m = methodNames.size() - 1; m >= 0; m--) {
+                Integer id = nameIds.get(methodNames.get(m));
+                nextOverload[m] = id == null ? -1 : firstMethodOfName[id];
+                if (id != null) {
+                    firstMethodOfName[id] = m;
+                }
+            }
+
+            long[][] fieldAccesses = new long[methodFrames.size()][];
+            long[][] methodCalls = new long[methodFrames.size()][];
+            BitSet used = new BitSet(fields.size());
+            for (int m = 0; m < methodFrames.size(); m++) {
+                MethodFrame frame = methodFrames.get(m);
+                BitSet accessed = new BitSet(fields.size());
+                for (int id = frame.accessed.nextSetBit(0); id >= 0; id = frame.accessed.nextSetBit(id + 1)) {
+                    if (fieldOfName[id] >= 0) {
+                        accessed.set(fieldOfName[id]);
+                    }
+                }
+                BitSet called = new BitSet(methodNames.size());
+                for (int id = frame.called.nextSetBit(0); id >= 0; id = frame.called.nextSetBit(id + 1)) {
+                    for (int callee = firstMethodOfName[id]; callee >= 0; callee = nextOverload[callee]) {
+                        called.set(callee);
+                    }
+                }
+                used.or(accessed);
+                fieldAccesses[m] = accessed.toLongArray();
+                methodCalls[m] = called.toLongArray();
+            }
+            symbol.setFieldAccesses(fieldAccesses);
+            symbol.setMethodCalls(methodCalls);
+
+            List<String> usedFields = new ArrayList<>();
+            for (int f = used.nextSetBit(0); f >= 0; f = used.nextSetBit(f + 1)) {
+                if (!usedFields.contains(fields.get(f))) {
+                    usedFields.add(fields.get(f));
+                }
+            }
+            symbol.setUsedFields(usedFields);
+            symbol.setReferencedTypes(new ArrayList<>(referencedTypes));
+            symbol.setDependencies(new ArrayList<>(dependencies));
+            symbol.setMemberReferences(new ArrayList<>(memberReferences));
+        }
+    }
+
+    private static class MethodFrame {
+        private final Node node;
+        private final TypeFrame owner;
+        // Ids (see TypeFrame.idOf) of the names read and the names called
+        private final BitSet accessed = new BitSet();
+        private final BitSet called = new BitSet();
+
+        MethodFrame(Node node, TypeFrame owner) {
+            this.node = node;
+            this.owner = owner;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.devsync.analyzer;
+
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Winnowed fingerprints of a file's token stream, for clone detection. Tokens
+ * from the first type declaration on are normalized (identifiers and literals
+ * become placeholders, comments and whitespace are dropped), every run of
+ * {@code kgramSize} tokens is hashed with a rolling hash, and the smallest hash of
+ * each window of {@code window} consecutive runs is kept. Two files sharing a
+ * stretch of at least {@code kgramSize + window - 1} normalized tokens are then
+ * guaranteed to share a fingerprint, while only a fraction of the runs is stored.
+ *
+ * Each fingerprint also carries the hash of the exact token text, which tells
+ * copies that are identical (type-1) from ones with renamed identifiers or
+ * changed literals (type-2).
+ */
+public class TokenFingerprints {
+
+    private static final long BASE = 1_000_003L;
+    private static final long IDENTIFIER = 0x49444e54L;
+    private static final long LITERAL = 0x4c49544cL;
+
+    private int kgramSize;
+    private int window;
+    private int tokenCount;
+    private long[] hashes = new long[0];
+    private long[] exactHashes = new long[0];
+    // Index of the first token of each fingerprinted run
+    private int[] positions = new int[0];
+    private int[] startLines = new int[0];
+    private int[] endLines = new int[0];
+
+    public TokenFingerprints() {}
+
+    /**
+     * Run and window sizes for a minimum clone length. Runs overlap their
+     * neighbours (the window is never longer than a run), so consecutive
+     * fingerprints of a copied stretch cover it without gaps.
+     */
+    public static int kgramSizeFor(int minTokens) {
+        return Math.max(2, minTokens / 4);
+    }
+
+    public static int windowFor(int minTokens) {
+        return Math.max(1, Math.min(minTokens / 8, kgramSizeFor(minTokens)));
+    }
+
+    public static TokenFingerprints of(CompilationUnit cu, int minTokens) {
+        TokenFingerprints fingerprints = new TokenFingerprints();
+        fingerprints.kgramSize = kgramSizeFor(minTokens);
+        fingerprints.window = windowFor(minTokens);
+
+        List<TypeDeclaration<?>> types = cu.getTypes();
+        JavaToken token = types.isEmpty() ? null
+            : types.get(0).getTokenRange().map(range -> range.getBegin()).orElse(null);
+        Tokens tokens = new Tokens();
+        for (; token != null; token = token.getNextToken().orElse(null)) {
+            JavaToken.Category category = token.getCategory();
+            if (category.isWhitespaceOrComment()) {
+                continue;
+            }
+            long exact = mix(token.getText().hashCode());
+            long normalized = category.isIdentifier() ? IDENTIFIER : category.isLiteral() ? LITERAL : exact;
+            tokens.add(normalized, exact, token.getRange().map(range -> range.begin.line).orElse(0));
+        }
+        fingerprints.tokenCount = tokens.size;
+        if (tokens.size >= minTokens) {
+            fingerprints.winnow(tokens);
+        }
+        return fingerprints;
+    }
+
+    private void winnow(Tokens tokens) {
+        int runs = tokens.size - kgramSize + 1;
+        long[] runHashes = new long[runs];
+        long[] runExactHashes = new long[runs];
+        long power = 1;
+        for (int i = 1; i < kgramSize; i++) {
+            power *= BASE;
+        }
+        long hash = 0;
+        long exact = 0;
+        for (int i = 0; i < tokens.size; i++) {
+            if (i >= kgramSize) {
+                hash -= tokens.normalized[i - kgramSize] * power;
+                exact -= tokens.exact[i - kgramSize] * power;
+            }
+            hash = hash * BASE + tokens.normalized[i];
+            exact = exact * BASE + tokens.exact[i];
+            if (i >= kgramSize - 1) {
+                runHashes[i - kgramSize + 1] = hash;
+                runExactHashes[i - kgramSize + 1] = exact;
+            }
+        }
+
+        // Sliding-window minimum; on ties the rightmost run wins, as in the winnowing paper.
+        // The candidates are a deque of run indexes in a ring buffer, never more than a window.
+        int[] selected = new int[runs];
+        int count = 0;
+        int[] candidates = new int[window];
+        int head = 0;
+        int size = 0;
+        int last = -1;
+        for (int i = 0; i < runs; i++) {
+            while (size > 0 && runHashes[candidates[(head + size - 1) % window]] >= runHashes[i]) {
+                size--;
+            }
+            if (size > 0 && candidates[head] <= i - window) {
+                head = (head + 1) % window;
+                size--;
+            }
+            candidates[(head + size) % window] = i;
+            size++;
+            if (i >= window - 1 || i == runs - 1) {
+                int minimum = candidates[head];
+                if (minimum != last) {
+                    selected[count++] = minimum;
+                    last = minimum;
+                }
+            }
+        }
+
+        hashes = new long[count];
+        exactHashes = new long[count];
+        positions = new int[count];
+        startLines = new int[count];
+        endLines = new int[count];
+        for (int f = 0; f < count; f++) {
+            int run = selected[f];
+            hashes[f] = runHashes[run];
+            exactHashes[f] = runExactHashes[run];
+            positions[f] = run;
+            startLines[f] = tokens.lines[run];
+            endLines[f] = tokens.lines[run + kgramSize - 1];
+        }
+    }
+
+    private static long mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    public int size() {
+        return hashes.length;
+    }
+
+    public int getKgramSize() { return kgramSize; }
+    public void setKgramSize(int kgramSize) { this.kgramSize = kgramSize; }
+
+    public int getWindow() { return window; }
+    public void setWindow(int window) { this.window = window; }
+
+    public int getTokenCount() { return tokenCount; }
+    public void setTokenCount(int tokenCount) { this.tokenCount = tokenCount; }
+
+    public long[] getHashes() { return hashes; }
+    public void setHashes(long[] hashes) { this.hashes = hashes; }
+
+    public long[] getExactHashes() { return exactHashes; }
+    public void setExactHashes(long[] exactHashes) { this.exactHashes = exactHashes; }
+
+    public int[] getPositions() { return positions; }
+    public void setPositions(int[] positions) { this.positions = positions; }
+
+    public int[] getStartLines() { return startLines; }
+    public void setStartLines(int[] startLines) { this.startLines = startLines; }
+
+    public int[] getEndLines() { return endLines; }
+    public void setEndLines(int[] endLines) { this.endLines = endLines; }
+
+    // Growable parallel arrays of the normalized token stream
+    private static class Tokens {
+        private long[] normalized = new long[256];
+        private long[] exact = new long[256];
+        private int[] lines = new int[256];
+        private int size;
+
+        void add(long normalizedHash, long exactHash, int line) {
+            if (size == lines.length) {
+                normalized = Arrays.copyOf(normalized, size * 2);
+                exact = Arrays.copyOf(exact, size * 2);
+                lines = Arrays.copyOf(lines, size * 2);
+            }
+            normalized[size] = normalizedHash;
+            exact[size] = exactHash;
+            lines[size] = line;
+            size++;
+        }
+    }
+}
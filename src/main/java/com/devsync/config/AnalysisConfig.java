@@ -2,6 +2,7 @@ package com.devsync.config;
 
 import com.devsync.model.UserSettings;
 import java.util.*;
+import java.util.function.Function;
 
 public class AnalysisConfig {
     
@@ -12,8 +13,10 @@ public class AnalysisConfig {
         "LOW", 0.2
     );
     
-    public static final Set<String> EXCLUDED_PATTERNS = Set.of(
-        "test", "Test", "tests", "target", "build", ".git"
+    // .gitignore-style rules, see PathExclusionMatcher. Test sources, build output and VCS metadata.
+    public static final List<String> EXCLUDED_PATTERNS = List.of(
+        "test/", "tests/", "Test/", "target/", "build/", ".git/",
+        "*Test.java", "*Tests.java", "Test[A-Z_]*.java"
     );
     
     // Default values when no user settings available
@@ -33,8 +36,18 @@ public class AnalysisConfig {
     public static final double DEFAULT_MIN_COHESION_INDEX = 0.4;
     public static final int DEFAULT_MAX_COUPLING_COUNT = 6;
     public static final int DEFAULT_MAX_ABSTRACTION_USAGE = 1;
+    public static final int DEFAULT_MIN_CLONE_TOKENS = 100;
+    
+    // Engine defaults
+    public static final int DEFAULT_ANALYSIS_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors());
     
     // Detector enabled checks
+    public static boolean isEnabled(UserSettings settings, Function<UserSettings, Boolean> flag, boolean whenUnset) {
+        if (settings == null) return true;
+        Boolean enabled = flag.apply(settings);
+        return enabled != null ? enabled : whenUnset;
+    }
+    
     public static boolean isDetectorEnabled(String detectorName, UserSettings settings) {
         if (settings == null) return true;
         
@@ -50,6 +63,7 @@ public class AnalysisConfig {
             case "BrokenModularizationDetector" -> settings.getBrokenModularizationEnabled();
             case "DeficientEncapsulationDetector" -> settings.getDeficientEncapsulationEnabled();
             case "UnnecessaryAbstractionDetector" -> settings.getUnnecessaryAbstractionEnabled();
+            case "DuplicateCodeDetector" -> settings.getDuplicateCodeEnabled();
             default -> true;
         };
     }
@@ -137,8 +151,16 @@ public class AnalysisConfig {
             settings.getMaxAbstractionUsage() : DEFAULT_MAX_ABSTRACTION_USAGE;
     }
     
+    // Duplicate Code parameters
+    public static int getMinCloneTokens(UserSettings settings) {
+        return settings != null && settings.getMinCloneTokens() != null ? 
+            settings.getMinCloneTokens() : DEFAULT_MIN_CLONE_TOKENS;
+    }
+    
+    /**
+     * @param path a project-relative file path
+     */
     public static boolean shouldExclude(String path) {
-        return EXCLUDED_PATTERNS.stream()
-            .anyMatch(pattern -> path.toLowerCase().contains(pattern.toLowerCase()));
+        return PathExclusionMatcher.defaults().isFileExcluded(path);
     }
 }
\ No newline at end of file
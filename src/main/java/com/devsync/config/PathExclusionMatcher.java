@@ -0,0 +1,212 @@
+package com.devsync.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which project paths are left out of analysis, using .gitignore-style
+ * rules compiled once and matched per path segment. A trailing "/" restricts a
+ * rule to directories. A rule containing "/" is anchored to its base directory,
+ * otherwise it matches a name at any depth. "*", "?", "[...]" and "**" work as
+ * in git, and "!" re-includes a path. When several rules match, the last one wins.
+ *
+ * Paths are project-relative segment lists. Callers that walk a tree check each
+ * directory before entering it and skip the whole subtree when it is excluded.
+ * Rules from a nested .gitignore only apply beneath the directory holding it.
+ */
+public class PathExclusionMatcher {
+
+    private static final PathExclusionMatcher DEFAULTS = new PathExclusionMatcher(Collections.emptyList())
+        .withRules(List.of(), AnalysisConfig.EXCLUDED_PATTERNS);
+
+    private final List<Rule> rules;
+
+    private PathExclusionMatcher(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    public static PathExclusionMatcher defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * The defaults followed by extra patterns, e.g. from the admin settings.
+     */
+    public static PathExclusionMatcher withPatterns(Collection<String> patterns) {
+        return DEFAULTS.withRules(List.of(), patterns);
+    }
+
+    /**
+     * A matcher with more rules appended, scoped to {@code baseDir} (the segments
+     * of the directory the rules came from; empty for the project root).
+     * Lines are .gitignore syntax; blank lines and # comments are ignored.
+     */
+    public PathExclusionMatcher withRules(List<String> baseDir, Collection<String> lines) {
+        List<Rule> combined = new ArrayList<>(rules);
+        for (String line : lines) {
+            Rule rule = Rule.parse(baseDir, line);
+            if (rule != null) {
+                combined.add(rule);
+            }
+        }
+        return combined.size() == rules.size() ? this : new PathExclusionMatcher(combined);
+    }
+
+    /**
+     * Whether this exact path is excluded. Its parent directories are assumed to
+     * have been checked already, as they are when walking a tree.
+     */
+    public boolean isExcluded(List<String> segments, boolean directory) {
+        boolean excluded = false;
+        for (Rule rule : rules) {
+            if (excluded == rule.negated && rule.matches(segments, directory)) {
+                excluded = !rule.negated;
+            }
+        }
+        return excluded;
+    }
+
+    /**
+     * Whether a file, given by its full relative path, is excluded either itself
+     * or through one of its directories. For flat listings such as archive entries.
+     */
+    public boolean isFileExcluded(String relativePath) {
+        List<String> segments = split(relativePath);
+        for (int depth = 1; depth < segments.size(); depth++) {
+            if (isExcluded(segments.subList(0, depth), true)) {
+                return true;
+            }
+        }
+        return !segments.isEmpty() && isExcluded(segments, false);
+    }
+
+    public static List<String> split(String relativePath) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : relativePath.split("[/\\\\]")) {
+            if (!segment.isEmpty() && !segment.equals(".")) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    private static class Rule {
+        private final List<String> base;
+        private final Segment[] pattern;
+        private final boolean negated;
+        private final boolean directoryOnly;
+        private final boolean anchored;
+
+        private Rule(List<String> base, Segment[] pattern, boolean negated, boolean directoryOnly, boolean anchored) {
+            this.base = base;
+            this.pattern = pattern;
+            this.negated = negated;
+            this.directoryOnly = directoryOnly;
+            this.anchored = anchored;
+        }
+
+        static Rule parse(List<String> base, String line) {
+            String text = line.strip();
+            if (text.isEmpty() || text.startsWith("#")) {
+                return null;
+            }
+            boolean negated = text.startsWith("!");
+            if (negated) {
+                text = text.substring(1);
+            }
+            boolean directoryOnly = text.endsWith("/");
+            if (directoryOnly) {
+                text = text.substring(0, text.length() - 1);
+            }
+            boolean anchored = text.contains("/");
+            if (text.startsWith("/")) {
+                text = text.substring(1);
+            }
+            if (text.isEmpty()) {
+                return null;
+            }
+            Segment[] pattern = Arrays.stream(text.split("/"))
+                .filter(part -> !part.isEmpty())
+                .map(Segment::compile)
+                .toArray(Segment[]::new);
+            return new Rule(List.copyOf(base), pattern, negated, directoryOnly, anchored);
+        }
+
+        boolean matches(List<String> segments, boolean directory) {
+            if (directoryOnly && !directory) {
+                return false;
+            }
+            int size = segments.size();
+            int start = base.size();
+            if (size <= start || !segments.subList(0, start).equals(base)) {
+                return false;
+            }
+            if (!anchored) {
+                return pattern[0].matches(segments.get(size - 1));
+            }
+            return matchFrom(0, segments, start);
+        }
+
+        private boolean matchFrom(int p, List<String> segments, int s) {
+            if (p == pattern.length) {
+                return s == segments.size();
+            }
+            if (pattern[p].anyDepth) {
+                for (int next = s; next <= segments.size(); next++) {
+                    if (matchFrom(p + 1, segments, next)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return s < segments.size() && pattern[p].matches(segments.get(s)) && matchFrom(p + 1, segments, s + 1);
+        }
+    }
+
+    // One path segment of a rule: a literal name, a glob, or "**"
+    private static class Segment {
+        private final String literal;
+        private final Pattern glob;
+        private final boolean anyDepth;
+
+        private Segment(String literal, Pattern glob, boolean anyDepth) {
+            this.literal = literal;
+            this.glob = glob;
+            this.anyDepth = anyDepth;
+        }
+
+        static Segment compile(String part) {
+            if (part.equals("**")) {
+                return new Segment(null, null, true);
+            }
+            if (part.chars().noneMatch(c -> c == '*' || c == '?' || c == '[')) {
+                return new Segment(part, null, false);
+            }
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < part.length(); i++) {
+                char c = part.charAt(i);
+                int close = c == '[' ? part.indexOf(']', i + 1) : -1;
+                if (c == '*') {
+                    regex.append(".*");
+                } else if (c == '?') {
+                    regex.append('.');
+                } else if (close > i + 1) {
+                    String set = part.substring(i + 1, close).replace("\\", "\\\\");
+                    regex.append('[').append(set.startsWith("!") ? "^" + set.substring(1) : set).append(']');
+                    i = close;
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            return new Segment(null, Pattern.compile(regex.toString()), false);
+        }
+
+        boolean matches(String name) {
+            return literal != null ? literal.equals(name) : glob.matcher(name).matches();
+        }
+    }
+}
@@ -3,9 +3,12 @@ package com.devsync.controller;
 import com.devsync.model.User;
 import com.devsync.model.AdminSettings;
 import com.devsync.model.AnalysisHistory;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
 import com.devsync.repository.UserRepository;
 import com.devsync.repository.AnalysisHistoryRepository;
 import com.devsync.repository.AdminSettingsRepository;
+import com.devsync.reports.ReportGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -34,12 +37,14 @@ public class AdminController {
             
             for (AnalysisHistory report : allReports) {
                 try {
-                    String content = com.devsync.reports.ReportGenerator.readReportContent(report.getReportPath());
+                    List<CodeIssue> issues = ReportGenerator.loadIssues(report.getReportPath());
                     
-                    // Count issues by parsing the report content
-                    int critical = (int) content.lines().filter(line -> line.contains("🚨 🔴")).count();
-                    int high = (int) content.lines().filter(line -> line.contains("🚨 🟡")).count();
-                    int medium = (int) content.lines().filter(line -> line.contains("🚨 🟠")).count();
+                    // Count issues by severity
+                    Map<Severity, Long> bySeverity = issues.stream()
+                        .collect(Collectors.groupingBy(CodeIssue::getSeverity, Collectors.counting()));
+                    int critical = bySeverity.getOrDefault(Severity.CRITICAL, 0L).intValue();
+                    int high = bySeverity.getOrDefault(Severity.HIGH, 0L).intValue();
+                    int medium = bySeverity.getOrDefault(Severity.MEDIUM, 0L).intValue();
                     int total = critical + high + medium;
                     
                     // Update if counts are different
@@ -324,7 +329,9 @@ public class AdminController {
             saveSettingIfNotExists("max_file_size_mb", "50", "Maximum file size for uploads (MB)", "filters");
             saveSettingIfNotExists("allowed_file_types", "zip,jar", "Allowed file types for upload", "filters");
             saveSettingIfNotExists("max_analysis_time_minutes", "10", "Maximum analysis time per project", "filters");
+            saveSettingIfNotExists("max_file_analysis_time_seconds", "60", "Maximum analysis time per source file (seconds)", "filters");
             saveSettingIfNotExists("enable_ai_analysis", "true", "Enable AI analysis globally", "filters");
+            saveSettingIfNotExists("excluded_paths", "", "Extra paths to skip during analysis, .gitignore style (comma separated)", "filters");
             
             // Detection Rules
             saveSettingIfNotExists("global_max_method_length", "100", "Global maximum method length", "detection");
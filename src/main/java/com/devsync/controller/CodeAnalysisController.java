@@ -4,22 +4,23 @@ import com.devsync.utils.ZipExtractor;
 import com.devsync.utils.FolderNamingUtil;
 import com.devsync.analyzer.JavaFileCollector;
 import com.devsync.reports.ReportGenerator;
-import com.devsync.services.AIAssistantService;
 import com.devsync.services.AdminSettingsService;
+import com.devsync.services.AnalysisJobService;
+import com.devsync.services.AnalysisPipelineService;
+import com.devsync.model.AnalysisJob;
 import com.devsync.model.AnalysisHistory;
-import com.devsync.model.UserSettings;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
 import com.devsync.repository.AnalysisHistoryRepository;
-import com.devsync.repository.UserSettingsRepository;
 import com.devsync.config.AnalysisConfig;
 import com.devsync.visual.*;
 
-import com.devsync.analyzer.CodeAnalysisEngine;
-
 import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,7 +28,11 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/upload")
@@ -35,19 +40,19 @@ import java.util.*;
 public class CodeAnalysisController {
 
     @Autowired
-    private AIAssistantService aiAssistantService;
+    private AnalysisHistoryRepository analysisHistoryRepository;
     
     @Autowired
-    private AnalysisHistoryRepository analysisHistoryRepository;
+    private AdminSettingsService adminSettingsService;
     
     @Autowired
-    private UserSettingsRepository userSettingsRepository;
+    private com.devsync.services.FileStorageService fileStorageService;
     
     @Autowired
-    private AdminSettingsService adminSettingsService;
+    private AnalysisJobService analysisJobService;
     
     @Autowired
-    private com.devsync.services.FileStorageService fileStorageService;
+    private AnalysisPipelineService analysisPipelineService;
 
     @GetMapping
     public ResponseEntity<String> getUploadInfo() {
@@ -114,12 +119,12 @@ public class CodeAnalysisController {
             
             for (AnalysisHistory report : allReports) {
                 try {
-                    String content = ReportGenerator.readReportContent(report.getReportPath());
+                    List<CodeIssue> issues = ReportGenerator.loadIssues(report.getReportPath());
                     
-                    // Count issues by parsing the report content
-                    int critical = countIssuesInReport(content, "🔴");
-                    int high = countIssuesInReport(content, "🟡");
-                    int medium = countIssuesInReport(content, "🟠");
+                    // Count issues by severity
+                    int critical = countIssues(issues, Severity.CRITICAL);
+                    int high = countIssues(issues, Severity.HIGH);
+                    int medium = countIssues(issues, Severity.MEDIUM);
                     int total = critical + high + medium;
                     
                     // Update if counts are different
@@ -144,9 +149,9 @@ public class CodeAnalysisController {
         }
     }
     
-    private int countIssuesInReport(String content, String emoji) {
-        return (int) content.lines()
-            .filter(line -> line.contains("🚨 " + emoji))
+    private int countIssues(List<CodeIssue> issues, Severity severity) {
+        return (int) issues.stream()
+            .filter(issue -> issue.getSeverity() == severity)
             .count();
     }
     
@@ -161,8 +166,9 @@ public class CodeAnalysisController {
                 return ResponseEntity.status(403).body("❌ Access denied");
             }
             
-            // Delete files from disk
-            if (history.getProjectPath() != null) {
+            // Delete files from disk, unless a deduplicated upload still uses them
+            if (history.getProjectPath() != null
+                    && analysisHistoryRepository.countByProjectPath(history.getProjectPath()) <= 1) {
                 File projectFolder = new File(history.getProjectPath());
                 if (projectFolder.exists()) {
                     fileStorageService.deleteDirectory(projectFolder);
@@ -182,7 +188,7 @@ public class CodeAnalysisController {
     }
 
     @PostMapping
-    public ResponseEntity<String> handleFileUpload(@RequestParam("file") MultipartFile file, 
+    public ResponseEntity<?> handleFileUpload(@RequestParam("file") MultipartFile file, 
                                                   @RequestParam("userId") String userId) {
         // Check admin filters
         if (adminSettingsService.isMaintenanceMode()) {
@@ -216,118 +222,41 @@ public class CodeAnalysisController {
             }
         }
 
-        try {
-            // 1) unzip to a unique folder with original name
-            String originalFileName = file.getOriginalFilename();
-            if (originalFileName == null || originalFileName.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body("❌ Invalid file name");
-            }
-            
-            String uniqueFolderName = FolderNamingUtil.generateUniqueFolderName(originalFileName, "uploads");
-            // Use FileStorageService for Railway Volumes support
-            fileStorageService.ensureUploadsDirectoryExists();
-            String targetDir = fileStorageService.getUploadsPath() + "/" + uniqueFolderName;
-            
-            ZipExtractor.extractZip(file.getInputStream(), targetDir);
-
-            // 2) Get user settings
-            UserSettings settings = userSettingsRepository.findByUserId(userId).orElse(new UserSettings(userId));
-            System.out.println("=== User Settings Loaded ===");
-            System.out.println("User ID: " + userId);
-            System.out.println("Magic Number Enabled: " + settings.getMagicNumberEnabled());
-            System.out.println("Long Method Enabled: " + settings.getLongMethodEnabled());
-            System.out.println("Empty Catch Enabled: " + settings.getEmptyCatchEnabled());
-            
-            // 3) Use centralized analysis engine with user settings
-            CodeAnalysisEngine analysisEngine = new CodeAnalysisEngine();
-            analysisEngine.configureFromSettings(settings);
-            Map<String, Object> analysisResults = analysisEngine.analyzeProject(targetDir);
-            
-            @SuppressWarnings("unchecked")
-            List<String> allIssues = (List<String>) analysisResults.get("issues");
-            
-            // Get file count from results
-            int javaFileCount = (Integer) analysisResults.get("totalFiles");
-
-            // 4) generate comprehensive report
-            ReportGenerator reportGen = new ReportGenerator();
-            String comprehensiveReport = reportGen.generateComprehensiveReport(analysisResults);
-            
-            String reportPath = targetDir + "/" + new java.io.File(targetDir).getName() + "_comprehensive.txt";
-            try (java.io.FileWriter writer = new java.io.FileWriter(reportPath, java.nio.charset.StandardCharsets.UTF_8)) {
-                writer.write(comprehensiveReport);
-            }
-            
-            // 5) save analysis to history - use severity counts from analysis engine
-            @SuppressWarnings("unchecked")
-            Map<String, Integer> severityCounts = (Map<String, Integer>) analysisResults.get("severityCounts");
-            
-            int criticalCount = severityCounts.getOrDefault("Critical", 0);
-            int warningCount = severityCounts.getOrDefault("High", 0);
-            int suggestionCount = severityCounts.getOrDefault("Medium", 0);
-            int lowCount = severityCounts.getOrDefault("Low", 0);
-            
-            // Verify total matches
-            int calculatedTotal = criticalCount + warningCount + suggestionCount + lowCount;
-            int actualTotal = Math.max(allIssues.size(), calculatedTotal);
-            
-            // Get LOC and calculate grade
-            int totalLOC = (Integer) analysisResults.getOrDefault("totalLOC", 0);
-            com.devsync.grading.GradingSystem.GradeResult gradeResult = 
-                com.devsync.grading.GradingSystem.calculateGrade(severityCounts, totalLOC);
-            
-            AnalysisHistory history = new AnalysisHistory(userId, originalFileName, reportPath, 
-                                                         actualTotal, criticalCount, warningCount, suggestionCount,
-                                                         totalLOC, gradeResult.getLetterGrade(), gradeResult.getIssueDensity());
-            analysisHistoryRepository.save(history);
-            
-            // Debug logging
-            System.out.println("=== Analysis Summary ===");
-            System.out.println("Project: " + originalFileName);
-            System.out.println("Total Issues: " + actualTotal + " (from list: " + allIssues.size() + ")");
-            System.out.println("Critical: " + criticalCount);
-            System.out.println("High: " + warningCount);
-            System.out.println("Medium: " + suggestionCount);
-            System.out.println("Low: " + lowCount);
-            System.out.println("Lines of Code: " + totalLOC);
-            System.out.println("Grade: " + gradeResult.getLetterGrade() + " (" + String.format("%.1f", gradeResult.getNumericScore()) + "%)");
-            System.out.println("Issue Density: " + String.format("%.2f", gradeResult.getIssueDensity()) + " issues/KLOC");
-            System.out.println("Report Path: " + reportPath);
-            
-            // 6) get AI analysis using user settings and admin filters
-            String aiStatus = "Disabled";
-            if (settings.getAiEnabled() && adminSettingsService.isAiAnalysisEnabled()) {
-                try {
-                    String reportContent = ReportGenerator.readReportContent(reportPath);
-                    String aiAnalysis = aiAssistantService.analyzeWithAI(reportContent, settings);
-                    ReportGenerator.appendAIAnalysis(reportPath, aiAnalysis);
-                    aiStatus = "Added (" + settings.getAiProvider() + ")";
-                } catch (Exception aiEx) {
-                    aiStatus = "Failed - " + aiEx.getMessage();
-                    System.err.println("AI analysis failed: " + aiEx.getMessage());
-                }
-            }
-            
-
-            
-            // 7) response summary with report path
-            String reportFileName = new File(reportPath).getName();
-            String summary = String.format("✅ Advanced Analysis Complete!\n📂 Extracted to: %s\n📄 Java files: %d\n📏 Lines of Code: %,d\n📝 Report: %s\n🔍 Issues detected: %d\n📊 Grade: %s (%.1f%%)\n📈 Issue Density: %.2f issues/KLOC\n⭐ Quality: %s\n🤖 AI analysis: %s\n🧠 Advanced algorithms: Cyclomatic complexity, Cognitive complexity, Semantic analysis, Pattern recognition\n📋 Report path: %s",
-                    targetDir, javaFileCount, totalLOC, reportFileName, allIssues.size(), 
-                    gradeResult.getLetterGrade(), gradeResult.getNumericScore(), gradeResult.getIssueDensity(),
-                    gradeResult.getQualityLevel(), aiStatus, reportPath);
-
-            return ResponseEntity.ok(summary);
+        String originalFileName = file.getOriginalFilename();
+        if (originalFileName == null || originalFileName.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body("❌ Invalid file name");
+        }
 
+        AnalysisPipelineService.StagedUpload stagedUpload;
+        try {
+            stagedUpload = analysisPipelineService.stageUpload(file);
         } catch (IOException e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError()
                     .body("❌ Failed to process file: " + e.getMessage());
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError()
-                    .body("❌ Unexpected error during analysis: " + e.getMessage());
         }
+
+        // Extraction, analysis, report, history and AI all run on an analysis worker
+        AnalysisJob job;
+        try {
+            job = analysisJobService.submit(userId, originalFileName,
+                queued -> analysisPipelineService.runUploadAnalysis(queued, stagedUpload, originalFileName, userId));
+        } catch (RejectedExecutionException e) {
+            analysisPipelineService.discardStagedUpload(stagedUpload);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body("❌ Analysis queue is full, please try again shortly");
+        }
+
+        // Polling needs the owner's id; jobs are not readable by other users
+        String statusUrl = "/api/jobs/" + job.getId() + "?userId=" + URLEncoder.encode(userId, StandardCharsets.UTF_8);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("jobId", job.getId());
+        response.put("stage", job.getStage());
+        response.put("statusUrl", statusUrl);
+        return ResponseEntity.accepted()
+                .location(URI.create(statusUrl))
+                .body(response);
     }
     
     @GetMapping("/visual")
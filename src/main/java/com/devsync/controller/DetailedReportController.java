@@ -1,12 +1,17 @@
 package com.devsync.controller;
 
+import com.devsync.model.CodeIssue;
+import com.devsync.reports.IssueFormatter;
 import com.devsync.services.DetailedReportService;
 import com.devsync.services.ChartDataService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -19,6 +24,9 @@ public class DetailedReportController {
     
     @Autowired
     private ChartDataService chartDataService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @GetMapping("/generate")
     public ResponseEntity<String> generateDetailedReport(
@@ -49,8 +57,7 @@ public class DetailedReportController {
         try {
             @SuppressWarnings("unchecked")
             Map<String, Object> analysisResults = (Map<String, Object>) request.get("analysisResults");
-            @SuppressWarnings("unchecked")
-            java.util.List<String> issues = (java.util.List<String>) request.get("issues");
+            List<CodeIssue> issues = toIssues(request.get("issues"));
             
             Map<String, Object> chartData = chartDataService.generateChartData(analysisResults, issues);
             return ResponseEntity.ok(chartData);
@@ -58,4 +65,21 @@ public class DetailedReportController {
             return ResponseEntity.internalServerError().build();
         }
     }
+    
+    // Accepts structured issues as well as the legacy one-line strings
+    private List<CodeIssue> toIssues(Object rawIssues) {
+        List<CodeIssue> issues = new ArrayList<>();
+        if (!(rawIssues instanceof List<?> list)) {
+            return issues;
+        }
+        for (Object raw : list) {
+            CodeIssue issue = raw instanceof String line
+                ? IssueFormatter.parse(line)
+                : objectMapper.convertValue(raw, CodeIssue.class);
+            if (issue != null) {
+                issues.add(issue);
+            }
+        }
+        return issues;
+    }
 }
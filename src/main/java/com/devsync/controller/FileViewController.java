@@ -2,8 +2,8 @@ package com.devsync.controller;
 
 import com.devsync.model.CodeIssue;
 import com.devsync.repository.AnalysisHistoryRepository;
-import com.devsync.reports.ReportGenerator;
 import com.devsync.services.HighlightMapperService;
+import com.devsync.utils.SourceStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -47,7 +47,16 @@ public class FileViewController {
             File javaFile = findJavaFile(projectDir, fileName);
 
             if (javaFile == null || !javaFile.exists()) {
-                return ResponseEntity.status(404).body(Map.of("error", "File not found"));
+                // Uploads analyzed in memory keep their sources in a compact store instead
+                String storedContent = SourceStore.read(projectDir, fileName);
+                if (storedContent == null) {
+                    return ResponseEntity.status(404).body(Map.of("error", "File not found"));
+                }
+                return ResponseEntity.ok(Map.of(
+                    "content", storedContent,
+                    "fileName", fileName,
+                    "fullPath", new File(projectDir, SourceStore.FILE_NAME).getAbsolutePath() + "!/" + fileName
+                ));
             }
 
             // Read file content
@@ -85,10 +94,9 @@ public class FileViewController {
                 return ResponseEntity.status(404).body(Map.of("error", "Report not found"));
             }
 
-            // Read and parse report
-            String reportContent = ReportGenerator.readReportContent(reportFile.getAbsolutePath());
+            // Load the report's issues
             Map<String, Map<String, List<Integer>>> highlightMap = 
-                highlightMapperService.generateHighlightMap(reportContent);
+                highlightMapperService.generateHighlightMap(highlightMapperService.loadIssues(reportFile));
 
             return ResponseEntity.ok(highlightMap);
 
@@ -119,9 +127,8 @@ public class FileViewController {
                 return ResponseEntity.status(404).body(Map.of("error", "Report not found"));
             }
 
-            // Read and parse report
-            String reportContent = ReportGenerator.readReportContent(reportFile.getAbsolutePath());
-            List<CodeIssue> allIssues = highlightMapperService.parseIssues(reportContent);
+            // Load the report's issues
+            List<CodeIssue> allIssues = highlightMapperService.loadIssues(reportFile);
 
             // Filter issues for specific file
             List<CodeIssue> fileIssues = allIssues.stream()
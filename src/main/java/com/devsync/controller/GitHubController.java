@@ -3,6 +3,9 @@ package com.devsync.controller;
 import com.devsync.model.CommitAnalysis;
 import com.devsync.repository.CommitAnalysisRepository;
 import com.devsync.analyzer.CodeAnalysisEngine;
+import com.devsync.services.AdminSettingsService;
+import com.devsync.services.AnalysisCacheService;
+import com.devsync.utils.ZipExtractor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,10 +17,10 @@ import org.springframework.http.HttpStatus;
 
 import java.io.*;
 import java.nio.file.*;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.zip.*;
 
 @RestController
 @RequestMapping("/api/github")
@@ -28,7 +31,10 @@ public class GitHubController {
     private CommitAnalysisRepository commitAnalysisRepository;
 
     @Autowired
-    private CodeAnalysisEngine analysisEngine;
+    private AnalysisCacheService analysisCacheService;
+
+    @Autowired
+    private AdminSettingsService adminSettingsService;
 
     @GetMapping("/test")
     public ResponseEntity<?> test() {
@@ -159,10 +165,15 @@ public class GitHubController {
             Files.write(zipFile.toPath(), response.getBody());
             
             // Extract zip
-            unzip(zipFile.getAbsolutePath(), extractPath);
+            ZipExtractor.extractZip(zipFile.toPath(), extractPath);
             zipFile.delete();
             
-            // Run analysis
+            // Run analysis on an engine of its own, since requests run concurrently;
+            // unchanged files are served from the cache of earlier commits
+            CodeAnalysisEngine analysisEngine = new CodeAnalysisEngine();
+            analysisEngine.setResultCache(analysisCacheService.getCache());
+            analysisEngine.setTimeLimits(Duration.ofMinutes(adminSettingsService.getMaxAnalysisTime()),
+                                         Duration.ofSeconds(adminSettingsService.getMaxFileAnalysisTime()));
             Map<String, Object> analysisResult = analysisEngine.analyzeProject(extractPath);
             
             // Extract severity counts
@@ -201,29 +212,4 @@ public class GitHubController {
         List<CommitAnalysis> history = commitAnalysisRepository.findByUserIdAndRepoOwnerAndRepoNameOrderByCommitDateDesc(userId, owner, repo);
         return ResponseEntity.ok(history);
     }
-
-    private void unzip(String zipFilePath, String destDir) throws IOException {
-        File dir = new File(destDir);
-        if (!dir.exists()) dir.mkdirs();
-        
-        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFilePath))) {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                File file = new File(destDir, entry.getName());
-                if (entry.isDirectory()) {
-                    file.mkdirs();
-                } else {
-                    file.getParentFile().mkdirs();
-                    try (FileOutputStream fos = new FileOutputStream(file)) {
-                        byte[] buffer = new byte[1024];
-                        int len;
-                        while ((len = zis.read(buffer)) > 0) {
-                            fos.write(buffer, 0, len);
-                        }
-                    }
-                }
-                zis.closeEntry();
-            }
-        }
-    }
 }
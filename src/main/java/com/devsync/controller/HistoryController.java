@@ -26,7 +26,8 @@ public class HistoryController {
             return ResponseEntity.ok(history);
         }
         
-        File[] folders = uploadsDir.listFiles(File::isDirectory);
+        // Hidden folders hold staged uploads and the analysis cache, not projects
+        File[] folders = uploadsDir.listFiles(file -> file.isDirectory() && !file.getName().startsWith("."));
         System.out.println("Found folders: " + (folders != null ? folders.length : 0));
         if (folders != null) {
             for (File folder : folders) {
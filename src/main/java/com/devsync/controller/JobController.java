@@ -0,0 +1,43 @@
+package com.devsync.controller;
+
+import com.devsync.model.AnalysisJob;
+import com.devsync.services.AnalysisJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*")
+public class JobController {
+
+    @Autowired
+    private AnalysisJobService analysisJobService;
+
+    /**
+     * A job's stage and, once finished, its result. Only the user who submitted
+     * the job may read it.
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJobStatus(@PathVariable String jobId,
+                                          @RequestParam("userId") String userId) {
+        Optional<AnalysisJob> job = analysisJobService.getJob(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("error", "Job not found or expired: " + jobId));
+        }
+        if (!userId.equals(job.get().getUserId())) {
+            return ResponseEntity.status(403).body(Map.of("error", "Access denied to this job"));
+        }
+        return ResponseEntity.ok(job.get());
+    }
+
+    @GetMapping("/queue")
+    public ResponseEntity<Map<String, Integer>> getQueueStatus() {
+        return ResponseEntity.ok(Map.of(
+            "queued", analysisJobService.getQueuedJobCount(),
+            "running", analysisJobService.getRunningJobCount()));
+    }
+}
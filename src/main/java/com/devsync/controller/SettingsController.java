@@ -82,6 +82,10 @@ public class SettingsController {
         existingSettings.setUnnecessaryAbstractionEnabled(settings.getUnnecessaryAbstractionEnabled());
         existingSettings.setMaxAbstractionUsage(settings.getMaxAbstractionUsage());
         
+        // Duplicate Code
+        existingSettings.setDuplicateCodeEnabled(settings.getDuplicateCodeEnabled());
+        existingSettings.setMinCloneTokens(settings.getMinCloneTokens());
+        
         // AI Settings
         existingSettings.setAiProvider(settings.getAiProvider());
         existingSettings.setAiApiKey(settings.getAiApiKey());
@@ -133,7 +137,7 @@ public class SettingsController {
             "Detects hardcoded numeric literals that should be named constants",
             true
         );
-        magicNum.addParameter("magicNumberThreshold", "integer", 3, 0, 20, "Minimum value to be considered a magic number");
+        magicNum.addParameter("magicNumberThreshold", "integer", 3, 2, 20, "Uses across the project at which a literal is reported once as a repeated value");
         detectors.add(magicNum);
         
         // 5. Missing Default Detector
@@ -201,6 +205,15 @@ public class SettingsController {
         unnecessaryAbs.addParameter("maxAbstractionUsage", "integer", 1, 0, 5, "Maximum usage count to be considered unnecessary");
         detectors.add(unnecessaryAbs);
         
+        // 14. Duplicate Code Detector
+        DetectorConfigDTO duplicateCode = new DetectorConfigDTO(
+            "DuplicateCodeDetector",
+            "Finds copy-pasted code across the project, identical or with renamed identifiers and changed literals",
+            true
+        );
+        duplicateCode.addParameter("minCloneTokens", "integer", 100, 20, 1000, "Minimum duplicated tokens to report");
+        detectors.add(duplicateCode);
+        
         return ResponseEntity.ok(detectors);
     }
     
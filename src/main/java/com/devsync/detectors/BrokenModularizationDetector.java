@@ -1,12 +1,29 @@
 package com.devsync.detectors;
 
+import com.devsync.analyzer.AstNodeListener;
+import com.devsync.analyzer.ClassMetrics;
+import com.devsync.analyzer.FileSymbols.TypeSymbol;
+import com.devsync.analyzer.FusedAstWalker;
+import com.devsync.analyzer.ProjectSymbolIndex;
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.*;
 import com.github.javaparser.ast.expr.*;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import java.util.*;
 
-public class BrokenModularizationDetector {
+/**
+ * Flags classes that take on too many responsibilities, use few of their own
+ * fields, or are coupled to too many other types, plus methods that mix unrelated
+ * operations. Class coupling counts both directions: what the class calls and
+ * holds, and the project types that reference or extend it, taken from the
+ * project symbol index. Cohesion and coupling come from {@link ClassMetrics},
+ * whose LCOM4 also tells how many independent pieces a flagged class splits into.
+ */
+public class BrokenModularizationDetector implements ProjectDetector {
     
     private int maxResponsibilities = 3;
     private double minCohesion = 0.4;
@@ -24,14 +41,64 @@ public class BrokenModularizationDetector {
         this.maxCoupling = maxCoupling;
     }
 
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
-        Set<String> processedEntities = new HashSet<>();
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getBrokenModularizationEnabled, false);
+    }
+    
+    @Override
+    public void configure(UserSettings settings) {
+        setMaxResponsibilities(AnalysisConfig.getMaxResponsibilities(settings));
+        setMinCohesion(AnalysisConfig.getMinCohesionIndex(settings));
+        setMaxCoupling(AnalysisConfig.getMaxCouplingCount(settings));
+    }
+    
+    @Override
+    public String getConfigSignature() {
+        return maxResponsibilities + "/" + minCohesion + "/" + maxCoupling;
+    }
+    
+    @Override
+    public List<CodeIssue> analyzeFile(CompilationUnit cu) {
+        ModularizationAnalyzer analyzer = new ModularizationAnalyzer(cu.getStorage().map(s -> s.getFileName()).orElse("UnknownFile"));
+        RuntimeException failure = FusedAstWalker.walk(cu, List.of(analyzer))[0];
+        if (failure != null) {
+            throw failure;
+        }
+        return report(analyzer.getModularizationIssues());
+    }
+    
+    @Override
+    public List<CodeIssue> analyzeProject(ProjectSymbolIndex index) {
+        List<ModularizationInfo> classes = new ArrayList<>();
+        for (int id = 0; id < index.getTypeCount(); id++) {
+            TypeSymbol type = index.getType(id);
+            if (TypeSymbol.CLASS.equals(type.getKind()) || type.isInterface()) {
+                classes.add(analyzeClass(index, id, type));
+            }
+        }
+        return report(classes);
+    }
+    
+    private ModularizationInfo analyzeClass(ProjectSymbolIndex index, int id, TypeSymbol type) {
+        ModularizationInfo info = new ModularizationInfo(type.getName(), "Class", type.getLine());
+        info.fileName = index.getFileName(id);
         
-        ModularizationAnalyzer analyzer = new ModularizationAnalyzer();
-        cu.accept(analyzer, null);
+        info.classMetrics = ClassMetrics.of(index, id);
+        info.cohesionIndex = info.classMetrics.getFieldUsage();
+        info.couplingCount = info.classMetrics.getCoupling();
         
-        analyzer.getModularizationIssues().forEach(modInfo -> {
+        type.getMethods().forEach(method -> addResponsibilities(method, info.responsibilities));
+        info.responsibilityCount = info.responsibilities.size();
+        info.hasMixedConcerns = info.responsibilities.size() > 3;
+        return info;
+    }
+    
+    private List<CodeIssue> report(List<ModularizationInfo> entities) {
+        List<CodeIssue> issues = new ArrayList<>();
+        Set<String> processedEntities = new HashSet<>();
+        
+        entities.forEach(modInfo -> {
             String entityKey = modInfo.fileName + ":" + modInfo.name;
             if (processedEntities.contains(entityKey)) {
                 return; // Already processed
@@ -49,22 +116,40 @@ public class BrokenModularizationDetector {
             double score = calculateScore(modInfo);
             String severity = getSeverity(score);
             
-            issues.add(String.format(
-                "%s [BrokenModularization] %s:%d - %s '%s' - %s | Suggestions: %s | DetailedReason: This %s has broken modularization with %d responsibilities, cohesion index of %.2f, and coupling count of %d. %s | ThresholdDetails: {\"responsibilityCount\":%d,\"threshold\":%d,\"cohesionIndex\":%.2f,\"minCohesion\":%.2f,\"couplingCount\":%d,\"maxCoupling\":%d,\"hasMixedConcerns\":%b,\"exceedsResponsibilities\":%b,\"lowCohesion\":%b,\"highCoupling\":%b,\"summary\":\"Classes are flagged when responsibilities > %d OR cohesion < %.2f OR coupling > %d.\"}" ,
-                severity,
-                modInfo.fileName,
-                modInfo.lineNumber,
-                modInfo.type,
-                modInfo.name,
-                generateAnalysis(modInfo),
-                generateSuggestions(modInfo),
+            CodeIssue issue = new CodeIssue("BrokenModularization", modInfo.fileName, modInfo.lineNumber,
+                Severity.fromEmoji(severity),
+                String.format("%s '%s' - %s", modInfo.type, modInfo.name, generateAnalysis(modInfo)),
+                generateSuggestions(modInfo));
+            issue.setDetailedReason(String.format(
+                "This %s has broken modularization with %d responsibilities, cohesion index of %.2f, and coupling count of %d. %s%s",
                 modInfo.type.toLowerCase(),
                 modInfo.responsibilityCount,
                 modInfo.cohesionIndex,
                 modInfo.couplingCount,
                 modInfo.hasMixedConcerns ? "It mixes unrelated concerns." : "It violates Single Responsibility Principle.",
-                modInfo.responsibilityCount, maxResponsibilities, modInfo.cohesionIndex, minCohesion, modInfo.couplingCount, maxCoupling, modInfo.hasMixedConcerns, modInfo.responsibilityCount > maxResponsibilities, modInfo.cohesionIndex < minCohesion, modInfo.couplingCount > maxCoupling, maxResponsibilities, minCohesion, maxCoupling
-            ));
+                isSplittable(modInfo) ? String.format(" Its methods form %d groups that share no fields or calls.",
+                    modInfo.classMetrics.getLcom4()) : ""));
+            issue.addMetric("responsibilityCount", modInfo.responsibilityCount)
+                .addMetric("threshold", maxResponsibilities)
+                .addMetric("cohesionIndex", modInfo.cohesionIndex)
+                .addMetric("minCohesion", minCohesion)
+                .addMetric("couplingCount", modInfo.couplingCount)
+                .addMetric("maxCoupling", maxCoupling)
+                .addMetric("hasMixedConcerns", modInfo.hasMixedConcerns)
+                .addMetric("exceedsResponsibilities", modInfo.responsibilityCount > maxResponsibilities)
+                .addMetric("lowCohesion", modInfo.cohesionIndex < minCohesion)
+                .addMetric("highCoupling", modInfo.couplingCount > maxCoupling);
+            if (modInfo.classMetrics != null) {
+                issue.addMetric("lcom4", modInfo.classMetrics.getLcom4())
+                    .addMetric("tcc", modInfo.classMetrics.getTcc())
+                    .addMetric("lcc", modInfo.classMetrics.getLcc())
+                    .addMetric("efferentCoupling", modInfo.classMetrics.getEfferentCoupling())
+                    .addMetric("afferentCoupling", modInfo.classMetrics.getAfferentCoupling());
+            }
+            issue
+                .addMetric("summary", String.format("Classes are flagged when responsibilities > %d OR cohesion < %.2f OR coupling > %d.",
+                    maxResponsibilities, minCohesion, maxCoupling));
+            issues.add(issue);
         });
         
         return issues;
@@ -106,7 +191,14 @@ public class BrokenModularizationDetector {
         return issues.isEmpty() ? "Modularization concern" : String.join(", ", issues);
     }
     
+    private static boolean isSplittable(ModularizationInfo modInfo) {
+        return modInfo.classMetrics != null && modInfo.classMetrics.getLcom4() > 1;
+    }
+    
     private String generateSuggestions(ModularizationInfo modInfo) {
+        if (isSplittable(modInfo)) {
+            return String.format("Split into %d classes along its independent method groups", modInfo.classMetrics.getLcom4());
+        }
         if (modInfo.hasMixedConcerns) {
             return "Separate unrelated operations into different methods";
         }
@@ -126,6 +218,8 @@ public class BrokenModularizationDetector {
         int responsibilityCount;
         boolean hasMixedConcerns;
         Set<String> responsibilities;
+        // Only for classes analyzed across the project
+        ClassMetrics classMetrics;
         
         ModularizationInfo(String name, String type, int lineNumber) {
             this.name = name;
@@ -135,193 +229,151 @@ public class BrokenModularizationDetector {
         }
     }
     
-    private static class ModularizationAnalyzer extends VoidVisitorAdapter<Void> {
-        private final List<ModularizationInfo> modularizationIssues = new ArrayList<>();
-        private String fileName = "";
+    private static void addResponsibilities(String name, Set<String> responsibilities) {
+        String methodName = name.toLowerCase();
         
-        public List<ModularizationInfo> getModularizationIssues() {
-            return modularizationIssues;
+        // Data operations
+        if (methodName.contains("save") || methodName.contains("persist") || methodName.contains("store")) {
+            responsibilities.add("data_persistence");
         }
-        
-        @Override
-        public void visit(CompilationUnit n, Void arg) {
-            fileName = n.getStorage().map(s -> s.getFileName()).orElse("UnknownFile");
-            super.visit(n, arg);
+        if (methodName.contains("load") || methodName.contains("fetch") || methodName.contains("retrieve")) {
+            responsibilities.add("data_retrieval");
         }
         
-        @Override
-        public void visit(ClassOrInterfaceDeclaration n, Void arg) {
-            ModularizationInfo info = new ModularizationInfo(n.getNameAsString(), "Class", 
-                n.getBegin().map(pos -> pos.line).orElse(0));
-            
-            info.fileName = fileName;
-            info.cohesionIndex = calculateCohesion(n);
-            info.couplingCount = calculateCoupling(n);
-            info.responsibilityCount = analyzeResponsibilities(n, info);
-            info.hasMixedConcerns = detectMixedConcerns(n);
-            
-            modularizationIssues.add(info);
-            super.visit(n, arg);
+        // Business logic
+        if (methodName.contains("calculate") || methodName.contains("compute") || methodName.contains("process")) {
+            responsibilities.add("computation");
+        }
+        if (methodName.contains("validate") || methodName.contains("check") || methodName.contains("verify")) {
+            responsibilities.add("validation");
         }
         
-        @Override
-        public void visit(MethodDeclaration n, Void arg) {
-            if (detectMixedConcernsInMethod(n)) {
-                ModularizationInfo info = new ModularizationInfo(n.getNameAsString(), "Method", 
-                    n.getBegin().map(pos -> pos.line).orElse(0));
-                
-                info.fileName = fileName;
-                info.hasMixedConcerns = true;
-                info.responsibilityCount = analyzeMethodResponsibilities(n, info);
-                info.cohesionIndex = 0.3; // Low cohesion for mixed concerns
-                info.couplingCount = 0;
-                
-                modularizationIssues.add(info);
-            }
-            super.visit(n, arg);
+        // UI/Presentation
+        if (methodName.contains("format") || methodName.contains("display") || methodName.contains("render")) {
+            responsibilities.add("presentation");
+        }
+        if (methodName.contains("print") || methodName.contains("log") || methodName.contains("output")) {
+            responsibilities.add("output");
         }
         
-        private double calculateCohesion(ClassOrInterfaceDeclaration classDecl) {
-            Set<String> fields = new HashSet<>();
-            Set<String> usedFields = new HashSet<>();
-            
-            // Collect all fields
-            classDecl.getFields().forEach(field -> 
-                field.getVariables().forEach(var -> fields.add(var.getNameAsString())));
-            
-            // Count field usage in methods
-            classDecl.getMethods().forEach(method -> 
-                method.findAll(NameExpr.class).forEach(name -> {
-                    if (fields.contains(name.getNameAsString())) {
-                        usedFields.add(name.getNameAsString());
-                    }
-                }));
-            
-            return fields.isEmpty() ? 1.0 : (double) usedFields.size() / fields.size();
+        // Communication
+        if (methodName.contains("send") || methodName.contains("receive") || methodName.contains("connect")) {
+            responsibilities.add("communication");
         }
         
-        private int calculateCoupling(ClassOrInterfaceDeclaration classDecl) {
-            Set<String> externalTypes = new HashSet<>();
-            
-            // Count external method calls
-            classDecl.findAll(MethodCallExpr.class).forEach(call -> {
-                if (call.getScope().isPresent()) {
-                    String scope = call.getScope().get().toString();
-                    if (!scope.equals("this") && !scope.equals("super")) {
-                        externalTypes.add(scope);
-                    }
-                }
-            });
-            
-            // Count field types
-            classDecl.getFields().forEach(field -> {
-                String type = field.getElementType().asString();
-                if (!isPrimitiveType(type)) {
-                    externalTypes.add(type);
-                }
-            });
-            
-            return externalTypes.size();
+        // Configuration
+        if (methodName.contains("config") || methodName.contains("setup") || methodName.contains("init")) {
+            responsibilities.add("configuration");
         }
+    }
+    
+    private static final int OUTPUT = 1;
+    private static final int ARITHMETIC = 1 << 1;
+    private static final int STRING_MANIPULATION = 1 << 2;
+    private static final int PERSISTENCE = 1 << 3;
+    private static final int API_CALL = 1 << 4;
+    
+    private static final int STRING_VARIABLE = 1;
+    private static final int NUMERIC_VARIABLE = 1 << 1;
+    private static final int COLLECTION_VARIABLE = 1 << 2;
+    
+    /**
+     * Collects the kinds of operations and local variable types of every method
+     * in one walk of the file, as bit flags per method.
+     */
+    private static class ModularizationAnalyzer implements AstNodeListener {
+        private final String fileName;
+        // Every method in the order it starts; calls and variables count for all enclosing ones
+        private final List<MethodFlags> methods = new ArrayList<>();
+        private final Deque<MethodFlags> open = new ArrayDeque<>();
         
-        private int analyzeResponsibilities(ClassOrInterfaceDeclaration classDecl, ModularizationInfo info) {
-            classDecl.getMethods().forEach(method -> {
-                analyzeMethodResponsibilities(method, info);
-            });
-            
-            return info.responsibilities.size();
+        ModularizationAnalyzer(String fileName) {
+            this.fileName = fileName;
         }
         
-        private int analyzeMethodResponsibilities(MethodDeclaration method, ModularizationInfo info) {
-            String methodName = method.getNameAsString().toLowerCase();
-            
-            // Data operations
-            if (methodName.contains("save") || methodName.contains("persist") || methodName.contains("store")) {
-                info.responsibilities.add("data_persistence");
+        public List<ModularizationInfo> getModularizationIssues() {
+            List<ModularizationInfo> modularizationIssues = new ArrayList<>();
+            for (MethodFlags method : methods) {
+                int operations = Integer.bitCount(method.operations);
+                if (operations > 2 || (operations > 1 && Integer.bitCount(method.variableTypes) > 2)) {
+                    MethodDeclaration n = method.declaration;
+                    ModularizationInfo info = new ModularizationInfo(n.getNameAsString(), "Method", 
+                        n.getBegin().map(pos -> pos.line).orElse(0));
+                    
+                    info.fileName = fileName;
+                    info.hasMixedConcerns = true;
+                    addResponsibilities(n.getNameAsString(), info.responsibilities);
+                    info.responsibilityCount = info.responsibilities.size();
+                    info.cohesionIndex = 0.3; // Low cohesion for mixed concerns
+                    info.couplingCount = 0;
+                    
+                    modularizationIssues.add(info);
+                }
             }
-            if (methodName.contains("load") || methodName.contains("fetch") || methodName.contains("retrieve")) {
-                info.responsibilities.add("data_retrieval");
+            return modularizationIssues;
+        }
+        
+        @Override
+        public boolean enter(Node node) {
+            if (node instanceof MethodDeclaration n) {
+                MethodFlags method = new MethodFlags(n);
+                methods.add(method);
+                open.push(method);
+            } else if (open.isEmpty()) {
+                return true;
+            } else if (node instanceof MethodCallExpr call) {
+                int operations = operationsOf(call.getNameAsString().toLowerCase());
+                open.forEach(m -> m.operations |= operations);
+            } else if (node instanceof VariableDeclarationExpr var) {
+                int types = variableTypesOf(var.getElementType().asString().toLowerCase());
+                open.forEach(m -> m.variableTypes |= types);
             }
-            
-            // Business logic
-            if (methodName.contains("calculate") || methodName.contains("compute") || methodName.contains("process")) {
-                info.responsibilities.add("computation");
+            return true;
+        }
+        
+        @Override
+        public void exit(Node node) {
+            if (!open.isEmpty() && open.peek().declaration == node) {
+                open.pop();
             }
-            if (methodName.contains("validate") || methodName.contains("check") || methodName.contains("verify")) {
-                info.responsibilities.add("validation");
+        }
+        
+        private static int operationsOf(String methodName) {
+            int operations = 0;
+            if (methodName.contains("print") || methodName.contains("system.out")) {
+                operations |= OUTPUT;
             }
-            
-            // UI/Presentation
-            if (methodName.contains("format") || methodName.contains("display") || methodName.contains("render")) {
-                info.responsibilities.add("presentation");
+            if (methodName.contains("calculate") || methodName.contains("+") || methodName.contains("*")) {
+                operations |= ARITHMETIC;
             }
-            if (methodName.contains("print") || methodName.contains("log") || methodName.contains("output")) {
-                info.responsibilities.add("output");
+            if (methodName.contains("string") || methodName.contains("concat") || methodName.contains("format")) {
+                operations |= STRING_MANIPULATION;
             }
-            
-            // Communication
-            if (methodName.contains("send") || methodName.contains("receive") || methodName.contains("connect")) {
-                info.responsibilities.add("communication");
+            if (methodName.contains("save") || methodName.contains("persist") || methodName.contains("db")) {
+                operations |= PERSISTENCE;
             }
-            
-            // Configuration
-            if (methodName.contains("config") || methodName.contains("setup") || methodName.contains("init")) {
-                info.responsibilities.add("configuration");
+            if (methodName.contains("http") || methodName.contains("api") || methodName.contains("request")) {
+                operations |= API_CALL;
             }
-            
-            return info.responsibilities.size();
+            return operations;
         }
         
-        private boolean detectMixedConcerns(ClassOrInterfaceDeclaration classDecl) {
-            Set<String> concerns = new HashSet<>();
-            
-            classDecl.getMethods().forEach(method -> {
-                ModularizationInfo tempInfo = new ModularizationInfo("", "", 0);
-                analyzeMethodResponsibilities(method, tempInfo);
-                concerns.addAll(tempInfo.responsibilities);
-            });
-            
-            return concerns.size() > 3;
-        }
-        
-        private boolean detectMixedConcernsInMethod(MethodDeclaration method) {
-            Set<String> operations = new HashSet<>();
-            
-            // Check for mixed operations in method calls
-            method.findAll(MethodCallExpr.class).forEach(call -> {
-                String methodName = call.getNameAsString().toLowerCase();
-                
-                if (methodName.contains("print") || methodName.contains("system.out")) {
-                    operations.add("output");
-                }
-                if (methodName.contains("calculate") || methodName.contains("+") || methodName.contains("*")) {
-                    operations.add("arithmetic");
-                }
-                if (methodName.contains("string") || methodName.contains("concat") || methodName.contains("format")) {
-                    operations.add("string_manipulation");
-                }
-                if (methodName.contains("save") || methodName.contains("persist") || methodName.contains("db")) {
-                    operations.add("persistence");
-                }
-                if (methodName.contains("http") || methodName.contains("api") || methodName.contains("request")) {
-                    operations.add("api_call");
-                }
-            });
-            
-            // Check for mixed variable types
-            Set<String> variableTypes = new HashSet<>();
-            method.findAll(VariableDeclarationExpr.class).forEach(var -> {
-                String type = var.getElementType().asString().toLowerCase();
-                if (type.contains("string")) variableTypes.add("string");
-                if (type.contains("int") || type.contains("double") || type.contains("float")) variableTypes.add("numeric");
-                if (type.contains("list") || type.contains("array")) variableTypes.add("collection");
-            });
-            
-            return operations.size() > 2 || (operations.size() > 1 && variableTypes.size() > 2);
+        private static int variableTypesOf(String type) {
+            int types = 0;
+            if (type.contains("string")) types |= STRING_VARIABLE;
+            if (type.contains("int") || type.contains("double") || type.contains("float")) types |= NUMERIC_VARIABLE;
+            if (type.contains("list") || type.contains("array")) types |= COLLECTION_VARIABLE;
+            return types;
         }
+    }
+    
+    private static class MethodFlags {
+        final MethodDeclaration declaration;
+        int operations;
+        int variableTypes;
         
-        private boolean isPrimitiveType(String type) {
-            return Set.of("int", "long", "double", "float", "boolean", "char", "byte", "short", "String").contains(type);
+        MethodFlags(MethodDeclaration declaration) {
+            this.declaration = declaration;
         }
     }
-}
\ No newline at end of file
+}
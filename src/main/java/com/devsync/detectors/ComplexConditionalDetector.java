@@ -1,12 +1,20 @@
 package com.devsync.detectors;
 
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
+import com.devsync.analyzer.AstNodeListener;
+import com.devsync.analyzer.MethodMetrics;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
 import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.ast.stmt.*;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import java.util.*;
 
-public class ComplexConditionalDetector {
+public class ComplexConditionalDetector implements FusedDetector {
     
     private int BASE_COMPLEXITY_THRESHOLD = 4;
     private int CRITICAL_COMPLEXITY_THRESHOLD = 8;
@@ -21,11 +29,36 @@ public class ComplexConditionalDetector {
         this.MAX_NESTING_DEPTH = maxNestingDepth;
     }
 
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
-        
+    // Condition lengths are measured on the printed expression, comments included
+    @Override
+    public boolean needsComments() {
+        return true;
+    }
+    
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getComplexConditionalEnabled, false);
+    }
+    
+    @Override
+    public void configure(UserSettings settings) {
+        setMaxOperators(AnalysisConfig.getMaxConditionalOperators(settings));
+        setMaxNestingDepth(AnalysisConfig.getMaxNestingDepth(settings));
+    }
+    
+    @Override
+    public String getConfigSignature() {
+        return BASE_COMPLEXITY_THRESHOLD + "/" + CRITICAL_COMPLEXITY_THRESHOLD + "/" + MAX_NESTING_DEPTH;
+    }
+    
+    @Override
+    public FileScan startScan(CompilationUnit cu) {
         ConditionalAnalyzer analyzer = new ConditionalAnalyzer(BASE_COMPLEXITY_THRESHOLD, MAX_NESTING_DEPTH);
-        cu.accept(analyzer, null);
+        return new FileScan(analyzer, () -> report(cu, analyzer));
+    }
+    
+    private List<CodeIssue> report(CompilationUnit cu, ConditionalAnalyzer analyzer) {
+        List<CodeIssue> issues = new ArrayList<>();
         
         analyzer.getComplexConditionals().forEach(condInfo -> {
             // THRESHOLD CHECK FIRST - binary detection
@@ -41,20 +74,32 @@ public class ComplexConditionalDetector {
             String analysis = generateAnalysis(condInfo);
             String suggestions = generateSuggestions(condInfo);
             
-            issues.add(String.format(
-                "%s [ComplexConditional] %s:%d - %s (Operators: %d, Depth: %d, Score: %.2f) - %s | Suggestions: %s | DetailedReason: %s | ThresholdDetails: {\"operatorCount\":%d,\"threshold\":%d,\"nestingDepth\":%d,\"maxNestingDepth\":%d,\"hasMethodCalls\":%b,\"hasMixedOperators\":%b,\"hasNegations\":%d,\"complexityScore\":%.2f,\"exceedsOperatorThreshold\":%b,\"exceedsNestingThreshold\":%b,\"summary\":\"Conditionals are flagged when operator count >= 4 OR nesting depth > 3.\"}" ,
-                severity,
+            CodeIssue issue = new CodeIssue("ComplexConditional",
                 cu.getStorage().map(s -> s.getFileName()).orElse("UnknownFile"),
                 condInfo.lineNumber,
-                condInfo.type,
-                condInfo.operatorCount,
-                condInfo.nestingDepth,
-                complexityScore,
-                analysis,
-                suggestions,
-                generateDetailedReason(condInfo, complexityScore),
-                condInfo.operatorCount, BASE_COMPLEXITY_THRESHOLD, condInfo.nestingDepth, MAX_NESTING_DEPTH, condInfo.hasMethodCalls, condInfo.hasMixedOperators, condInfo.hasNegations, complexityScore, condInfo.operatorCount >= BASE_COMPLEXITY_THRESHOLD, condInfo.nestingDepth > MAX_NESTING_DEPTH
-            ));
+                Severity.fromEmoji(severity),
+                String.format("%s (Operators: %d, Depth: %d, Score: %.2f) - %s",
+                    condInfo.type, condInfo.operatorCount, condInfo.nestingDepth, complexityScore, analysis),
+                suggestions);
+            issue.setDetailedReason(generateDetailedReason(condInfo, complexityScore));
+            if (condInfo.method != null) {
+                // Context of the whole method, shared with the long-method analysis
+                MethodMetrics method = MethodMetrics.of(condInfo.method);
+                issue.addMetric("methodCyclomaticComplexity", method.cyclomaticComplexity())
+                    .addMetric("methodCognitiveComplexity", method.cognitiveComplexity());
+            }
+            issue.addMetric("operatorCount", condInfo.operatorCount)
+                .addMetric("threshold", BASE_COMPLEXITY_THRESHOLD)
+                .addMetric("nestingDepth", condInfo.nestingDepth)
+                .addMetric("maxNestingDepth", MAX_NESTING_DEPTH)
+                .addMetric("hasMethodCalls", condInfo.hasMethodCalls)
+                .addMetric("hasMixedOperators", condInfo.hasMixedOperators)
+                .addMetric("hasNegations", condInfo.hasNegations)
+                .addMetric("complexityScore", complexityScore)
+                .addMetric("exceedsOperatorThreshold", condInfo.operatorCount >= BASE_COMPLEXITY_THRESHOLD)
+                .addMetric("exceedsNestingThreshold", condInfo.nestingDepth > MAX_NESTING_DEPTH)
+                .addMetric("summary", "Conditionals are flagged when operator count >= 4 OR nesting depth > 3.");
+            issues.add(issue);
         });
         
         return issues;
@@ -176,6 +221,7 @@ public class ComplexConditionalDetector {
     }
     
     private static class ConditionalInfo {
+        CallableDeclaration<?> method;
         String type;
         int lineNumber;
         int operatorCount;
@@ -258,8 +304,10 @@ public class ComplexConditionalDetector {
         }
     }
     
-    private static class ConditionalAnalyzer extends VoidVisitorAdapter<Void> {
+    private static class ConditionalAnalyzer implements AstNodeListener {
         private final List<ConditionalInfo> complexConditionals = new ArrayList<>();
+        // Innermost method or constructor being walked
+        private final Deque<CallableDeclaration<?>> methods = new ArrayDeque<>();
         private final int baseThreshold;
         private final int maxNesting;
         
@@ -273,28 +321,32 @@ public class ComplexConditionalDetector {
         }
         
         @Override
-        public void visit(IfStmt n, Void arg) {
-            analyzeCondition("If statement", n.getCondition(), 
-                n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(WhileStmt n, Void arg) {
-            analyzeCondition("While loop", n.getCondition(), 
-                n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
+        public boolean enter(Node node) {
+            if (node instanceof CallableDeclaration<?> n) {
+                methods.push(n);
+            } else if (node instanceof IfStmt n) {
+                analyzeCondition("If statement", n.getCondition(), 
+                    n.getBegin().map(pos -> pos.line).orElse(0));
+            } else if (node instanceof WhileStmt n) {
+                analyzeCondition("While loop", n.getCondition(), 
+                    n.getBegin().map(pos -> pos.line).orElse(0));
+            } else if (node instanceof ConditionalExpr n) {
+                analyzeCondition("Ternary operator", n.getCondition(), 
+                    n.getBegin().map(pos -> pos.line).orElse(0));
+            }
+            return true;
         }
         
         @Override
-        public void visit(ConditionalExpr n, Void arg) {
-            analyzeCondition("Ternary operator", n.getCondition(), 
-                n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
+        public void exit(Node node) {
+            if (node == methods.peek()) {
+                methods.pop();
+            }
         }
         
         private void analyzeCondition(String type, Expression condition, int lineNumber) {
             ConditionalInfo info = new ConditionalInfo(type, lineNumber, condition);
+            info.method = methods.peek();
             
             if (info.operatorCount >= baseThreshold || 
                 info.nestingDepth > maxNesting) {
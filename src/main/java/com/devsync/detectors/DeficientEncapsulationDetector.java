@@ -1,17 +1,30 @@
 package com.devsync.detectors;
 
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
+import com.devsync.analyzer.AstNodeListener;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.*;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import java.util.*;
 
-public class DeficientEncapsulationDetector {
+public class DeficientEncapsulationDetector implements FusedDetector {
 
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
-        
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getDeficientEncapsulationEnabled, false);
+    }
+    
+    @Override
+    public FileScan startScan(CompilationUnit cu) {
         EncapsulationAnalyzer analyzer = new EncapsulationAnalyzer();
-        cu.accept(analyzer, null);
+        return new FileScan(analyzer, () -> report(cu, analyzer));
+    }
+    
+    private List<CodeIssue> report(CompilationUnit cu, EncapsulationAnalyzer analyzer) {
+        List<CodeIssue> issues = new ArrayList<>();
         
         analyzer.getEncapsulationIssues().forEach(encInfo -> {
             // THRESHOLD CHECK FIRST - binary detection
@@ -26,22 +39,24 @@ public class DeficientEncapsulationDetector {
             String analysis = generateAnalysis(encInfo);
             String suggestions = generateSuggestions(encInfo);
             
-            issues.add(String.format(
-                "%s [DeficientEncapsulation] %s:%d - %s '%s' (Risk: %.2f) - %s | Suggestions: %s | DetailedReason: This field breaks encapsulation because it is %s, %s, and %s. Risk score: %.2f. Exposing internal state makes the class fragile and hard to maintain. | ThresholdDetails: {\"isPublic\":%b,\"isMutable\":%b,\"lacksAccessors\":%b,\"riskScore\":%.2f,\"summary\":\"Fields are ALWAYS flagged when public.\"}" ,
-                severity,
+            CodeIssue issue = new CodeIssue("DeficientEncapsulation",
                 cu.getStorage().map(s -> s.getFileName()).orElse("UnknownFile"),
                 encInfo.lineNumber,
-                encInfo.type,
-                encInfo.name,
-                riskScore,
-                analysis,
-                suggestions,
+                Severity.fromEmoji(severity),
+                String.format("%s '%s' (Risk: %.2f) - %s", encInfo.type, encInfo.name, riskScore, analysis),
+                suggestions);
+            issue.setDetailedReason(String.format(
+                "This field breaks encapsulation because it is %s, %s, and %s. Risk score: %.2f. Exposing internal state makes the class fragile and hard to maintain.",
                 encInfo.isPublic ? "publicly accessible" : "not properly protected",
                 encInfo.isMutable ? "mutable" : "immutable",
                 encInfo.lacksAccessors ? "lacks proper accessor methods" : "has accessors",
-                riskScore,
-                encInfo.isPublic, encInfo.isMutable, encInfo.lacksAccessors, riskScore
-            ));
+                riskScore));
+            issue.addMetric("isPublic", encInfo.isPublic)
+                .addMetric("isMutable", encInfo.isMutable)
+                .addMetric("lacksAccessors", encInfo.lacksAccessors)
+                .addMetric("riskScore", riskScore)
+                .addMetric("summary", "Fields are ALWAYS flagged when public.");
+            issues.add(issue);
         });
         
         return issues;
@@ -110,7 +125,7 @@ public class DeficientEncapsulationDetector {
         }
     }
     
-    private static class EncapsulationAnalyzer extends VoidVisitorAdapter<Void> {
+    private static class EncapsulationAnalyzer implements AstNodeListener {
         private final List<EncapsulationInfo> encapsulationIssues = new ArrayList<>();
         private final Set<String> accessorMethods = new HashSet<>();
         
@@ -119,13 +134,16 @@ public class DeficientEncapsulationDetector {
         }
         
         @Override
-        public void visit(ClassOrInterfaceDeclaration n, Void arg) {
-            collectAccessorMethods(n);
-            super.visit(n, arg);
+        public boolean enter(Node node) {
+            if (node instanceof ClassOrInterfaceDeclaration n) {
+                collectAccessorMethods(n);
+            } else if (node instanceof FieldDeclaration n) {
+                visitField(n);
+            }
+            return true;
         }
         
-        @Override
-        public void visit(FieldDeclaration n, Void arg) {
+        private void visitField(FieldDeclaration n) {
             n.getVariables().forEach(var -> {
                 EncapsulationInfo info = new EncapsulationInfo(var.getNameAsString(), "Field", 
                     n.getBegin().map(pos -> pos.line).orElse(0));
@@ -136,8 +154,6 @@ public class DeficientEncapsulationDetector {
                 
                 encapsulationIssues.add(info);
             });
-            
-            super.visit(n, arg);
         }
         
         private void collectAccessorMethods(ClassOrInterfaceDeclaration classDecl) {
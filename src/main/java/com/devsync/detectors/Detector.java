@@ -0,0 +1,68 @@
+package com.devsync.detectors;
+
+import com.devsync.model.CodeIssue;
+import com.devsync.model.UserSettings;
+import com.devsync.reports.IssueFormatter;
+import com.github.javaparser.ast.CompilationUnit;
+import java.util.List;
+
+/**
+ * Contract every code smell detector implements. Detectors are discovered by
+ * {@link DetectorRegistry}, so adding one only takes an implementation plus a line
+ * in {@code META-INF/services/com.devsync.detectors.Detector}.
+ */
+public interface Detector {
+
+    /**
+     * Name used for enable/disable decisions, detector counts and log output.
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Analyzes one compilation unit. Implementations must keep per-file state local
+     * to the call; the engine invokes the same instance from several threads.
+     */
+    List<CodeIssue> analyze(CompilationUnit cu);
+
+    /**
+     * The findings of {@link #analyze} rendered as report lines.
+     */
+    default List<String> detect(CompilationUnit cu) {
+        return analyze(cu).stream().map(IssueFormatter::format).toList();
+    }
+
+    /**
+     * Binds the detector's thresholds from the user's settings. {@code settings} may
+     * be null, in which case the defaults from {@code AnalysisConfig} apply.
+     */
+    default void configure(UserSettings settings) {
+    }
+
+    /**
+     * Stable description of the thresholds currently in effect. It feeds the
+     * engine's configuration fingerprint, so cached results are discarded when a
+     * threshold changes. Detectors without settings can keep the default.
+     */
+    default String getConfigSignature() {
+        return "";
+    }
+
+    /**
+     * Whether the detector reads comments, directly or through the printed form of
+     * a node. The engine only attributes comments to AST nodes while parsing when
+     * at least one enabled detector says so.
+     */
+    default boolean needsComments() {
+        return false;
+    }
+
+    /**
+     * Whether the user has this detector switched on. A null {@code settings} means
+     * no preferences are stored and everything runs.
+     */
+    default boolean isEnabled(UserSettings settings) {
+        return true;
+    }
+}
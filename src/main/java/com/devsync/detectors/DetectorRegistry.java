@@ -0,0 +1,29 @@
+package com.devsync.detectors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Discovers detectors through {@link ServiceLoader}. The provider list is resolved
+ * once per class loader; every call to {@link #createDetectors()} hands out fresh
+ * instances so each engine can configure its own thresholds.
+ */
+public final class DetectorRegistry {
+
+    private static final List<ServiceLoader.Provider<Detector>> PROVIDERS = ServiceLoader
+        .load(Detector.class, DetectorRegistry.class.getClassLoader())
+        .stream()
+        .toList();
+
+    private DetectorRegistry() {
+    }
+
+    public static List<Detector> createDetectors() {
+        List<Detector> detectors = new ArrayList<>(PROVIDERS.size());
+        for (ServiceLoader.Provider<Detector> provider : PROVIDERS) {
+            detectors.add(provider.get());
+        }
+        return detectors;
+    }
+}
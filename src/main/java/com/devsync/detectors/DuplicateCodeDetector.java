@@ -0,0 +1,330 @@
+package com.devsync.detectors;
+
+import com.devsync.analyzer.OccurrenceTable;
+import com.devsync.analyzer.ProjectSymbolIndex;
+import com.devsync.analyzer.TokenFingerprints;
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
+import java.util.*;
+
+/**
+ * Finds copy-pasted code anywhere in the project: stretches of at least
+ * {@code minTokens} tokens that are identical (type-1) or identical up to renamed
+ * identifiers and changed literals (type-2).
+ *
+ * Works on the winnowed token fingerprints the engine collects per file. All
+ * fingerprints go into one table grouped by hash; occurrences of the same hash
+ * are paired, and pairs lying at the same offset in the same two files are
+ * chained into clone regions. Hashes occurring more than a few times are skipped
+ * as boilerplate, which bounds the pairs per fingerprint, so the work is linear
+ * in the number of fingerprints apart from one sort of the pairs.
+ */
+public class DuplicateCodeDetector implements ProjectDetector {
+
+    // Fingerprints seen this often are boilerplate (accessors, logging idioms) and are not paired
+    private static final int MAX_OCCURRENCES = 20;
+
+    private int minTokens = AnalysisConfig.DEFAULT_MIN_CLONE_TOKENS;
+
+    public void setMinTokens(int minTokens) {
+        this.minTokens = Math.max(10, minTokens);
+    }
+
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getDuplicateCodeEnabled, false);
+    }
+
+    @Override
+    public void configure(UserSettings settings) {
+        setMinTokens(AnalysisConfig.getMinCloneTokens(settings));
+    }
+
+    @Override
+    public String getConfigSignature() {
+        return String.valueOf(minTokens);
+    }
+
+    @Override
+    public int getMinCloneTokens() {
+        return minTokens;
+    }
+
+    @Override
+    public List<CodeIssue> analyzeProject(ProjectSymbolIndex index) {
+        OccurrenceTable table = fingerprintTable(index);
+        List<Match> matches = new ArrayList<>();
+
+        // Every earlier occurrence of a hash is paired with every later one, so the
+        // pairs of one copied stretch all line up even when a third copy exists
+        for (int slot = 0; slot < table.getSlotCount(); slot++) {
+            int count = table.getCount(slot);
+            if (count < 2 || count > MAX_OCCURRENCES) {
+                continue;
+            }
+            int offset = table.getOffset(slot);
+            for (int a = offset; a < offset + count; a++) {
+                int originalFile = table.getFile(a);
+                int original = table.getIndex(a);
+                int originalPosition = index.getFingerprints(originalFile).getPositions()[original];
+                for (int b = a + 1; b < offset + count; b++) {
+                    int copyFile = table.getFile(b);
+                    int copy = table.getIndex(b);
+                    int copyPosition = index.getFingerprints(copyFile).getPositions()[copy];
+                    matches.add(new Match(originalFile, copyFile, (long) copyPosition - originalPosition,
+                        originalPosition, original, copy));
+                }
+            }
+        }
+        matches.addAll(boilerplateMatches(table, index, matches));
+
+        matches.sort(Comparator.comparingInt((Match m) -> m.originalFile)
+            .thenComparingInt(m -> m.copyFile)
+            .thenComparingLong(m -> m.offset)
+            .thenComparingInt(m -> m.originalPosition));
+
+        List<CodeIssue> issues = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= matches.size(); i++) {
+            if (i == matches.size() || !continues(matches.get(i - 1), matches.get(i), index)) {
+                Clone clone = toClone(matches.subList(start, i), index);
+                if (clone != null) {
+                    issues.add(createIssue(clone));
+                }
+                start = i;
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * Boilerplate fingerprints inside a copied stretch would otherwise leave holes
+     * that split one clone into several. They are matched only near a stretch that
+     * distinctive fingerprints already line up (an anchor: two files at a fixed
+     * offset), at that same offset, found by binary search.
+     */
+    private List<Match> boilerplateMatches(OccurrenceTable table, ProjectSymbolIndex index, List<Match> matches) {
+        List<Match> byCopy = new ArrayList<>(matches);
+        byCopy.sort(Comparator.comparingInt((Match m) -> m.copyFile)
+            .thenComparingInt(m -> m.originalFile)
+            .thenComparingLong(m -> m.offset)
+            .thenComparingInt(m -> m.originalPosition));
+
+        // Anchors grouped by copy file, each with the span of copy positions it covers
+        int[] firstAnchor = new int[index.getFileCount() + 1];
+        int[] anchorFile = new int[byCopy.size()];
+        long[] anchorOffset = new long[byCopy.size()];
+        long[] anchorLow = new long[byCopy.size()];
+        long[] anchorHigh = new long[byCopy.size()];
+        int anchors = 0;
+        Match previous = null;
+        for (Match match : byCopy) {
+            long copyPosition = match.originalPosition + match.offset;
+            if (previous == null || previous.copyFile != match.copyFile || previous.originalFile != match.originalFile
+                    || previous.offset != match.offset) {
+                anchorFile[anchors] = match.originalFile;
+                anchorOffset[anchors] = match.offset;
+                anchorLow[anchors] = copyPosition;
+                firstAnchor[match.copyFile + 1]++;
+                anchors++;
+            }
+            anchorHigh[anchors - 1] = copyPosition;
+            previous = match;
+        }
+        for (int file = 0; file < index.getFileCount(); file++) {
+            firstAnchor[file + 1] += firstAnchor[file];
+        }
+
+        // Within each copy file, anchors by where they start, with the furthest end
+        // reached so far, so the anchors around a position are found by binary search
+        long[] byStart = new long[anchors];
+        for (int a = 0; a < anchors; a++) {
+            byStart[a] = anchorLow[a] << 32 | a;
+        }
+        int[] order = new int[anchors];
+        long[] starts = new long[anchors];
+        long[] reach = new long[anchors];
+        for (int file = 0; file < index.getFileCount(); file++) {
+            Arrays.sort(byStart, firstAnchor[file], firstAnchor[file + 1]);
+            for (int a = firstAnchor[file]; a < firstAnchor[file + 1]; a++) {
+                order[a] = (int) byStart[a];
+                starts[a] = anchorLow[order[a]];
+                reach[a] = a > firstAnchor[file] ? Math.max(reach[a - 1], anchorHigh[order[a]]) : anchorHigh[order[a]];
+            }
+        }
+
+        List<Match> bridged = new ArrayList<>();
+        for (int slot = 0; slot < table.getSlotCount(); slot++) {
+            if (table.getCount(slot) <= MAX_OCCURRENCES) {
+                continue;
+            }
+            for (int b = table.getOffset(slot); b < table.getOffset(slot) + table.getCount(slot); b++) {
+                int copyFile = table.getFile(b);
+                int copy = table.getIndex(b);
+                TokenFingerprints copyPrints = index.getFingerprints(copyFile);
+                int copyPosition = copyPrints.getPositions()[copy];
+                int first = firstAnchor[copyFile];
+                // Anchors starting close enough before the position, walked back while one may still reach it
+                for (int a = startingAtMost(starts, first, firstAnchor[copyFile + 1], copyPosition + minTokens) - 1;
+                        a >= first && reach[a] >= copyPosition - minTokens; a--) {
+                    int anchor = order[a];
+                    if (anchorHigh[anchor] + minTokens < copyPosition) {
+                        continue;
+                    }
+                    long originalPosition = copyPosition - anchorOffset[anchor];
+                    TokenFingerprints originalPrints = index.getFingerprints(anchorFile[anchor]);
+                    int original = originalPosition < 0 ? -1
+                        : Arrays.binarySearch(originalPrints.getPositions(), (int) originalPosition);
+                    if (original >= 0 && originalPrints.getHashes()[original] == copyPrints.getHashes()[copy]) {
+                        bridged.add(new Match(anchorFile[anchor], copyFile, anchorOffset[anchor], (int) originalPosition,
+                            original, copy));
+                    }
+                }
+            }
+        }
+        return bridged;
+    }
+
+    // End of the run of sorted starts in [from, to) that are at most limit
+    private static int startingAtMost(long[] starts, int from, int to, long limit) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] <= limit) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static boolean continues(Match previous, Match next, ProjectSymbolIndex index) {
+        // Within one copied stretch, consecutive fingerprints are at most a window apart
+        return previous.originalFile == next.originalFile && previous.copyFile == next.copyFile
+            && previous.offset == next.offset
+            && next.originalPosition - previous.originalPosition <= index.getFingerprints(next.copyFile).getWindow();
+    }
+
+    private Clone toClone(List<Match> region, ProjectSymbolIndex index) {
+        Match first = region.get(0);
+        Match last = region.get(region.size() - 1);
+        TokenFingerprints original = index.getFingerprints(first.originalFile);
+        TokenFingerprints copy = index.getFingerprints(first.copyFile);
+
+        int tokens = last.originalPosition - first.originalPosition + copy.getKgramSize();
+        if (tokens < minTokens) {
+            return null;
+        }
+        if (first.originalFile == first.copyFile && first.offset < tokens) {
+            return null; // A stretch overlapping itself is repetition, not a copy
+        }
+
+        boolean exact = true;
+        for (Match match : region) {
+            if (original.getExactHashes()[match.originalIndex] != copy.getExactHashes()[match.copyIndex]) {
+                exact = false;
+                break;
+            }
+        }
+
+        Clone clone = new Clone();
+        clone.originalFile = index.getFile(first.originalFile);
+        clone.copyFile = index.getFile(first.copyFile);
+        clone.tokens = tokens;
+        clone.exact = exact;
+        clone.originalStart = original.getStartLines()[first.originalIndex];
+        clone.originalEnd = original.getEndLines()[last.originalIndex];
+        clone.copyStart = copy.getStartLines()[first.copyIndex];
+        clone.copyEnd = copy.getEndLines()[last.copyIndex];
+        return clone;
+    }
+
+    private CodeIssue createIssue(Clone clone) {
+        String cloneType = clone.exact ? "Type-1" : "Type-2";
+        String location = clone.originalFile.equals(clone.copyFile) ? "earlier in this file" : clone.originalFile;
+
+        CodeIssue issue = new CodeIssue("DuplicateCode", clone.copyFile, clone.copyStart,
+            Severity.fromEmoji(getSeverity(clone)),
+            String.format("%s clone of %d tokens (lines %d-%d) duplicates %s lines %d-%d",
+                cloneType, clone.tokens, clone.copyStart, clone.copyEnd, location, clone.originalStart, clone.originalEnd),
+            clone.exact ? "Extract the duplicated code into a shared method or class"
+                : "Extract the common logic and pass the differing names or values as parameters");
+        issue.setDetailedReason(String.format(
+            "Lines %d-%d repeat %d tokens of %s lines %d-%d%s. Every copy has to be fixed and changed separately, and copies tend to drift apart.",
+            clone.copyStart, clone.copyEnd, clone.tokens, location, clone.originalStart, clone.originalEnd,
+            clone.exact ? " exactly" : " with only identifiers or literals changed"));
+        issue.addMetric("cloneType", cloneType)
+            .addMetric("tokens", clone.tokens)
+            .addMetric("minTokens", minTokens)
+            .addMetric("endLine", clone.copyEnd)
+            .addMetric("duplicateFile", clone.originalFile)
+            .addMetric("duplicateStartLine", clone.originalStart)
+            .addMetric("duplicateEndLine", clone.originalEnd)
+            .addMetric("summary", "Code is flagged when at least " + minTokens +
+                " tokens are repeated, exactly or with renamed identifiers and changed literals.");
+        return issue;
+    }
+
+    private String getSeverity(Clone clone) {
+        if (clone.tokens >= minTokens * 4) return "🟡";
+        if (clone.tokens >= minTokens * 2 || clone.exact) return "🟠";
+        return "⚪";
+    }
+
+    private static class Match {
+        final int originalFile;
+        final int copyFile;
+        final long offset;
+        final int originalPosition;
+        final int originalIndex;
+        final int copyIndex;
+
+        Match(int originalFile, int copyFile, long offset, int originalPosition, int originalIndex, int copyIndex) {
+            this.originalFile = originalFile;
+            this.copyFile = copyFile;
+            this.offset = offset;
+            this.originalPosition = originalPosition;
+            this.originalIndex = originalIndex;
+            this.copyIndex = copyIndex;
+        }
+    }
+
+    private static class Clone {
+        String originalFile;
+        String copyFile;
+        int tokens;
+        boolean exact;
+        int originalStart;
+        int originalEnd;
+        int copyStart;
+        int copyEnd;
+    }
+
+    /**
+     * Every fingerprint of the project grouped by hash, each occurrence identified
+     * by its file and fingerprint index.
+     */
+    private static OccurrenceTable fingerprintTable(ProjectSymbolIndex index) {
+        int total = 0;
+        for (int file = 0; file < index.getFileCount(); file++) {
+            TokenFingerprints fingerprints = index.getFingerprints(file);
+            total += fingerprints == null ? 0 : fingerprints.size();
+        }
+        return OccurrenceTable.build(total, sink -> {
+            for (int file = 0; file < index.getFileCount(); file++) {
+                TokenFingerprints fingerprints = index.getFingerprints(file);
+                if (fingerprints == null) {
+                    continue;
+                }
+                long[] hashes = fingerprints.getHashes();
+                for (int i = 0; i < hashes.length; i++) {
+                    sink.accept(file, i, hashes[i]);
+                }
+            }
+        });
+    }
+}
@@ -1,11 +1,16 @@
 package com.devsync.detectors;
 
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
+import com.devsync.analyzer.AstNodeListener;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.stmt.*;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import java.util.*;
 
-public class EmptyCatchDetector {
+public class EmptyCatchDetector implements FusedDetector {
     
     private static final Set<String> CRITICAL_EXCEPTIONS = Set.of(
         "SecurityException", "IOException", "SQLException", "ClassNotFoundException",
@@ -16,12 +21,26 @@ public class EmptyCatchDetector {
         "ignore", "expected", "intentional", "suppress"
     );
 
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
-        Set<String> processedLines = new HashSet<>();
-        
+    // A comment inside an empty catch changes its severity
+    @Override
+    public boolean needsComments() {
+        return true;
+    }
+    
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getEmptyCatchEnabled, false);
+    }
+    
+    @Override
+    public FileScan startScan(CompilationUnit cu) {
         EmptyCatchAnalyzer analyzer = new EmptyCatchAnalyzer();
-        cu.accept(analyzer, null);
+        return new FileScan(analyzer, () -> report(analyzer));
+    }
+    
+    private List<CodeIssue> report(EmptyCatchAnalyzer analyzer) {
+        List<CodeIssue> issues = new ArrayList<>();
+        Set<String> processedLines = new HashSet<>();
         
         analyzer.getEmptyCatches().forEach(catchInfo -> {
             String lineKey = catchInfo.fileName + ":" + catchInfo.lineNumber;
@@ -35,17 +54,18 @@ public class EmptyCatchDetector {
             double score = calculateScore(catchInfo);
             String severity = getSeverity(score);
             
-            issues.add(String.format(
-                "%s [EmptyCatch] %s:%d - Empty catch block for %s - %s | Suggestions: %s | DetailedReason: %s | ThresholdDetails: {\"exceptionType\":\"%s\",\"isCriticalException\":%b,\"hasComment\":%b,\"hasAcceptablePattern\":%b,\"riskScore\":%.2f,\"summary\":\"Empty catch blocks are ALWAYS flagged as code smells.\"}" ,
-                severity,
-                catchInfo.fileName,
-                catchInfo.lineNumber,
-                catchInfo.exceptionType,
-                generateAnalysis(catchInfo),
-                generateSuggestions(catchInfo),
-                generateDetailedReason(catchInfo),
-                catchInfo.exceptionType, CRITICAL_EXCEPTIONS.contains(catchInfo.exceptionType), catchInfo.hasComment, catchInfo.hasComment && hasAcceptablePattern(catchInfo.comment), score
-            ));
+            CodeIssue issue = new CodeIssue("EmptyCatch", catchInfo.fileName, catchInfo.lineNumber,
+                Severity.fromEmoji(severity),
+                String.format("Empty catch block for %s - %s", catchInfo.exceptionType, generateAnalysis(catchInfo)),
+                generateSuggestions(catchInfo));
+            issue.setDetailedReason(generateDetailedReason(catchInfo));
+            issue.addMetric("exceptionType", catchInfo.exceptionType)
+                .addMetric("isCriticalException", CRITICAL_EXCEPTIONS.contains(catchInfo.exceptionType))
+                .addMetric("hasComment", catchInfo.hasComment)
+                .addMetric("hasAcceptablePattern", catchInfo.hasComment && hasAcceptablePattern(catchInfo.comment))
+                .addMetric("riskScore", score)
+                .addMetric("summary", "Empty catch blocks are ALWAYS flagged as code smells.");
+            issues.add(issue);
         });
         
         return issues;
@@ -130,7 +150,7 @@ public class EmptyCatchDetector {
         String comment;
     }
     
-    private static class EmptyCatchAnalyzer extends VoidVisitorAdapter<Void> {
+    private static class EmptyCatchAnalyzer implements AstNodeListener {
         private final List<CatchInfo> emptyCatches = new ArrayList<>();
         private String fileName = "";
         
@@ -139,13 +159,16 @@ public class EmptyCatchDetector {
         }
         
         @Override
-        public void visit(CompilationUnit n, Void arg) {
-            fileName = n.getStorage().map(s -> s.getFileName()).orElse("UnknownFile");
-            super.visit(n, arg);
+        public boolean enter(Node node) {
+            if (node instanceof CompilationUnit n) {
+                fileName = n.getStorage().map(s -> s.getFileName()).orElse("UnknownFile");
+            } else if (node instanceof TryStmt n) {
+                visitTry(n);
+            }
+            return true;
         }
         
-        @Override
-        public void visit(TryStmt n, Void arg) {
+        private void visitTry(TryStmt n) {
             n.getCatchClauses().forEach(catchClause -> {
                 BlockStmt catchBody = catchClause.getBody();
                 if (catchBody.getStatements().isEmpty()) {
@@ -159,8 +182,6 @@ public class EmptyCatchDetector {
                     emptyCatches.add(info);
                 }
             });
-            
-            super.visit(n, arg);
         }
     }
 }
\ No newline at end of file
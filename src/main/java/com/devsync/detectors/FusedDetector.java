@@ -0,0 +1,57 @@
+package com.devsync.detectors;
+
+import com.devsync.analyzer.AstNodeListener;
+import com.devsync.analyzer.FusedAstWalker;
+import com.devsync.model.CodeIssue;
+import com.github.javaparser.ast.CompilationUnit;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A detector whose analysis can ride on the engine's shared AST walk instead of
+ * running its own {@code cu.accept(...)} traversal. The engine starts one scan per
+ * file, feeds it node events together with the other detectors, then asks it for
+ * its issues.
+ */
+public interface FusedDetector extends Detector {
+
+    /**
+     * Creates the per-file state for {@code cu}. Scans are never shared between
+     * files or threads.
+     */
+    FileScan startScan(CompilationUnit cu);
+
+    /**
+     * Standalone entry point: walks {@code cu} for this detector alone.
+     */
+    @Override
+    default List<CodeIssue> analyze(CompilationUnit cu) {
+        FileScan scan = startScan(cu);
+        RuntimeException failure = FusedAstWalker.walk(cu, List.of(scan.getListener()))[0];
+        if (failure != null) {
+            throw failure;
+        }
+        return scan.finish();
+    }
+
+    final class FileScan {
+        private final AstNodeListener listener;
+        private final Supplier<List<CodeIssue>> reporter;
+
+        public FileScan(AstNodeListener listener, Supplier<List<CodeIssue>> reporter) {
+            this.listener = listener;
+            this.reporter = reporter;
+        }
+
+        public AstNodeListener getListener() {
+            return listener;
+        }
+
+        /**
+         * Turns what the listener collected into issues. Call once, after the walk.
+         */
+        public List<CodeIssue> finish() {
+            return reporter.get();
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.devsync.detectors;
 
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
+import com.devsync.analyzer.AstNodeListener;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.*;
-import com.github.javaparser.ast.expr.*;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import java.util.*;
 
-public class LongIdentifierDetector {
+public class LongIdentifierDetector implements FusedDetector {
     
     private int variableThreshold = 20;
     private int methodThreshold = 30;
@@ -22,11 +26,30 @@ public class LongIdentifierDetector {
         // Min length can be used for detecting too-short identifiers
     }
 
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
-        
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getLongIdentifierEnabled, false);
+    }
+    
+    @Override
+    public void configure(UserSettings settings) {
+        setMaxLength(AnalysisConfig.getMaxIdentifierLength(settings));
+        setMinLength(AnalysisConfig.getMinIdentifierLength(settings));
+    }
+    
+    @Override
+    public String getConfigSignature() {
+        return variableThreshold + "/" + methodThreshold + "/" + classThreshold;
+    }
+    
+    @Override
+    public FileScan startScan(CompilationUnit cu) {
         IdentifierAnalyzer analyzer = new IdentifierAnalyzer();
-        cu.accept(analyzer, null);
+        return new FileScan(analyzer, () -> report(cu, analyzer));
+    }
+    
+    private List<CodeIssue> report(CompilationUnit cu, IdentifierAnalyzer analyzer) {
+        List<CodeIssue> issues = new ArrayList<>();
         
         analyzer.getLongIdentifiers().forEach(identifierInfo -> {
             // THRESHOLD CHECK FIRST - binary detection
@@ -41,20 +64,22 @@ public class LongIdentifierDetector {
             String analysis = generateAnalysis(identifierInfo);
             String suggestions = generateSuggestions(identifierInfo);
             
-            issues.add(String.format(
-                "%s [LongIdentifier] %s:%d - %s '%s' (%d chars, Complexity: %.2f) - %s | Suggestions: %s | DetailedReason: %s | ThresholdDetails: {\"identifierLength\":%d,\"threshold\":%d,\"type\":\"%s\",\"wordCount\":%d,\"complexityScore\":%.2f,\"exceedsThreshold\":true,\"summary\":\"Identifiers are flagged when length >= threshold (method: 30, variable: 20, class: 35).\"}" ,
-                severity,
+            CodeIssue issue = new CodeIssue("LongIdentifier",
                 cu.getStorage().map(s -> s.getFileName()).orElse("UnknownFile"),
                 identifierInfo.lineNumber,
-                identifierInfo.type,
-                identifierInfo.name,
-                identifierInfo.length,
-                complexityScore,
-                analysis,
-                suggestions,
-                generateDetailedReason(identifierInfo, complexityScore),
-                identifierInfo.length, threshold, identifierInfo.type, identifierInfo.wordCount, complexityScore
-            ));
+                Severity.fromEmoji(severity),
+                String.format("%s '%s' (%d chars, Complexity: %.2f) - %s",
+                    identifierInfo.type, identifierInfo.name, identifierInfo.length, complexityScore, analysis),
+                suggestions);
+            issue.setDetailedReason(generateDetailedReason(identifierInfo, complexityScore));
+            issue.addMetric("identifierLength", identifierInfo.length)
+                .addMetric("threshold", threshold)
+                .addMetric("type", identifierInfo.type)
+                .addMetric("wordCount", identifierInfo.wordCount)
+                .addMetric("complexityScore", complexityScore)
+                .addMetric("exceedsThreshold", true)
+                .addMetric("summary", "Identifiers are flagged when length >= threshold (method: 30, variable: 20, class: 35).");
+            issues.add(issue);
         });
         
         return issues;
@@ -108,7 +133,7 @@ public class LongIdentifierDetector {
         int wordCount;
     }
     
-    private static class IdentifierAnalyzer extends VoidVisitorAdapter<Void> {
+    private static class IdentifierAnalyzer implements AstNodeListener {
         private final List<IdentifierInfo> longIdentifiers = new ArrayList<>();
         
         public List<IdentifierInfo> getLongIdentifiers() {
@@ -116,31 +141,21 @@ public class LongIdentifierDetector {
         }
         
         @Override
-        public void visit(ClassOrInterfaceDeclaration n, Void arg) {
-            addIdentifier(n.getNameAsString(), n.isInterface() ? "interface" : "class", 
-                n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(MethodDeclaration n, Void arg) {
-            addIdentifier(n.getNameAsString(), "method", 
-                n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(VariableDeclarator n, Void arg) {
-            addIdentifier(n.getNameAsString(), "variable", 
-                n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(Parameter n, Void arg) {
-            addIdentifier(n.getNameAsString(), "parameter", 
-                n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
+        public boolean enter(Node node) {
+            if (node instanceof ClassOrInterfaceDeclaration n) {
+                addIdentifier(n.getNameAsString(), n.isInterface() ? "interface" : "class", 
+                    n.getBegin().map(pos -> pos.line).orElse(0));
+            } else if (node instanceof MethodDeclaration n) {
+                addIdentifier(n.getNameAsString(), "method", 
+                    n.getBegin().map(pos -> pos.line).orElse(0));
+            } else if (node instanceof VariableDeclarator n) {
+                addIdentifier(n.getNameAsString(), "variable", 
+                    n.getBegin().map(pos -> pos.line).orElse(0));
+            } else if (node instanceof Parameter n) {
+                addIdentifier(n.getNameAsString(), "parameter", 
+                    n.getBegin().map(pos -> pos.line).orElse(0));
+            }
+            return true;
         }
         
         private void addIdentifier(String name, String type, int lineNumber) {
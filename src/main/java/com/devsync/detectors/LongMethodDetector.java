@@ -1,13 +1,20 @@
 package com.devsync.detectors;
 
+import com.devsync.analyzer.AstNodeListener;
+import com.devsync.analyzer.MethodMetrics;
+import com.devsync.config.AnalysisConfig;
+import com.devsync.dto.LongMethodThresholdDetails;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.MethodDeclaration;
-import com.github.javaparser.ast.stmt.*;
-import com.github.javaparser.ast.expr.*;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import com.github.javaparser.ast.expr.MethodCallExpr;
 import java.util.*;
+import java.util.regex.Pattern;
 
-public class LongMethodDetector {
+public class LongMethodDetector implements FusedDetector {
 
     private int baseLineThreshold = 35;
     private int criticalLineThreshold = 50;
@@ -25,6 +32,17 @@ public class LongMethodDetector {
         // Complexity is handled internally, but we can store it if needed
     }
 
+    // Call-name families that each count as one responsibility of the calling method
+    private static final Map<String, Pattern> RESPONSIBILITIES = new LinkedHashMap<>();
+    static {
+        RESPONSIBILITIES.put("persistence", Pattern.compile(".*save.*|.*store.*|.*persist.*"));
+        RESPONSIBILITIES.put("validation", Pattern.compile(".*validate.*|.*check.*|.*verify.*"));
+        RESPONSIBILITIES.put("logging", Pattern.compile(".*log.*|.*print.*"));
+        RESPONSIBILITIES.put("compute", Pattern.compile(".*calculate.*|.*compute.*|.*process.*"));
+        RESPONSIBILITIES.put("transform", Pattern.compile(".*format.*|.*convert.*|.*transform.*"));
+        RESPONSIBILITIES.put("network", Pattern.compile(".*send.*|.*connect.*|.*request.*"));
+    }
+
     private static final Map<String, Double> METHOD_TYPE_WEIGHTS = Map.of(
             "getter", 0.3,
             "setter", 0.3,
@@ -35,12 +53,33 @@ public class LongMethodDetector {
             "business", 1.0
     );
 
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getLongMethodEnabled, false);
+    }
+    
+    @Override
+    public void configure(UserSettings settings) {
+        setMaxLength(AnalysisConfig.getMaxMethodLength(settings));
+        setMaxComplexity(AnalysisConfig.getMaxMethodComplexity(settings));
+    }
+    
+    @Override
+    public String getConfigSignature() {
+        return baseLineThreshold + "/" + criticalLineThreshold;
+    }
+    
+    @Override
+    public FileScan startScan(CompilationUnit cu) {
+        MethodAnalyzer analyzer = new MethodAnalyzer();
+        return new FileScan(analyzer, () -> report(analyzer));
+    }
+
+    private List<CodeIssue> report(MethodAnalyzer analyzer) {
+        List<CodeIssue> issues = new ArrayList<>();
         Set<String> processed = new HashSet<>();
 
-        MethodAnalyzer analyzer = new MethodAnalyzer();
-        cu.accept(analyzer, null);
+        analyzer.measure();
 
         for (MethodInfo m : analyzer.getLongMethods()) {
             String key = m.fileName + ":" + m.methodName + ":" + m.lineNumber;
@@ -59,17 +98,13 @@ public class LongMethodDetector {
             double score = calculateScore(m);
             String severity = getSeverity(score);
 
-            issues.add(String.format(
-                    "%s [LongMethod] %s:%d - '%s' (%d statements) - %s | Suggestions: %s | DetailedReason: %s",
-                    severity,
-                    m.fileName,
-                    m.lineNumber,
-                    m.methodName,
-                    m.lineCount,
-                    generateAnalysis(m),
-                    generateSuggestions(m),
-                    generateDetailedReason(m)
-            ));
+            CodeIssue issue = new CodeIssue("LongMethod", m.fileName, m.lineNumber,
+                    Severity.fromEmoji(severity),
+                    String.format("'%s' (%d statements) - %s", m.methodName, m.lineCount, generateAnalysis(m)),
+                    generateSuggestions(m));
+            issue.setDetailedReason(generateDetailedReason(m));
+            issue.setThresholdDetails(buildThresholdDetails(m));
+            issues.add(issue);
         }
 
         return issues;
@@ -127,6 +162,28 @@ public class LongMethodDetector {
         return "Split logic into smaller methods, reduce branching, simplify nested blocks";
     }
 
+    private LongMethodThresholdDetails buildThresholdDetails(MethodInfo m) {
+        LongMethodThresholdDetails details = new LongMethodThresholdDetails();
+        details.setStatementCount(m.lineCount);
+        details.setBaseThreshold(baseLineThreshold);
+        details.setCriticalThreshold(criticalLineThreshold);
+        details.setExceedsStatementCount(m.lineCount > baseLineThreshold);
+        details.setCyclomaticComplexity(m.cyclomaticComplexity);
+        details.setMaxCyclomaticComplexity(MAX_CYCLOMATIC_COMPLEXITY);
+        details.setExceedsCyclomaticComplexity(m.cyclomaticComplexity > MAX_CYCLOMATIC_COMPLEXITY);
+        details.setCognitiveComplexity(m.cognitiveComplexity);
+        details.setMaxCognitiveComplexity(MAX_COGNITIVE_COMPLEXITY);
+        details.setExceedsCognitiveComplexity(m.cognitiveComplexity > MAX_COGNITIVE_COMPLEXITY);
+        details.setNestingDepth(m.nestingDepth);
+        details.setMaxNestingDepth(MAX_NESTING_DEPTH);
+        details.setExceedsNestingDepth(m.nestingDepth > MAX_NESTING_DEPTH);
+        details.setResponsibilityCount(m.responsibilityCount);
+        details.setMaxResponsibilityCount(3);
+        details.setExceedsResponsibilityCount(m.responsibilityCount > 3);
+        details.setSummary("A method is flagged when ANY of these thresholds is exceeded.");
+        return details;
+    }
+
     private String generateDetailedReason(MethodInfo m) {
         StringBuilder reason = new StringBuilder();
         reason.append("This method was flagged because: ");
@@ -181,6 +238,8 @@ public class LongMethodDetector {
     /*───────────────────────────────────────────────────────────────*/
 
     private static class MethodInfo {
+        MethodDeclaration declaration;
+        final Set<String> responsibilities = new HashSet<>();
         String fileName;
         String methodName;
         String className;
@@ -195,149 +254,66 @@ public class LongMethodDetector {
         int parameterCount;
     }
 
-    private static class MethodAnalyzer extends VoidVisitorAdapter<Void> {
+    private static class MethodAnalyzer implements AstNodeListener {
         private final List<MethodInfo> methods = new ArrayList<>();
+        // Methods being walked, innermost last; calls count for every enclosing method
+        private final List<MethodInfo> open = new ArrayList<>();
         private String fileName = "";
         private String className = "UnknownClass";
 
         public List<MethodInfo> getLongMethods() { return methods; }
 
         @Override
-        public void visit(CompilationUnit n, Void arg) {
-            fileName = n.getStorage().map(s -> s.getFileName()).orElse("UnknownFile");
-            super.visit(n, arg);
-        }
-
-        @Override
-        public void visit(MethodDeclaration n, Void arg) {
-            MethodInfo info = new MethodInfo();
-
-            info.fileName = fileName;
-            info.className = className;
-            info.methodName = n.getNameAsString();
-            info.lineNumber = n.getBegin().map(p -> p.line).orElse(0);
-
-            info.lineCount = n.findAll(Statement.class).size(); // FIXED STATEMENT COUNT
-
-            info.cyclomaticComplexity = getCyclomatic(n);
-            info.cognitiveComplexity = getCognitive(n);
-            info.nestingDepth = getNestingDepth(n);
-            info.responsibilityCount = getResponsibilities(n);
-
-            info.isStatic = n.isStatic();
-            info.isPublic = n.isPublic();
-            info.parameterCount = n.getParameters().size();
-
-            methods.add(info);
-
-            super.visit(n, arg);
-        }
-
-        private int getCyclomatic(MethodDeclaration n) {
-            ComplexityCalculator c = new ComplexityCalculator();
-            n.accept(c, null);
-            return c.getComplexity();
-        }
-
-        private int getCognitive(MethodDeclaration n) {
-            CognitiveComplexityCalculator c = new CognitiveComplexityCalculator();
-            n.accept(c, null);
-            return c.getComplexity();
-        }
-
-        private int getNestingDepth(MethodDeclaration n) {
-            NestingCalculator c = new NestingCalculator();
-            n.accept(c, null);
-            return c.getMaxDepth();
-        }
-
-        private int getResponsibilities(MethodDeclaration method) {
-            Set<String> types = new HashSet<>();
-
-            method.findAll(MethodCallExpr.class).forEach(call -> {
+        public boolean enter(Node node) {
+            if (node instanceof CompilationUnit n) {
+                fileName = n.getStorage().map(s -> s.getFileName()).orElse("UnknownFile");
+            } else if (node instanceof MethodDeclaration n) {
+                MethodInfo info = new MethodInfo();
+
+                info.declaration = n;
+                info.fileName = fileName;
+                info.className = className;
+                info.methodName = n.getNameAsString();
+                info.lineNumber = n.getBegin().map(p -> p.line).orElse(0);
+
+                info.isStatic = n.isStatic();
+                info.isPublic = n.isPublic();
+                info.parameterCount = n.getParameters().size();
+
+                methods.add(info);
+                open.add(info);
+            } else if (node instanceof MethodCallExpr call && !open.isEmpty()) {
                 String name = call.getNameAsString().toLowerCase();
-
-                if (name.matches(".*save.*|.*store.*|.*persist.*")) types.add("persistence");
-                if (name.matches(".*validate.*|.*check.*|.*verify.*")) types.add("validation");
-                if (name.matches(".*log.*|.*print.*")) types.add("logging");
-                if (name.matches(".*calculate.*|.*compute.*|.*process.*")) types.add("compute");
-                if (name.matches(".*format.*|.*convert.*|.*transform.*")) types.add("transform");
-                if (name.matches(".*send.*|.*connect.*|.*request.*")) types.add("network");
-            });
-
-            return types.size();
-        }
-    }
-
-    /*───────────────────────────────────────────────────────────────*/
-    /*                      Complexity Calculators                    */
-    /*───────────────────────────────────────────────────────────────*/
-
-    private static class ComplexityCalculator extends VoidVisitorAdapter<Void> {
-        private int complexity = 1;
-        public int getComplexity() { return complexity; }
-
-        @Override public void visit(IfStmt n, Void arg) { complexity++; super.visit(n,arg); }
-        @Override public void visit(ForStmt n, Void arg) { complexity++; super.visit(n,arg); }
-        @Override public void visit(WhileStmt n, Void arg) { complexity++; super.visit(n,arg); }
-        @Override public void visit(DoStmt n, Void arg) { complexity++; super.visit(n,arg); }
-        @Override public void visit(SwitchEntry n, Void arg) { if (!n.getLabels().isEmpty()) complexity++; super.visit(n,arg); }
-        @Override public void visit(ConditionalExpr n, Void arg) { complexity++; super.visit(n,arg); }
-
-        @Override
-        public void visit(BinaryExpr n, Void arg) {
-            if (n.getOperator() == BinaryExpr.Operator.AND ||
-                    n.getOperator() == BinaryExpr.Operator.OR) {
-                complexity++;
+                RESPONSIBILITIES.forEach((responsibility, pattern) -> {
+                    if (pattern.matcher(name).matches()) {
+                        open.forEach(m -> m.responsibilities.add(responsibility));
+                    }
+                });
             }
-            super.visit(n, arg);
-        }
-    }
-
-    private static class CognitiveComplexityCalculator extends VoidVisitorAdapter<Void> {
-        private int complexity = 0;
-        private int nesting = 0;
-
-        public int getComplexity() { return complexity; }
-
-        private void nested(Runnable r) {
-            nesting++;
-            r.run();
-            nesting--;
+            return true;
         }
 
-        @Override public void visit(IfStmt n, Void arg) { complexity += (1 + nesting); nested(() -> super.visit(n,arg)); }
-        @Override public void visit(ForStmt n, Void arg) { complexity += (1 + nesting); nested(() -> super.visit(n,arg)); }
-        @Override public void visit(WhileStmt n, Void arg) { complexity += (1 + nesting); nested(() -> super.visit(n,arg)); }
-        @Override public void visit(SwitchStmt n, Void arg) { complexity += (1 + nesting); nested(() -> super.visit(n,arg)); }
-
         @Override
-        public void visit(BinaryExpr n, Void arg) {
-            if (n.getOperator() == BinaryExpr.Operator.AND ||
-                    n.getOperator() == BinaryExpr.Operator.OR) {
-                complexity++;
+        public void exit(Node node) {
+            if (!open.isEmpty() && open.get(open.size() - 1).declaration == node) {
+                open.remove(open.size() - 1);
             }
-            super.visit(n, arg);
         }
-    }
-
-    private static class NestingCalculator extends VoidVisitorAdapter<Void> {
-        private int current = 0;
-        private int max = 0;
 
-        public int getMaxDepth() { return max; }
-
-        private void nested(Runnable r) {
-            current++;
-            max = Math.max(max, current);
-            r.run();
-            current--;
+        /**
+         * Measurements come from the shared {@link MethodMetrics} of each method,
+         * recorded during the engine's walk or measured here when run standalone.
+         */
+        void measure() {
+            for (MethodInfo info : methods) {
+                MethodMetrics metrics = MethodMetrics.of(info.declaration);
+                info.lineCount = metrics.statementCount();
+                info.cyclomaticComplexity = metrics.cyclomaticComplexity();
+                info.cognitiveComplexity = metrics.cognitiveComplexity();
+                info.nestingDepth = metrics.nestingDepth();
+                info.responsibilityCount = info.responsibilities.size();
+            }
         }
-
-        @Override public void visit(IfStmt n, Void a) { nested(() -> super.visit(n,a)); }
-        @Override public void visit(ForStmt n, Void a) { nested(() -> super.visit(n,a)); }
-        @Override public void visit(WhileStmt n, Void a) { nested(() -> super.visit(n,a)); }
-        @Override public void visit(TryStmt n, Void a) { nested(() -> super.visit(n,a)); }
     }
 
 }
@@ -1,14 +1,21 @@
 package com.devsync.detectors;
 
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
+import com.devsync.analyzer.AstNodeListener;
+import com.devsync.analyzer.MethodMetrics;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class LongParameterListDetector {
+public class LongParameterListDetector implements FusedDetector {
     
     private int baseParameterThreshold = 4;
     private int criticalParameterThreshold = 7;
@@ -37,11 +44,29 @@ public class LongParameterListDetector {
         "test", 0.7
     );
 
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
-        
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getLongParameterEnabled, false);
+    }
+    
+    @Override
+    public void configure(UserSettings settings) {
+        setMaxParameters(AnalysisConfig.getMaxParameterCount(settings));
+    }
+    
+    @Override
+    public String getConfigSignature() {
+        return baseParameterThreshold + "/" + criticalParameterThreshold + "/" + constructorThreshold;
+    }
+    
+    @Override
+    public FileScan startScan(CompilationUnit cu) {
         ParameterAnalyzer analyzer = new ParameterAnalyzer();
-        cu.accept(analyzer, null);
+        return new FileScan(analyzer, () -> report(cu, analyzer));
+    }
+    
+    private List<CodeIssue> report(CompilationUnit cu, ParameterAnalyzer analyzer) {
+        List<CodeIssue> issues = new ArrayList<>();
         
         analyzer.getProblematicMethods().forEach(paramInfo -> {
             // THRESHOLD CHECK FIRST - binary detection
@@ -56,30 +81,30 @@ public class LongParameterListDetector {
             String analysis = generateAnalysis(paramInfo);
             String suggestions = generateSuggestions(paramInfo);
             
-            issues.add(String.format(
-                "%s [LongParameterList] %s:%d - %s '%s' (%d params, Complexity: %.2f) - %s | Suggestions: %s | DetailedReason: %s | ThresholdDetails: {\"parameterCount\":%d,\"threshold\":%d,\"criticalThreshold\":%d,\"primitiveCount\":%d,\"totalParams\":%d,\"hasConsecutiveSameTypes\":%b,\"lacksCohesion\":%b,\"hasComplexTypes\":%b,\"complexityScore\":%.2f,\"exceedsThreshold\":%b,\"summary\":\"A method is flagged when parameter count >= threshold (%d).\"}",
-                severity,
+            CodeIssue issue = new CodeIssue("LongParameterList",
                 cu.getStorage().map(s -> s.getFileName()).orElse("UnknownFile"),
                 paramInfo.lineNumber,
-                paramInfo.isConstructor ? "Constructor" : "Method",
-                paramInfo.methodName,
-                paramInfo.parameterCount,
-                complexityScore,
-                analysis,
-                suggestions,
-                generateDetailedReason(paramInfo, complexityScore),
-                paramInfo.parameterCount,
-                threshold,
-                criticalParameterThreshold,
-                paramInfo.primitiveCount,
-                paramInfo.parameterCount,
-                paramInfo.hasConsecutiveSameTypes,
-                paramInfo.lacksCohesion,
-                paramInfo.hasComplexTypes,
-                complexityScore,
-                paramInfo.parameterCount >= threshold,
-                threshold
-            ));
+                Severity.fromEmoji(severity),
+                String.format("%s '%s' (%d params, Complexity: %.2f) - %s",
+                    paramInfo.isConstructor ? "Constructor" : "Method",
+                    paramInfo.methodName, paramInfo.parameterCount, complexityScore, analysis),
+                suggestions);
+            issue.setDetailedReason(generateDetailedReason(paramInfo, complexityScore));
+            MethodMetrics body = MethodMetrics.of(paramInfo.declaration);
+            issue.addMetric("parameterCount", paramInfo.parameterCount)
+                .addMetric("threshold", threshold)
+                .addMetric("criticalThreshold", criticalParameterThreshold)
+                .addMetric("primitiveCount", paramInfo.primitiveCount)
+                .addMetric("totalParams", paramInfo.parameterCount)
+                .addMetric("hasConsecutiveSameTypes", paramInfo.hasConsecutiveSameTypes)
+                .addMetric("lacksCohesion", paramInfo.lacksCohesion)
+                .addMetric("hasComplexTypes", paramInfo.hasComplexTypes)
+                .addMetric("complexityScore", complexityScore)
+                .addMetric("statementCount", body.statementCount())
+                .addMetric("cyclomaticComplexity", body.cyclomaticComplexity())
+                .addMetric("exceedsThreshold", paramInfo.parameterCount >= threshold)
+                .addMetric("summary", String.format("A method is flagged when parameter count >= threshold (%d).", threshold));
+            issues.add(issue);
         });
         
         return issues;
@@ -272,6 +297,7 @@ public class LongParameterListDetector {
     }
     
     private static class ParameterInfo {
+        CallableDeclaration<?> declaration;
         String methodName;
         int lineNumber;
         int parameterCount;
@@ -291,7 +317,7 @@ public class LongParameterListDetector {
         }
     }
     
-    private static class ParameterAnalyzer extends VoidVisitorAdapter<Void> {
+    private static class ParameterAnalyzer implements AstNodeListener {
         private final List<ParameterInfo> problematicMethods = new ArrayList<>();
         
         public List<ParameterInfo> getProblematicMethods() {
@@ -299,24 +325,21 @@ public class LongParameterListDetector {
         }
         
         @Override
-        public void visit(MethodDeclaration n, Void arg) {
-            ParameterInfo info = analyzeParameters(n.getParameters(), n.getNameAsString(), 
-                n.getBegin().map(pos -> pos.line).orElse(0), false, n.isStatic(), n.isPublic());
-            problematicMethods.add(info);
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(ConstructorDeclaration n, Void arg) {
-            ParameterInfo info = analyzeParameters(n.getParameters(), n.getNameAsString(), 
-                n.getBegin().map(pos -> pos.line).orElse(0), true, false, n.isPublic());
-            problematicMethods.add(info);
-            super.visit(n, arg);
+        public boolean enter(Node node) {
+            if (node instanceof MethodDeclaration n) {
+                problematicMethods.add(analyzeParameters(n, n.getParameters(), n.getNameAsString(), 
+                    n.getBegin().map(pos -> pos.line).orElse(0), false, n.isStatic(), n.isPublic()));
+            } else if (node instanceof ConstructorDeclaration n) {
+                problematicMethods.add(analyzeParameters(n, n.getParameters(), n.getNameAsString(), 
+                    n.getBegin().map(pos -> pos.line).orElse(0), true, false, n.isPublic()));
+            }
+            return true;
         }
         
-        private ParameterInfo analyzeParameters(List<Parameter> parameters, String methodName, 
+        private ParameterInfo analyzeParameters(CallableDeclaration<?> declaration, List<Parameter> parameters, String methodName, 
                                               int lineNumber, boolean isConstructor, boolean isStatic, boolean isPublic) {
             ParameterInfo info = new ParameterInfo();
+            info.declaration = declaration;
             info.methodName = methodName;
             info.lineNumber = lineNumber;
             info.parameterCount = parameters.size();
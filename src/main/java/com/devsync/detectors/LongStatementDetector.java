@@ -1,13 +1,19 @@
 package com.devsync.detectors;
 
+import com.devsync.analyzer.AstNodeListener;
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.TokenRange;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.stmt.*;
 import com.github.javaparser.ast.expr.*;
-import com.github.javaparser.ast.body.*;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import java.util.*;
 
-public class LongStatementDetector {
+public class LongStatementDetector implements FusedDetector {
 
     private int BASE_TOKEN_THRESHOLD = 40;
     private int CRITICAL_TOKEN_THRESHOLD = 80;
@@ -29,24 +35,33 @@ public class LongStatementDetector {
         this.MAX_METHOD_CHAIN = maxChainLength;
     }
 
-    // Keywords that indicate anonymous class/lambda patterns
-    private static final Set<String> ANONYMOUS_INDICATORS = Set.of(
-            "new ", "@Override", "public void ", "protected void ", "private void "
-    );
-
-    // Patterns that typically indicate anonymous classes
-    private static final Set<String> ANONYMOUS_PATTERNS = Set.of(
-            "ChildEventListener", "ValueEventListener", "OnClickListener",
-            "OnItemClickListener", "AdapterView.OnItemClickListener"
-    );
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getLongStatementEnabled, false);
+    }
+    
+    @Override
+    public void configure(UserSettings settings) {
+        setMaxTokens(AnalysisConfig.getMaxStatementTokens(settings));
+        setMaxChars(AnalysisConfig.getMaxStatementChars(settings));
+        setMaxChainLength(AnalysisConfig.getMaxMethodChainLength(settings));
+    }
+    
+    @Override
+    public String getConfigSignature() {
+        return BASE_TOKEN_THRESHOLD + "/" + CRITICAL_TOKEN_THRESHOLD + "/" + BASE_CHAR_THRESHOLD + "/" + CRITICAL_CHAR_THRESHOLD + "/" + MAX_METHOD_CHAIN;
+    }
+    
+    @Override
+    public FileScan startScan(CompilationUnit cu) {
+        StatementAnalyzer analyzer = new StatementAnalyzer(cu.getStorage().map(s -> s.getFileName()).orElse("UnknownFile"));
+        return new FileScan(analyzer, () -> report(analyzer));
+    }
 
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
+    private List<CodeIssue> report(StatementAnalyzer analyzer) {
+        List<CodeIssue> issues = new ArrayList<>();
         Set<String> processedLines = new HashSet<>();
 
-        StatementAnalyzer analyzer = new StatementAnalyzer();
-        cu.accept(analyzer, null);
-
         analyzer.getLongStatements().forEach(stmtInfo -> {
             String lineKey = stmtInfo.fileName + ":" + stmtInfo.lineNumber;
             if (processedLines.contains(lineKey)) {
@@ -93,22 +108,23 @@ public class LongStatementDetector {
 
             String severity = getSeverity(score);
 
-            issues.add(String.format(
-                    "%s [LongStatement] %s:%d - %s (%d tokens, %d chars) - %s | Suggestions: %s | DetailedReason: %s | ThresholdDetails: {\"tokenCount\":%d,\"tokenThreshold\":%d,\"charLength\":%d,\"charThreshold\":%d,\"expressionComplexity\":%d,\"methodChainLength\":%d,\"exceedsTokenThreshold\":%b,\"exceedsCharThreshold\":%b,\"containsAnonymousClass\":%b,\"isLambdaOrMethodRef\":%b}",
-                    severity,
-                    stmtInfo.fileName,
-                    stmtInfo.lineNumber,
-                    stmtInfo.type,
-                    stmtInfo.tokenCount,
-                    stmtInfo.charLength,
-                    generateAnalysis(stmtInfo),
-                    generateSuggestions(stmtInfo),
-                    generateDetailedReason(stmtInfo, score),
-                    stmtInfo.tokenCount, BASE_TOKEN_THRESHOLD, stmtInfo.charLength, BASE_CHAR_THRESHOLD,
-                    stmtInfo.expressionComplexity, stmtInfo.methodChainLength,
-                    stmtInfo.tokenCount >= BASE_TOKEN_THRESHOLD, stmtInfo.charLength >= BASE_CHAR_THRESHOLD,
-                    stmtInfo.containsAnonymousClass, stmtInfo.isLambdaOrMethodRef
-            ));
+            CodeIssue issue = new CodeIssue("LongStatement", stmtInfo.fileName, stmtInfo.lineNumber,
+                    Severity.fromEmoji(severity),
+                    String.format("%s (%d tokens, %d chars) - %s",
+                            stmtInfo.type, stmtInfo.tokenCount, stmtInfo.charLength, generateAnalysis(stmtInfo)),
+                    generateSuggestions(stmtInfo));
+            issue.setDetailedReason(generateDetailedReason(stmtInfo, score));
+            issue.addMetric("tokenCount", stmtInfo.tokenCount)
+                    .addMetric("tokenThreshold", BASE_TOKEN_THRESHOLD)
+                    .addMetric("charLength", stmtInfo.charLength)
+                    .addMetric("charThreshold", BASE_CHAR_THRESHOLD)
+                    .addMetric("expressionComplexity", stmtInfo.expressionComplexity)
+                    .addMetric("methodChainLength", stmtInfo.methodChainLength)
+                    .addMetric("exceedsTokenThreshold", stmtInfo.tokenCount >= BASE_TOKEN_THRESHOLD)
+                    .addMetric("exceedsCharThreshold", stmtInfo.charLength >= BASE_CHAR_THRESHOLD)
+                    .addMetric("containsAnonymousClass", stmtInfo.containsAnonymousClass)
+                    .addMetric("isLambdaOrMethodRef", stmtInfo.isLambdaOrMethodRef);
+            issues.add(issue);
         });
 
         return issues;
@@ -116,21 +132,14 @@ public class LongStatementDetector {
 
     private boolean shouldSkipCommonPattern(StatementInfo stmtInfo) {
         // Skip common Android patterns that are often long but acceptable
-        if (stmtInfo.type.equals("Method call") && stmtInfo.content != null) {
-            String content = stmtInfo.content;
-
-            // Skip findViewById calls - they're common and acceptable
-            if (content.contains("findViewById")) {
-                return true;
-            }
-
-            // Skip setOnClickListener with lambdas (already filtered by isLambdaOrMethodRef)
-            if (content.contains("setOnClickListener")) {
+        if (stmtInfo.type.equals("Method call")) {
+            // Skip findViewById and setOnClickListener calls - they're common and acceptable
+            if (stmtInfo.callsViewBoilerplate) {
                 return true;
             }
 
             // Skip Firebase initialization patterns
-            if (content.contains("FirebaseDatabase.getInstance()") &&
+            if (stmtInfo.callsFirebaseInstance &&
                     stmtInfo.tokenCount < 60) {
                 return true;
             }
@@ -270,367 +279,243 @@ public class LongStatementDetector {
         int nestingDepth;
         boolean containsAnonymousClass = false;
         boolean isLambdaOrMethodRef = false;
-        String content; // Store the actual content for pattern matching
+        // Names seen among the tokens, for the common-pattern exemptions
+        boolean callsViewBoilerplate;
+        boolean callsFirebaseInstance;
     }
 
-    private static class StatementAnalyzer extends VoidVisitorAdapter<Void> {
+    /**
+     * Measures statements and the expressions inside them from their source
+     * tokens rather than their printed form: words are counted by token category,
+     * lengths come from the token text, and method chains and anonymous classes
+     * are read off the AST while the walk passes through the expression.
+     */
+    private static class StatementAnalyzer implements AstNodeListener {
         private final List<StatementInfo> longStatements = new ArrayList<>();
-        private String fileName = "";
+        private final String fileName;
         private int nestingDepth = 0;
+        // Only the first statement measured on a line can be reported
+        private final BitSet measuredLines = new BitSet();
+        // Expressions being walked that have a StatementInfo, innermost on top
+        private final Deque<Node> openNodes = new ArrayDeque<>();
+        private final Deque<StatementInfo> openInfos = new ArrayDeque<>();
 
-        public List<StatementInfo> getLongStatements() {
-            return longStatements;
+        StatementAnalyzer(String fileName) {
+            this.fileName = fileName;
         }
 
-        @Override
-        public void visit(CompilationUnit n, Void arg) {
-            fileName = n.getStorage().map(s -> s.getFileName()).orElse("UnknownFile");
-            super.visit(n, arg);
+        public List<StatementInfo> getLongStatements() {
+            return longStatements;
         }
 
         @Override
-        public void visit(ExpressionStmt n, Void arg) {
-            Expression expr = n.getExpression();
-            String content = expr.toString();
-            int lineNumber = n.getBegin().map(pos -> pos.line).orElse(0);
-
-            // Check if this expression contains an anonymous class or lambda
-            boolean hasAnonymousClass = checkForAnonymousClass(expr, content);
-            boolean isLambda = expr instanceof LambdaExpr;
-            boolean isMethodRef = expr instanceof MethodReferenceExpr;
-
-            // If it's an anonymous class or lambda, we should analyze it differently
-            if (hasAnonymousClass || isLambda || isMethodRef) {
-                StatementInfo info = createStatementInfo(
-                        hasAnonymousClass ? "ExpressionWithAnonymousClass" :
-                                isLambda ? "LambdaExpr" : "MethodReference",
-                        content, lineNumber);
-                info.containsAnonymousClass = hasAnonymousClass;
-                info.isLambdaOrMethodRef = isLambda || isMethodRef;
-                longStatements.add(info);
-            } else {
-                // Regular expression - analyze normally
-                StatementInfo info = createStatementInfo("ExpressionStmt", content, lineNumber);
-                longStatements.add(info);
-            }
-
-            super.visit(n, arg);
-        }
-
-        private boolean checkForAnonymousClass(Expression expr, String content) {
-            // First check AST structure
-            if (expr instanceof ObjectCreationExpr) {
-                ObjectCreationExpr objectCreation = (ObjectCreationExpr) expr;
-                return objectCreation.getAnonymousClassBody().isPresent();
-            } else if (expr instanceof MethodCallExpr) {
-                // Check if any argument is an anonymous class
-                MethodCallExpr methodCall = (MethodCallExpr) expr;
-                for (Expression arg : methodCall.getArguments()) {
-                    if (arg instanceof ObjectCreationExpr) {
-                        ObjectCreationExpr objectCreation = (ObjectCreationExpr) arg;
-                        if (objectCreation.getAnonymousClassBody().isPresent()) {
-                            return true;
-                        }
-                    }
-                }
-            }
-
-            // String-based detection as fallback
-            String normalized = content.trim();
-
-            // Look for anonymous class patterns
-            // Pattern 1: "new SomeClass() {"
-            if (normalized.matches(".*new\\s+[A-Za-z_$][A-Za-z0-9_$]*\\s*\\([^)]*\\)\\s*\\{.*")) {
-                return true;
-            }
-
-            // Pattern 2: Common anonymous class names in Android
-            for (String pattern : ANONYMOUS_PATTERNS) {
-                if (normalized.contains("new " + pattern + "(") &&
-                        normalized.contains("{")) {
-                    return true;
+        public boolean enter(Node node) {
+            if (isNestingStatement(node)) {
+                nestingDepth++;
+            } else if (node instanceof Expression expr) {
+                if (expr instanceof ObjectCreationExpr creation && creation.getAnonymousClassBody().isPresent()) {
+                    openInfos.forEach(info -> info.containsAnonymousClass = true);
+                } else if (expr instanceof MethodCallExpr call && !isChainedScope(call)) {
+                    int chain = chainLength(call);
+                    openInfos.forEach(info -> info.methodChainLength = Math.max(info.methodChainLength, chain));
                 }
+                analyzeExpression(expr);
             }
-
-            // Pattern 3: Contains @Override annotation (common in anonymous classes)
-            if (normalized.contains("@Override") && normalized.contains("new ")) {
-                return true;
-            }
-
-            // Pattern 4: Very long content with method definitions (likely anonymous class)
-            if (content.length() > 1000 &&
-                    (content.contains("public void ") || content.contains("protected void ") ||
-                            content.contains("private void "))) {
-                return true;
-            }
-
-            return false;
-        }
-
-        @Override
-        public void visit(ObjectCreationExpr n, Void arg) {
-            String content = n.toString();
-            int lineNumber = n.getBegin().map(pos -> pos.line).orElse(0);
-
-            if (n.getAnonymousClassBody().isPresent()) {
-                // For anonymous classes, analyze only the creation part
-                String creationPart = n.getType() + " new " + n.getType() + n.getArguments().toString();
-                StatementInfo info = createStatementInfo("AnonymousClassCreation", creationPart, lineNumber);
-                info.containsAnonymousClass = true;
-                info.content = content;
-                longStatements.add(info);
-            } else {
-                // Regular object creation
-                StatementInfo info = createStatementInfo("ObjectCreation", content, lineNumber);
-                longStatements.add(info);
-            }
-
-            super.visit(n, arg);
-        }
-
-        @Override
-        public void visit(LambdaExpr n, Void arg) {
-            StatementInfo info = createStatementInfo("LambdaExpr", n.toString(),
-                    n.getBegin().map(pos -> pos.line).orElse(0));
-            info.isLambdaOrMethodRef = true;
-            longStatements.add(info);
-            super.visit(n, arg);
-        }
-
-        @Override
-        public void visit(MethodReferenceExpr n, Void arg) {
-            StatementInfo info = createStatementInfo("MethodReference", n.toString(),
-                    n.getBegin().map(pos -> pos.line).orElse(0));
-            info.isLambdaOrMethodRef = true;
-            longStatements.add(info);
-            super.visit(n, arg);
-        }
-
-        @Override
-        public void visit(IfStmt n, Void arg) {
-            nestingDepth++;
-            if (n.getCondition() != null) {
-                analyzeExpression("If condition", n.getCondition(),
-                        n.getBegin().map(pos -> pos.line).orElse(0));
-            }
-            super.visit(n, arg);
-            nestingDepth--;
-        }
-
-        @Override
-        public void visit(ForStmt n, Void arg) {
-            nestingDepth++;
-            n.getInitialization().forEach(init ->
-                    analyzeExpression("For init", init, n.getBegin().map(pos -> pos.line).orElse(0)));
-            n.getCompare().ifPresent(cond ->
-                    analyzeExpression("For condition", cond, n.getBegin().map(pos -> pos.line).orElse(0)));
-            n.getUpdate().forEach(update ->
-                    analyzeExpression("For update", update, n.getBegin().map(pos -> pos.line).orElse(0)));
-            super.visit(n, arg);
-            nestingDepth--;
-        }
-
-        @Override
-        public void visit(WhileStmt n, Void arg) {
-            nestingDepth++;
-            if (n.getCondition() != null) {
-                analyzeExpression("While condition", n.getCondition(),
-                        n.getBegin().map(pos -> pos.line).orElse(0));
-            }
-            super.visit(n, arg);
-            nestingDepth--;
+            return true;
         }
 
         @Override
-        public void visit(DoStmt n, Void arg) {
-            nestingDepth++;
-            if (n.getCondition() != null) {
-                analyzeExpression("Do-while condition", n.getCondition(),
-                        n.getBegin().map(pos -> pos.line).orElse(0));
+        public void exit(Node node) {
+            if (isNestingStatement(node)) {
+                nestingDepth--;
+            } else if (node == openNodes.peek()) {
+                openNodes.pop();
+                openInfos.pop();
             }
-            super.visit(n, arg);
-            nestingDepth--;
-        }
-
-        @Override
-        public void visit(AssignExpr n, Void arg) {
-            analyzeExpression("Assignment", n, n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
-        }
-
-        @Override
-        public void visit(MethodCallExpr n, Void arg) {
-            analyzeExpression("Method call", n, n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
         }
 
-        @Override
-        public void visit(ReturnStmt n, Void arg) {
-            if (n.getExpression().isPresent()) {
-                analyzeExpression("Return", n.getExpression().get(),
-                        n.getBegin().map(pos -> pos.line).orElse(0));
+        private void analyzeExpression(Expression expr) {
+            if (expr instanceof LambdaExpr || expr instanceof MethodReferenceExpr) {
+                return; // Never reported
             }
-            super.visit(n, arg);
-        }
-
-        @Override
-        public void visit(VariableDeclarationExpr n, Void arg) {
-            analyzeExpression("Variable declaration", n,
-                    n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
-        }
-
-        @Override
-        public void visit(SwitchStmt n, Void arg) {
-            nestingDepth++;
-            if (n.getSelector() != null) {
-                analyzeExpression("Switch selector", n.getSelector(),
-                        n.getBegin().map(pos -> pos.line).orElse(0));
+            Node parent = expr.getParentNode().orElse(null);
+            String type = roleInStatement(expr, parent);
+            Node anchor = parent;
+            if (type == null) {
+                type = ownType(expr);
+                anchor = expr;
             }
-            super.visit(n, arg);
-            nestingDepth--;
-        }
-
-        @Override
-        public void visit(SynchronizedStmt n, Void arg) {
-            nestingDepth++;
-            if (n.getExpression() != null) {
-                analyzeExpression("Synchronized expression", n.getExpression(),
-                        n.getBegin().map(pos -> pos.line).orElse(0));
+            if (type == null) {
+                return;
             }
-            super.visit(n, arg);
-            nestingDepth--;
-        }
-
-        private void analyzeExpression(String type, Expression expr, int lineNumber) {
-            String content = expr.toString().trim();
-
-            // Skip expressions that are clearly anonymous classes or lambdas
-            if (checkForAnonymousClass(expr, content) ||
-                    expr instanceof LambdaExpr ||
-                    expr instanceof MethodReferenceExpr) {
-                return; // These are handled separately
+            int lineNumber = anchor.getBegin().map(pos -> pos.line).orElse(0);
+            if (measuredLines.get(lineNumber)) {
+                return;
             }
+            measuredLines.set(lineNumber);
 
-            StatementInfo info = createStatementInfo(type, content, lineNumber);
-            longStatements.add(info);
-        }
-
-        private StatementInfo createStatementInfo(String type, String content, int lineNumber) {
             StatementInfo info = new StatementInfo();
             info.fileName = fileName;
             info.type = type;
             info.lineNumber = lineNumber;
-            info.charLength = content.length();
-            info.content = content;
-
-            // Don't calculate metrics for very long anonymous-looking content
-            if (content.length() > 1000 &&
-                    (content.contains("public void ") || content.contains("@Override"))) {
-                info.tokenCount = 0;
-                info.expressionComplexity = 0;
-                info.methodChainLength = 0;
-            } else {
-                info.tokenCount = countTokens(content);
-                info.expressionComplexity = calculateExpressionComplexity(content);
-                info.methodChainLength = countMethodChain(content);
-            }
-
             info.nestingDepth = nestingDepth;
-            return info;
-        }
-
-        private int countTokens(String content) {
-            // Remove string literals first as they can contain punctuation
-            String withoutLiterals = content.replaceAll("\"[^\"]*\"", "STRING");
-
-            // Split by operators, whitespace, and meaningful delimiters
-            String[] tokens = withoutLiterals.split("[\\s+\\-*/=<>!&|(){}\\[\\],;.:]+");
-
-            int count = 0;
-            for (String token : tokens) {
-                String trimmed = token.trim();
-                if (!trimmed.isEmpty() && trimmed.length() > 0) {
-                    // Don't count punctuation characters as separate tokens
-                    if (!trimmed.matches("^[+\\-*/=<>!&|(){}\\[\\],;.:]$")) {
-                        count++;
+            if (expr instanceof MethodCallExpr call) {
+                info.methodChainLength = chainLength(call);
+            }
+            expr.getTokenRange().ifPresent(range -> measure(info, range));
+            longStatements.add(info);
+            openNodes.push(expr);
+            openInfos.push(info);
+        }
+
+        /**
+         * The expression's role in its enclosing statement, named after the
+         * statement; null when it is not a statement's own expression.
+         */
+        private static String roleInStatement(Expression expr, Node parent) {
+            if (parent instanceof ExpressionStmt) {
+                return "ExpressionStmt";
+            } else if (parent instanceof IfStmt n && n.getCondition() == expr) {
+                return "If condition";
+            } else if (parent instanceof WhileStmt n && n.getCondition() == expr) {
+                return "While condition";
+            } else if (parent instanceof DoStmt n && n.getCondition() == expr) {
+                return "Do-while condition";
+            } else if (parent instanceof SwitchStmt n && n.getSelector() == expr) {
+                return "Switch selector";
+            } else if (parent instanceof SynchronizedStmt n && n.getExpression() == expr) {
+                return "Synchronized expression";
+            } else if (parent instanceof ReturnStmt) {
+                return "Return";
+            } else if (parent instanceof ForStmt n) {
+                if (n.getCompare().orElse(null) == expr) {
+                    return "For condition";
+                }
+                for (Expression init : n.getInitialization()) {
+                    if (init == expr) {
+                        return "For init";
+                    }
+                }
+                for (Expression update : n.getUpdate()) {
+                    if (update == expr) {
+                        return "For update";
                     }
                 }
             }
-            return count;
+            return null;
         }
 
-        private int calculateExpressionComplexity(String content) {
-            // Skip for very long content (likely anonymous classes)
-            if (content.length() > 500) {
-                return 0;
+        private static String ownType(Expression expr) {
+            if (expr instanceof AssignExpr) {
+                return "Assignment";
+            } else if (expr instanceof MethodCallExpr) {
+                return "Method call";
+            } else if (expr instanceof VariableDeclarationExpr) {
+                return "Variable declaration";
+            } else if (expr instanceof ObjectCreationExpr creation && creation.getAnonymousClassBody().isEmpty()) {
+                return "ObjectCreation";
             }
+            return null;
+        }
 
-            int complexity = 0;
-            String withoutLiterals = content.replaceAll("\"[^\"]*\"", "");
-
-            // Count operators with weights
-            complexity += countOccurrences(withoutLiterals, "[+\\-*/%]") * 1; // Arithmetic
-            complexity += countOccurrences(withoutLiterals, "[=<>!]=?|&&|\\|\\|") * 2; // Comparison/logical
-            complexity += countOccurrences(withoutLiterals, "\\?|:") * 3; // Ternary
+        private static boolean isNestingStatement(Node node) {
+            return node instanceof IfStmt || node instanceof ForStmt || node instanceof WhileStmt
+                    || node instanceof DoStmt || node instanceof SwitchStmt || node instanceof SynchronizedStmt;
+        }
 
-            // Count parentheses
-            complexity += countOccurrences(withoutLiterals, "\\(") * 2;
+        // True for a call that is the scope of another call, i.e. not the last link of its chain
+        private static boolean isChainedScope(MethodCallExpr call) {
+            return call.getParentNode().orElse(null) instanceof MethodCallExpr outer
+                    && outer.getScope().orElse(null) == call;
+        }
 
-            // Count method calls (excluding patterns that look like anonymous classes)
-            if (!content.contains("new ") || !content.contains("{")) {
-                complexity += countOccurrences(withoutLiterals, "\\.[a-zA-Z_][a-zA-Z0-9_]*\\(") * 2;
+        // Calls in a row, each the scope of the next: a.b().c() is 2
+        private static int chainLength(MethodCallExpr call) {
+            int length = 0;
+            for (Expression e = call; e instanceof MethodCallExpr m; e = m.getScope().orElse(null)) {
+                length++;
             }
-
-            // Count array/list accesses
-            complexity += countOccurrences(withoutLiterals, "\\[.*?\\]") * 2;
-
-            // Calculate nesting depth
+            return length;
+        }
+
+        /**
+         * One pass over the tokens: identifiers, keywords and literals count as
+         * tokens (operators and separators do not, so a string literal is one
+         * token), the length is the token text with each whitespace run counted
+         * as one character, and operators, calls and bracket nesting add to the
+         * expression complexity.
+         */
+        private static void measure(StatementInfo info, TokenRange range) {
+            int tokens = 0;
+            int chars = 0;
+            int complexity = 0;
+            int nesting = 0;
             int maxNesting = 0;
-            int currentNesting = 0;
-            for (char c : withoutLiterals.toCharArray()) {
-                if (c == '(' || c == '[' || c == '{') {
-                    currentNesting++;
-                    maxNesting = Math.max(maxNesting, currentNesting);
-                } else if (c == ')' || c == ']' || c == '}') {
-                    currentNesting--;
+            boolean inWhitespace = false;
+            // Last two significant tokens, for ".name(" calls, and the name before the last dot
+            JavaToken.Kind previous = null;
+            JavaToken.Kind beforePrevious = null;
+            String previousText = "";
+            String scopeText = "";
+
+            for (JavaToken token : range) {
+                JavaToken.Category category = token.getCategory();
+                if (category.isWhitespace()) {
+                    if (!inWhitespace) {
+                        chars++;
+                        inWhitespace = true;
+                    }
+                    continue;
+                }
+                inWhitespace = false;
+                String text = token.getText();
+                chars += text.length();
+                if (category.isComment()) {
+                    continue;
+                }
+                if (category.isIdentifier() || category.isKeyword() || category.isLiteral()) {
+                    tokens++;
                 }
-            }
-            complexity += maxNesting * 3;
-
-            return complexity;
-        }
 
-        private int countMethodChain(String content) {
-            // Skip if this looks like an anonymous class creation
-            if (content.contains("new ") && content.contains("{")) {
-                return 0;
-            }
+                JavaToken.Kind kind = JavaToken.Kind.valueOf(token.getKind());
+                switch (kind) {
+                    case PLUS, MINUS, STAR, SLASH, REM -> complexity += 1;
+                    case ASSIGN, LT, GT, BANG, EQ, LE, GE, NE, SC_AND, SC_OR,
+                         PLUSASSIGN, MINUSASSIGN, STARASSIGN, SLASHASSIGN, REMASSIGN -> complexity += 2;
+                    case HOOK, COLON -> complexity += 3;
+                    case LPAREN -> {
+                        complexity += 2;
+                        if (previous == JavaToken.Kind.IDENTIFIER && beforePrevious == JavaToken.Kind.DOT) {
+                            complexity += 2;
+                            if ("getInstance".equals(previousText) && "FirebaseDatabase".equals(scopeText)) {
+                                info.callsFirebaseInstance = true;
+                            }
+                        }
+                    }
+                    case LBRACKET -> complexity += 2;
+                    default -> { }
+                }
+                if (kind == JavaToken.Kind.LPAREN || kind == JavaToken.Kind.LBRACKET || kind == JavaToken.Kind.LBRACE) {
+                    maxNesting = Math.max(maxNesting, ++nesting);
+                } else if (kind == JavaToken.Kind.RPAREN || kind == JavaToken.Kind.RBRACKET || kind == JavaToken.Kind.RBRACE) {
+                    nesting--;
+                } else if (kind == JavaToken.Kind.IDENTIFIER
+                        && ("findViewById".equals(text) || "setOnClickListener".equals(text))) {
+                    info.callsViewBoilerplate = true;
+                }
 
-            // Count consecutive method calls separated by dots
-            int maxChain = 0;
-            int currentChain = 0;
-
-            // Simplified detection: look for patterns like .method()
-            String[] parts = content.split("\\.");
-            for (String part : parts) {
-                if (part.matches(".*\\([^)]*\\).*")) {
-                    currentChain++;
-                    maxChain = Math.max(maxChain, currentChain);
-                } else {
-                    currentChain = 0;
+                if (kind == JavaToken.Kind.DOT) {
+                    scopeText = previousText;
                 }
+                beforePrevious = previous;
+                previous = kind;
+                previousText = text;
             }
 
-            return maxChain;
-        }
-
-        private int countOccurrences(String content, String regex) {
-            try {
-                return Math.max(0, content.split(regex).length - 1);
-            } catch (Exception e) {
-                return 0;
-            }
+            info.tokenCount = tokens;
+            info.charLength = chars;
+            // Very long expressions are scored on size alone, as before
+            info.expressionComplexity = chars > 500 ? 0 : complexity + maxNesting * 3;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,64 +1,235 @@
 package com.devsync.detectors;
 
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.expr.*;
-import com.github.javaparser.ast.body.*;
-import com.github.javaparser.ast.stmt.*;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
+import com.devsync.analyzer.NumericLiterals;
+import com.devsync.analyzer.OccurrenceTable;
+import com.devsync.analyzer.ProjectSymbolIndex;
 import java.util.*;
 
-public class MagicNumberDetector {
+/**
+ * Flags hardcoded numeric literals across the project. Works on the literals the
+ * engine records per file: they all go into one table keyed by value, so a
+ * literal used at least {@code threshold} times anywhere in the project is
+ * reported once, with every location and a suggested constant, while rarer ones
+ * are reported where they appear.
+ */
+public class MagicNumberDetector implements ProjectDetector {
     
     private int threshold = 3;
     
-    private static final Set<String> ACCEPTABLE_NUMBERS = Set.of(
-        "0", "1", "-1", "0.0", "1.0", "-1.0", "2", "100", "1000"
-    );
+    // A leading minus is not part of the literal, so these also cover -1 and -1.0
+    private static final long[] ACCEPTABLE_INTEGERS = {0, 1, 2, 100, 1000};
+    private static final double[] ACCEPTABLE_DECIMALS = {0.0, 1.0};
+    
+    // Well-known quantities and the constant names suggested for them
+    private static final long[] KNOWN_VALUES = {7, 12, 24, 60, 365, 1024, 3600, 86400, 60000, 3600000, 86400000};
+    private static final String[] KNOWN_NAMES = {"DAYS_PER_WEEK", "MONTHS_PER_YEAR", "HOURS_PER_DAY",
+        "SECONDS_PER_MINUTE", "DAYS_PER_YEAR", "BYTES_PER_KILOBYTE", "SECONDS_PER_HOUR", "SECONDS_PER_DAY",
+        "MILLIS_PER_MINUTE", "MILLIS_PER_HOUR", "MILLIS_PER_DAY"};
     
     public void setThreshold(int threshold) {
-        this.threshold = threshold;
+        // Below 2 every single literal would count as repeated
+        this.threshold = Math.max(2, threshold);
     }
-    
-    private static final Set<String> SAFE_CONTEXTS = Set.of(
-        "test", "constant", "final", "static"
-    );
 
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
-        
-        MagicNumberAnalyzer analyzer = new MagicNumberAnalyzer();
-        cu.accept(analyzer, null);
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getMagicNumberEnabled, false);
+    }
+    
+    @Override
+    public void configure(UserSettings settings) {
+        setThreshold(AnalysisConfig.getMagicNumberThreshold(settings));
+    }
+    
+    @Override
+    public String getConfigSignature() {
+        return String.valueOf(threshold);
+    }
+    
+    @Override
+    public boolean indexesNumericLiterals() {
+        return true;
+    }
+    
+    @Override
+    public List<CodeIssue> analyzeProject(ProjectSymbolIndex index) {
+        // Integral and floating-point values get separate tables, as their bits may coincide
+        OccurrenceTable integers = literalTable(index, false);
+        OccurrenceTable decimals = literalTable(index, true);
+        boolean[] reportedIntegers = new boolean[integers.getSlotCount()];
+        boolean[] reportedDecimals = new boolean[decimals.getSlotCount()];
+        List<CodeIssue> issues = new ArrayList<>();
         
-        for (MagicNumberInfo magicInfo : analyzer.getMagicNumbers()) {
-            // THRESHOLD CHECK FIRST - binary detection
-            if (ACCEPTABLE_NUMBERS.contains(magicInfo.value) || 
-                magicInfo.isInTestMethod || 
-                magicInfo.isConstant) {
-                continue; // NO SMELL - exit immediately
+        for (int file = 0; file < index.getFileCount(); file++) {
+            NumericLiterals literals = index.getNumericLiterals(file);
+            if (literals == null) {
+                continue;
+            }
+            for (int i = 0; i < literals.size(); i++) {
+                if (!isCandidate(literals, i)) {
+                    continue; // NO SMELL - acceptable value or test code
+                }
+                boolean floating = literals.getFloating()[i];
+                OccurrenceTable table = floating ? decimals : integers;
+                boolean[] reported = floating ? reportedDecimals : reportedIntegers;
+                int slot = table.slot(literals.getValues()[i]);
+                int count = table.getCount(slot);
+                if (count < threshold) {
+                    issues.add(reportOccurrence(magicInfo(index.getFile(file), literals, i, count > 1)));
+                } else if (!reported[slot]) {
+                    // Repeated project-wide: one issue at the first occurrence, listing all of them
+                    reported[slot] = true;
+                    issues.add(reportRepeated(index, table, slot, floating, magicInfo(index.getFile(file), literals, i, true)));
+                }
             }
-            
-            // THRESHOLD EXCEEDED - now calculate score for severity only
-            double riskScore = calculateRiskScore(magicInfo);
-            String severity = getSeverity(riskScore);
-            
-            issues.add(String.format(
-                "%s [MagicNumber] %s:%d - Magic number '%s' in %s - %s | Suggestions: %s | DetailedReason: %s | ThresholdDetails: {\"value\":\"%s\",\"isAcceptable\":false,\"isInTestMethod\":%b,\"isConstant\":false,\"isRepeated\":%b,\"isInBusinessLogic\":%b,\"riskScore\":%.2f,\"summary\":\"Magic numbers are flagged when NOT in acceptable list [0,1,-1,2,100,1000].\"}" ,
-                severity,
-                magicInfo.fileName,
-                magicInfo.lineNumber,
-                magicInfo.value,
-                magicInfo.context,
-                generateAnalysis(magicInfo),
-                generateSuggestions(magicInfo),
-                generateDetailedReason(magicInfo, riskScore),
-                magicInfo.value, magicInfo.isInTestMethod, magicInfo.isRepeated, magicInfo.isInBusinessLogic, riskScore
-            ));
         }
         
         return issues;
     }
     
-
+    /**
+     * The candidate literals of the project whose value is integral, or floating,
+     * grouped by value.
+     */
+    private static OccurrenceTable literalTable(ProjectSymbolIndex index, boolean floating) {
+        int total = 0;
+        for (int file = 0; file < index.getFileCount(); file++) {
+            NumericLiterals literals = index.getNumericLiterals(file);
+            total += literals == null ? 0 : literals.size();
+        }
+        return OccurrenceTable.build(total, sink -> {
+            for (int file = 0; file < index.getFileCount(); file++) {
+                NumericLiterals literals = index.getNumericLiterals(file);
+                for (int i = 0; literals != null && i < literals.size(); i++) {
+                    if (literals.getFloating()[i] == floating && isCandidate(literals, i)) {
+                        sink.accept(file, i, literals.getValues()[i]);
+                    }
+                }
+            }
+        });
+    }
+    
+    private static boolean isCandidate(NumericLiterals literals, int i) {
+        return !isAcceptable(literals.getValues()[i], literals.getFloating()[i])
+            && !isTestMethod(literals.methodNameAt(i));
+    }
+    
+    private static boolean isAcceptable(long value, boolean floating) {
+        if (floating) {
+            double decimal = Double.longBitsToDouble(value);
+            for (double acceptable : ACCEPTABLE_DECIMALS) {
+                if (decimal == acceptable) return true;
+            }
+            return false;
+        }
+        for (long acceptable : ACCEPTABLE_INTEGERS) {
+            if (value == acceptable) return true;
+        }
+        return false;
+    }
+    
+    private static boolean isTestMethod(String methodName) {
+        return methodName.toLowerCase().startsWith("test");
+    }
+    
+    private static MagicNumberInfo magicInfo(String fileName, NumericLiterals literals, int i, boolean repeated) {
+        MagicNumberInfo info = new MagicNumberInfo();
+        info.fileName = fileName;
+        info.value = literals.getTexts()[i];
+        info.lineNumber = literals.getLines()[i];
+        info.methodName = literals.methodNameAt(i);
+        info.isInPublicMethod = literals.isInPublicMethod(i);
+        info.isInBusinessLogic = isBusinessLogicContext(info.methodName);
+        info.context = info.methodName.isEmpty() ? "initializer" : info.isInPublicMethod ? "public method" : "method";
+        info.isRepeated = repeated;
+        return info;
+    }
+    
+    private static boolean isBusinessLogicContext(String methodName) {
+        String method = methodName.toLowerCase();
+        return method.contains("calculate") || method.contains("compute") || 
+               method.contains("process") || method.contains("validate");
+    }
+    
+    private CodeIssue reportOccurrence(MagicNumberInfo magicInfo) {
+        // THRESHOLD NOT REACHED project-wide - report this occurrence on its own
+        double riskScore = calculateRiskScore(magicInfo);
+        String severity = getSeverity(riskScore);
+        
+        CodeIssue issue = new CodeIssue("MagicNumber", magicInfo.fileName, magicInfo.lineNumber,
+            Severity.fromEmoji(severity),
+            String.format("Magic number '%s' in %s - %s", magicInfo.value, magicInfo.context, generateAnalysis(magicInfo)),
+            generateSuggestions(magicInfo));
+        issue.setDetailedReason(generateDetailedReason(magicInfo, riskScore));
+        issue.addMetric("value", magicInfo.value)
+            .addMetric("isAcceptable", false)
+            .addMetric("isRepeated", magicInfo.isRepeated)
+            .addMetric("isInBusinessLogic", magicInfo.isInBusinessLogic)
+            .addMetric("riskScore", riskScore)
+            .addMetric("summary", "Magic numbers are flagged when NOT in acceptable list [0,1,-1,2,100,1000].");
+        return issue;
+    }
+    
+    private CodeIssue reportRepeated(ProjectSymbolIndex index, OccurrenceTable table, int slot, boolean floating,
+                                     MagicNumberInfo first) {
+        int count = table.getCount(slot);
+        List<String> locations = new ArrayList<>(count);
+        int files = 0;
+        int lastFile = -1;
+        for (int at = table.getOffset(slot); at < table.getOffset(slot) + count; at++) {
+            int file = table.getFile(at);
+            if (file != lastFile) {
+                files++;
+                lastFile = file;
+            }
+            NumericLiterals literals = index.getNumericLiterals(file);
+            locations.add(index.getFile(file) + ":" + literals.getLines()[table.getIndex(at)]);
+        }
+        
+        double riskScore = calculateRiskScore(first);
+        String constantName = suggestConstantName(table.getKey(slot), floating, first.value);
+        String declaration = String.format("static final %s %s = %s", constantType(table.getKey(slot), floating, first.value),
+            constantName, first.value);
+        
+        CodeIssue issue = new CodeIssue("MagicNumber", first.fileName, first.lineNumber,
+            Severity.fromEmoji(getSeverity(riskScore)),
+            String.format("Magic number '%s' repeated %d times across %d files - %s", first.value, count, files, generateAnalysis(first)),
+            String.format("Extract to a shared constant (%s) and use it at all %d places", declaration, count));
+        issue.setDetailedReason(generateDetailedReason(first, riskScore) +
+            String.format(" The value appears %d times in %d files, first at %s.", count, files, locations.get(0)));
+        issue.addMetric("value", first.value)
+            .addMetric("isAcceptable", false)
+            .addMetric("isRepeated", true)
+            .addMetric("isInBusinessLogic", first.isInBusinessLogic)
+            .addMetric("occurrences", count)
+            .addMetric("files", files)
+            .addMetric("locations", locations)
+            .addMetric("suggestedConstant", constantName)
+            .addMetric("riskScore", riskScore)
+            .addMetric("summary", String.format("Literals used at least %d times project-wide are reported once.", threshold));
+        return issue;
+    }
+    
+    private static String suggestConstantName(long value, boolean floating, String text) {
+        if (!floating) {
+            for (int i = 0; i < KNOWN_VALUES.length; i++) {
+                if (KNOWN_VALUES[i] == value) return KNOWN_NAMES[i];
+            }
+        }
+        return "VALUE_" + text.toUpperCase().replaceAll("[^A-Z0-9]", "_");
+    }
+    
+    private static String constantType(long value, boolean floating, String text) {
+        if (floating) {
+            return text.endsWith("f") || text.endsWith("F") ? "float" : "double";
+        }
+        boolean fitsInt = value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+        return fitsInt && !text.endsWith("L") && !text.endsWith("l") ? "int" : "long";
+    }
     
     private double calculateRiskScore(MagicNumberInfo magicInfo) {
         double score = 0.6;
@@ -151,96 +322,9 @@ public class MagicNumberDetector {
         String value;
         int lineNumber;
         String context;
-        boolean isInTestMethod;
         boolean isInPublicMethod;
         boolean isInBusinessLogic;
-        boolean isConstant;
         boolean isRepeated;
         String methodName;
     }
-    
-    private static class MagicNumberAnalyzer extends VoidVisitorAdapter<Void> {
-        private final List<MagicNumberInfo> magicNumbers = new ArrayList<>();
-        private final Map<String, Integer> numberCounts = new HashMap<>();
-        private String fileName = "";
-        private String currentMethodName = "";
-        private boolean inTestMethod = false;
-        private boolean inPublicMethod = false;
-        
-        public List<MagicNumberInfo> getMagicNumbers() {
-            // Mark repeated numbers
-            for (MagicNumberInfo info : magicNumbers) {
-                info.isRepeated = numberCounts.getOrDefault(info.value, 0) > 1;
-            }
-            return magicNumbers;
-        }
-        
-        @Override
-        public void visit(CompilationUnit n, Void arg) {
-            fileName = n.getStorage().map(s -> s.getFileName()).orElse("UnknownFile");
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(MethodDeclaration n, Void arg) {
-            currentMethodName = n.getNameAsString();
-            inTestMethod = n.getNameAsString().toLowerCase().startsWith("test");
-            inPublicMethod = n.isPublic();
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(FieldDeclaration n, Void arg) {
-            // Skip constants
-            if (n.isFinal() && n.isStatic()) {
-                return;
-            }
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(IntegerLiteralExpr n, Void arg) {
-            addMagicNumber(n.getValue(), n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(DoubleLiteralExpr n, Void arg) {
-            addMagicNumber(n.getValue(), n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(LongLiteralExpr n, Void arg) {
-            addMagicNumber(n.getValue(), n.getBegin().map(pos -> pos.line).orElse(0));
-            super.visit(n, arg);
-        }
-        
-        private void addMagicNumber(String value, int lineNumber) {
-            MagicNumberInfo info = new MagicNumberInfo();
-            info.fileName = fileName;
-            info.value = value;
-            info.lineNumber = lineNumber;
-            info.context = determineContext();
-            info.isInTestMethod = inTestMethod;
-            info.isInPublicMethod = inPublicMethod;
-            info.isInBusinessLogic = isBusinessLogicContext();
-            info.methodName = currentMethodName;
-            
-            magicNumbers.add(info);
-            numberCounts.merge(value, 1, Integer::sum);
-        }
-        
-        private String determineContext() {
-            if (inTestMethod) return "test method";
-            if (inPublicMethod) return "public method";
-            return "method";
-        }
-        
-        private boolean isBusinessLogicContext() {
-            String method = currentMethodName.toLowerCase();
-            return method.contains("calculate") || method.contains("compute") || 
-                   method.contains("process") || method.contains("validate");
-        }
-    }
-}
\ No newline at end of file
+}
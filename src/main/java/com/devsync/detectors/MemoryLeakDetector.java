@@ -1,169 +1,246 @@
 package com.devsync.detectors;
 
+import com.devsync.analyzer.AstNodeListener;
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.VariableDeclarator;
 import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.ast.stmt.*;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import java.util.*;
 
-public class MemoryLeakDetector {
+public class MemoryLeakDetector implements FusedDetector {
 
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
-        MemoryLeakAnalyzer analyzer = new MemoryLeakAnalyzer();
-        cu.accept(analyzer, null);
-        issues.addAll(analyzer.getIssues());
-        return issues;
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getMemoryLeakEnabled, true);
     }
+    
+    @Override
+    public FileScan startScan(CompilationUnit cu) {
+        MemoryLeakAnalyzer analyzer = new MemoryLeakAnalyzer(cu.getStorage().map(s -> s.getFileName()).orElse("UnknownFile"));
+        return new FileScan(analyzer, analyzer::getIssues);
+    }
+
+    /**
+     * What one method does over its lifetime, gathered in a single pass over its
+     * body (nested local and anonymous classes included). Each lifecycle rule reads
+     * this summary instead of searching the method again.
+     */
+    static final class MethodLifecycle {
+        final MethodDeclaration method;
+        // Local variables initialized with a new resource, in order of appearance
+        final Set<String> openedResources = new LinkedHashSet<>();
+        // Names that close() is called on
+        final Set<String> closedResources = new HashSet<>();
+        boolean hasTryWithResources;
+        boolean registersListener;
+        boolean unregistersListener;
+        int threadCreations;
+        boolean stopsThreads;
+        // Static collection fields declared inside the method (local and anonymous classes)
+        final List<FieldDeclaration> staticCollections = new ArrayList<>();
+        // Collections that add/put and clear/remove are called on (see scopeName)
+        final Set<String> grownCollections = new HashSet<>();
+        final Set<String> shrunkCollections = new HashSet<>();
+
+        MethodLifecycle(MethodDeclaration method) {
+            this.method = method;
+        }
 
-    private static class MemoryLeakAnalyzer extends VoidVisitorAdapter<Void> {
-        private final List<String> issues = new ArrayList<>();
-        private String fileName = "";
-        private Set<String> unclosedResources = new HashSet<>();
+        int line() {
+            return method.getBegin().map(p -> p.line).orElse(0);
+        }
+    }
 
-        public List<String> getIssues() { return issues; }
+    private static class MemoryLeakAnalyzer implements AstNodeListener {
+        private static final String[] RESOURCE_SUFFIXES = {
+            "Stream", "Reader", "Writer", "Connection", "Socket", "Channel", "Statement", "ResultSet", "Scanner", "Buffer"
+        };
+        private static final String[] COLLECTION_NAMES = { "List", "Set", "Map", "Collection", "Cache" };
+
+        private final List<CodeIssue> issues = new ArrayList<>();
+        private final String fileName;
+        // Every method in the order it starts, for reporting in source order
+        private final List<MethodLifecycle> methods = new ArrayList<>();
+        // Methods being walked; an event counts for each of them
+        private final Deque<MethodLifecycle> open = new ArrayDeque<>();
+
+        MemoryLeakAnalyzer(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public List<CodeIssue> getIssues() {
+            for (MethodLifecycle lifecycle : methods) {
+                checkUnclosedResources(lifecycle);
+                checkStaticCollections(lifecycle);
+                checkListenerLeaks(lifecycle);
+                checkThreadLeaks(lifecycle);
+            }
+            return issues;
+        }
+
+        private void addIssue(Severity severity, int line, String message, String suggestion, String reason) {
+            CodeIssue issue = new CodeIssue("MemoryLeak", fileName, line, severity, message, suggestion);
+            issue.setDetailedReason(reason);
+            issues.add(issue);
+        }
 
         @Override
-        public void visit(CompilationUnit n, Void arg) {
-            fileName = n.getStorage().map(s -> s.getFileName()).orElse("UnknownFile");
-            super.visit(n, arg);
+        public boolean enter(Node node) {
+            if (node instanceof MethodDeclaration method) {
+                MethodLifecycle lifecycle = new MethodLifecycle(method);
+                methods.add(lifecycle);
+                open.push(lifecycle);
+            } else if (open.isEmpty()) {
+                return true;
+            } else if (node instanceof MethodCallExpr call) {
+                recordCall(call);
+            } else if (node instanceof ObjectCreationExpr creation) {
+                recordCreation(creation);
+            } else if (node instanceof TryStmt tryStmt && !tryStmt.getResources().isEmpty()) {
+                open.forEach(m -> m.hasTryWithResources = true);
+            } else if (node instanceof FieldDeclaration field && field.isStatic() && isCollectionType(field)) {
+                open.forEach(m -> m.staticCollections.add(field));
+            }
+            return true;
         }
 
         @Override
-        public void visit(MethodDeclaration method, Void arg) {
-            unclosedResources.clear();
-            
-            // Check for unclosed streams/connections
-            checkUnclosedResources(method);
-            
-            // Check for static collections that grow unbounded
-            checkStaticCollections(method);
-            
-            // Check for listeners not removed
-            checkListenerLeaks(method);
-            
-            // Check for thread leaks
-            checkThreadLeaks(method);
-            
-            super.visit(method, arg);
-        }
-
-        private void checkUnclosedResources(MethodDeclaration method) {
-            Set<String> openedResources = new HashSet<>();
-            Set<String> closedResources = new HashSet<>();
-            final boolean[] hasTryWithResources = {false};
-
-            // Check for try-with-resources
-            method.findAll(TryStmt.class).forEach(tryStmt -> {
-                if (!tryStmt.getResources().isEmpty()) {
-                    hasTryWithResources[0] = true;
-                }
-            });
-
-            // Find resource allocations
-            method.findAll(ObjectCreationExpr.class).forEach(creation -> {
-                String type = creation.getType().getNameAsString();
-                if (isResourceType(type)) {
-                    String varName = getVariableName(creation);
-                    if (varName != null) {
-                        openedResources.add(varName);
+        public void exit(Node node) {
+            if (!open.isEmpty() && open.peek().method == node) {
+                open.pop();
+            }
+        }
+
+        private void recordCall(MethodCallExpr call) {
+            String name = call.getNameAsString();
+            switch (name) {
+                case "close" -> {
+                    if (call.getScope().orElse(null) instanceof NameExpr scope) {
+                        open.forEach(m -> m.closedResources.add(scope.getNameAsString()));
                     }
                 }
-            });
-
-            // Find close() calls
-            method.findAll(MethodCallExpr.class).forEach(call -> {
-                if (call.getNameAsString().equals("close")) {
-                    call.getScope().ifPresent(scope -> {
-                        if (scope instanceof NameExpr) {
-                            closedResources.add(((NameExpr) scope).getNameAsString());
-                        }
-                    });
+                case "clear", "remove", "removeAll" -> {
+                    String scope = scopeName(call);
+                    open.forEach(m -> m.shrunkCollections.add(scope));
                 }
-            });
-
-            // Report unclosed resources
-            openedResources.removeAll(closedResources);
-            if (!openedResources.isEmpty() && !hasTryWithResources[0]) {
-                for (String resource : openedResources) {
-                    issues.add(String.format(
-                        "🔴 [MemoryLeak] %s:%d - Resource '%s' in method '%s' may not be closed | Suggestions: Use try-with-resources or ensure close() is called in finally block | DetailedReason: Unclosed resources like streams, connections, or readers can cause memory leaks as they hold references and prevent garbage collection",
-                        fileName,
-                        method.getBegin().map(p -> p.line).orElse(0),
-                        resource,
-                        method.getNameAsString()
-                    ));
+                case "add", "addAll", "put", "putAll" -> {
+                    String scope = scopeName(call);
+                    open.forEach(m -> m.grownCollections.add(scope));
+                }
+                case "shutdown", "shutdownNow", "interrupt" -> open.forEach(m -> m.stopsThreads = true);
+                default -> {
+                    if (name.startsWith("register") || (name.startsWith("add") && name.endsWith("Listener"))) {
+                        open.forEach(m -> m.registersListener = true);
+                    } else if (name.startsWith("unregister") || (name.startsWith("remove") && name.endsWith("Listener"))) {
+                        open.forEach(m -> m.unregistersListener = true);
+                    }
                 }
             }
         }
 
-        private void checkStaticCollections(MethodDeclaration method) {
-            method.findAll(FieldDeclaration.class).forEach(field -> {
-                if (field.isStatic() && isCollectionType(field)) {
-                    boolean hasClearOrRemove = method.findAll(MethodCallExpr.class).stream()
-                        .anyMatch(call -> call.getNameAsString().matches("clear|remove|removeAll"));
-                    
-                    if (!hasClearOrRemove) {
-                        issues.add(String.format(
-                            "🟡 [MemoryLeak] %s:%d - Static collection '%s' may grow unbounded | Suggestions: Implement size limits, use WeakHashMap, or periodically clear old entries | DetailedReason: Static collections persist for the application lifetime and can accumulate objects indefinitely, causing memory leaks",
-                            fileName,
-                            field.getBegin().map(p -> p.line).orElse(0),
-                            field.getVariables().get(0).getNameAsString()
-                        ));
-                    }
+        // The collection a call works on: a variable or field name, else ""
+        private static String scopeName(MethodCallExpr call) {
+            Expression scope = call.getScope().orElse(null);
+            if (scope instanceof NameExpr name) {
+                return name.getNameAsString();
+            }
+            return scope instanceof FieldAccessExpr field ? field.getNameAsString() : "";
+        }
+
+        private void recordCreation(ObjectCreationExpr creation) {
+            String type = creation.getType().getNameAsString();
+            if (isResourceType(type)) {
+                String varName = getVariableName(creation);
+                if (varName != null) {
+                    open.forEach(m -> m.openedResources.add(varName));
                 }
-            });
-        }
-
-        private void checkListenerLeaks(MethodDeclaration method) {
-            boolean hasAddListener = method.findAll(MethodCallExpr.class).stream()
-                .anyMatch(call -> call.getNameAsString().matches("add.*Listener|register.*"));
-            
-            boolean hasRemoveListener = method.findAll(MethodCallExpr.class).stream()
-                .anyMatch(call -> call.getNameAsString().matches("remove.*Listener|unregister.*"));
-            
-            if (hasAddListener && !hasRemoveListener) {
-                issues.add(String.format(
-                    "🟡 [MemoryLeak] %s:%d - Listener registered in '%s' but never removed | Suggestions: Remove listener in cleanup/dispose method or use weak references | DetailedReason: Registered listeners hold strong references to objects, preventing garbage collection even when objects are no longer needed",
-                    fileName,
-                    method.getBegin().map(p -> p.line).orElse(0),
-                    method.getNameAsString()
-                ));
+            }
+            if (type.equals("Thread") || type.contains("Executor")) {
+                open.forEach(m -> m.threadCreations++);
             }
         }
 
-        private void checkThreadLeaks(MethodDeclaration method) {
-            method.findAll(ObjectCreationExpr.class).forEach(creation -> {
-                String type = creation.getType().getNameAsString();
-                if (type.equals("Thread") || type.contains("Executor")) {
-                    boolean hasShutdown = method.findAll(MethodCallExpr.class).stream()
-                        .anyMatch(call -> call.getNameAsString().matches("shutdown|shutdownNow|interrupt"));
-                    
-                    if (!hasShutdown) {
-                        issues.add(String.format(
-                            "🟠 [MemoryLeak] %s:%d - Thread/Executor created in '%s' without shutdown mechanism | Suggestions: Call shutdown() on executors, interrupt threads, or use daemon threads | DetailedReason: Threads that are not properly terminated continue running and hold references to objects, preventing garbage collection",
-                            fileName,
-                            method.getBegin().map(p -> p.line).orElse(0),
-                            method.getNameAsString()
-                        ));
-                    }
+        private void checkUnclosedResources(MethodLifecycle lifecycle) {
+            if (lifecycle.hasTryWithResources) {
+                return;
+            }
+            for (String resource : lifecycle.openedResources) {
+                if (!lifecycle.closedResources.contains(resource)) {
+                    addIssue(Severity.CRITICAL,
+                        lifecycle.line(),
+                        String.format("Resource '%s' in method '%s' may not be closed", resource, lifecycle.method.getNameAsString()),
+                        "Use try-with-resources or ensure close() is called in finally block",
+                        "Unclosed resources like streams, connections, or readers can cause memory leaks as they hold references and prevent garbage collection");
+                }
+            }
+        }
+
+        // Only a collection the method adds to and never clears or removes from can grow without bound
+        private void checkStaticCollections(MethodLifecycle lifecycle) {
+            for (FieldDeclaration field : lifecycle.staticCollections) {
+                String name = field.getVariables().get(0).getNameAsString();
+                if (!lifecycle.grownCollections.contains(name) || lifecycle.shrunkCollections.contains(name)) {
+                    continue;
                 }
-            });
+                addIssue(Severity.HIGH,
+                    field.getBegin().map(p -> p.line).orElse(0),
+                    String.format("Static collection '%s' may grow unbounded", name),
+                    "Implement size limits, use WeakHashMap, or periodically clear old entries",
+                    "Static collections persist for the application lifetime and can accumulate objects indefinitely, causing memory leaks");
+            }
+        }
+
+        private void checkListenerLeaks(MethodLifecycle lifecycle) {
+            if (lifecycle.registersListener && !lifecycle.unregistersListener) {
+                addIssue(Severity.HIGH,
+                    lifecycle.line(),
+                    String.format("Listener registered in '%s' but never removed", lifecycle.method.getNameAsString()),
+                    "Remove listener in cleanup/dispose method or use weak references",
+                    "Registered listeners hold strong references to objects, preventing garbage collection even when objects are no longer needed");
+            }
+        }
+
+        private void checkThreadLeaks(MethodLifecycle lifecycle) {
+            if (lifecycle.stopsThreads) {
+                return;
+            }
+            // One issue per creation, as each thread or executor is a separate leak
+            for (int i = 0; i < lifecycle.threadCreations; i++) {
+                addIssue(Severity.MEDIUM,
+                    lifecycle.line(),
+                    String.format("Thread/Executor created in '%s' without shutdown mechanism", lifecycle.method.getNameAsString()),
+                    "Call shutdown() on executors, interrupt threads, or use daemon threads",
+                    "Threads that are not properly terminated continue running and hold references to objects, preventing garbage collection");
+            }
         }
 
-        private boolean isResourceType(String type) {
-            return type.matches(".*(Stream|Reader|Writer|Connection|Socket|Channel|Statement|ResultSet|Scanner|Buffer)");
+        private static boolean isResourceType(String type) {
+            for (String suffix : RESOURCE_SUFFIXES) {
+                if (type.endsWith(suffix)) {
+                    return true;
+                }
+            }
+            return false;
         }
 
-        private boolean isCollectionType(FieldDeclaration field) {
+        private static boolean isCollectionType(FieldDeclaration field) {
             String type = field.getCommonType().asString();
-            return type.matches(".*(List|Set|Map|Collection|Cache).*");
+            for (String name : COLLECTION_NAMES) {
+                if (type.contains(name)) {
+                    return true;
+                }
+            }
+            return false;
         }
 
-        private String getVariableName(ObjectCreationExpr creation) {
+        private static String getVariableName(ObjectCreationExpr creation) {
             return creation.getParentNode()
                 .filter(p -> p instanceof VariableDeclarator)
                 .map(p -> ((VariableDeclarator) p).getNameAsString())
@@ -1,14 +1,19 @@
 package com.devsync.detectors;
 
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
+import com.devsync.analyzer.AstNodeListener;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.stmt.*;
 import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import java.util.*;
 
-public class MissingDefaultDetector {
+public class MissingDefaultDetector implements FusedDetector {
     
     private static final Set<String> ENUM_KEYWORDS = Set.of("enum", "Enum");
     private static final Set<String> SAFE_ENUM_PATTERNS = Set.of(
@@ -24,11 +29,19 @@ public class MissingDefaultDetector {
         "assignment", 0.8
     );
 
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
-        
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getMissingDefaultEnabled, false);
+    }
+    
+    @Override
+    public FileScan startScan(CompilationUnit cu) {
         SwitchAnalyzer analyzer = new SwitchAnalyzer();
-        cu.accept(analyzer, null);
+        return new FileScan(analyzer, () -> report(cu, analyzer));
+    }
+    
+    private List<CodeIssue> report(CompilationUnit cu, SwitchAnalyzer analyzer) {
+        List<CodeIssue> issues = new ArrayList<>();
         
         analyzer.getMissingSwitches().forEach(switchInfo -> {
             // THRESHOLD CHECK FIRST: Missing default = ALWAYS a smell (no threshold needed)
@@ -38,19 +51,23 @@ public class MissingDefaultDetector {
             String analysis = generateAnalysis(switchInfo);
             String suggestions = generateSuggestions(switchInfo);
             
-            issues.add(String.format(
-                "%s [MissingDefault] %s:%d - Switch on '%s' (%d cases, Risk: %.2f) - %s | Suggestions: %s | DetailedReason: %s | ThresholdDetails: {\"caseCount\":%d,\"hasDefaultCase\":false,\"isEnumSwitch\":%b,\"enumValueCount\":%d,\"hasReturnValue\":%b,\"isInPublicMethod\":%b,\"riskScore\":%.2f,\"summary\":\"Switch statements are ALWAYS flagged when missing default case.\"}" ,
-                severity,
+            CodeIssue issue = new CodeIssue("MissingDefault",
                 cu.getStorage().map(s -> s.getFileName()).orElse("UnknownFile"),
                 switchInfo.lineNumber,
-                switchInfo.switchExpression,
-                switchInfo.caseCount,
-                riskScore,
-                analysis,
-                suggestions,
-                generateDetailedReason(switchInfo, riskScore),
-                switchInfo.caseCount, switchInfo.isEnumSwitch, switchInfo.enumValueCount, switchInfo.hasReturnValue, switchInfo.isInPublicMethod, riskScore
-            ));
+                Severity.fromEmoji(severity),
+                String.format("Switch on '%s' (%d cases, Risk: %.2f) - %s",
+                    switchInfo.switchExpression, switchInfo.caseCount, riskScore, analysis),
+                suggestions);
+            issue.setDetailedReason(generateDetailedReason(switchInfo, riskScore));
+            issue.addMetric("caseCount", switchInfo.caseCount)
+                .addMetric("hasDefaultCase", false)
+                .addMetric("isEnumSwitch", switchInfo.isEnumSwitch)
+                .addMetric("enumValueCount", switchInfo.enumValueCount)
+                .addMetric("hasReturnValue", switchInfo.hasReturnValue)
+                .addMetric("isInPublicMethod", switchInfo.isInPublicMethod)
+                .addMetric("riskScore", riskScore)
+                .addMetric("summary", "Switch statements are ALWAYS flagged when missing default case.");
+            issues.add(issue);
         });
         
         return issues;
@@ -297,7 +314,7 @@ public class MissingDefaultDetector {
         }
     }
     
-    private static class SwitchAnalyzer extends VoidVisitorAdapter<Void> {
+    private static class SwitchAnalyzer implements AstNodeListener {
         private final List<SwitchInfo> missingSwitches = new ArrayList<>();
         private String currentMethodName = "";
         private boolean inPublicMethod = false;
@@ -310,30 +327,31 @@ public class MissingDefaultDetector {
         }
         
         @Override
-        public void visit(CompilationUnit n, Void arg) {
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(MethodDeclaration n, Void arg) {
-            currentMethodName = n.getNameAsString();
-            inPublicMethod = n.isPublic();
-            inConstructor = false;
-            inTestMethod = n.getNameAsString().toLowerCase().startsWith("test");
-            super.visit(n, arg);
+        public boolean enter(Node node) {
+            if (node instanceof MethodDeclaration n) {
+                currentMethodName = n.getNameAsString();
+                inPublicMethod = n.isPublic();
+                inConstructor = false;
+                inTestMethod = n.getNameAsString().toLowerCase().startsWith("test");
+            } else if (node instanceof ConstructorDeclaration n) {
+                currentMethodName = n.getNameAsString();
+                inPublicMethod = n.isPublic();
+                inConstructor = true;
+                inTestMethod = false;
+            } else if (node instanceof SwitchStmt n) {
+                visitSwitch(n);
+            }
+            return true;
         }
         
         @Override
-        public void visit(ConstructorDeclaration n, Void arg) {
-            currentMethodName = n.getNameAsString();
-            inPublicMethod = n.isPublic();
-            inConstructor = true;
-            inTestMethod = false;
-            super.visit(n, arg);
+        public void exit(Node node) {
+            if (node instanceof SwitchStmt) {
+                nestingLevel--;
+            }
         }
         
-        @Override
-        public void visit(SwitchStmt n, Void arg) {
+        private void visitSwitch(SwitchStmt n) {
             nestingLevel++;
             
             SwitchInfo info = new SwitchInfo();
@@ -365,9 +383,6 @@ public class MissingDefaultDetector {
             if (!info.hasDefaultCase) {
                 missingSwitches.add(info);
             }
-            
-            super.visit(n, arg);
-            nestingLevel--;
         }
         
         private boolean hasReturnStatements(List<SwitchEntry> entries) {
@@ -0,0 +1,55 @@
+package com.devsync.detectors;
+
+import com.devsync.analyzer.ProjectSymbolIndex;
+import com.devsync.model.CodeIssue;
+import com.github.javaparser.ast.CompilationUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A detector whose findings depend on the whole project, such as how many classes
+ * implement an interface or which types reference a class. The engine runs
+ * {@link #analyzeFile} for every file during the parallel pass, builds a
+ * {@link ProjectSymbolIndex} from what that pass collected, then calls
+ * {@link #analyzeProject} once.
+ */
+public interface ProjectDetector extends Detector {
+
+    /**
+     * Findings that only need the file at hand. Same threading rules as
+     * {@link Detector#analyze}.
+     */
+    default List<CodeIssue> analyzeFile(CompilationUnit cu) {
+        return List.of();
+    }
+
+    /**
+     * Findings across the project, called once after every file has been indexed.
+     */
+    List<CodeIssue> analyzeProject(ProjectSymbolIndex index);
+
+    /**
+     * Shortest clone, in tokens, this detector looks for. When positive, the index
+     * carries token fingerprints of every file fine enough to find such clones.
+     */
+    default int getMinCloneTokens() {
+        return 0;
+    }
+
+    /**
+     * Whether the index should carry the numeric literals of every file.
+     */
+    default boolean indexesNumericLiterals() {
+        return false;
+    }
+
+    /**
+     * Standalone entry point: treats {@code cu} as the whole project.
+     */
+    @Override
+    default List<CodeIssue> analyze(CompilationUnit cu) {
+        List<CodeIssue> issues = new ArrayList<>(analyzeFile(cu));
+        issues.addAll(analyzeProject(ProjectSymbolIndex.of(getMinCloneTokens(), indexesNumericLiterals(), cu)));
+        return issues;
+    }
+}
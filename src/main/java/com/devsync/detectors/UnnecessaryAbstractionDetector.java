@@ -1,11 +1,19 @@
 package com.devsync.detectors;
 
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.*;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
+import com.devsync.analyzer.FileSymbols.TypeSymbol;
+import com.devsync.analyzer.ProjectSymbolIndex;
 import java.util.*;
 
-public class UnnecessaryAbstractionDetector {
+/**
+ * Flags interfaces that have a single implementation in the project and are
+ * hardly used as a type. Both facts come from the project symbol index, so an
+ * implementation or a usage in another file counts.
+ */
+public class UnnecessaryAbstractionDetector implements ProjectDetector {
     
     private int maxUsage = 1;
     
@@ -13,13 +21,26 @@ public class UnnecessaryAbstractionDetector {
         this.maxUsage = maxUsage;
     }
 
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
-        
-        AbstractionAnalyzer analyzer = new AbstractionAnalyzer();
-        cu.accept(analyzer, null);
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getUnnecessaryAbstractionEnabled, false);
+    }
+    
+    @Override
+    public void configure(UserSettings settings) {
+        setMaxUsage(AnalysisConfig.getMaxAbstractionUsage(settings));
+    }
+    
+    @Override
+    public String getConfigSignature() {
+        return String.valueOf(maxUsage);
+    }
+    
+    @Override
+    public List<CodeIssue> analyzeProject(ProjectSymbolIndex index) {
+        List<CodeIssue> issues = new ArrayList<>();
         
-        analyzer.getUnnecessaryAbstractions().forEach(absInfo -> {
+        collectAbstractions(index).forEach(absInfo -> {
             // THRESHOLD CHECK FIRST - binary detection
             // Interface with only 1 implementation AND used <= maxUsage = unnecessary
             if (!absInfo.hasOnlyOneImplementation || absInfo.usageCount > maxUsage) {
@@ -32,27 +53,47 @@ public class UnnecessaryAbstractionDetector {
             String analysis = generateAnalysis(absInfo);
             String suggestions = generateSuggestions(absInfo);
             
-            issues.add(String.format(
-                "%s [UnnecessaryAbstraction] %s:%d - %s '%s' (Score: %.2f) - %s | Suggestions: %s | DetailedReason: This abstraction is unnecessary because it is used only %d time(s), %s, and %s. Complexity score: %.2f. Unnecessary abstractions add complexity without benefit. | ThresholdDetails: {\"usageCount\":%d,\"maxUsage\":%d,\"hasOnlyOneImplementation\":%b,\"isSimpleWrapper\":%b,\"complexityScore\":%.2f,\"summary\":\"Abstractions are flagged when only 1 implementation AND usage <= %d.\"}" ,
-                severity,
-                cu.getStorage().map(s -> s.getFileName()).orElse("UnknownFile"),
+            CodeIssue issue = new CodeIssue("UnnecessaryAbstraction",
+                absInfo.fileName,
                 absInfo.lineNumber,
-                absInfo.type,
-                absInfo.name,
-                complexityScore,
-                analysis,
-                suggestions,
+                Severity.fromEmoji(severity),
+                String.format("%s '%s' (Score: %.2f) - %s", absInfo.type, absInfo.name, complexityScore, analysis),
+                suggestions);
+            issue.setDetailedReason(String.format(
+                "This abstraction is unnecessary because it is used only %d time(s), %s, and %s. Complexity score: %.2f. Unnecessary abstractions add complexity without benefit.",
                 absInfo.usageCount,
                 absInfo.hasOnlyOneImplementation ? "has only one implementation" : "has multiple implementations",
                 absInfo.isSimpleWrapper ? "acts as a simple wrapper" : "provides meaningful abstraction",
-                complexityScore,
-                absInfo.usageCount, maxUsage, absInfo.hasOnlyOneImplementation, absInfo.isSimpleWrapper, complexityScore, maxUsage
-            ));
+                complexityScore));
+            issue.addMetric("usageCount", absInfo.usageCount)
+                .addMetric("maxUsage", maxUsage)
+                .addMetric("hasOnlyOneImplementation", absInfo.hasOnlyOneImplementation)
+                .addMetric("isSimpleWrapper", absInfo.isSimpleWrapper)
+                .addMetric("complexityScore", complexityScore)
+                .addMetric("summary", "Abstractions are flagged when only 1 implementation AND usage <= " + maxUsage + ".");
+            issues.add(issue);
         });
         
         return issues;
     }
     
+    private List<AbstractionInfo> collectAbstractions(ProjectSymbolIndex index) {
+        List<AbstractionInfo> abstractions = new ArrayList<>();
+        for (int id = 0; id < index.getTypeCount(); id++) {
+            TypeSymbol type = index.getType(id);
+            if (!type.isInterface()) {
+                continue;
+            }
+            AbstractionInfo info = new AbstractionInfo(type.getName(), "Interface", type.getLine());
+            info.fileName = index.getFileName(id);
+            info.usageCount = index.referencedBy(id).length;
+            info.hasOnlyOneImplementation = index.implementorsOf(id).length == 1;
+            info.isSimpleWrapper = type.getMethods().size() == 1;
+            abstractions.add(info);
+        }
+        return abstractions;
+    }
+    
     private double calculateComplexityScore(AbstractionInfo absInfo) {
         double usageScore = 1.0 - Math.min(1.0, (double) absInfo.usageCount / 3);
         double implementationScore = absInfo.hasOnlyOneImplementation ? 0.8 : 0.0;
@@ -102,6 +143,7 @@ public class UnnecessaryAbstractionDetector {
     }
     
     private static class AbstractionInfo {
+        String fileName;
         String name;
         String type;
         int lineNumber;
@@ -115,36 +157,4 @@ public class UnnecessaryAbstractionDetector {
             this.lineNumber = lineNumber;
         }
     }
-    
-    private static class AbstractionAnalyzer extends VoidVisitorAdapter<Void> {
-        private final List<AbstractionInfo> unnecessaryAbstractions = new ArrayList<>();
-        private final Map<String, Integer> interfaceUsage = new HashMap<>();
-        
-        public List<AbstractionInfo> getUnnecessaryAbstractions() {
-            return unnecessaryAbstractions;
-        }
-        
-        @Override
-        public void visit(ClassOrInterfaceDeclaration n, Void arg) {
-            if (n.isInterface()) {
-                AbstractionInfo info = new AbstractionInfo(n.getNameAsString(), "Interface", 
-                    n.getBegin().map(pos -> pos.line).orElse(0));
-                
-                info.usageCount = interfaceUsage.getOrDefault(n.getNameAsString(), 0);
-                info.hasOnlyOneImplementation = hasOnlyOneImplementation(n);
-                info.isSimpleWrapper = isSimpleWrapper(n);
-                
-                unnecessaryAbstractions.add(info);
-            }
-            super.visit(n, arg);
-        }
-        
-        private boolean hasOnlyOneImplementation(ClassOrInterfaceDeclaration interfaceDecl) {
-            return interfaceDecl.getMethods().size() <= 2;
-        }
-        
-        private boolean isSimpleWrapper(ClassOrInterfaceDeclaration interfaceDecl) {
-            return interfaceDecl.getMethods().size() == 1;
-        }
-    }
-}
\ No newline at end of file
+}
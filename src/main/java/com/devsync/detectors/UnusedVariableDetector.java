@@ -1,43 +1,174 @@
 package com.devsync.detectors;
 
+import com.devsync.analyzer.ScopeResolver;
+import com.devsync.config.AnalysisConfig;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.body.VariableDeclarator;
-import com.github.javaparser.ast.expr.NameExpr;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import com.github.javaparser.ast.nodeTypes.NodeWithSimpleName;
+import com.github.javaparser.ast.stmt.TryStmt;
 import java.util.*;
 
-public class UnusedVariableDetector {
-
-    public List<String> detect(CompilationUnit cu) {
-        List<String> issues = new ArrayList<>();
-        VariableAnalyzer analyzer = new VariableAnalyzer();
-        cu.accept(analyzer, null);
+/**
+ * Flags locals, parameters, private fields and pattern variables that are never
+ * referenced. Names are resolved by a {@link ScopeResolver} riding on the shared
+ * walk, so a variable shadowed by another of the same name, or used only inside a
+ * lambda, is judged by the uses that really refer to it. Lambda and catch
+ * parameters are resolved too but not reported, as their signatures are imposed.
+ */
+public class UnusedVariableDetector implements FusedDetector {
+
+    // Class annotations that generate accessors, which use every field
+    private static final Set<String> ACCESSOR_ANNOTATIONS = Set.of(
+        "Data", "Getter", "Setter", "Value", "Builder", "ToString", "EqualsAndHashCode"
+    );
+
+    @Override
+    public boolean isEnabled(UserSettings settings) {
+        return AnalysisConfig.isEnabled(settings, UserSettings::getUnusedVariableEnabled, true);
+    }
+    
+    @Override
+    public FileScan startScan(CompilationUnit cu) {
+        ScopeResolver resolver = new ScopeResolver();
+        String fileName = cu.getStorage().map(storage -> storage.getFileName()).orElse("UnknownFile");
+        return new FileScan(resolver, () -> report(fileName, resolver));
+    }
+    
+    private List<CodeIssue> report(String fileName, ScopeResolver resolver) {
+        List<CodeIssue> issues = new ArrayList<>();
 
-        for (VariableInfo varInfo : analyzer.getUnusedVariables()) {
+        for (VariableInfo varInfo : findUnusedVariables(fileName, resolver)) {
             double riskScore = calculateRiskScore(varInfo);
             String severity = getSeverity(riskScore);
 
-            issues.add(String.format(
-                "%s [UnusedVariable] %s:%d - Variable '%s' declared but never used in %s - %s | Suggestions: %s | DetailedReason: %s",
-                severity,
-                varInfo.fileName,
-                varInfo.lineNumber,
-                varInfo.variableName,
-                varInfo.context,
-                generateAnalysis(varInfo),
-                generateSuggestions(varInfo),
-                generateDetailedReason(varInfo)
-            ));
+            CodeIssue issue = new CodeIssue("UnusedVariable", varInfo.fileName, varInfo.lineNumber,
+                Severity.fromEmoji(severity),
+                String.format("Variable '%s' declared but never used in %s - %s",
+                    varInfo.variableName, varInfo.context, generateAnalysis(varInfo)),
+                generateSuggestions(varInfo));
+            issue.setDetailedReason(generateDetailedReason(varInfo));
+            issues.add(issue);
         }
 
         return issues;
     }
+    
+    private List<VariableInfo> findUnusedVariables(String fileName, ScopeResolver resolver) {
+        List<VariableInfo> unusedVariables = new ArrayList<>();
+        for (int id = 0; id < resolver.getDeclarationCount(); id++) {
+            if (resolver.getUseCount(id) > 0) {
+                continue;
+            }
+            Node node = resolver.getNode(id);
+            boolean reported = switch (resolver.getKind(id)) {
+                case ScopeResolver.LOCAL -> !isTryResource(node);
+                case ScopeResolver.PARAMETER -> isReportableParameter((Parameter) node);
+                case ScopeResolver.FIELD -> isReportableField(node, resolver);
+                case ScopeResolver.PATTERN -> true;
+                default -> false;
+            };
+            if (!reported) {
+                continue;
+            }
+            
+            VariableInfo info = new VariableInfo();
+            info.fileName = fileName;
+            info.variableName = ((NodeWithSimpleName<?>) node).getNameAsString();
+            info.lineNumber = node.getBegin().map(pos -> pos.line).orElse(0);
+            info.isParameter = resolver.getKind(id) == ScopeResolver.PARAMETER;
+            info.isField = resolver.getKind(id) == ScopeResolver.FIELD;
+            info.isPattern = resolver.getKind(id) == ScopeResolver.PATTERN;
+            info.hasInitializer = node instanceof VariableDeclarator variable && variable.getInitializer().isPresent();
+            if (info.isField) {
+                TypeDeclaration<?> type = enclosingType(node);
+                info.context = "class " + (type != null ? type.getNameAsString() : "");
+                info.methodName = "";
+            } else {
+                CallableDeclaration<?> method = enclosingCallable(node);
+                info.methodName = method != null ? method.getNameAsString() : "";
+                info.isInPublicMethod = method != null && method.isPublic();
+                info.context = method != null ? "method " + info.methodName : "initializer";
+            }
+            unusedVariables.add(info);
+        }
+        return unusedVariables;
+    }
+    
+    private static TypeDeclaration<?> enclosingType(Node node) {
+        for (Node parent = node.getParentNode().orElse(null); parent != null; parent = parent.getParentNode().orElse(null)) {
+            if (parent instanceof TypeDeclaration<?> type) {
+                return type;
+            }
+        }
+        return null;
+    }
+    
+    private static CallableDeclaration<?> enclosingCallable(Node node) {
+        for (Node parent = node.getParentNode().orElse(null); parent != null; parent = parent.getParentNode().orElse(null)) {
+            if (parent instanceof CallableDeclaration<?> callable) {
+                return callable;
+            }
+        }
+        return null;
+    }
+    
+    private static boolean isTryResource(Node variable) {
+        return variable.getParentNode().flatMap(Node::getParentNode).orElse(null) instanceof TryStmt;
+    }
+    
+    /**
+     * Only signatures this file controls are judged: constructors, and private or
+     * static methods other than {@code main}. Any other method may implement an
+     * interface (with or without {@code @Override}) or be bound by a framework or
+     * layout file. Annotated parameters are bound by frameworks, and a leading
+     * underscore marks one as intentionally unused.
+     */
+    private static boolean isReportableParameter(Parameter parameter) {
+        if (parameter.getNameAsString().startsWith("_") || !parameter.getAnnotations().isEmpty()) {
+            return false;
+        }
+        Node owner = parameter.getParentNode().orElse(null);
+        if (owner instanceof MethodDeclaration method) {
+            return method.getBody().isPresent() && !method.isAnnotationPresent("Override")
+                && (method.isPrivate() || method.isStatic()) && !"main".equals(method.getNameAsString());
+        }
+        return owner instanceof ConstructorDeclaration;
+    }
+    
+    /**
+     * Only private fields can be judged from one file. Annotated fields are read
+     * by frameworks, and a field of the same name accessed on another object may
+     * be this one reached from an enclosing or nested class.
+     */
+    private static boolean isReportableField(Node node, ScopeResolver resolver) {
+        if (!(node instanceof VariableDeclarator variable)
+                || !(variable.getParentNode().orElse(null) instanceof FieldDeclaration field)) {
+            return false;
+        }
+        String name = variable.getNameAsString();
+        if (!field.isPrivate() || !field.getAnnotations().isEmpty() || "serialVersionUID".equals(name)
+                || resolver.isAccessedAsMember(name)) {
+            return false;
+        }
+        return !(field.getParentNode().orElse(null) instanceof TypeDeclaration<?> type)
+            || type.getAnnotations().stream().noneMatch(a -> ACCESSOR_ANNOTATIONS.contains(a.getNameAsString()));
+    }
 
     private double calculateRiskScore(VariableInfo varInfo) {
         double score = 0.5;
         
         if (varInfo.isParameter) score += 0.2;
+        if (varInfo.isField) score += 0.1;
         if (varInfo.isInPublicMethod) score += 0.1;
         if (varInfo.hasInitializer) score += 0.1;
         
@@ -51,12 +182,16 @@ public class UnusedVariableDetector {
 
     private String generateAnalysis(VariableInfo varInfo) {
         if (varInfo.isParameter) return "Unused method parameter";
+        if (varInfo.isField) return "Unused private field";
+        if (varInfo.isPattern) return "Pattern variable bound but never used";
         if (varInfo.hasInitializer) return "Variable initialized but never used";
         return "Dead code - variable declared but never referenced";
     }
 
     private String generateSuggestions(VariableInfo varInfo) {
         if (varInfo.isParameter) return "Remove parameter or prefix with underscore if intentionally unused";
+        if (varInfo.isField) return "Remove the field along with any assignments to it";
+        if (varInfo.isPattern) return "Use a plain instanceof check without binding a variable";
         return "Remove unused variable declaration to improve code clarity";
     }
 
@@ -75,6 +210,10 @@ public class UnusedVariableDetector {
             issues.add("it's a method parameter that is never referenced in the method body");
         }
         
+        if (varInfo.isField) {
+            issues.add("it's a private field, so no other class can use it");
+        }
+        
         issues.add("it is never read or referenced anywhere in its scope");
         
         reason.append(String.join(", ", issues));
@@ -89,98 +228,10 @@ public class UnusedVariableDetector {
         int lineNumber;
         String context;
         boolean isParameter;
+        boolean isField;
+        boolean isPattern;
         boolean isInPublicMethod;
         boolean hasInitializer;
         String methodName;
     }
-
-    private static class VariableAnalyzer extends VoidVisitorAdapter<Void> {
-        private final List<VariableInfo> unusedVariables = new ArrayList<>();
-        private String fileName = "";
-        private String currentMethodName = "";
-        private boolean inPublicMethod = false;
-
-        public List<VariableInfo> getUnusedVariables() {
-            return unusedVariables;
-        }
-
-        @Override
-        public void visit(CompilationUnit n, Void arg) {
-            fileName = n.getStorage().map(s -> s.getFileName()).orElse("UnknownFile");
-            super.visit(n, arg);
-        }
-
-        @Override
-        public void visit(MethodDeclaration n, Void arg) {
-            currentMethodName = n.getNameAsString();
-            inPublicMethod = n.isPublic();
-            
-            Map<String, VariableDeclarator> varDeclarators = new HashMap<>();
-            Set<String> paramNames = new HashSet<>();
-            Set<String> usedNames = new HashSet<>();
-
-            // Collect all variable declarations
-            n.findAll(VariableDeclarator.class).forEach(vd -> {
-                varDeclarators.put(vd.getNameAsString(), vd);
-            });
-
-            // Collect all parameters
-            n.getParameters().forEach(param -> {
-                paramNames.add(param.getNameAsString());
-            });
-
-            // Collect all name usages (excluding the declaration itself)
-            n.findAll(NameExpr.class).forEach(nameExpr -> {
-                String name = nameExpr.getNameAsString();
-                // Check if this NameExpr is NOT part of a variable declaration
-                boolean isDeclaration = nameExpr.getParentNode()
-                    .filter(parent -> parent instanceof VariableDeclarator)
-                    .map(parent -> {
-                        VariableDeclarator vd = (VariableDeclarator) parent;
-                        return vd.getName().equals(nameExpr.getName());
-                    })
-                    .orElse(false);
-                
-                if (!isDeclaration) {
-                    usedNames.add(name);
-                }
-            });
-
-            // Check for unused local variables
-            for (Map.Entry<String, VariableDeclarator> entry : varDeclarators.entrySet()) {
-                String varName = entry.getKey();
-                if (!usedNames.contains(varName)) {
-                    VariableDeclarator vd = entry.getValue();
-                    VariableInfo info = new VariableInfo();
-                    info.fileName = fileName;
-                    info.variableName = varName;
-                    info.lineNumber = vd.getBegin().map(pos -> pos.line).orElse(0);
-                    info.context = "method " + currentMethodName;
-                    info.isInPublicMethod = inPublicMethod;
-                    info.methodName = currentMethodName;
-                    info.isParameter = false;
-                    info.hasInitializer = vd.getInitializer().isPresent();
-                    unusedVariables.add(info);
-                }
-            }
-
-            // Check for unused parameters
-            for (String paramName : paramNames) {
-                if (!usedNames.contains(paramName)) {
-                    VariableInfo info = new VariableInfo();
-                    info.fileName = fileName;
-                    info.variableName = paramName;
-                    info.lineNumber = n.getBegin().map(pos -> pos.line).orElse(0);
-                    info.context = "method " + currentMethodName;
-                    info.isInPublicMethod = inPublicMethod;
-                    info.methodName = currentMethodName;
-                    info.isParameter = true;
-                    info.hasInitializer = false;
-                    unusedVariables.add(info);
-                }
-            }
-
-            super.visit(n, arg);
-        }
-    }
 }
@@ -45,6 +45,13 @@ public class AnalysisHistory {
     
     @Column
     private Double issueDensity;
+    
+    // SHA-256 of the uploaded archive; rows sharing it and the fingerprint share report files
+    @Column(length = 64)
+    private String archiveHash;
+    
+    @Column(length = 64)
+    private String configFingerprint;
 
     public AnalysisHistory() {}
 
@@ -112,4 +119,10 @@ public class AnalysisHistory {
     
     public Double getIssueDensity() { return issueDensity; }
     public void setIssueDensity(Double issueDensity) { this.issueDensity = issueDensity; }
+    
+    public String getArchiveHash() { return archiveHash; }
+    public void setArchiveHash(String archiveHash) { this.archiveHash = archiveHash; }
+    
+    public String getConfigFingerprint() { return configFingerprint; }
+    public void setConfigFingerprint(String configFingerprint) { this.configFingerprint = configFingerprint; }
 }
\ No newline at end of file
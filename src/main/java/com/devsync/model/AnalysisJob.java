@@ -0,0 +1,104 @@
+package com.devsync.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.LocalDateTime;
+
+/**
+ * In-memory state of one queued upload analysis. Written by the worker thread
+ * that runs the pipeline and read by status polls, so every mutable field is
+ * volatile.
+ */
+public class AnalysisJob {
+
+    public enum Stage {
+        QUEUED, EXTRACTING, ANALYZING, REPORTING, SAVING, AI_ANALYSIS, COMPLETED, FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    private final String id;
+    private final String userId;
+    private final String projectName;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile Stage stage = Stage.QUEUED;
+    private volatile int filesDone;
+    private volatile int filesTotal;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String result;
+    private volatile String error;
+    private volatile String reportPath;
+
+    public AnalysisJob(String id, String userId, String projectName) {
+        this.id = id;
+        this.userId = userId;
+        this.projectName = projectName;
+    }
+
+    public String getId() { return id; }
+
+    @JsonIgnore
+    public String getUserId() { return userId; }
+
+    public String getProjectName() { return projectName; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+
+    public Stage getStage() { return stage; }
+
+    public void setStage(Stage stage) {
+        if (stage != Stage.QUEUED && startedAt == null) {
+            startedAt = LocalDateTime.now();
+        }
+        if (stage.isFinished()) {
+            finishedAt = LocalDateTime.now();
+        }
+        this.stage = stage;
+    }
+
+    public int getFilesDone() { return filesDone; }
+
+    public int getFilesTotal() { return filesTotal; }
+
+    public void updateProgress(int filesDone, int filesTotal) {
+        this.filesTotal = filesTotal;
+        this.filesDone = filesDone;
+    }
+
+    /**
+     * Share of files analyzed so far, 0-100. Stays at 0 until the file list is known.
+     */
+    public int getProgressPercent() {
+        if (stage == Stage.COMPLETED) {
+            return 100;
+        }
+        int total = filesTotal;
+        return total > 0 ? (int) (filesDone * 100L / total) : 0;
+    }
+
+    public boolean isFinished() { return stage.isFinished(); }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+
+    public String getResult() { return result; }
+
+    public String getError() { return error; }
+
+    public String getReportPath() { return reportPath; }
+    public void setReportPath(String reportPath) { this.reportPath = reportPath; }
+
+    public void complete(String result) {
+        this.result = result;
+        setStage(Stage.COMPLETED);
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        setStage(Stage.FAILED);
+    }
+}
@@ -1,21 +1,35 @@
 package com.devsync.model;
 
 import com.devsync.dto.LongMethodThresholdDetails;
+import com.devsync.reports.IssueFormatter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * One finding. Detectors produce these directly and they travel unchanged
+ * through aggregation, report writing and the REST endpoints; the one-line text
+ * form is only rendered for the plain-text report (see IssueFormatter).
+ */
 public class CodeIssue {
+
+    // File-level findings such as parse errors have no line
+    public static final int NO_LINE = -1;
+
     private String type;
     private String file;
     private int line;
-    private String severity;
+    private Severity severity;
     private String message;
     private String suggestion;
     private String detailedReason;
     private LongMethodThresholdDetails thresholdDetails;
     private String thresholdDetailsJson;
+    private Map<String, Object> metrics = new LinkedHashMap<>();
 
     public CodeIssue() {}
 
-    public CodeIssue(String type, String file, int line, String severity, String message, String suggestion) {
+    public CodeIssue(String type, String file, int line, Severity severity, String message, String suggestion) {
         this.type = type;
         this.file = file;
         this.line = line;
@@ -33,8 +47,8 @@ public class CodeIssue {
     public int getLine() { return line; }
     public void setLine(int line) { this.line = line; }
 
-    public String getSeverity() { return severity; }
-    public void setSeverity(String severity) { this.severity = severity; }
+    public Severity getSeverity() { return severity; }
+    public void setSeverity(Severity severity) { this.severity = severity; }
 
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
@@ -48,6 +62,25 @@ public class CodeIssue {
     public LongMethodThresholdDetails getThresholdDetails() { return thresholdDetails; }
     public void setThresholdDetails(LongMethodThresholdDetails thresholdDetails) { this.thresholdDetails = thresholdDetails; }
 
-    public String getThresholdDetailsJson() { return thresholdDetailsJson; }
+    public String getThresholdDetailsJson() {
+        if (thresholdDetailsJson == null && !metrics.isEmpty()) {
+            return IssueFormatter.formatMetrics(metrics);
+        }
+        return thresholdDetailsJson;
+    }
     public void setThresholdDetailsJson(String thresholdDetailsJson) { this.thresholdDetailsJson = thresholdDetailsJson; }
+
+    /**
+     * The measurements and thresholds behind the finding, in insertion order.
+     */
+    public Map<String, Object> getMetrics() { return metrics; }
+    public void setMetrics(Map<String, Object> metrics) { this.metrics = metrics; }
+
+    public CodeIssue addMetric(String name, Object value) {
+        metrics.put(name, value);
+        return this;
+    }
+
+    @JsonIgnore
+    public boolean hasLine() { return line != NO_LINE; }
 }
@@ -0,0 +1,51 @@
+package com.devsync.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Issue severity, ordered from most to least urgent. ERROR marks analysis
+ * failures (parse errors, crashed detectors, timeouts) rather than code smells.
+ */
+public enum Severity {
+    CRITICAL("Critical", "🔴"),
+    HIGH("High", "🟡"),
+    MEDIUM("Medium", "🟠"),
+    LOW("Low", "⚪"),
+    ERROR("Error", "❌");
+
+    private final String label;
+    private final String emoji;
+
+    Severity(String label, String emoji) {
+        this.label = label;
+        this.emoji = emoji;
+    }
+
+    @JsonValue
+    public String getLabel() { return label; }
+
+    public String getEmoji() { return emoji; }
+
+    /**
+     * Maps the emoji that detectors score with; anything unrecognised is LOW.
+     */
+    public static Severity fromEmoji(String emoji) {
+        for (Severity severity : values()) {
+            if (severity.emoji.equals(emoji)) {
+                return severity;
+            }
+        }
+        return LOW;
+    }
+
+    @JsonCreator
+    public static Severity fromLabel(String label) {
+        for (Severity severity : values()) {
+            if (severity.label.equalsIgnoreCase(label) || severity.name().equalsIgnoreCase(label)) {
+                return severity;
+            }
+        }
+        return LOW;
+    }
+}
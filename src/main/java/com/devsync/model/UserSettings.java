@@ -95,6 +95,12 @@ public class UserSettings {
     @Column(name = "unused_variable_enabled")
     private Boolean unusedVariableEnabled = true;
     
+    // 14. Duplicate Code Detector
+    @Column(name = "duplicate_code_enabled")
+    private Boolean duplicateCodeEnabled = true;
+    @Column(name = "min_clone_tokens")
+    private Integer minCloneTokens = 100;
+    
     // AI Assistant settings
     @Column(name = "ai_provider")
     private String aiProvider = "ollama"; // ollama, openai, anthropic, none
@@ -204,6 +210,12 @@ public class UserSettings {
     public Boolean getUnusedVariableEnabled() { return unusedVariableEnabled; }
     public void setUnusedVariableEnabled(Boolean unusedVariableEnabled) { this.unusedVariableEnabled = unusedVariableEnabled; }
     
+    // Duplicate Code
+    public Boolean getDuplicateCodeEnabled() { return duplicateCodeEnabled; }
+    public void setDuplicateCodeEnabled(Boolean duplicateCodeEnabled) { this.duplicateCodeEnabled = duplicateCodeEnabled; }
+    public Integer getMinCloneTokens() { return minCloneTokens; }
+    public void setMinCloneTokens(Integer minCloneTokens) { this.minCloneTokens = minCloneTokens; }
+    
     public String getAiProvider() { return aiProvider; }
     public void setAiProvider(String aiProvider) { this.aiProvider = aiProvider; }
     
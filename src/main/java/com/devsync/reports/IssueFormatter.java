@@ -0,0 +1,233 @@
+package com.devsync.reports;
+
+import com.devsync.dto.LongMethodThresholdDetails;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The one-line text form of an issue, as written to the plain-text report:
+ * <pre>🔴 [Type] File.java:12 - message | Suggestions: ... | DetailedReason: ... | ThresholdDetails: {...}</pre>
+ * Issues are only rendered here, at the edge. Parsing is kept for reports written
+ * before the structured issues file existed.
+ */
+public final class IssueFormatter {
+
+    private static final Pattern TYPE_PATTERN = Pattern.compile("\\[([^\\]]+)\\]");
+    private static final Pattern FILE_LINE_PATTERN = Pattern.compile("([^:]+):(\\d+)");
+
+    private IssueFormatter() {}
+
+    public static String format(CodeIssue issue) {
+        StringBuilder line = new StringBuilder(256);
+        line.append(issue.getSeverity().getEmoji())
+            .append(" [").append(issue.getType()).append("] ")
+            .append(issue.getFile());
+        if (issue.hasLine()) {
+            line.append(':').append(issue.getLine());
+        }
+        line.append(" - ").append(issue.getMessage());
+        if (issue.getSuggestion() != null) {
+            line.append(" | Suggestions: ").append(issue.getSuggestion());
+        }
+        if (issue.getDetailedReason() != null) {
+            line.append(" | DetailedReason: ").append(issue.getDetailedReason());
+        }
+        if (!issue.getMetrics().isEmpty()) {
+            line.append(" | ThresholdDetails: ").append(formatMetrics(issue.getMetrics()));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Flat JSON object of the metrics. Fractions keep the two decimals the
+     * reports have always shown.
+     */
+    public static String formatMetrics(Map<String, Object> metrics) {
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, Object> metric : metrics.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(metric.getKey()).append("\":");
+            Object value = metric.getValue();
+            if (value instanceof Double || value instanceof Float) {
+                json.append(String.format("%.2f", ((Number) value).doubleValue()));
+            } else if (value instanceof Number || value instanceof Boolean) {
+                json.append(value);
+            } else if (value == null) {
+                json.append("null");
+            } else {
+                json.append('"').append(value.toString().replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Reads back the issue lines of a text report.
+     */
+    public static List<CodeIssue> parseReport(String reportContent) {
+        List<CodeIssue> issues = new ArrayList<>();
+        for (String line : reportContent.split("\n")) {
+            if (line.startsWith("🚨")) {
+                CodeIssue issue = parse(line);
+                if (issue != null) {
+                    issues.add(issue);
+                }
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * Reads back one issue line from a legacy report.
+     * Format: 🚨 🔴 [Type] file.java:line - description | Suggestions: suggestion | DetailedReason: reason
+     *
+     * @return the issue, or null when the line is not a file:line finding
+     */
+    public static CodeIssue parse(String line) {
+        try {
+            String cleanLine = line.contains("🚨") ? line.substring(line.indexOf("🚨") + 1).trim() : line.trim();
+            
+            // Extract severity
+            Severity severity = parseSeverity(cleanLine);
+            cleanLine = cleanLine.substring(cleanLine.indexOf("[")).trim();
+            
+            // Extract type
+            Matcher typeMatcher = TYPE_PATTERN.matcher(cleanLine);
+            if (!typeMatcher.find()) return null;
+            String type = typeMatcher.group(1);
+            
+            // Extract file and line
+            String afterType = cleanLine.substring(typeMatcher.end()).trim();
+            Matcher fileLineMatcher = FILE_LINE_PATTERN.matcher(afterType);
+            if (!fileLineMatcher.find()) return null;
+            
+            String fileName = extractFileName(fileLineMatcher.group(1).trim());
+            int lineNumber = Integer.parseInt(fileLineMatcher.group(2));
+            
+            // Extract message, suggestion, detailed reason, and threshold details
+            String remaining = afterType.substring(fileLineMatcher.end()).trim();
+            String message = "";
+            String suggestion = "";
+            String detailedReason = "";
+            String thresholdDetailsJson = "";
+            
+            if (remaining.startsWith("-")) {
+                remaining = remaining.substring(1).trim();
+                String[] parts = remaining.split("\\|");
+                message = parts[0].trim();
+                
+                for (int i = 1; i < parts.length; i++) {
+                    String part = parts[i].trim();
+                    if (part.startsWith("Suggestions:")) {
+                        suggestion = part.substring(12).trim();
+                    } else if (part.startsWith("DetailedReason:")) {
+                        detailedReason = part.substring(15).trim();
+                    } else if (part.startsWith("ThresholdDetails:")) {
+                        thresholdDetailsJson = part.substring(17).trim();
+                    }
+                }
+            }
+            
+            CodeIssue issue = new CodeIssue(type, fileName, lineNumber, severity, message, suggestion);
+            issue.setDetailedReason(detailedReason);
+            
+            // LongMethod reports carry their thresholds in the detailed reason
+            if ("LongMethod".equals(type) && !detailedReason.isEmpty()) {
+                issue.setThresholdDetails(parseLongMethodDetails(detailedReason));
+            }
+            if (!thresholdDetailsJson.isEmpty()) {
+                issue.setThresholdDetailsJson(thresholdDetailsJson);
+            }
+            
+            return issue;
+        } catch (Exception e) {
+            System.err.println("Failed to parse issue line: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Severity parseSeverity(String line) {
+        if (line.contains("🔴")) return Severity.CRITICAL;
+        if (line.contains("🟡")) return Severity.HIGH;
+        if (line.contains("🟠")) return Severity.MEDIUM;
+        return Severity.LOW;
+    }
+
+    private static String extractFileName(String path) {
+        if (path.contains("/")) {
+            return path.substring(path.lastIndexOf("/") + 1);
+        }
+        if (path.contains("\\")) {
+            return path.substring(path.lastIndexOf("\\") + 1);
+        }
+        return path;
+    }
+    
+    private static LongMethodThresholdDetails parseLongMethodDetails(String detailedReason) {
+        LongMethodThresholdDetails details = new LongMethodThresholdDetails();
+        
+        try {
+            Pattern statementPattern = Pattern.compile("Statement count is (\\d+) \\((exceeds|within) (?:critical threshold|base threshold|threshold) of (\\d+)\\)");
+            Matcher statementMatcher = statementPattern.matcher(detailedReason);
+            if (statementMatcher.find()) {
+                details.setStatementCount(Integer.parseInt(statementMatcher.group(1)));
+                details.setExceedsStatementCount("exceeds".equals(statementMatcher.group(2)));
+                int threshold = Integer.parseInt(statementMatcher.group(3));
+                if (detailedReason.contains("critical threshold")) {
+                    details.setCriticalThreshold(threshold);
+                    details.setBaseThreshold(threshold / 2);
+                } else {
+                    details.setBaseThreshold(threshold);
+                    details.setCriticalThreshold(threshold * 2);
+                }
+            }
+            
+            Pattern cyclomaticPattern = Pattern.compile("Cyclomatic complexity is (\\d+) \\((exceeds|within) max of (\\d+)");
+            Matcher cyclomaticMatcher = cyclomaticPattern.matcher(detailedReason);
+            if (cyclomaticMatcher.find()) {
+                details.setCyclomaticComplexity(Integer.parseInt(cyclomaticMatcher.group(1)));
+                details.setExceedsCyclomaticComplexity("exceeds".equals(cyclomaticMatcher.group(2)));
+                details.setMaxCyclomaticComplexity(Integer.parseInt(cyclomaticMatcher.group(3)));
+            }
+            
+            Pattern cognitivePattern = Pattern.compile("Cognitive complexity is (\\d+) \\((exceeds|within) max of (\\d+)");
+            Matcher cognitiveMatcher = cognitivePattern.matcher(detailedReason);
+            if (cognitiveMatcher.find()) {
+                details.setCognitiveComplexity(Integer.parseInt(cognitiveMatcher.group(1)));
+                details.setExceedsCognitiveComplexity("exceeds".equals(cognitiveMatcher.group(2)));
+                details.setMaxCognitiveComplexity(Integer.parseInt(cognitiveMatcher.group(3)));
+            }
+            
+            Pattern nestingPattern = Pattern.compile("Nesting depth is (\\d+) levels \\((exceeds|within) max of (\\d+)");
+            Matcher nestingMatcher = nestingPattern.matcher(detailedReason);
+            if (nestingMatcher.find()) {
+                details.setNestingDepth(Integer.parseInt(nestingMatcher.group(1)));
+                details.setExceedsNestingDepth("exceeds".equals(nestingMatcher.group(2)));
+                details.setMaxNestingDepth(Integer.parseInt(nestingMatcher.group(3)));
+            }
+            
+            Pattern responsibilityPattern = Pattern.compile("Handles (\\d+) (?:different )?responsibilit(?:ies|y) \\((exceeds|within) max of (\\d+)");
+            Matcher responsibilityMatcher = responsibilityPattern.matcher(detailedReason);
+            if (responsibilityMatcher.find()) {
+                details.setResponsibilityCount(Integer.parseInt(responsibilityMatcher.group(1)));
+                details.setExceedsResponsibilityCount("exceeds".equals(responsibilityMatcher.group(2)));
+                details.setMaxResponsibilityCount(Integer.parseInt(responsibilityMatcher.group(3)));
+            }
+            
+            details.setSummary("A method is flagged when ANY of these thresholds is exceeded.");
+            
+        } catch (Exception e) {
+            System.err.println("Failed to parse threshold details: " + e.getMessage());
+        }
+        
+        return details;
+    }
+}
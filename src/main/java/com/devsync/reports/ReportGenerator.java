@@ -1,10 +1,23 @@
 package com.devsync.reports;
 
+import com.devsync.analyzer.IssueSpill;
 import com.devsync.grading.GradingSystem;
 import com.devsync.grading.GradingSystem.GradeResult;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
@@ -13,7 +26,10 @@ import java.util.*;
 
 public class ReportGenerator {
 
-    public static String generateTextReport(List<String> issues, String outputDir) throws IOException {
+    private static final ObjectMapper ISSUE_MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public static String generateTextReport(List<CodeIssue> issues, String outputDir) throws IOException {
         String folderName = new java.io.File(outputDir).getName();
         String reportPath = outputDir + "/" + folderName + ".txt";
 
@@ -21,8 +37,8 @@ public class ReportGenerator {
             if (issues.isEmpty()) {
                 writer.write("🎉 No issues found in the code.\n");
             } else {
-                for (String issue : issues) {
-                    writer.write("🚨 " + issue + "\n");
+                for (CodeIssue issue : issues) {
+                    writer.write("🚨 " + IssueFormatter.format(issue) + "\n");
                 }
             }
         }
@@ -31,19 +47,76 @@ public class ReportGenerator {
     }
     
     public String generateComprehensiveReport(Map<String, Object> analysisResults) {
+        return renderReport(analysisResults, reportedIssues(analysisResults));
+    }
+    
+    /**
+     * The comprehensive report of an in-memory analysis, written to
+     * {@code reportPath} together with its structured issues: the same
+     * deduplicated issues, in the same order, as the text lists.
+     */
+    public void writeComprehensiveReport(Map<String, Object> analysisResults, String reportPath) throws IOException {
+        List<CodeIssue> issues = reportedIssues(analysisResults);
+        try (Writer writer = new BufferedWriter(new FileWriter(reportPath, java.nio.charset.StandardCharsets.UTF_8))) {
+            writer.write(renderReport(analysisResults, issues));
+        }
+        writeIssues(reportPath, issues);
+    }
+    
+    /**
+     * The issues a report lists: deduplicated and sorted by severity priority.
+     */
+    private List<CodeIssue> reportedIssues(Map<String, Object> analysisResults) {
+        @SuppressWarnings("unchecked")
+        List<CodeIssue> rawIssues = (List<CodeIssue>) analysisResults.get("issues");
+        List<CodeIssue> issues = deduplicateIssues(rawIssues);
+        issues.sort(Comparator.comparing(CodeIssue::getSeverity));
+        return issues;
+    }
+    
+    private String renderReport(Map<String, Object> analysisResults, List<CodeIssue> issues) {
+        IssueTotals totals = new IssueTotals();
+        issues.forEach(totals::add);
+        StringBuilder report = new StringBuilder(summarySections(analysisResults, totals));
+        issues.forEach(issue -> report.append("🚨 ").append(IssueFormatter.format(issue)).append("\n"));
+        return report.toString();
+    }
+    
+    /**
+     * The comprehensive report of a streaming analysis, written straight to
+     * {@code reportPath} together with its structured issues. The issues come out
+     * of the spill deduplicated and by severity, as in the in-memory report, and
+     * only the per-file and per-type totals are held in memory.
+     */
+    public void writeComprehensiveReport(Map<String, Object> analysisResults, IssueSpill spill, String reportPath) throws IOException {
+        IssueTotals totals = new IssueTotals();
+        spill.deduplicate(totals::add);
+        
+        ObjectWriter issueWriter = ISSUE_MAPPER.writerFor(CodeIssue.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Writer writer = new BufferedWriter(new FileWriter(reportPath, java.nio.charset.StandardCharsets.UTF_8));
+             JsonGenerator json = ISSUE_MAPPER.getFactory().createGenerator(new File(issuesFilePath(reportPath)), JsonEncoding.UTF8)) {
+            writer.write(summarySections(analysisResults, totals));
+            json.writeStartArray();
+            spill.forEachBySeverity(issue -> {
+                writer.write("🚨 ");
+                writer.write(IssueFormatter.format(issue));
+                writer.write("\n");
+                issueWriter.writeValue(json, issue);
+            });
+            json.writeEndArray();
+        }
+    }
+    
+    // Everything above the detailed issue list
+    private String summarySections(Map<String, Object> analysisResults, IssueTotals totals) {
         StringBuilder report = new StringBuilder();
         
         report.append("=== DevSync Code Analysis Report ===").append("\n");
         report.append("Generated: ").append(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)).append("\n\n");
         
-        // Get deduplicated issues
-        @SuppressWarnings("unchecked")
-        List<String> rawIssues = (List<String>) analysisResults.get("issues");
-        List<String> deduplicatedIssues = deduplicateIssues(rawIssues);
-        
-        // Recalculate counts based on deduplicated issues
-        Map<String, Integer> severityCounts = calculateSeverityCounts(deduplicatedIssues);
-        Map<String, Integer> typeCounts = generateTypeBreakdown(deduplicatedIssues);
+        // Counts are based on deduplicated issues
+        Map<String, Integer> severityCounts = totals.severityCounts;
+        Map<String, Integer> typeCounts = totals.typeCounts;
         
         // Get LOC and calculate grade
         int totalLOC = (Integer) analysisResults.getOrDefault("totalLOC", 0);
@@ -51,12 +124,8 @@ public class ReportGenerator {
         
         // Calculate file statistics
         int totalFiles = (Integer) analysisResults.getOrDefault("totalFiles", 0);
-        Set<String> filesWithSmells = new HashSet<>();
-        for (String issue : deduplicatedIssues) {
-            String fileName = extractFileName(issue);
-            if (fileName != null) filesWithSmells.add(fileName);
-        }
-        int cleanFiles = totalFiles - filesWithSmells.size();
+        int filesWithSmells = totals.fileBreakdown.size();
+        int cleanFiles = totalFiles - filesWithSmells;
         
         // Add grading report
         report.append(GradingSystem.generateGradingReport(gradeResult));
@@ -65,7 +134,7 @@ public class ReportGenerator {
         // Summary
         report.append("SUMMARY\n");
         report.append("-------\n");
-        int totalIssues = deduplicatedIssues.size();
+        int totalIssues = totals.count;
         report.append(String.format("Analyzed %d files, found %d issues (%d critical, %d high, %d medium, %d low)\n",
             totalFiles,
             totalIssues,
@@ -74,9 +143,14 @@ public class ReportGenerator {
             severityCounts.getOrDefault("Medium", 0),
             severityCounts.getOrDefault("Low", 0)));
         report.append(String.format("Clean Files: %d (%.1f%%)\n", cleanFiles, totalFiles > 0 ? (cleanFiles * 100.0 / totalFiles) : 0));
-        report.append(String.format("Files with Smells: %d (%.1f%%)\n", filesWithSmells.size(), totalFiles > 0 ? (filesWithSmells.size() * 100.0 / totalFiles) : 0));
+        report.append(String.format("Files with Smells: %d (%.1f%%)\n", filesWithSmells, totalFiles > 0 ? (filesWithSmells * 100.0 / totalFiles) : 0));
         report.append(String.format("Lines of Code: %,d\n", totalLOC));
-        report.append(String.format("Issue Density: %.2f issues per KLOC\n\n", gradeResult.getIssueDensity()));
+        report.append(String.format("Issue Density: %.2f issues per KLOC\n", gradeResult.getIssueDensity()));
+        if (Boolean.TRUE.equals(analysisResults.get("incomplete"))) {
+            report.append(String.format("⏱️ PARTIAL RESULTS: analysis time limit reached (%s files timed out, %s skipped)\n",
+                analysisResults.getOrDefault("timedOutFiles", 0), analysisResults.getOrDefault("skippedFiles", 0)));
+        }
+        report.append("\n");
         
         // Project Metrics
         int totalClasses = (Integer) analysisResults.getOrDefault("totalClasses", 0);
@@ -96,7 +170,13 @@ public class ReportGenerator {
         report.append(String.format("Large Classes (>500 LOC): %d\n", largeClasses));
         report.append(String.format("Average Class Size     : %.1f LOC\n", avgClassSize));
         report.append(String.format("Average Methods/Class  : %.1f\n", avgMethodsPerClass));
-        report.append(String.format("Average Complexity     : %.1f\n\n", avgComplexity));
+        report.append(String.format("Average Complexity     : %.1f\n", avgComplexity));
+        if (analysisResults.containsKey("avgLcom4")) {
+            report.append(String.format("Average LCOM4          : %.2f\n", (Double) analysisResults.get("avgLcom4")));
+            report.append(String.format("Average TCC            : %.2f\n", (Double) analysisResults.get("avgTcc")));
+            report.append(String.format("Classes to split (LCOM4>1): %d\n", (Integer) analysisResults.get("splittableClasses")));
+        }
+        report.append("\n");
         
         // Severity breakdown
         report.append("SEVERITY BREAKDOWN\n");
@@ -118,19 +198,24 @@ public class ReportGenerator {
         
         // Sort by count descending
         typeCounts.entrySet().stream()
-            .sorted((e1, e2) -> Integer.compare(e2.getValue(), e1.getValue()))
+            .sorted((e1, e2) -> e1.getValue().equals(e2.getValue())
+                ? e1.getKey().compareTo(e2.getKey()) : Integer.compare(e2.getValue(), e1.getValue()))
             .forEach(entry -> 
                 report.append(String.format("%-20s: %d\n", entry.getKey(), entry.getValue())));
         report.append("\n");
         
         // File-wise breakdown
-        Map<String, Map<String, Integer>> fileBreakdown = generateFileBreakdown(deduplicatedIssues);
+        Map<String, Map<String, Integer>> fileBreakdown = totals.fileBreakdown;
         report.append("FILE-WISE BREAKDOWN\n");
         report.append("-------------------\n");
         fileBreakdown.entrySet().stream()
-            .sorted((e1, e2) -> Integer.compare(
-                e2.getValue().values().stream().mapToInt(Integer::intValue).sum(),
-                e1.getValue().values().stream().mapToInt(Integer::intValue).sum()))
+            .sorted((e1, e2) -> {
+                int byTotal = Integer.compare(
+                    e2.getValue().values().stream().mapToInt(Integer::intValue).sum(),
+                    e1.getValue().values().stream().mapToInt(Integer::intValue).sum());
+                // Ties by name, so the order does not depend on how the map was filled
+                return byTotal != 0 ? byTotal : e1.getKey().compareTo(e2.getKey());
+            })
             .forEach(entry -> {
                 String file = entry.getKey();
                 Map<String, Integer> stats = entry.getValue();
@@ -149,22 +234,17 @@ public class ReportGenerator {
         report.append("DETAILED ISSUES\n");
         report.append("---------------\n");
         
-        // Sort issues by severity priority
-        deduplicatedIssues.stream()
-            .sorted(this::compareIssuesBySeverity)
-            .forEach(issue -> report.append("🚨 ").append(issue).append("\n"));
-        
         return report.toString();
     }
     
-    private List<String> deduplicateIssues(List<String> issues) {
+    private List<CodeIssue> deduplicateIssues(List<CodeIssue> issues) {
         Set<String> seen = new HashSet<>();
-        List<String> deduplicated = new ArrayList<>();
+        List<CodeIssue> deduplicated = new ArrayList<>();
         
-        for (String issue : issues) {
-            String key = extractDeduplicationKey(issue);
-            if (!seen.contains(key)) {
-                seen.add(key);
+        for (CodeIssue issue : issues) {
+            // file:line:type identifies a finding
+            String key = issue.getFile() + ":" + issue.getLine() + ":" + issue.getType();
+            if (seen.add(key)) {
                 deduplicated.add(issue);
             }
         }
@@ -172,124 +252,79 @@ public class ReportGenerator {
         return deduplicated;
     }
     
-    private String extractDeduplicationKey(String issue) {
-        // Extract file:line:type for deduplication
-        // Format: 🔴 [Type] filename.java:line - description
-        if (issue.contains("] ") && issue.contains(":")) {
-            String afterBracket = issue.substring(issue.indexOf("] ") + 2);
-            if (afterBracket.contains(" - ")) {
-                String fileAndLine = afterBracket.substring(0, afterBracket.indexOf(" - "));
-                String type = issue.substring(issue.indexOf("[") + 1, issue.indexOf("]"));
-                return fileAndLine + ":" + type;
-            }
-        }
-        return issue; // Fallback to full issue
-    }
-    
-    private Map<String, Integer> calculateSeverityCounts(List<String> issues) {
-        Map<String, Integer> counts = new HashMap<>();
-        counts.put("Critical", 0);
-        counts.put("High", 0);
-        counts.put("Medium", 0);
-        counts.put("Low", 0);
-        
-        for (String issue : issues) {
-            String severity = extractSeverity(issue);
-            counts.merge(severity, 1, Integer::sum);
-        }
-        
-        return counts;
-    }
-    
-    private String extractSeverity(String issue) {
-        String cleanIssue = issue.startsWith("🚨 ") ? issue.substring(2).trim() : issue;
-        
-        if (cleanIssue.startsWith("🔴")) return "Critical";
-        if (cleanIssue.startsWith("🟡")) return "High";
-        if (cleanIssue.startsWith("🟠")) return "Medium";
-        if (cleanIssue.startsWith("⚠️")) return "Low";
-        
-        return "Low"; // Default
-    }
-    
-    private int compareIssuesBySeverity(String issue1, String issue2) {
-        int priority1 = getSeverityPriority(issue1);
-        int priority2 = getSeverityPriority(issue2);
-        return Integer.compare(priority1, priority2);
+    // Analysis errors have always been graded as Low
+    private static String severityBucket(CodeIssue issue) {
+        return issue.getSeverity() == Severity.ERROR ? Severity.LOW.getLabel() : issue.getSeverity().getLabel();
     }
     
-    private int getSeverityPriority(String issue) {
-        if (issue.startsWith("🔴")) return 1; // Critical
-        if (issue.startsWith("🟡")) return 2; // High
-        if (issue.startsWith("🟠")) return 3; // Medium
-        if (issue.startsWith("⚠️")) return 4; // Low
-        return 5; // Unknown
-    }
-    
-    private Map<String, Integer> generateTypeBreakdown(List<String> issues) {
-        Map<String, Integer> typeBreakdown = new HashMap<>();
+    /**
+     * Severity, type and per-file counts of deduplicated issues, gathered one
+     * issue at a time.
+     */
+    private static class IssueTotals {
+        private final Map<String, Integer> severityCounts = new HashMap<>();
+        private final Map<String, Integer> typeCounts = new HashMap<>();
+        private final Map<String, Map<String, Integer>> fileBreakdown = new HashMap<>();
+        private int count;
         
-        for (String issue : issues) {
-            // Extract type from issue format: [DetectorType]
-            if (issue.contains("[") && issue.contains("]")) {
-                String type = issue.substring(issue.indexOf("[") + 1, issue.indexOf("]"));
-                typeBreakdown.merge(type, 1, Integer::sum);
+        IssueTotals() {
+            for (String severity : new String[] {"Critical", "High", "Medium", "Low"}) {
+                severityCounts.put(severity, 0);
             }
         }
         
-        return typeBreakdown;
-    }
-    
-    private Map<String, Map<String, Integer>> generateFileBreakdown(List<String> issues) {
-        Map<String, Map<String, Integer>> fileBreakdown = new HashMap<>();
-        
-        for (String issue : issues) {
-            // Extract file and severity from issue format
-            String fileName = "Unknown";
-            String severity = "Low";
-            
-            // Remove 🚨 prefix if present and extract severity emoji
-            String cleanIssue = issue.startsWith("🚨 ") ? issue.substring(2).trim() : issue;
-            
-            // Extract severity from emoji at start of clean issue
-            if (cleanIssue.startsWith("🔴")) severity = "Critical";
-            else if (cleanIssue.startsWith("🟡")) severity = "High";
-            else if (cleanIssue.startsWith("🟠")) severity = "Medium";
-            else if (cleanIssue.startsWith("⚠️")) severity = "Low";
-            else severity = "Low";
-            
-            // Extract filename - format: 🔴 [Type] filename.java:line - description
-            if (cleanIssue.contains("] ") && cleanIssue.contains(":")) {
-                String afterBracket = cleanIssue.substring(cleanIssue.indexOf("] ") + 2);
-                if (afterBracket.contains(":")) {
-                    String fullPath = afterBracket.substring(0, afterBracket.indexOf(":"));
-                    // Extract just the filename from path
-                    fileName = fullPath.contains("/") ? fullPath.substring(fullPath.lastIndexOf("/") + 1) : fullPath;
-                    fileName = fileName.contains("\\") ? fileName.substring(fileName.lastIndexOf("\\") + 1) : fileName;
-                }
-            }
-            
-            fileBreakdown.computeIfAbsent(fileName, k -> new HashMap<String, Integer>() {{
+        void add(CodeIssue issue) {
+            count++;
+            String bucket = severityBucket(issue);
+            severityCounts.merge(bucket, 1, Integer::sum);
+            typeCounts.merge(issue.getType(), 1, Integer::sum);
+            fileBreakdown.computeIfAbsent(extractFileName(issue.getFile()), k -> new HashMap<String, Integer>() {{
                 put("Critical", 0);
                 put("High", 0);
                 put("Medium", 0);
                 put("Low", 0);
-            }}).merge(severity, 1, Integer::sum);
+            }}).merge(bucket, 1, Integer::sum);
         }
-        
-        return fileBreakdown;
     }
     
-    private String extractFileName(String issue) {
-        if (issue.contains("] ") && issue.contains(":")) {
-            String afterBracket = issue.substring(issue.indexOf("] ") + 2);
-            if (afterBracket.contains(":")) {
-                String fullPath = afterBracket.substring(0, afterBracket.indexOf(":"));
-                String fileName = fullPath.contains("/") ? fullPath.substring(fullPath.lastIndexOf("/") + 1) : fullPath;
-                return fileName.contains("\\") ? fileName.substring(fileName.lastIndexOf("\\") + 1) : fileName;
-            }
+    private static String extractFileName(String path) {
+        String fileName = path.contains("/") ? path.substring(path.lastIndexOf("/") + 1) : path;
+        return fileName.contains("\\") ? fileName.substring(fileName.lastIndexOf("\\") + 1) : fileName;
+    }
+
+    /**
+     * Where the structured issues of a report are kept, next to the text report.
+     */
+    public static String issuesFilePath(String reportPath) {
+        String base = reportPath.endsWith(".txt") ? reportPath.substring(0, reportPath.length() - 4) : reportPath;
+        return base + "_issues.json";
+    }
+
+    public static void writeIssues(String reportPath, List<CodeIssue> issues) throws IOException {
+        ISSUE_MAPPER.writeValue(new File(issuesFilePath(reportPath)), issues);
+    }
+
+    /**
+     * @return the structured issues saved with the report, or null for reports
+     *         written before they were saved
+     */
+    public static List<CodeIssue> readIssues(String reportPath) throws IOException {
+        File issuesFile = new File(issuesFilePath(reportPath));
+        if (!issuesFile.exists()) {
+            return null;
+        }
+        return ISSUE_MAPPER.readValue(issuesFile, new TypeReference<List<CodeIssue>>() {});
+    }
+
+    /**
+     * Issues of a saved report, falling back to parsing the text report's issue lines.
+     */
+    public static List<CodeIssue> loadIssues(String reportPath) throws IOException {
+        List<CodeIssue> issues = readIssues(reportPath);
+        if (issues != null) {
+            return issues;
         }
-        return null;
+        return IssueFormatter.parseReport(readReportContent(reportPath));
     }
 
     public static void appendAIAnalysis(String reportPath, String aiAnalysis) throws IOException {
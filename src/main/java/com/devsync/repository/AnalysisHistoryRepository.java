@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AnalysisHistoryRepository extends JpaRepository<AnalysisHistory, Long> {
@@ -30,4 +31,9 @@ public interface AnalysisHistoryRepository extends JpaRepository<AnalysisHistory
     List<Object[]> getMonthlyAnalysisCount();
     
     List<AnalysisHistory> findByAnalysisDateBefore(java.time.LocalDateTime date);
+    
+    Optional<AnalysisHistory> findFirstByArchiveHashAndConfigFingerprintOrderByAnalysisDateDesc(String archiveHash, String configFingerprint);
+    
+    // Deduplicated uploads share a project folder, which may only go with its last row
+    long countByProjectPath(String projectPath);
 }
\ No newline at end of file
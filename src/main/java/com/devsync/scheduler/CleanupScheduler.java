@@ -2,6 +2,7 @@ package com.devsync.scheduler;
 
 import com.devsync.model.AnalysisHistory;
 import com.devsync.repository.AnalysisHistoryRepository;
+import com.devsync.services.AnalysisCacheService;
 import com.devsync.services.FileStorageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -10,16 +11,22 @@ import org.springframework.stereotype.Component;
 import java.io.File;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.logging.Logger;
 
 @Component
 public class CleanupScheduler {
     
+    private static final Logger logger = Logger.getLogger(CleanupScheduler.class.getName());
+    
     @Autowired
     private AnalysisHistoryRepository analysisHistoryRepository;
     
     @Autowired
     private FileStorageService fileStorageService;
     
+    @Autowired
+    private AnalysisCacheService analysisCacheService;
+    
     // Run every day at 2 AM
     @Scheduled(cron = "0 0 2 * * *")
     public void cleanupOldReports() {
@@ -32,7 +39,9 @@ public class CleanupScheduler {
         
         for (AnalysisHistory report : oldReports) {
             try {
-                if (report.getProjectPath() != null) {
+                // A newer deduplicated upload may still point at the same folder
+                if (report.getProjectPath() != null
+                        && analysisHistoryRepository.countByProjectPath(report.getProjectPath()) <= 1) {
                     File projectFolder = new File(report.getProjectPath());
                     if (projectFolder.exists()) {
                         fileStorageService.deleteDirectory(projectFolder);
@@ -47,5 +56,8 @@ public class CleanupScheduler {
         }
         
         System.out.println("🧹 Cleanup complete: " + deletedCount + " reports deleted");
+        
+        int evicted = analysisCacheService.evictStaleEntries();
+        logger.info("Analysis cache: " + evicted + " stale entries removed");
     }
 }
@@ -4,6 +4,8 @@ import com.devsync.model.AdminSettings;
 import com.devsync.repository.AdminSettingsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -51,6 +53,10 @@ public class AdminSettingsService {
         return getIntSetting("max_analysis_time_minutes", 10);
     }
     
+    public int getMaxFileAnalysisTime() {
+        return getIntSetting("max_file_analysis_time_seconds", 60);
+    }
+    
     public int getGlobalMaxMethodLength() {
         return getIntSetting("global_max_method_length", 100);
     }
@@ -59,6 +65,17 @@ public class AdminSettingsService {
         return getIntSetting("global_max_parameter_count", 10);
     }
     
+    /**
+     * Extra .gitignore-style paths to leave out of analysis, on top of the defaults.
+     */
+    public List<String> getExcludedPathPatterns() {
+        String patterns = getSettingValue("excluded_paths", "");
+        return Arrays.stream(patterns.split("[,\\n]"))
+            .map(String::trim)
+            .filter(pattern -> !pattern.isEmpty())
+            .toList();
+    }
+    
     public String[] getAllowedFileTypes() {
         String types = getSettingValue("allowed_file_types", "zip,jar");
         return types.split(",");
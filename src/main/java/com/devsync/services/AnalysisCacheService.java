@@ -0,0 +1,50 @@
+package com.devsync.services;
+
+import com.devsync.analyzer.FileResultCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@Service
+public class AnalysisCacheService {
+    
+    private static final String CACHE_FOLDER = ".analysis-cache";
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Value("${devsync.analysis.cache.enabled:true}")
+    private boolean cacheEnabled;
+    
+    @Value("${devsync.analysis.cache.max-age-days:30}")
+    private int maxAgeDays;
+    
+    private volatile FileResultCache cache;
+    
+    /**
+     * Shared per-file result cache, or null when caching is switched off.
+     */
+    public FileResultCache getCache() {
+        if (!cacheEnabled) {
+            return null;
+        }
+        if (cache == null) {
+            synchronized (this) {
+                if (cache == null) {
+                    cache = new FileResultCache(Paths.get(fileStorageService.getUploadsPath(), CACHE_FOLDER));
+                }
+            }
+        }
+        return cache;
+    }
+    
+    public int evictStaleEntries() {
+        FileResultCache current = getCache();
+        if (current == null) {
+            return 0;
+        }
+        return current.evictOlderThan(Duration.ofDays(maxAgeDays));
+    }
+}
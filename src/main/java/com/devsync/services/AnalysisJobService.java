@@ -0,0 +1,143 @@
+package com.devsync.services;
+
+import com.devsync.model.AnalysisJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs upload analyses off the servlet request threads on a bounded worker pool.
+ * When both the workers and the queue are full, new jobs are either rejected
+ * (the caller answers 503) or, with the caller-runs policy, executed on the
+ * submitting thread as before.
+ */
+@Service
+public class AnalysisJobService {
+    
+    private static final Logger logger = Logger.getLogger(AnalysisJobService.class.getName());
+    
+    public static final String POLICY_REJECT = "reject";
+    public static final String POLICY_CALLER_RUNS = "caller-runs";
+    
+    @Value("${devsync.jobs.worker-threads:2}")
+    private int workerThreads;
+    
+    @Value("${devsync.jobs.queue-capacity:20}")
+    private int queueCapacity;
+    
+    @Value("${devsync.jobs.rejection-policy:reject}")
+    private String rejectionPolicy;
+    
+    @Value("${devsync.jobs.retention-minutes:60}")
+    private int retentionMinutes;
+    
+    private final Map<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+    
+    @PostConstruct
+    public void start() {
+        int threads = Math.max(1, workerThreads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "analysis-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(false);
+                return thread;
+            },
+            rejectionHandler(rejectionPolicy));
+        logger.info("⚙️ Analysis job queue ready: " + threads + " workers, queue capacity " +
+            Math.max(1, queueCapacity) + ", rejection policy " + rejectionPolicy);
+    }
+    
+    private static RejectedExecutionHandler rejectionHandler(String policy) {
+        if (POLICY_CALLER_RUNS.equalsIgnoreCase(policy)) {
+            return new ThreadPoolExecutor.CallerRunsPolicy();
+        }
+        if (!POLICY_REJECT.equalsIgnoreCase(policy)) {
+            logger.warning("⚠️ Unknown job rejection policy '" + policy + "', using " + POLICY_REJECT);
+        }
+        return new ThreadPoolExecutor.AbortPolicy();
+    }
+    
+    /**
+     * Registers a job and queues {@code work} for it. The work is responsible for
+     * moving the job through its stages; an exception escaping it fails the job.
+     *
+     * @throws RejectedExecutionException when the queue is full and the policy is reject
+     */
+    public AnalysisJob submit(String userId, String projectName, Consumer<AnalysisJob> work) {
+        AnalysisJob job = new AnalysisJob(UUID.randomUUID().toString(), userId, projectName);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            logger.warning("🚫 Analysis queue full, rejected job for " + projectName);
+            throw e;
+        }
+        logger.fine(() -> "📥 Queued analysis job " + job.getId() + " (" + projectName + "), queue depth: " + getQueuedJobCount());
+        return job;
+    }
+    
+    private void run(AnalysisJob job, Consumer<AnalysisJob> work) {
+        try {
+            work.accept(job);
+            if (!job.isFinished()) {
+                job.fail("❌ Analysis ended without a result");
+            }
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "❌ Analysis job " + job.getId() + " failed: " + e.getMessage(), e);
+            job.fail("❌ Unexpected error during analysis: " + e.getMessage());
+        }
+    }
+    
+    public Optional<AnalysisJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+    
+    public int getQueuedJobCount() {
+        return executor.getQueue().size();
+    }
+    
+    public int getRunningJobCount() {
+        return executor.getActiveCount();
+    }
+    
+    // Finished jobs stay pollable for a while, then only the saved history remains
+    @Scheduled(fixedDelay = 600000)
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package com.devsync.services;
+
+import com.devsync.analyzer.AnalysisMetrics;
+import com.devsync.analyzer.CodeAnalysisEngine;
+import com.devsync.analyzer.IssueSpill;
+import com.devsync.analyzer.SourceFile;
+import com.devsync.config.PathExclusionMatcher;
+import com.devsync.grading.GradingSystem;
+import com.devsync.model.AnalysisHistory;
+import com.devsync.model.AnalysisJob;
+import com.devsync.model.AnalysisJob.Stage;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.UserSettings;
+import com.devsync.reports.ReportGenerator;
+import com.devsync.repository.AnalysisHistoryRepository;
+import com.devsync.repository.UserSettingsRepository;
+import com.devsync.utils.FolderNamingUtil;
+import com.devsync.utils.HashUtil;
+import com.devsync.utils.SourceStore;
+import com.devsync.utils.ZipExtractor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The upload analysis pipeline: extract, analyze, write the report, save history
+ * and optionally run the AI review. Runs on an analysis worker; the request
+ * thread only stages the uploaded archive.
+ *
+ * With in-memory uploads (the default) staging only keeps the compressed
+ * archive; the worker reads the Java entries out of it and nothing is extracted.
+ * The analyzed sources are kept in a single compressed {@link SourceStore}
+ * beside the report. In-memory uploads share a byte budget: an upload that would
+ * exceed it is staged on disk, and an archive whose sources alone exceed it is
+ * extracted to disk by the worker.
+ *
+ * The archive is hashed while it is staged. When a complete analysis of the same
+ * bytes under the same effective detector configuration already exists, the new
+ * history row points at its report and project folder instead of analyzing again.
+ */
+@Service
+public class AnalysisPipelineService {
+    
+    private static final Logger logger = Logger.getLogger(AnalysisPipelineService.class.getName());
+    
+    private static final String STAGING_FOLDER = ".staging";
+    
+    @Autowired
+    private AIAssistantService aiAssistantService;
+    
+    @Autowired
+    private AnalysisHistoryRepository analysisHistoryRepository;
+    
+    @Autowired
+    private UserSettingsRepository userSettingsRepository;
+    
+    @Autowired
+    private AdminSettingsService adminSettingsService;
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Autowired
+    private AnalysisCacheService analysisCacheService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${devsync.upload.in-memory:true}")
+    private boolean inMemoryUploads;
+    
+    @Value("${devsync.upload.in-memory.max-bytes:268435456}")
+    private long inMemoryMaxBytes = 256L * 1024 * 1024;
+    
+    // Bytes held by in-memory uploads: queued archives, then the sources under analysis
+    private final AtomicLong inMemoryBytes = new AtomicLong();
+    
+    @Value("${devsync.upload.dedup.enabled:true}")
+    private boolean dedupUploads;
+    
+    @Value("${devsync.analysis.streaming.min-files:5000}")
+    private int streamingMinFiles;
+    
+    @Value("${devsync.analysis.streaming.run-size:20000}")
+    private int streamingRunSize;
+    
+    /**
+     * An upload waiting for its analysis job: either the archive copied to the
+     * staging folder, or the archive bytes in memory, replaced by the Java
+     * sources read out of them once the job runs.
+     */
+    public static class StagedUpload {
+        private Path archive;
+        private byte[] archiveBytes;
+        private List<SourceFile> sources;
+        private final String archiveHash;
+        // Share of the in-memory budget this upload holds
+        private long reservedBytes;
+        
+        private StagedUpload(Path archive, byte[] archiveBytes, String archiveHash) {
+            this.archive = archive;
+            this.archiveBytes = archiveBytes;
+            this.archiveHash = archiveHash;
+        }
+        
+        public boolean isInMemory() { return archive == null; }
+        public Path getArchive() { return archive; }
+        public List<SourceFile> getSources() { return sources; }
+        /** SHA-256 of the uploaded bytes, as hex. */
+        public String getArchiveHash() { return archiveHash; }
+    }
+    
+    /**
+     * Takes the upload out of the multipart temp area, which is cleaned up as
+     * soon as the request completes.
+     */
+    public StagedUpload stageUpload(MultipartFile file) throws IOException {
+        MessageDigest digest = HashUtil.newSha256();
+        long size = file.getSize();
+        if (inMemoryUploads && reserveInMemory(size)) {
+            // Only copied here; decompressing is left to the analysis worker
+            byte[] bytes;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                bytes = in.readAllBytes();
+            } catch (IOException e) {
+                inMemoryBytes.addAndGet(-size);
+                throw e;
+            }
+            StagedUpload staged = new StagedUpload(null, bytes, HashUtil.toHex(digest.digest()));
+            staged.reservedBytes = size;
+            return staged;
+        }
+        if (inMemoryUploads) {
+            logger.fine(() -> "In-memory upload budget reached, staging " + file.getOriginalFilename() + " on disk");
+        }
+        
+        Path staged = newStagingFile();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, staged);
+        }
+        return new StagedUpload(staged, null, HashUtil.toHex(digest.digest()));
+    }
+    
+    private Path newStagingFile() throws IOException {
+        Path stagingDir = Paths.get(fileStorageService.getUploadsPath(), STAGING_FOLDER);
+        Files.createDirectories(stagingDir);
+        return stagingDir.resolve(UUID.randomUUID() + ".zip");
+    }
+    
+    private boolean reserveInMemory(long bytes) {
+        long current;
+        do {
+            current = inMemoryBytes.get();
+            if (current + bytes > inMemoryMaxBytes) {
+                return false;
+            }
+        } while (!inMemoryBytes.compareAndSet(current, current + bytes));
+        return true;
+    }
+    
+    /**
+     * Reads the sources of an in-memory upload, on the analysis worker. When they
+     * would take more than the in-memory budget, the archive is written to the
+     * staging folder instead and extracted from there like a disk upload.
+     */
+    void loadSources(StagedUpload staged, AnalysisMetrics metrics) throws IOException {
+        if (staged.archiveBytes == null) {
+            return;
+        }
+        byte[] bytes = staged.archiveBytes;
+        staged.archiveBytes = null;
+        try {
+            List<SourceFile> sources = metrics.timeStage(AnalysisMetrics.EXTRACT,
+                () -> ZipExtractor.readJavaSources(new ByteArrayInputStream(bytes), pathExclusions(), inMemoryMaxBytes));
+            long held = 0;
+            for (SourceFile source : sources) {
+                held += source.readContent().length;
+            }
+            // The sources replace the archive in the budget until the analysis is done
+            inMemoryBytes.addAndGet(held - staged.reservedBytes);
+            staged.reservedBytes = held;
+            staged.sources = sources;
+        } catch (ZipExtractor.MemoryLimitExceededException e) {
+            logger.info("📦 " + e.getMessage() + "; extracting to disk instead");
+            Path archive = newStagingFile();
+            Files.write(archive, bytes);
+            staged.archive = archive;
+            inMemoryBytes.addAndGet(-staged.reservedBytes);
+            staged.reservedBytes = 0;
+        }
+    }
+    
+    private PathExclusionMatcher pathExclusions() {
+        return PathExclusionMatcher.withPatterns(adminSettingsService.getExcludedPathPatterns());
+    }
+    
+    /**
+     * The engine's detector fingerprint plus the admin path exclusions and the AI
+     * reviewer, which also decide what a given archive's report holds. A null
+     * reviewer means the AI review is off.
+     */
+    static String effectiveFingerprint(CodeAnalysisEngine engine, List<String> excludedPatterns, String aiReviewer) {
+        return HashUtil.sha256Hex(engine.getConfigFingerprint() + ";excluded=" + String.join(",", excludedPatterns)
+                + ";ai=" + (aiReviewer != null ? aiReviewer : "off"))
+            .substring(0, 16);
+    }
+    
+    /**
+     * A finished analysis of the same archive and configuration whose report is
+     * still on disk.
+     */
+    private Optional<AnalysisHistory> findReusableAnalysis(String archiveHash, String fingerprint) {
+        if (!dedupUploads || archiveHash == null) {
+            return Optional.empty();
+        }
+        return analysisHistoryRepository
+            .findFirstByArchiveHashAndConfigFingerprintOrderByAnalysisDateDesc(archiveHash, fingerprint)
+            .filter(previous -> new File(previous.getReportPath()).isFile());
+    }
+    
+    public void discardStagedUpload(StagedUpload staged) {
+        // Lets a queued job's sources be collected as soon as it is done with them
+        staged.sources = null;
+        staged.archiveBytes = null;
+        if (staged.reservedBytes > 0) {
+            inMemoryBytes.addAndGet(-staged.reservedBytes);
+            staged.reservedBytes = 0;
+        }
+        if (staged.isInMemory()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(staged.archive);
+        } catch (IOException e) {
+            logger.warning("⚠️ Could not delete staged upload " + staged.archive + ": " + e.getMessage());
+        }
+    }
+    
+    public void runUploadAnalysis(AnalysisJob job, StagedUpload staged, String originalFileName, String userId) {
+        try {
+            job.complete(analyzeUpload(job, staged, originalFileName, userId));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "❌ Failed to process " + originalFileName + ": " + e.getMessage(), e);
+            job.fail("❌ Failed to process file: " + e.getMessage());
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "❌ Analysis of " + originalFileName + " failed: " + e.getMessage(), e);
+            job.fail("❌ Unexpected error during analysis: " + e.getMessage());
+        } finally {
+            discardStagedUpload(staged);
+        }
+    }
+    
+    private String analyzeUpload(AnalysisJob job, StagedUpload staged, String originalFileName, String userId) throws IOException {
+        AnalysisMetrics metrics = new AnalysisMetrics(meterRegistry);
+        
+        // 1) Get user settings and configure the engine, which fixes the configuration fingerprint
+        UserSettings settings = userSettingsRepository.findByUserId(userId).orElse(new UserSettings(userId));
+        logger.fine(() -> "User settings loaded for " + userId + ": magicNumber=" + settings.getMagicNumberEnabled() +
+            ", longMethod=" + settings.getLongMethodEnabled() + ", emptyCatch=" + settings.getEmptyCatchEnabled());
+        CodeAnalysisEngine analysisEngine = new CodeAnalysisEngine();
+        analysisEngine.configureFromSettings(settings);
+        List<String> excludedPatterns = adminSettingsService.getExcludedPathPatterns();
+        boolean aiEnabled = settings.getAiEnabled() && adminSettingsService.isAiAnalysisEnabled();
+        // The AI review is appended to the shared report, so only a run with the same AI setup can be reused
+        String fingerprint = effectiveFingerprint(analysisEngine, excludedPatterns,
+            aiEnabled ? settings.getAiProvider() + "/" + settings.getAiModel() : null);
+        
+        Optional<AnalysisHistory> reusable = findReusableAnalysis(staged.getArchiveHash(), fingerprint);
+        if (reusable.isPresent()) {
+            discardStagedUpload(staged);
+            return reuseAnalysis(job, reusable.get(), originalFileName, userId, metrics);
+        }
+        
+        // 2) unzip to a unique folder with original name
+        job.setStage(Stage.EXTRACTING);
+        String uniqueFolderName = FolderNamingUtil.generateUniqueFolderName(originalFileName, "uploads");
+        // Use FileStorageService for Railway Volumes support
+        fileStorageService.ensureUploadsDirectoryExists();
+        String targetDir = fileStorageService.getUploadsPath() + "/" + uniqueFolderName;
+        loadSources(staged, metrics);
+        
+        if (staged.isInMemory()) {
+            // Sources are read from the archive bytes; only the compact copy for the viewers is written
+            Files.createDirectories(Paths.get(targetDir));
+            SourceStore.write(new File(targetDir), staged.getSources());
+        } else {
+            metrics.timeStage(AnalysisMetrics.EXTRACT, () -> {
+                ZipExtractor.extractZip(staged.getArchive(), targetDir);
+                return null;
+            });
+        }
+
+        // 3) Use centralized analysis engine with user settings
+        job.setStage(Stage.ANALYZING);
+        analysisEngine.setResultCache(analysisCacheService.getCache());
+        analysisEngine.setProgressListener(job::updateProgress);
+        analysisEngine.setMetrics(metrics);
+        analysisEngine.setPathExclusions(PathExclusionMatcher.withPatterns(excludedPatterns));
+        if (streamingMinFiles > 0) {
+            analysisEngine.setStreaming(Paths.get(fileStorageService.getUploadsPath(), STAGING_FOLDER),
+                                        streamingMinFiles, streamingRunSize);
+        }
+        analysisEngine.setTimeLimits(Duration.ofMinutes(adminSettingsService.getMaxAnalysisTime()),
+                                     Duration.ofSeconds(adminSettingsService.getMaxFileAnalysisTime()));
+        Map<String, Object> analysisResults = staged.isInMemory()
+            ? analysisEngine.analyzeSources(uniqueFolderName, staged.getSources())
+            : analysisEngine.analyzeProject(targetDir);
+        discardStagedUpload(staged);
+        
+        // Large projects come back with their issues spilled to disk rather than as a list
+        IssueSpill spill = (IssueSpill) analysisResults.get("issueSpill");
+        int issueCount = (Integer) analysisResults.get("totalIssues");
+        
+        // Get file count from results
+        int javaFileCount = (Integer) analysisResults.get("totalFiles");
+
+        // 4) generate comprehensive report
+        job.setStage(Stage.REPORTING);
+        String reportPath = targetDir + "/" + new File(targetDir).getName() + "_comprehensive.txt";
+        metrics.timeStage(AnalysisMetrics.REPORT, () -> {
+            if (spill != null) {
+                try (spill) {
+                    new ReportGenerator().writeComprehensiveReport(analysisResults, spill, reportPath);
+                }
+                return null;
+            }
+            new ReportGenerator().writeComprehensiveReport(analysisResults, reportPath);
+            return null;
+        });
+        job.setReportPath(reportPath);
+        
+        // 5) save analysis to history - use severity counts from analysis engine
+        job.setStage(Stage.SAVING);
+        @SuppressWarnings("unchecked")
+        Map<String, Integer> severityCounts = (Map<String, Integer>) analysisResults.get("severityCounts");
+        
+        int criticalCount = severityCounts.getOrDefault("Critical", 0);
+        int warningCount = severityCounts.getOrDefault("High", 0);
+        int suggestionCount = severityCounts.getOrDefault("Medium", 0);
+        int lowCount = severityCounts.getOrDefault("Low", 0);
+        
+        // Verify total matches
+        int calculatedTotal = criticalCount + warningCount + suggestionCount + lowCount;
+        int actualTotal = Math.max(issueCount, calculatedTotal);
+        
+        // Get LOC and calculate grade
+        int totalLOC = (Integer) analysisResults.getOrDefault("totalLOC", 0);
+        GradingSystem.GradeResult gradeResult = GradingSystem.calculateGrade(severityCounts, totalLOC);
+        
+        AnalysisHistory history = new AnalysisHistory(userId, originalFileName, reportPath, 
+                                                     actualTotal, criticalCount, warningCount, suggestionCount,
+                                                     totalLOC, gradeResult.getLetterGrade(), gradeResult.getIssueDensity());
+        // Partial results are not offered for reuse; the next identical upload gets a full run
+        if (!Boolean.TRUE.equals(analysisResults.get("incomplete"))) {
+            history.setArchiveHash(staged.getArchiveHash());
+            history.setConfigFingerprint(fingerprint);
+        }
+        metrics.timeStage(AnalysisMetrics.PERSIST, () -> analysisHistoryRepository.save(history));
+        
+        logger.info(String.format("📊 %s: %d issues (%d critical, %d high, %d medium, %d low), %,d LOC, grade %s (%.1f%%), %.2f issues/KLOC",
+            originalFileName, actualTotal, criticalCount, warningCount, suggestionCount, lowCount, totalLOC,
+            gradeResult.getLetterGrade(), gradeResult.getNumericScore(), gradeResult.getIssueDensity()));
+        logger.fine(() -> "Report written to " + reportPath);
+        
+        // 6) get AI analysis using user settings and admin filters
+        String aiStatus = "Disabled";
+        if (aiEnabled) {
+            job.setStage(Stage.AI_ANALYSIS);
+            long aiStart = metrics.start();
+            try {
+                String reportContent = ReportGenerator.readReportContent(reportPath);
+                String aiAnalysis = aiAssistantService.analyzeWithAI(reportContent, settings);
+                ReportGenerator.appendAIAnalysis(reportPath, aiAnalysis);
+                aiStatus = "Added (" + settings.getAiProvider() + ")";
+                metrics.recordStage(AnalysisMetrics.AI, aiStart, AnalysisMetrics.SUCCESS);
+            } catch (Exception aiEx) {
+                aiStatus = "Failed - " + aiEx.getMessage();
+                metrics.recordStage(AnalysisMetrics.AI, aiStart, AnalysisMetrics.ERROR);
+                logger.warning("AI analysis failed: " + aiEx.getMessage());
+            }
+        }
+        
+        // 7) response summary with report path
+        String reportFileName = new File(reportPath).getName();
+        String partialNote = Boolean.TRUE.equals(analysisResults.get("incomplete"))
+            ? String.format("\n⏱️ Partial results: %d files timed out, %d skipped after the %d min limit",
+                (Integer) analysisResults.get("timedOutFiles"), (Integer) analysisResults.get("skippedFiles"),
+                adminSettingsService.getMaxAnalysisTime())
+            : "";
+        return String.format("✅ Advanced Analysis Complete!\n📂 Extracted to: %s\n📄 Java files: %d\n📏 Lines of Code: %,d\n📝 Report: %s\n🔍 Issues detected: %d\n📊 Grade: %s (%.1f%%)\n📈 Issue Density: %.2f issues/KLOC\n⭐ Quality: %s\n🤖 AI analysis: %s\n🧠 Advanced algorithms: Cyclomatic complexity, Cognitive complexity, Semantic analysis, Pattern recognition\n📋 Report path: %s",
+                targetDir, javaFileCount, totalLOC, reportFileName, issueCount, 
+                gradeResult.getLetterGrade(), gradeResult.getNumericScore(), gradeResult.getIssueDensity(),
+                gradeResult.getQualityLevel(), aiStatus, reportPath) + partialNote;
+    }
+    
+    private String reuseAnalysis(AnalysisJob job, AnalysisHistory previous, String originalFileName, String userId,
+                                 AnalysisMetrics metrics) {
+        job.setStage(Stage.SAVING);
+        AnalysisHistory history = new AnalysisHistory(userId, originalFileName, previous.getReportPath(),
+                                                     previous.getTotalIssues(), previous.getCriticalIssues(),
+                                                     previous.getWarnings(), previous.getSuggestions(),
+                                                     previous.getTotalLOC(), previous.getGrade(), previous.getIssueDensity());
+        history.setProjectPath(previous.getProjectPath());
+        history.setArchiveHash(previous.getArchiveHash());
+        history.setConfigFingerprint(previous.getConfigFingerprint());
+        metrics.timeStage(AnalysisMetrics.PERSIST, () -> analysisHistoryRepository.save(history));
+        job.setReportPath(previous.getReportPath());
+        
+        logger.info(String.format("♻️ %s: identical to analysis #%d, reusing its report", originalFileName, previous.getId()));
+        return String.format("✅ Analysis Complete (reused)!\n♻️ This archive was already analyzed with the same settings on %s\n📝 Report: %s\n🔍 Issues detected: %d\n📊 Grade: %s\n📈 Issue Density: %.2f issues/KLOC\n📋 Report path: %s",
+                previous.getAnalysisDate(), new File(previous.getReportPath()).getName(), previous.getTotalIssues(),
+                previous.getGrade(), previous.getIssueDensity() != null ? previous.getIssueDensity() : 0.0,
+                previous.getReportPath());
+    }
+}
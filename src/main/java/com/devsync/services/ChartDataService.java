@@ -1,12 +1,14 @@
 package com.devsync.services;
 
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
 import org.springframework.stereotype.Service;
 import java.util.*;
 
 @Service
 public class ChartDataService {
 
-    public Map<String, Object> generateChartData(Map<String, Object> analysisResults, List<String> issues) {
+    public Map<String, Object> generateChartData(Map<String, Object> analysisResults, List<CodeIssue> issues) {
         Map<String, Object> chartData = new HashMap<>();
         
         chartData.put("codeDistribution", generateCodeDistributionData(analysisResults, issues));
@@ -16,15 +18,12 @@ public class ChartDataService {
         return chartData;
     }
 
-    private Map<String, Object> generateCodeDistributionData(Map<String, Object> analysisResults, List<String> issues) {
+    private Map<String, Object> generateCodeDistributionData(Map<String, Object> analysisResults, List<CodeIssue> issues) {
         int totalFiles = (Integer) analysisResults.getOrDefault("totalFiles", 0);
         
         Set<String> filesWithSmells = new HashSet<>();
-        for (String issue : issues) {
-            String fileName = extractFileName(issue);
-            if (fileName != null) {
-                filesWithSmells.add(fileName);
-            }
+        for (CodeIssue issue : issues) {
+            filesWithSmells.add(extractFileName(issue.getFile()));
         }
         
         int cleanFiles = totalFiles - filesWithSmells.size();
@@ -41,12 +40,11 @@ public class ChartDataService {
         return data;
     }
 
-    private Map<String, Object> generateSmellTypesData(List<String> issues) {
+    private Map<String, Object> generateSmellTypesData(List<CodeIssue> issues) {
         Map<String, Integer> typeCounts = new HashMap<>();
         
-        for (String issue : issues) {
-            String type = extractIssueType(issue);
-            typeCounts.merge(type, 1, Integer::sum);
+        for (CodeIssue issue : issues) {
+            typeCounts.merge(issue.getType(), 1, Integer::sum);
         }
         
         List<String> labels = new ArrayList<>(typeCounts.keySet());
@@ -63,16 +61,15 @@ public class ChartDataService {
         return data;
     }
 
-    private Map<String, Object> generateSeverityData(List<String> issues) {
+    private Map<String, Object> generateSeverityData(List<CodeIssue> issues) {
         Map<String, Integer> severityCounts = new HashMap<>();
         severityCounts.put("Critical", 0);
         severityCounts.put("High", 0);
         severityCounts.put("Medium", 0);
         severityCounts.put("Low", 0);
         
-        for (String issue : issues) {
-            String severity = extractSeverity(issue);
-            severityCounts.merge(severity, 1, Integer::sum);
+        for (CodeIssue issue : issues) {
+            severityCounts.merge(severityBucket(issue), 1, Integer::sum);
         }
         
         Map<String, Object> data = new HashMap<>();
@@ -88,34 +85,13 @@ public class ChartDataService {
         return data;
     }
 
-    private String extractFileName(String issue) {
-        if (issue.contains("] ") && issue.contains(":")) {
-            String afterBracket = issue.substring(issue.indexOf("] ") + 2);
-            if (afterBracket.contains(":")) {
-                String fullPath = afterBracket.substring(0, afterBracket.indexOf(":"));
-                String fileName = fullPath.contains("/") ? fullPath.substring(fullPath.lastIndexOf("/") + 1) : fullPath;
-                return fileName.contains("\\") ? fileName.substring(fileName.lastIndexOf("\\") + 1) : fileName;
-            }
-        }
-        return null;
-    }
-
-    private String extractIssueType(String issue) {
-        if (issue.contains("[") && issue.contains("]")) {
-            return issue.substring(issue.indexOf("[") + 1, issue.indexOf("]"));
-        }
-        return "Unknown";
+    private String extractFileName(String path) {
+        String fileName = path.contains("/") ? path.substring(path.lastIndexOf("/") + 1) : path;
+        return fileName.contains("\\") ? fileName.substring(fileName.lastIndexOf("\\") + 1) : fileName;
     }
 
-    private String extractSeverity(String issue) {
-        String cleanIssue = issue.startsWith("🚨 ") ? issue.substring(2).trim() : issue;
-        
-        if (cleanIssue.startsWith("🔴")) return "Critical";
-        if (cleanIssue.startsWith("🟡")) return "High";
-        if (cleanIssue.startsWith("🟠")) return "Medium";
-        if (cleanIssue.startsWith("⚪") || cleanIssue.startsWith("⚠️")) return "Low";
-        
-        return "Low";
+    private String severityBucket(CodeIssue issue) {
+        return issue.getSeverity() == Severity.ERROR ? Severity.LOW.getLabel() : issue.getSeverity().getLabel();
     }
 
     private List<String> generateColors(int count) {
@@ -1,10 +1,13 @@
 package com.devsync.services;
 
+import com.devsync.analyzer.SourceBuffer;
 import com.devsync.model.CodeIssue;
+import com.devsync.utils.SourceStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.util.*;
 
@@ -21,7 +24,7 @@ public class DetailedReportService {
         File reportFile = new File(reportPath);
         String reportContent = new String(Files.readAllBytes(reportFile.toPath()));
         
-        List<CodeIssue> issues = highlightMapperService.parseIssues(reportContent);
+        List<CodeIssue> issues = highlightMapperService.loadIssues(reportFile);
         
         StringBuilder html = new StringBuilder();
         html.append("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n");
@@ -52,8 +55,9 @@ public class DetailedReportService {
         html.append("<div class=\"issues-section\">\n");
         html.append("<h2>Detailed Issues with Code Analysis</h2>\n");
         
+        ProjectSources sources = new ProjectSources(new File(projectPath));
         for (CodeIssue issue : issues) {
-            appendIssueDetail(html, issue, projectPath);
+            appendIssueDetail(html, issue, sources);
         }
         
         html.append("</div>\n");
@@ -127,15 +131,15 @@ public class DetailedReportService {
         html.append("</div>\n");
     }
 
-    private void appendIssueDetail(StringBuilder html, CodeIssue issue, String projectPath) {
-        String severityClass = "issue-" + issue.getSeverity().toLowerCase();
+    private void appendIssueDetail(StringBuilder html, CodeIssue issue, ProjectSources sources) {
+        String severityClass = "issue-" + issue.getSeverity().getLabel().toLowerCase();
         
         html.append("<div class=\"issue-card ").append(severityClass).append("\">\n");
         
         // Header
         html.append("<div class=\"issue-header\">\n");
-        html.append("<span class=\"badge badge-").append(issue.getSeverity().toLowerCase()).append("\">")
-            .append(issue.getSeverity().toUpperCase()).append("</span>\n");
+        html.append("<span class=\"badge badge-").append(issue.getSeverity().getLabel().toLowerCase()).append("\">")
+            .append(issue.getSeverity().getLabel().toUpperCase()).append("</span>\n");
         html.append("<strong>").append(issue.getType()).append("</strong>\n");
         html.append("<span style=\"color: #6b7280;\">").append(issue.getFile()).append(":").append(issue.getLine()).append("</span>\n");
         html.append("</div>\n");
@@ -152,7 +156,7 @@ public class DetailedReportService {
         }
         
         // Code snippet
-        String codeSnippet = extractCodeSnippet(projectPath, issue.getFile(), issue.getLine(), issue.getType());
+        String codeSnippet = extractCodeSnippet(sources, issue.getFile(), issue.getLine(), issue.getType());
         if (codeSnippet != null) {
             html.append("<div class=\"code-section\">\n");
             html.append("<h4>📄 Source Code</h4>\n");
@@ -171,31 +175,29 @@ public class DetailedReportService {
         html.append("</div>\n");
     }
 
-    private String extractCodeSnippet(String projectPath, String fileName, int lineNumber, String smellType) {
+    private String extractCodeSnippet(ProjectSources sources, String fileName, int lineNumber, String smellType) {
         try {
-            File projectDir = new File(projectPath);
-            File javaFile = findJavaFile(projectDir, fileName);
-            
-            if (javaFile == null || !javaFile.exists()) {
+            SourceBuffer source = sources.get(fileName);
+            if (source == null) {
                 return null;
             }
             
-            List<String> lines = Files.readAllLines(javaFile.toPath());
+            int lineCount = source.getLineCount();
             int startLine = Math.max(0, lineNumber - 6);
-            int endLine = Math.min(lines.size(), lineNumber + 5);
+            int endLine = Math.min(lineCount, lineNumber + 5);
             
             // For LongMethod, try to extract the entire method
             if ("LongMethod".equals(smellType)) {
                 for (int i = lineNumber - 1; i >= 0; i--) {
-                    if (lines.get(i).matches(".*\\b(public|private|protected)\\s+(static\\s+)?\\w+\\s+\\w+\\s*\\(.*")) {
+                    if (source.getLine(i + 1).matches(".*\\b(public|private|protected)\\s+(static\\s+)?\\w+\\s+\\w+\\s*\\(.*")) {
                         startLine = i;
                         break;
                     }
                 }
                 
                 int braceCount = 0;
-                for (int i = startLine; i < lines.size(); i++) {
-                    String line = lines.get(i);
+                for (int i = startLine; i < lineCount; i++) {
+                    String line = source.getLine(i + 1);
                     braceCount += countChar(line, '{') - countChar(line, '}');
                     if (braceCount == 0 && i > startLine) {
                         endLine = i + 1;
@@ -206,7 +208,7 @@ public class DetailedReportService {
             
             StringBuilder snippet = new StringBuilder();
             for (int i = startLine; i < endLine; i++) {
-                snippet.append(String.format("%4d | %s\n", i + 1, lines.get(i)));
+                snippet.append(String.format("%4d | %s\n", i + 1, source.getLine(i + 1)));
             }
             
             return snippet.toString();
@@ -215,21 +217,55 @@ public class DetailedReportService {
         }
     }
 
-    private File findJavaFile(File directory, String fileName) {
-        if (!directory.isDirectory()) return null;
-        
-        File[] files = directory.listFiles();
-        if (files == null) return null;
-        
-        for (File file : files) {
-            if (file.isFile() && file.getName().equals(fileName)) {
-                return file;
-            } else if (file.isDirectory()) {
-                File found = findJavaFile(file, fileName);
-                if (found != null) return found;
+    /**
+     * The project's sources for one report. The directory is indexed by file name
+     * once, and each file is read once however many issues point into it.
+     */
+    private static class ProjectSources {
+        private final File projectDir;
+        private Map<String, File> filesByName;
+        private final Map<String, Optional<SourceBuffer>> buffers = new HashMap<>();
+        
+        ProjectSources(File projectDir) {
+            this.projectDir = projectDir;
+        }
+        
+        SourceBuffer get(String fileName) throws IOException {
+            Optional<SourceBuffer> cached = buffers.get(fileName);
+            if (cached == null) {
+                cached = Optional.ofNullable(load(fileName));
+                buffers.put(fileName, cached);
+            }
+            return cached.orElse(null);
+        }
+        
+        private SourceBuffer load(String fileName) throws IOException {
+            if (filesByName == null) {
+                filesByName = new HashMap<>();
+                index(projectDir);
+            }
+            File javaFile = filesByName.get(fileName);
+            if (javaFile != null) {
+                return SourceBuffer.read(javaFile.toPath());
+            }
+            // Uploads analyzed in memory keep their sources in a compact store instead
+            String storedContent = SourceStore.read(projectDir, fileName);
+            return storedContent == null ? null : new SourceBuffer(storedContent);
+        }
+        
+        // First match wins, in the same order the old recursive search visited files
+        private void index(File directory) {
+            File[] files = directory.listFiles();
+            if (files == null) return;
+            
+            for (File file : files) {
+                if (file.isFile()) {
+                    filesByName.putIfAbsent(file.getName(), file);
+                } else if (file.isDirectory()) {
+                    index(file);
+                }
             }
         }
-        return null;
     }
 
     private int countChar(String str, char ch) {
@@ -280,7 +316,7 @@ public class DetailedReportService {
         for (CodeIssue issue : issues) {
             filesWithSmells.add(issue.getFile());
             smellTypes.merge(issue.getType(), 1, Integer::sum);
-            severityCounts.merge(issue.getSeverity(), 1, Integer::sum);
+            severityCounts.merge(issue.getSeverity().getLabel(), 1, Integer::sum);
         }
         
         // Extract total files from report
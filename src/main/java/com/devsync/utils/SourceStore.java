@@ -0,0 +1,57 @@
+package com.devsync.utils;
+
+import com.devsync.analyzer.SourceFile;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Compact copy of an in-memory analysis' sources, kept next to its report so the
+ * file viewer and detailed report can still show code. It is a single compressed
+ * archive holding only the analyzed .java files, written once in one sequential pass.
+ */
+public class SourceStore {
+
+    public static final String FILE_NAME = "sources.zip";
+
+    public static void write(File projectDir, List<SourceFile> sources) throws IOException {
+        File store = new File(projectDir, FILE_NAME);
+        try (ZipOutputStream zipOut = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(store)))) {
+            for (SourceFile source : sources) {
+                zipOut.putNextEntry(new ZipEntry(source.getPath()));
+                zipOut.write(source.readContent());
+                zipOut.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * Finds a source by file name, the way the viewers look files up on disk.
+     *
+     * @return the file content, or null when there is no store or no such file
+     */
+    public static String read(File projectDir, String fileName) throws IOException {
+        File store = new File(projectDir, FILE_NAME);
+        if (!store.isFile()) {
+            return null;
+        }
+        try (ZipFile zip = new ZipFile(store)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (name.equals(fileName) || name.endsWith("/" + fileName)) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
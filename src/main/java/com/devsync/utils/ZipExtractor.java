@@ -1,31 +1,156 @@
 package com.devsync.utils;
 
+import com.devsync.analyzer.JavaFileCollector;
+import com.devsync.analyzer.SourceFile;
+import com.devsync.config.PathExclusionMatcher;
+
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
+/**
+ * Unpacks uploaded and downloaded project archives. Only source entries are
+ * written; binaries, jars, images and the like are skipped before any bytes
+ * are inflated. Every entry is checked against path traversal, and the archive
+ * as a whole against zip-bomb limits: entry count, total size and per-entry
+ * compression ratio. Declared sizes are not trusted, so the limits are enforced
+ * on the bytes actually produced.
+ */
 public class ZipExtractor {
 
-    public static void extractZip(InputStream zipInputStream, String destDir) throws IOException {
-        File destDirectory = new File(destDir);
-        if (!destDirectory.exists()) {
-            destDirectory.mkdirs();
+    public static final int MAX_ENTRIES = 200_000;
+    public static final long MAX_TOTAL_BYTES = 2L * 1024 * 1024 * 1024;
+    public static final long MAX_COMPRESSION_RATIO = 200;
+    // Small entries may legitimately compress very well, so the ratio is only checked past this size
+    private static final long RATIO_CHECK_THRESHOLD = 1024 * 1024;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int EXTRACTION_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Whether an entry is worth writing out: Java sources and the .gitignore
+     * files that decide which of them are analyzed.
+     */
+    public static boolean isSourceEntry(String entryName) {
+        return entryName.endsWith(".java") || entryName.equals(JavaFileCollector.GITIGNORE)
+            || entryName.endsWith("/" + JavaFileCollector.GITIGNORE);
+    }
+
+    /**
+     * Extracts an archive file, reading its central directory first and writing
+     * the selected entries on a small pool of threads.
+     */
+    public static void extractZip(Path archive, String destDir) throws IOException {
+        Path destination = prepareDestination(destDir);
+        ExtractionBudget budget = new ExtractionBudget();
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            List<ZipEntry> selected = new ArrayList<>();
+            List<Path> targets = new ArrayList<>();
+            Set<Path> directories = new LinkedHashSet<>();
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                budget.countEntry();
+                Path target = resolveEntry(destination, entry.getName());
+                if (!entry.isDirectory() && isSourceEntry(entry.getName())) {
+                    budget.checkDeclaredSize(entry);
+                    selected.add(entry);
+                    targets.add(target);
+                    directories.add(target.getParent());
+                }
+            }
+            for (Path directory : directories) {
+                Files.createDirectories(directory);
+            }
+
+            int threads = Math.min(EXTRACTION_THREADS, selected.size());
+            if (threads <= 1) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                for (int i = 0; i < selected.size(); i++) {
+                    try (InputStream in = zip.getInputStream(selected.get(i))) {
+                        copy(in, targets.get(i), selected.get(i), budget, buffer, selected.get(i)::getCompressedSize);
+                    }
+                }
+                return;
+            }
+
+            // Each worker claims the next entry and reuses its own buffer
+            AtomicInteger next = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "zip-extract");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<Void>> workers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    workers.add(pool.submit(() -> {
+                        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                        for (int i = next.getAndIncrement(); i < selected.size(); i = next.getAndIncrement()) {
+                            try (InputStream in = zip.getInputStream(selected.get(i))) {
+                                copy(in, targets.get(i), selected.get(i), budget, buffer, selected.get(i)::getCompressedSize);
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<Void> worker : workers) {
+                    worker.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Extraction interrupted", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause().getMessage(), e.getCause());
+            } finally {
+                // After a failed check, keep the other workers from claiming more entries and let them finish
+                // before the archive is closed underneath them
+                next.set(selected.size());
+                pool.shutdownNow();
+                awaitWorkers(pool);
+            }
         }
+    }
+
+    /**
+     * Extracts an archive that is only available as a stream, entry by entry.
+     */
+    public static void extractZip(InputStream zipInputStream, String destDir) throws IOException {
+        Path destination = prepareDestination(destDir);
+        ExtractionBudget budget = new ExtractionBudget();
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
 
-        try (ZipInputStream zipIn = new ZipInputStream(zipInputStream)) {
+        CountingInputStream raw = new CountingInputStream(zipInputStream);
+        try (ZipInputStream zipIn = new ZipInputStream(raw)) {
             ZipEntry entry = zipIn.getNextEntry();
             while (entry != null) {
-                File destFile = new File(destDirectory, entry.getName());
-                
-                // Security check: prevent path traversal
-                if (!destFile.getCanonicalPath().startsWith(destDirectory.getCanonicalPath())) {
-                    throw new IOException("Entry is outside target directory: " + entry.getName());
-                }
-                
-                if (!entry.isDirectory()) {
-                    extractFile(zipIn, destFile.getAbsolutePath());
-                } else {
-                    destFile.mkdirs();
+                budget.countEntry();
+                Path target = resolveEntry(destination, entry.getName());
+                if (!entry.isDirectory() && isSourceEntry(entry.getName())) {
+                    Files.createDirectories(target.getParent());
+                    copy(zipIn, target, entry, budget, buffer, raw.since(raw.getCount()));
                 }
                 zipIn.closeEntry();
                 entry = zipIn.getNextEntry();
@@ -33,19 +158,222 @@ public class ZipExtractor {
         }
     }
 
-    private static void extractFile(ZipInputStream zipIn, String filePath) throws IOException {
-        File file = new File(filePath);
-        File parent = file.getParentFile();
-        if (parent != null && !parent.exists()) {
-            parent.mkdirs();
+    private static void awaitWorkers(ExecutorService pool) {
+        try {
+            pool.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Path prepareDestination(String destDir) throws IOException {
+        Path destination = Paths.get(destDir).toAbsolutePath().normalize();
+        Files.createDirectories(destination);
+        return destination;
+    }
+
+    // Security check: prevent path traversal
+    private static Path resolveEntry(Path destination, String entryName) throws IOException {
+        Path target = destination.resolve(entryName).normalize();
+        if (!target.startsWith(destination)) {
+            throw new IOException("Entry is outside target directory: " + entryName);
         }
-        
-        try (BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(filePath))) {
-            byte[] buffer = new byte[4096];
+        return target;
+    }
+
+    private static void copy(InputStream in, Path target, ZipEntry entry, ExtractionBudget budget, byte[] buffer,
+                             LongSupplier compressedBytes) throws IOException {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            long written = 0;
             int read;
-            while ((read = zipIn.read(buffer)) != -1) {
-                bos.write(buffer, 0, read);
+            while ((read = in.read(buffer)) != -1) {
+                written += read;
+                budget.addBytes(entry, read, written, compressedBytes);
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private static byte[] readEntry(InputStream in, ZipEntry entry, ExtractionBudget budget, LongSupplier compressedBytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(entry.getSize() > 0 ? (int) Math.min(entry.getSize(), COPY_BUFFER_SIZE) : 8192);
+        byte[] buffer = new byte[8192];
+        long written = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            written += read;
+            budget.addBytes(entry, read, written, compressedBytes);
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Counts the archive bytes a ZipInputStream consumes. Streamed entries often
+     * only declare their compressed size after their data, so the ratio check
+     * uses this count instead (off by at most the inflater's read-ahead).
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        LongSupplier since(long mark) {
+            return () -> count - mark;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    /**
+     * An archive read into memory holds more source bytes than allowed; it can
+     * still be extracted to disk.
+     */
+    public static class MemoryLimitExceededException extends IOException {
+        public MemoryLimitExceededException(long limit) {
+            super("Archive sources exceed the in-memory limit of " + (limit >> 20) + " MB");
+        }
+    }
+
+    /**
+     * Running totals for one archive, shared by the extraction workers.
+     */
+    private static class ExtractionBudget {
+        private final AtomicInteger entries = new AtomicInteger();
+        private final AtomicLong totalBytes = new AtomicLong();
+        // Below MAX_TOTAL_BYTES when the entries are kept in memory
+        private final long memoryLimit;
+
+        ExtractionBudget() {
+            this(MAX_TOTAL_BYTES);
+        }
+
+        ExtractionBudget(long memoryLimit) {
+            this.memoryLimit = memoryLimit;
+        }
+
+        void countEntry() throws IOException {
+            if (entries.incrementAndGet() > MAX_ENTRIES) {
+                throw new IOException("Archive has more than " + MAX_ENTRIES + " entries");
+            }
+        }
+
+        void checkDeclaredSize(ZipEntry entry) throws IOException {
+            if (entry.getSize() > MAX_TOTAL_BYTES) {
+                throw new IOException("Entry " + entry.getName() + " is too large to extract");
+            }
+        }
+
+        void addBytes(ZipEntry entry, int count, long entryBytes, LongSupplier compressedBytes) throws IOException {
+            long total = totalBytes.addAndGet(count);
+            if (total > MAX_TOTAL_BYTES) {
+                throw new IOException("Archive expands to more than " + (MAX_TOTAL_BYTES >> 20) + " MB");
+            }
+            if (total > memoryLimit) {
+                throw new MemoryLimitExceededException(memoryLimit);
             }
+            if (entryBytes <= RATIO_CHECK_THRESHOLD) {
+                return;
+            }
+            long compressed = compressedBytes.getAsLong();
+            if (compressed > 0 && entryBytes > compressed * MAX_COMPRESSION_RATIO) {
+                throw new IOException("Entry " + entry.getName() + " exceeds the maximum compression ratio of " + MAX_COMPRESSION_RATIO);
+            }
+        }
+    }
+
+    public static List<SourceFile> readJavaSources(InputStream zipInputStream) throws IOException {
+        return readJavaSources(zipInputStream, PathExclusionMatcher.defaults());
+    }
+
+    public static List<SourceFile> readJavaSources(InputStream zipInputStream, PathExclusionMatcher exclusions) throws IOException {
+        return readJavaSources(zipInputStream, exclusions, MAX_TOTAL_BYTES);
+    }
+
+    /**
+     * Reads the analyzable Java sources straight out of an archive stream, without
+     * writing anything to disk. Other entries are skipped without being kept.
+     * A .gitignore in the archive adds rules for the entries beneath it, wherever
+     * it appears in the stream. Entries naming the same normalized path keep only
+     * the last copy, as extraction to disk would.
+     *
+     * @param maxBytes most bytes of sources to hold in memory; past it the read
+     *                 stops with a {@link MemoryLimitExceededException}
+     */
+    public static List<SourceFile> readJavaSources(InputStream zipInputStream, PathExclusionMatcher exclusions,
+                                                   long maxBytes) throws IOException {
+        Map<String, SourceFile> byPath = new LinkedHashMap<>();
+        Map<List<String>, List<String>> gitignores = new LinkedHashMap<>();
+        ExtractionBudget budget = new ExtractionBudget(Math.min(maxBytes, MAX_TOTAL_BYTES));
+        CountingInputStream raw = new CountingInputStream(zipInputStream);
+        try (ZipInputStream zipIn = new ZipInputStream(raw)) {
+            ZipEntry entry = zipIn.getNextEntry();
+            while (entry != null) {
+                budget.countEntry();
+                String name = entry.getName();
+                if (!entry.isDirectory() && name.endsWith(".java") && !exclusions.isFileExcluded(name)) {
+                    byPath.put(normalizedPath(name), SourceFile.inMemory(name, readEntry(zipIn, entry, budget, raw.since(raw.getCount()))));
+                } else if (!entry.isDirectory() && isSourceEntry(name) && !name.endsWith(".java")) {
+                    List<String> dir = PathExclusionMatcher.split(name);
+                    gitignores.put(dir.subList(0, dir.size() - 1),
+                        new String(readEntry(zipIn, entry, budget, raw.since(raw.getCount())), StandardCharsets.UTF_8).lines().toList());
+                }
+                zipIn.closeEntry();
+                entry = zipIn.getNextEntry();
+            }
+            // Consume the central directory as well, so a caller digesting the stream sees the whole archive
+            raw.transferTo(OutputStream.nullOutputStream());
+        }
+        List<SourceFile> candidates = new ArrayList<>(byPath.values());
+        if (gitignores.isEmpty()) {
+            return candidates;
         }
+
+        // Shallower files first, so rules nearer a source win
+        PathExclusionMatcher matcher = exclusions;
+        List<List<String>> dirs = new ArrayList<>(gitignores.keySet());
+        dirs.sort(Comparator.comparingInt(List::size));
+        for (List<String> dir : dirs) {
+            matcher = matcher.withRules(dir, gitignores.get(dir));
+        }
+        List<SourceFile> sources = new ArrayList<>();
+        for (SourceFile candidate : candidates) {
+            if (!matcher.isFileExcluded(candidate.getPath())) {
+                sources.add(candidate);
+            }
+        }
+        return sources;
+    }
+
+    private static String normalizedPath(String entryName) {
+        return Paths.get(entryName).normalize().toString().replace(File.separatorChar, '/');
     }
 }
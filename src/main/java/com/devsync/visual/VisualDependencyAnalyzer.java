@@ -1,6 +1,7 @@
 package com.devsync.visual;
 
-import com.github.javaparser.JavaParser;
+import com.devsync.analyzer.ParseProfile;
+import com.devsync.analyzer.SourceBuffer;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.body.*;
@@ -25,21 +26,30 @@ public class VisualDependencyAnalyzer {
     
     public Map<String, Object> analyzeProject(String projectPath) {
         try {
-            // Collect all Java files
+            // Collect all Java files; each is read and parsed once, and its tree shared by both passes
             List<File> javaFiles = collectJavaFiles(projectPath);
+            Map<File, CompilationUnit> units = new LinkedHashMap<>();
             
             // First pass: collect all classes and their basic info
             for (File javaFile : javaFiles) {
-                analyzeFile(javaFile);
+                SourceBuffer source;
+                try {
+                    source = SourceBuffer.read(javaFile.toPath());
+                } catch (IOException e) {
+                    System.err.println("Failed to read file: " + javaFile.getName() + " - " + e.getMessage());
+                    continue;
+                }
+                CompilationUnit cu = analyzeFile(javaFile, source);
+                if (cu != null) {
+                    units.put(javaFile, cu);
+                }
             }
             
             // Determine project packages
             determineProjectPackages();
             
             // Second pass: analyze dependencies
-            for (File javaFile : javaFiles) {
-                analyzeDependencies(javaFile);
-            }
+            units.forEach(this::analyzeDependencies);
             
             Map<String, Object> result = new HashMap<>();
             result.put("classes", classes);
@@ -67,12 +77,14 @@ public class VisualDependencyAnalyzer {
         return javaFiles;
     }
     
-    private void analyzeFile(File javaFile) {
+    /**
+     * @return the parsed file, for the dependency pass, or null when it did not parse
+     */
+    private CompilationUnit analyzeFile(File javaFile, SourceBuffer source) {
         try {
-            JavaParser parser = new JavaParser();
-            CompilationUnit cu = parser.parse(javaFile).getResult().orElse(null);
+            CompilationUnit cu = ParseProfile.LEAN.parse(source.getText()).getResult().orElse(null);
             
-            if (cu == null) return;
+            if (cu == null) return null;
             
             String packageName = cu.getPackageDeclaration()
                 .map(pd -> pd.getNameAsString())
@@ -85,7 +97,7 @@ public class VisualDependencyAnalyzer {
                 
                 classInfo.setInterface(classDecl.isInterface());
                 classInfo.setAbstract(classDecl.isAbstract());
-                classInfo.setLinesOfCode(countLines(javaFile));
+                classInfo.setLinesOfCode(source.getLineCount());
                 classInfo.setComplexity(calculateComplexity(classDecl));
                 
                 // Collect imports
@@ -101,19 +113,16 @@ public class VisualDependencyAnalyzer {
                 
                 classes.put(classInfo.getFullName(), classInfo);
             });
+            return cu;
             
         } catch (Exception e) {
             System.err.println("Failed to analyze file: " + javaFile.getName() + " - " + e.getMessage());
+            return null;
         }
     }
     
-    private void analyzeDependencies(File javaFile) {
+    private void analyzeDependencies(File javaFile, CompilationUnit cu) {
         try {
-            JavaParser parser = new JavaParser();
-            CompilationUnit cu = parser.parse(javaFile).getResult().orElse(null);
-            
-            if (cu == null) return;
-            
             String packageName = cu.getPackageDeclaration()
                 .map(pd -> pd.getNameAsString())
                 .orElse("");
@@ -210,14 +219,6 @@ public class VisualDependencyAnalyzer {
         return javaLangClasses.contains(className);
     }
     
-    private int countLines(File file) {
-        try {
-            return (int) Files.lines(file.toPath()).count();
-        } catch (IOException e) {
-            return 0;
-        }
-    }
-    
     private int calculateComplexity(ClassOrInterfaceDeclaration classDecl) {
         ComplexityVisitor visitor = new ComplexityVisitor();
         classDecl.accept(visitor, null);
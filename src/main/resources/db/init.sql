@@ -56,6 +56,7 @@ INSERT IGNORE INTO admin_settings (setting_key, setting_value, description) VALU
 ('enable_ai_analysis', 'true', 'Enable AI-powered analysis'),
 ('max_file_size_mb', '50', 'Maximum file size for uploads in MB'),
 ('max_analysis_time_minutes', '10', 'Maximum time for analysis in minutes'),
+('max_file_analysis_time_seconds', '60', 'Maximum time for analyzing a single source file in seconds'),
 ('global_max_method_length', '100', 'Global maximum method length threshold'),
 ('global_max_parameter_count', '10', 'Global maximum parameter count threshold'),
 ('allowed_file_types', 'zip,jar', 'Comma-separated list of allowed file types');
@@ -1,6 +1,7 @@
 package com.devsync;
 
 import com.devsync.analyzer.CodeAnalysisEngine;
+import com.devsync.model.CodeIssue;
 import com.devsync.reports.ReportGenerator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
@@ -44,7 +45,7 @@ public class ReportMappingTest {
             assertNotNull(analysisResults.get("totalIssues"), "Total issues should not be null");
             
             @SuppressWarnings("unchecked")
-            List<String> issues = (List<String>) analysisResults.get("issues");
+            List<CodeIssue> issues = (List<CodeIssue>) analysisResults.get("issues");
             @SuppressWarnings("unchecked")
             Map<String, Integer> severityCounts = (Map<String, Integer>) analysisResults.get("severityCounts");
             
@@ -100,7 +101,7 @@ public class ReportMappingTest {
         }
     }
     
-    private void testIssueFormatConsistency(List<String> issues, String report) {
+    private void testIssueFormatConsistency(List<CodeIssue> issues, String report) {
         System.out.println("=== Issue Format Consistency Test ===");
         
         // Count issues in detailed section
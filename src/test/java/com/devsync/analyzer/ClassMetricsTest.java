@@ -0,0 +1,56 @@
+package com.devsync.analyzer;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassMetricsTest {
+
+    private static CompilationUnit parse(String code) {
+        return new JavaParser().parse(code).getResult().orElseThrow();
+    }
+
+    @Test
+    void measuresCohesionAndCouplingFromAccessBits() {
+        ProjectSymbolIndex index = ProjectSymbolIndex.of(
+            parse(String.join("\n",
+                "package bank;",
+                "class Account {",
+                "    int balance; int audits; String owner; Ledger ledger;",
+                "    void deposit() { balance++; audit(); }",
+                "    void audit() { audits++; }",
+                "    void interest() { this.balance *= 2; }",
+                "    void rename(String name) { owner = name; }",
+                "    String describe() { return owner; }",
+                "}")),
+            parse("package bank; class Bank { Account account; }"));
+
+        ClassMetrics metrics = ClassMetrics.of(index, index.findQualified("bank.Account"));
+
+        assertEquals(5, metrics.getMethodCount());
+        assertEquals(4, metrics.getFieldCount());
+        // deposit/audit/interest and rename/describe share nothing
+        assertEquals(2, metrics.getLcom4());
+        // deposit-audit (through the call), deposit-interest, rename-describe
+        assertEquals(0.3, metrics.getTcc(), 1e-9);
+        // audit-interest are connected only through deposit
+        assertEquals(0.4, metrics.getLcc(), 1e-9);
+        assertEquals(0.75, metrics.getFieldUsage(), 1e-9);
+        assertEquals(1, metrics.getEfferentCoupling());
+        assertEquals(1, metrics.getAfferentCoupling());
+        assertEquals(2, metrics.getCoupling());
+    }
+
+    @Test
+    void classWithoutPairsIsFullyCohesive() {
+        ProjectSymbolIndex index = ProjectSymbolIndex.of(parse("class Single { void run() { } }"));
+
+        ClassMetrics metrics = ClassMetrics.of(index, index.findQualified("Single"));
+
+        assertEquals(1, metrics.getLcom4());
+        assertEquals(1.0, metrics.getTcc());
+        assertEquals(1.0, metrics.getLcc());
+        assertEquals(1.0, metrics.getFieldUsage());
+    }
+}
@@ -0,0 +1,372 @@
+package com.devsync.analyzer;
+
+import com.devsync.detectors.Detector;
+import com.devsync.detectors.ProjectDetector;
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import com.devsync.model.UserSettings;
+import com.devsync.reports.IssueFormatter;
+import com.devsync.reports.ReportGenerator;
+import com.devsync.utils.ZipExtractor;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodeAnalysisEngineTest {
+
+    @TempDir
+    Path projectDir;
+
+    @TempDir
+    Path cacheDir;
+
+    @SuppressWarnings("unchecked")
+    private static List<CodeIssue> issues(Map<String, Object> results) {
+        return (List<CodeIssue>) results.get("issues");
+    }
+
+    private static List<String> rendered(Map<String, Object> results) {
+        return issues(results).stream().map(IssueFormatter::format).toList();
+    }
+
+    private void writeSampleProject(int fileCount) throws IOException {
+        for (int i = 0; i < fileCount; i++) {
+            Path pkg = projectDir.resolve("src/main/java/com/sample/module" + (i % 3));
+            Files.createDirectories(pkg);
+            String code = "package com.sample.module" + (i % 3) + ";\n" +
+                "public class Sample" + i + " {\n" +
+                "    public int counter;\n" +
+                "    public int compute(int a, int b, int c, int d, int e, int f, int g) {\n" +
+                "        try { counter = a * 42; } catch (Exception ex) { }\n" +
+                "        if (a > 0 && b > 0 || c > 0 && d > 0 || e > 0) { return 9000 + " + i + "; }\n" +
+                "        for (int k = 0; k < f; k++) { counter += k * 1337; }\n" +
+                "        return g;\n" +
+                "    }\n" +
+                "}\n";
+            Files.writeString(pkg.resolve("Sample" + i + ".java"), code);
+        }
+    }
+
+    @Test
+    void parallelModeProducesSameResultsAsSequentialMode() throws IOException {
+        writeSampleProject(12);
+
+        CodeAnalysisEngine sequential = new CodeAnalysisEngine();
+        sequential.setParallelism(1);
+        Map<String, Object> expected = sequential.analyzeProject(projectDir.toString());
+
+        CodeAnalysisEngine parallel = new CodeAnalysisEngine();
+        parallel.setParallelism(4);
+        Map<String, Object> actual = parallel.analyzeProject(projectDir.toString());
+
+        assertEquals(12, actual.get("processedFiles"));
+        assertFalse(((List<?>) actual.get("issues")).isEmpty());
+        assertEquals(rendered(expected), rendered(actual));
+        assertEquals(expected.get("severityCounts"), actual.get("severityCounts"));
+        assertEquals(expected.get("detectorCounts"), actual.get("detectorCounts"));
+        assertEquals(expected.get("totalLOC"), actual.get("totalLOC"));
+        assertEquals(expected.get("totalMethods"), actual.get("totalMethods"));
+        assertEquals(3, actual.get("totalPackages"));
+    }
+
+    @Test
+    void inMemoryZipSourcesProduceSameResultsAsExtractedProject() throws IOException {
+        writeSampleProject(9);
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive); Stream<Path> files = Files.walk(projectDir)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                zip.putNextEntry(new ZipEntry(projectDir.relativize(file).toString()));
+                zip.write(Files.readAllBytes(file));
+                zip.closeEntry();
+            }
+        }
+
+        Map<String, Object> extracted = new CodeAnalysisEngine().analyzeProject(projectDir.toString());
+        List<SourceFile> sources = ZipExtractor.readJavaSources(new ByteArrayInputStream(archive.toByteArray()));
+        Map<String, Object> inMemory = new CodeAnalysisEngine().analyzeSources("sample", sources);
+
+        assertEquals(9, sources.size());
+        assertEquals(rendered(extracted).stream().sorted().toList(), rendered(inMemory).stream().sorted().toList());
+        for (String key : List.of("totalFiles", "processedFiles", "totalLOC", "totalClasses", "totalMethods", "totalPackages")) {
+            assertEquals(extracted.get(key), inMemory.get(key), key);
+        }
+    }
+
+    @Test
+    void reportsParseErrorsWithoutAbortingTheRun() throws IOException {
+        writeSampleProject(3);
+        Files.writeString(projectDir.resolve("Broken.java"), "public class Broken { void m( }");
+
+        CodeAnalysisEngine engine = new CodeAnalysisEngine();
+        engine.setParallelism(2);
+        Map<String, Object> results = engine.analyzeProject(projectDir.toString());
+
+        assertEquals(4, results.get("totalFiles"));
+        assertEquals(3, results.get("processedFiles"));
+        assertTrue(issues(results).stream().anyMatch(issue -> "ParseError".equals(issue.getType())
+            && "Broken.java".equals(issue.getFile()) && issue.getSeverity() == Severity.ERROR && !issue.hasLine()));
+    }
+
+    @Test
+    void disabledDetectorsAreNotRun() throws IOException {
+        writeSampleProject(2);
+
+        UserSettings settings = new UserSettings();
+        settings.setMagicNumberEnabled(false);
+        settings.setEmptyCatchEnabled(false);
+
+        CodeAnalysisEngine engine = new CodeAnalysisEngine();
+        engine.configureFromSettings(settings);
+        Map<String, Object> results = engine.analyzeProject(projectDir.toString());
+
+        List<String> active = engine.getActiveDetectors().stream().map(Detector::getName).toList();
+        assertFalse(active.contains("MagicNumberDetector"));
+        assertTrue(active.contains("LongParameterListDetector"));
+        @SuppressWarnings("unchecked")
+        Map<String, Integer> detectorCounts = (Map<String, Integer>) results.get("detectorCounts");
+        assertFalse(detectorCounts.containsKey("MagicNumberDetector"));
+        assertFalse(detectorCounts.containsKey("EmptyCatchDetector"));
+        assertTrue(detectorCounts.containsKey("LongParameterListDetector"));
+    }
+
+    @Test
+    void measuresCohesionWithoutProjectDetectors() throws IOException {
+        writeSampleProject(2);
+
+        UserSettings settings = new UserSettings();
+        settings.setMagicNumberEnabled(false);
+        settings.setBrokenModularizationEnabled(false);
+        settings.setUnnecessaryAbstractionEnabled(false);
+        settings.setDuplicateCodeEnabled(false);
+
+        CodeAnalysisEngine engine = new CodeAnalysisEngine();
+        engine.configureFromSettings(settings);
+        Map<String, Object> results = engine.analyzeProject(projectDir.toString());
+
+        assertTrue(engine.getActiveDetectors().stream().noneMatch(detector -> detector instanceof ProjectDetector));
+        assertEquals(1.0, results.get("avgLcom4"));
+        assertEquals(0, results.get("splittableClasses"));
+    }
+
+    @Test
+    void projectDetectorsSeeEveryFileIncludingCachedOnes() throws IOException {
+        Path pkg = projectDir.resolve("src/main/java/com/sample");
+        Files.createDirectories(pkg);
+        Files.writeString(pkg.resolve("Store.java"), "package com.sample;\npublic interface Store { void save(); }\n");
+        Files.writeString(pkg.resolve("FileStore.java"),
+            "package com.sample;\npublic class FileStore implements Store { public void save() {} }\n");
+
+        CodeAnalysisEngine engine = new CodeAnalysisEngine();
+        engine.setResultCache(new FileResultCache(cacheDir));
+        Map<String, Object> first = engine.analyzeProject(projectDir.toString());
+        Map<String, Object> second = engine.analyzeProject(projectDir.toString());
+
+        for (Map<String, Object> results : List.of(first, second)) {
+            List<CodeIssue> abstractions = issues(results).stream()
+                .filter(issue -> issue.getType().equals("UnnecessaryAbstraction")).toList();
+            assertEquals(1, abstractions.size());
+            assertEquals("Store.java", abstractions.get(0).getFile());
+            @SuppressWarnings("unchecked")
+            Map<String, Integer> detectorCounts = (Map<String, Integer>) results.get("detectorCounts");
+            assertEquals(1, detectorCounts.get("UnnecessaryAbstractionDetector"));
+        }
+        assertEquals(2, second.get("cachedFiles"));
+    }
+
+    @Test
+    void reusesCachedResultsForUnchangedFiles() throws IOException {
+        writeSampleProject(5);
+        FileResultCache cache = new FileResultCache(cacheDir);
+
+        CodeAnalysisEngine first = new CodeAnalysisEngine();
+        first.setResultCache(cache);
+        Map<String, Object> cold = first.analyzeProject(projectDir.toString());
+        assertEquals(0, cold.get("cachedFiles"));
+
+        CodeAnalysisEngine second = new CodeAnalysisEngine();
+        second.setResultCache(cache);
+        Map<String, Object> warm = second.analyzeProject(projectDir.toString());
+        assertEquals(5, warm.get("cachedFiles"));
+        assertEquals(rendered(cold), rendered(warm));
+        assertEquals(cold.get("totalLOC"), warm.get("totalLOC"));
+        assertEquals(cold.get("totalClasses"), warm.get("totalClasses"));
+
+        Path changed = projectDir.resolve("src/main/java/com/sample/module0/Sample0.java");
+        Files.writeString(changed, Files.readString(changed).replace("return g;", "return g + 1;"));
+        Map<String, Object> afterEdit = second.analyzeProject(projectDir.toString());
+        assertEquals(4, afterEdit.get("cachedFiles"));
+    }
+
+    @Test
+    void configurationChangesInvalidateCachedResults() throws IOException {
+        writeSampleProject(3);
+        FileResultCache cache = new FileResultCache(cacheDir);
+
+        CodeAnalysisEngine engine = new CodeAnalysisEngine();
+        engine.setResultCache(cache);
+        engine.analyzeProject(projectDir.toString());
+        String defaultFingerprint = engine.getConfigFingerprint();
+
+        UserSettings settings = new UserSettings();
+        settings.setMaxParameterCount(9);
+        engine.configureFromSettings(settings);
+
+        assertNotEquals(defaultFingerprint, engine.getConfigFingerprint());
+        assertEquals(0, engine.analyzeProject(projectDir.toString()).get("cachedFiles"));
+    }
+
+    @Test
+    void reportsProgressForEveryFile() throws IOException {
+        writeSampleProject(6);
+        List<Integer> completed = new java.util.concurrent.CopyOnWriteArrayList<>();
+
+        CodeAnalysisEngine engine = new CodeAnalysisEngine();
+        engine.setParallelism(3);
+        engine.setProgressListener((done, total) -> {
+            assertEquals(6, total);
+            completed.add(done);
+        });
+        engine.analyzeProject(projectDir.toString());
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), completed.stream().sorted().toList());
+    }
+
+    @Test
+    void recordsStageAndDetectorTimers() throws IOException {
+        writeSampleProject(2);
+        Files.writeString(projectDir.resolve("Broken.java"), "public class Broken { void m( }");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        CodeAnalysisEngine engine = new CodeAnalysisEngine();
+        engine.setMetrics(new AnalysisMetrics(registry));
+        engine.analyzeProject(projectDir.toString());
+
+        assertEquals(2, registry.get(AnalysisMetrics.STAGE_TIMER)
+            .tags("stage", AnalysisMetrics.PARSE, "outcome", AnalysisMetrics.SUCCESS).timer().count());
+        assertEquals(1, registry.get(AnalysisMetrics.STAGE_TIMER)
+            .tags("stage", AnalysisMetrics.PARSE, "outcome", AnalysisMetrics.ERROR).timer().count());
+        assertEquals(1, registry.get(AnalysisMetrics.STAGE_TIMER).tag("stage", AnalysisMetrics.PROJECT).timer().count());
+        assertEquals(1, registry.get(AnalysisMetrics.STAGE_TIMER).tag("stage", AnalysisMetrics.CROSS_FILE).timer().count());
+        for (Detector detector : engine.getActiveDetectors()) {
+            assertEquals(2, registry.get(AnalysisMetrics.DETECTOR_TIMER)
+                .tags("detector", detector.getName(), "outcome", AnalysisMetrics.SUCCESS).timer().count());
+        }
+    }
+
+    @Test
+    void abandonsFilesThatExceedTheirBudget() throws IOException {
+        writeSampleProject(3);
+        FileResultCache cache = new FileResultCache(cacheDir);
+
+        CodeAnalysisEngine engine = new CodeAnalysisEngine();
+        engine.setResultCache(cache);
+        engine.setTimeLimits(null, Duration.ofNanos(1));
+        Map<String, Object> results = engine.analyzeProject(projectDir.toString());
+
+        assertEquals(true, results.get("incomplete"));
+        assertEquals(3, results.get("timedOutFiles"));
+        assertEquals(0, results.get("processedFiles"));
+        List<CodeIssue> issues = issues(results);
+        assertEquals(3, issues.size());
+        assertTrue(issues.stream().allMatch(issue -> "Timeout".equals(issue.getType()) && issue.getFile().startsWith("Sample")));
+
+        // Timed-out files must be analyzed for real next time, not served from the cache
+        engine.setTimeLimits(null, null);
+        Map<String, Object> rerun = engine.analyzeProject(projectDir.toString());
+        assertEquals(0, rerun.get("cachedFiles"));
+        assertEquals(false, rerun.get("incomplete"));
+        assertEquals(3, rerun.get("processedFiles"));
+    }
+
+    @Test
+    void sharedWalkStopsOnceTheFileBudgetIsSpent() {
+        StringBuilder body = new StringBuilder("class Huge { void count(int x) {");
+        for (int i = 0; i < FusedAstWalker.BUDGET_CHECK_INTERVAL; i++) {
+            body.append(" x++;");
+        }
+        CompilationUnit cu = new JavaParser().parse(body.append(" } }").toString()).getResult().orElseThrow();
+        AnalysisDeadline.FileBudget spent = AnalysisDeadline.start(null, Duration.ofNanos(1)).startFile();
+        int[] entered = new int[1];
+        AstNodeListener counter = new AstNodeListener() {
+            @Override
+            public boolean enter(Node node) {
+                entered[0]++;
+                return true;
+            }
+
+            @Override
+            public void exit(Node node) {
+            }
+        };
+
+        assertThrows(FileTimeoutException.class, () -> FusedAstWalker.walk(cu, List.of(counter), spent));
+        assertEquals(FusedAstWalker.BUDGET_CHECK_INTERVAL, entered[0]);
+        assertNull(FusedAstWalker.walk(cu, List.of(counter))[0]);
+    }
+
+    @Test
+    void returnsPartialResultsWhenProjectDeadlinePasses() throws IOException {
+        writeSampleProject(4);
+
+        CodeAnalysisEngine engine = new CodeAnalysisEngine();
+        engine.setParallelism(2);
+        engine.setTimeLimits(Duration.ofNanos(1), Duration.ofMinutes(1));
+        Map<String, Object> results = engine.analyzeProject(projectDir.toString());
+
+        assertEquals(true, results.get("incomplete"));
+        assertEquals(4, results.get("skippedFiles"));
+        assertTrue(issues(results).stream().anyMatch(issue -> "Timeout".equals(issue.getType())
+            && issue.getMessage().contains("4 of 4 files were not analyzed")));
+    }
+
+    @Test
+    void streamedReportMatchesInMemoryReport(@TempDir Path spillDir, @TempDir Path reportDir) throws IOException {
+        writeSampleProject(12);
+
+        Map<String, Object> inMemory = new CodeAnalysisEngine().analyzeProject(projectDir.toString());
+        String expected = new ReportGenerator().generateComprehensiveReport(inMemory);
+
+        CodeAnalysisEngine streaming = new CodeAnalysisEngine();
+        streaming.setParallelism(4);
+        // A tiny run size forces many sorted runs and a multi-round merge
+        streaming.setStreaming(spillDir, 1, 1);
+        Map<String, Object> streamed = streaming.analyzeProject(projectDir.toString());
+        assertNull(streamed.get("issues"));
+        assertEquals(inMemory.get("totalIssues"), streamed.get("totalIssues"));
+        assertEquals(inMemory.get("severityCounts"), streamed.get("severityCounts"));
+
+        String reportPath = reportDir.resolve("sample_comprehensive.txt").toString();
+        long unique;
+        try (IssueSpill spill = (IssueSpill) streamed.get("issueSpill")) {
+            new ReportGenerator().writeComprehensiveReport(streamed, spill, reportPath);
+            unique = spill.uniqueSize();
+        }
+
+        assertEquals(withoutTimestamp(expected), withoutTimestamp(ReportGenerator.readReportContent(reportPath)));
+        // The structured issues are the report's own, so repeated findings are already gone
+        assertTrue(unique < issues(inMemory).size());
+        assertEquals(unique, ReportGenerator.readIssues(reportPath).size());
+        try (Stream<Path> leftovers = Files.list(spillDir)) {
+            assertEquals(0, leftovers.count());
+        }
+    }
+
+    private static String withoutTimestamp(String report) {
+        return report.replaceFirst("Generated: [^\\n]*\\n", "");
+    }
+}
@@ -0,0 +1,63 @@
+package com.devsync.analyzer;
+
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IssueSpillTest {
+
+    @TempDir
+    Path dir;
+
+    private static CodeIssue issue(String file, int line, String type, Severity severity) {
+        return new CodeIssue(type, file, line, severity, type + " at " + line, null);
+    }
+
+    @Test
+    void dropsRepeatedFindingsAndOrdersBySeverityThenFileOrder() throws IOException {
+        try (IssueSpill spill = new IssueSpill(dir, 2)) {
+            // Files arrive out of order, as they do from parallel workers
+            spill.add(1, List.of(issue("B.java", 3, "MagicNumber", Severity.LOW), issue("B.java", 9, "LongMethod", Severity.CRITICAL)));
+            spill.add(0, List.of(issue("A.java", 5, "MagicNumber", Severity.LOW), issue("A.java", 7, "EmptyCatch", Severity.HIGH),
+                issue("A.java", 5, "MagicNumber", Severity.HIGH)));
+
+            List<String> unique = new ArrayList<>();
+            spill.deduplicate(found -> unique.add(found.getFile() + ":" + found.getLine()));
+            List<String> ordered = new ArrayList<>();
+            spill.forEachBySeverity(found -> ordered.add(found.getFile() + ":" + found.getLine() + ":" + found.getSeverity()));
+
+            assertEquals(5, spill.size());
+            assertEquals(4, spill.uniqueSize());
+            assertEquals(4, unique.size());
+            // The first occurrence of A.java:5 (Low) survives, not the later High duplicate
+            assertEquals(List.of("B.java:9:CRITICAL", "A.java:7:HIGH", "A.java:5:LOW", "B.java:3:LOW"), ordered);
+        }
+    }
+
+    @Test
+    void mergesMoreRunsThanItOpensAtOnce() throws IOException {
+        int files = 150;
+        IssueSpill spill = new IssueSpill(dir, 1);
+        for (int file = files - 1; file >= 0; file--) {
+            Severity severity = file % 2 == 0 ? Severity.MEDIUM : Severity.HIGH;
+            spill.add(file, List.of(issue("F" + file + ".java", 1, "LongMethod", severity)));
+        }
+        spill.deduplicate(found -> { });
+        List<CodeIssue> ordered = new ArrayList<>();
+        spill.forEachBySeverity(ordered::add);
+        spill.close();
+
+        assertEquals(files, ordered.size());
+        assertEquals("F1.java", ordered.get(0).getFile());
+        assertEquals(Severity.HIGH, ordered.get(files / 2 - 1).getSeverity());
+        assertEquals("F0.java", ordered.get(files / 2).getFile());
+        assertEquals("F148.java", ordered.get(files - 1).getFile());
+        assertEquals(0, dir.toFile().listFiles().length);
+    }
+}
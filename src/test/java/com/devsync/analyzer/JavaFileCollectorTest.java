@@ -0,0 +1,55 @@
+package com.devsync.analyzer;
+
+import com.devsync.config.PathExclusionMatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaFileCollectorTest {
+
+    @TempDir
+    Path root;
+
+    private void write(String relativePath, String content) throws IOException {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private List<String> collect(JavaFileCollector collector) {
+        return collector.collectJavaFiles(root.toString()).stream()
+            .map(file -> root.relativize(file.toPath()).toString().replace(File.separatorChar, '/'))
+            .sorted()
+            .toList();
+    }
+
+    @Test
+    void prunesExcludedTreesAndHonorsNestedGitignores() throws IOException {
+        write("src/main/java/app/Contest.java", "class Contest {}");
+        write("src/main/java/buildings/Tower.java", "class Tower {}");
+        write("src/main/java/app/AppTest.java", "class AppTest {}");
+        write("src/test/java/app/Helper.java", "class Helper {}");
+        write("target/classes/Gen.java", "class Gen {}");
+        write("module/.gitignore", "generated/\n");
+        write("module/generated/Stub.java", "class Stub {}");
+        write("module/src/Real.java", "class Real {}");
+        write("notes.txt", "not java");
+
+        assertEquals(List.of("module/src/Real.java", "src/main/java/app/Contest.java", "src/main/java/buildings/Tower.java"),
+            collect(new JavaFileCollector()));
+    }
+
+    @Test
+    void appliesConfiguredPatterns() throws IOException {
+        write("src/main/java/app/Service.java", "class Service {}");
+        write("src/main/java/legacy/Old.java", "class Old {}");
+
+        assertEquals(List.of("src/main/java/app/Service.java"),
+            collect(new JavaFileCollector(PathExclusionMatcher.withPatterns(List.of("legacy/")))));
+    }
+}
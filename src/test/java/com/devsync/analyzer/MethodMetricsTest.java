@@ -0,0 +1,58 @@
+package com.devsync.analyzer;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodMetricsTest {
+
+    private static final String CODE = String.join("\n",
+        "class C {",
+        "    int limit = Boolean.getBoolean(\"x\") ? 1 : 2;",
+        "    int run(int a, boolean b) {",
+        "        if (a > 0 && b) {",
+        "            for (int i = 0; i < a; i++) {",
+        "                try { a += b ? 1 : 2; } catch (Exception e) { }",
+        "            }",
+        "        }",
+        "        switch (a) { case 1: return 1; default: return 0; }",
+        "    }",
+        "}");
+
+    private static CompilationUnit parse(String code) {
+        return new JavaParser().parse(code).getResult().orElseThrow();
+    }
+
+    @Test
+    void measuresAllMetricsInOneWalk() {
+        MethodDeclaration method = parse(CODE).findFirst(MethodDeclaration.class).orElseThrow();
+
+        MethodMetrics metrics = MethodMetrics.of(method);
+
+        // if, &&, for, ternary and the labelled case
+        assertEquals(6, metrics.cyclomaticComplexity());
+        // if (1), && (1), for nested once (2), switch (1)
+        assertEquals(5, metrics.cognitiveComplexity());
+        // if > for > try
+        assertEquals(3, metrics.nestingDepth());
+        assertEquals(12, metrics.statementCount());
+        assertEquals(8, metrics.lineCount());
+    }
+
+    @Test
+    void sharedWalkRecordsMetricsForLaterReaders() {
+        CompilationUnit cu = parse(CODE);
+        FileMetricsCollector collector = new FileMetricsCollector();
+        FusedAstWalker.walk(cu, List.of(collector));
+
+        MethodDeclaration method = cu.findFirst(MethodDeclaration.class).orElseThrow();
+        assertTrue(method.containsData(MethodMetrics.KEY));
+        assertSame(method.getData(MethodMetrics.KEY), MethodMetrics.of(method));
+        // The method's five decision points plus the field initializer's ternary
+        assertEquals(6, collector.getComplexity());
+        assertEquals(1, collector.getMethodCount());
+    }
+}
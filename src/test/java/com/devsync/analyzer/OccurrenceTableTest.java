@@ -0,0 +1,29 @@
+package com.devsync.analyzer;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccurrenceTableTest {
+
+    @Test
+    void groupsOccurrencesByKeyInSourceOrder() {
+        long[][] keysByFile = {{42, 7, 42}, {}, {7, -1L, 42}};
+        OccurrenceTable table = OccurrenceTable.build(6, sink -> {
+            for (int file = 0; file < keysByFile.length; file++) {
+                for (int i = 0; i < keysByFile[file].length; i++) {
+                    sink.accept(file, i, keysByFile[file][i]);
+                }
+            }
+        });
+
+        int slot = table.slot(42);
+        assertEquals(42, table.getKey(slot));
+        assertEquals(3, table.getCount(slot));
+        int at = table.getOffset(slot);
+        assertArrayEquals(new int[] {0, 0, 2}, new int[] {table.getFile(at), table.getFile(at + 1), table.getFile(at + 2)});
+        assertArrayEquals(new int[] {0, 2, 2}, new int[] {table.getIndex(at), table.getIndex(at + 1), table.getIndex(at + 2)});
+        assertEquals(2, table.getCount(table.slot(7)));
+        assertEquals(1, table.getCount(table.slot(-1L)));
+        assertEquals(0, table.getCount(table.slot(99)));
+    }
+}
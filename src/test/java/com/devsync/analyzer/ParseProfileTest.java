@@ -0,0 +1,43 @@
+package com.devsync.analyzer;
+
+import com.devsync.detectors.EmptyCatchDetector;
+import com.devsync.detectors.LongParameterListDetector;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.stmt.CatchClause;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParseProfileTest {
+
+    private static final String SOURCE = String.join("\n",
+        "package demo;",
+        "record Point(int x, int y) {",
+        "    void load() {",
+        "        try { read(); } catch (Exception e) { /* ignore */ }",
+        "    }",
+        "}");
+
+    @Test
+    void attributesCommentsOnlyWhenAnEnabledDetectorReadsThem() {
+        assertSame(ParseProfile.LEAN, ParseProfile.forDetectors(new LongParameterListDetector()));
+        assertSame(ParseProfile.WITH_COMMENTS,
+            ParseProfile.forDetectors(new LongParameterListDetector(), new EmptyCatchDetector()));
+
+        CompilationUnit lean = ParseProfile.LEAN.parse(SOURCE).getResult().orElseThrow();
+        CompilationUnit full = ParseProfile.WITH_COMMENTS.parse(SOURCE).getResult().orElseThrow();
+        assertTrue(lean.getAllContainedComments().isEmpty());
+        assertEquals(1, full.findFirst(CatchClause.class).orElseThrow().getBody().getAllContainedComments().size());
+        assertNotEquals(ParseProfile.LEAN.getSignature(), ParseProfile.WITH_COMMENTS.getSignature());
+    }
+
+    @Test
+    void reusedParserKeepsRangesAndParsesModernSyntax() {
+        for (int run = 0; run < 3; run++) {
+            ParseResult<CompilationUnit> result = ParseProfile.LEAN.parse(SOURCE);
+            assertTrue(result.isSuccessful(), result.getProblems().toString());
+            CatchClause catchClause = result.getResult().orElseThrow().findFirst(CatchClause.class).orElseThrow();
+            assertEquals(4, catchClause.getBegin().orElseThrow().line);
+        }
+    }
+}
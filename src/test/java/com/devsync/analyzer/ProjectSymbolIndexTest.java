@@ -0,0 +1,63 @@
+package com.devsync.analyzer;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectSymbolIndexTest {
+
+    private static CompilationUnit parse(String code) {
+        return new JavaParser().parse(code).getResult().orElseThrow();
+    }
+
+    private static List<String> names(ProjectSymbolIndex index, int[] ids) {
+        return Arrays.stream(ids).mapToObj(id -> index.getType(id).getQualifiedName()).sorted().toList();
+    }
+
+    @Test
+    void resolvesHierarchyAndReferencesAcrossFiles() {
+        ProjectSymbolIndex index = ProjectSymbolIndex.of(
+            parse("package shop.api; public interface Repository { void save(); }"),
+            parse("package shop.api; public interface OrderRepository extends Repository { }"),
+            parse("package shop.db; import shop.api.OrderRepository; " +
+                "public class SqlOrders implements OrderRepository { public void save() {} }"),
+            parse("package shop.web; import shop.api.*; import shop.db.SqlOrders; " +
+                "class Controller { Repository repo = new SqlOrders(); void run() { repo.save(); } " +
+                "static class Helper { java.util.List<OrderRepository> all; } }"));
+
+        int repository = index.findQualified("shop.api.Repository");
+        int orders = index.findQualified("shop.api.OrderRepository");
+        int sql = index.findQualified("shop.db.SqlOrders");
+        int controller = index.findQualified("shop.web.Controller");
+
+        assertEquals(5, index.getTypeCount());
+        assertEquals(List.of("shop.api.OrderRepository"), names(index, index.subtypesOf(repository)));
+        assertEquals(List.of("shop.db.SqlOrders"), names(index, index.implementorsOf(repository)));
+        assertEquals(List.of("shop.api.OrderRepository"), names(index, index.supertypesOf(sql)));
+        assertEquals(List.of("shop.api.Repository", "shop.db.SqlOrders"), names(index, index.referencesOf(controller)));
+        assertEquals(List.of("shop.web.Controller.Helper"), names(index, index.referencedBy(orders)));
+        assertEquals(List.of("shop.web.Controller"), names(index, index.typesReferencingMember("save")));
+        assertEquals(1, index.importedFiles(index.getFileId(controller)).length);
+        assertEquals(0, index.findByName("List").length);
+    }
+
+    @Test
+    void prefersTypesDeclaredInTheSameFileOrPackage() {
+        ProjectSymbolIndex index = ProjectSymbolIndex.of(
+            parse("package a; public class Node { }"),
+            parse("package b; public class Node { }"),
+            parse("package b; class Tree { Node root; Leaf leaf; static class Leaf { } }"),
+            parse("package c; class Graph { Node node; }"));
+
+        int tree = index.findQualified("b.Tree");
+        int graph = index.findQualified("c.Graph");
+
+        assertEquals(2, index.findByName("Node").length);
+        assertEquals(List.of("b.Node", "b.Tree.Leaf"), names(index, index.referencesOf(tree)));
+        // Ambiguous without an import, so left unresolved
+        assertEquals(0, index.referencesOf(graph).length);
+    }
+}
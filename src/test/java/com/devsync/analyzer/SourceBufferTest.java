@@ -0,0 +1,62 @@
+package com.devsync.analyzer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceBufferTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void indexesLinesAcrossAllTerminators() {
+        SourceBuffer buffer = new SourceBuffer("first\nsecond\r\nthird\rlast");
+
+        assertEquals(4, buffer.getLineCount());
+        assertEquals("first", buffer.getLine(1));
+        assertEquals("second", buffer.getLine(2));
+        assertEquals("third", buffer.getLine(3));
+        assertEquals("last", buffer.getLine(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getLine(5));
+    }
+
+    @Test
+    void matchesReadAllLinesIncludingBlankAndTrailingLines() throws IOException {
+        String text = "\n\npackage a;\r\n\r\nclass A {}\n\n";
+        Path file = dir.resolve("A.java");
+        Files.writeString(file, text);
+        List<String> expected = Files.readAllLines(file);
+
+        SourceBuffer buffer = SourceBuffer.read(file);
+
+        assertEquals(expected.size(), buffer.getLineCount());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), buffer.getLine(i + 1));
+        }
+        assertEquals(0, new SourceBuffer("").getLineCount());
+    }
+
+    @Test
+    void countsCodeLinesLikeTheLineBasedCounter() {
+        String source = String.join("\n",
+            "package demo;",
+            "",
+            "/**",
+            " * Javadoc",
+            " */",
+            "public class Demo {",
+            "    // comment",
+            "    /* block */ int x;",
+            "\t  int y = 2; // trailing",
+            "   ",
+            "}");
+
+        assertEquals(4, new SourceBuffer(source).countLinesOfCode());
+        assertEquals(4, LOCCounter.countLinesOfCode(source));
+    }
+}
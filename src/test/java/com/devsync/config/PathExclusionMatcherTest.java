@@ -0,0 +1,52 @@
+package com.devsync.config;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathExclusionMatcherTest {
+
+    private final PathExclusionMatcher defaults = PathExclusionMatcher.defaults();
+
+    @Test
+    void defaultsMatchWholeSegmentsOnly() {
+        assertTrue(defaults.isFileExcluded("src/test/java/com/a/Service.java"));
+        assertTrue(defaults.isFileExcluded("module/target/generated/Foo.java"));
+        assertTrue(defaults.isFileExcluded("src/main/java/com/a/ServiceTest.java"));
+        assertTrue(defaults.isFileExcluded("src/main/java/com/a/TestHelpers.java"));
+
+        assertFalse(defaults.isFileExcluded("src/main/java/com/a/Contest.java"));
+        assertFalse(defaults.isFileExcluded("src/main/java/com/buildings/Tower.java"));
+        assertFalse(defaults.isFileExcluded("src/main/java/com/a/Testimonial.java"));
+        assertFalse(defaults.isFileExcluded("src/main/java/com/a/Attestation.java"));
+    }
+
+    @Test
+    void supportsGitignoreSyntax() {
+        PathExclusionMatcher matcher = PathExclusionMatcher.withPatterns(List.of(
+            "# generated code",
+            "/generated/",
+            "legacy/**/Old*.java",
+            "*.gen.java",
+            "!keep.gen.java"));
+
+        assertTrue(matcher.isFileExcluded("generated/Foo.java"));
+        assertFalse(matcher.isFileExcluded("src/generated/Foo.java"), "anchored to the root");
+        assertTrue(matcher.isFileExcluded("legacy/a/b/OldThing.java"));
+        assertFalse(matcher.isFileExcluded("legacy/a/b/NewThing.java"));
+        assertTrue(matcher.isFileExcluded("src/Parser.gen.java"));
+        assertFalse(matcher.isFileExcluded("src/keep.gen.java"));
+    }
+
+    @Test
+    void scopesRulesToTheirBaseDirectory() {
+        PathExclusionMatcher matcher = defaults.withRules(List.of("moduleA"), List.of("internal/", "Skip?.java"));
+
+        assertTrue(matcher.isFileExcluded("moduleA/src/internal/Impl.java"));
+        assertTrue(matcher.isFileExcluded("moduleA/src/Skip1.java"));
+        assertFalse(matcher.isFileExcluded("moduleB/src/internal/Impl.java"));
+        assertFalse(matcher.isFileExcluded("moduleB/src/Skip1.java"));
+        assertTrue(matcher.isExcluded(List.of("moduleA", "internal"), true));
+        assertFalse(matcher.isExcluded(List.of("moduleA", "internal"), false), "directory-only rule");
+    }
+}
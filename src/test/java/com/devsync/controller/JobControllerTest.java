@@ -0,0 +1,50 @@
+package com.devsync.controller;
+
+import com.devsync.model.AnalysisJob;
+import com.devsync.services.AnalysisJobService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class JobControllerTest {
+
+    private AnalysisJobService jobService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new AnalysisJobService();
+        ReflectionTestUtils.setField(jobService, "workerThreads", 1);
+        ReflectionTestUtils.setField(jobService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(jobService, "rejectionPolicy", AnalysisJobService.POLICY_REJECT);
+        ReflectionTestUtils.setField(jobService, "retentionMinutes", 60);
+        jobService.start();
+        JobController controller = new JobController();
+        ReflectionTestUtils.setField(controller, "analysisJobService", jobService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void stop() {
+        jobService.shutdown();
+    }
+
+    @Test
+    void onlyTheOwnerCanReadAJob() throws Exception {
+        AnalysisJob job = jobService.submit("owner", "project.zip", queued -> queued.complete("done"));
+
+        mockMvc.perform(get("/api/jobs/" + job.getId()))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/jobs/" + job.getId()).param("userId", "intruder"))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/jobs/" + job.getId()).param("userId", "owner"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(job.getId()));
+    }
+}
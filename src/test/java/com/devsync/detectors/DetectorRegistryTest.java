@@ -0,0 +1,23 @@
+package com.devsync.detectors;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectorRegistryTest {
+
+    @Test
+    void shouldLoadBuiltInDetectorsInDeclaredOrder() {
+        List<Detector> detectors = DetectorRegistry.createDetectors();
+        assertEquals(14, detectors.size());
+        assertEquals("MissingDefaultDetector", detectors.get(0).getName());
+        assertEquals("DuplicateCodeDetector", detectors.get(detectors.size() - 1).getName());
+    }
+
+    @Test
+    void shouldCreateFreshInstancesPerCall() {
+        Detector first = DetectorRegistry.createDetectors().get(0);
+        Detector second = DetectorRegistry.createDetectors().get(0);
+        assertNotSame(first, second);
+    }
+}
@@ -0,0 +1,77 @@
+package com.devsync.detectors;
+
+import com.devsync.analyzer.ProjectSymbolIndex;
+import com.devsync.model.CodeIssue;
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.jupiter.api.Test;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateCodeDetectorTest extends DetectorTestBase {
+    private final DuplicateCodeDetector detector = new DuplicateCodeDetector();
+
+    private static String totalsMethod(String name, String list, String limit) {
+        return "    int " + name + "(java.util.List<Integer> " + list + ") {\n" +
+            "        int sum = 0;\n" +
+            "        int count = 0;\n" +
+            "        for (int value : " + list + ") {\n" +
+            "            if (value > " + limit + ") {\n" +
+            "                sum += value * 2;\n" +
+            "                count++;\n" +
+            "            } else {\n" +
+            "                sum -= value;\n" +
+            "            }\n" +
+            "        }\n" +
+            "        System.out.println(\"total \" + sum + \" of \" + count);\n" +
+            "        return count == 0 ? 0 : sum / count;\n" +
+            "    }\n";
+    }
+
+    private CompilationUnit file(String name, String body) {
+        CompilationUnit cu = parseCode("package demo;\n\npublic class " + name + " {\n" + body + "}\n");
+        cu.setStorage(Path.of(name + ".java"));
+        return cu;
+    }
+
+    @Test
+    void shouldReportExactCopyInAnotherFileWithLineRanges() {
+        detector.setMinTokens(50);
+        CompilationUnit original = file("Orders", totalsMethod("total", "values", "10"));
+        CompilationUnit copy = file("Invoices", "    int unrelated = 1;\n\n" + totalsMethod("total", "values", "10"));
+
+        List<CodeIssue> issues = detector.analyzeProject(ProjectSymbolIndex.of(50, original, copy));
+
+        assertEquals(1, issues.size());
+        CodeIssue issue = issues.get(0);
+        assertEquals("DuplicateCode", issue.getType());
+        assertEquals("Invoices.java", issue.getFile());
+        assertEquals("Type-1", issue.getMetrics().get("cloneType"));
+        assertEquals("Orders.java", issue.getMetrics().get("duplicateFile"));
+        assertEquals(issue.getLine() - 2, issue.getMetrics().get("duplicateStartLine"));
+        assertTrue((int) issue.getMetrics().get("tokens") >= 50);
+    }
+
+    @Test
+    void shouldReportRenamedCopyAsTypeTwo() {
+        detector.setMinTokens(50);
+        CompilationUnit original = file("Orders", totalsMethod("total", "values", "10"));
+        CompilationUnit copy = file("Invoices", totalsMethod("average", "amounts", "250"));
+
+        List<CodeIssue> issues = detector.analyzeProject(ProjectSymbolIndex.of(50, original, copy));
+
+        assertEquals(1, issues.size());
+        assertEquals("Type-2", issues.get(0).getMetrics().get("cloneType"));
+    }
+
+    @Test
+    void shouldReportCopiesWithinOneFileButNotShortOrDistinctCode() {
+        detector.setMinTokens(50);
+        assertTrue(hasIssue(detector.detect(file("Orders", totalsMethod("a", "x", "1") + totalsMethod("b", "y", "2"))),
+            "DuplicateCode"));
+        assertTrue(detector.detect(file("Orders", totalsMethod("a", "x", "1"))).isEmpty());
+
+        detector.setMinTokens(500);
+        assertTrue(detector.detect(file("Orders", totalsMethod("a", "x", "1") + totalsMethod("b", "y", "2"))).isEmpty());
+    }
+}
@@ -1,5 +1,6 @@
 package com.devsync.detectors;
 
+import com.devsync.model.CodeIssue;
 import org.junit.jupiter.api.Test;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,5 +32,39 @@ class LongStatementDetectorTest extends DetectorTestBase {
         List<String> issues = detector.detect(parseCode(code));
         assertTrue(hasIssue(issues, "LongStatement"));
     }
-}
 
+    @Test
+    void shouldMeasureStatementsFromSourceTokens() {
+        StringBuilder call = new StringBuilder("class C{ void m(){\n    // a comment before\n    log(");
+        for (int i = 0; i < 84; i++) {
+            call.append(i == 0 ? "" : ", ").append("arg").append(i);
+        }
+        call.append(", \"a string, with (punctuation)\"); } }");
+
+        List<CodeIssue> issues = detector.analyze(parser.parse(call.toString()).getResult().orElseThrow());
+
+        assertEquals(1, issues.size());
+        CodeIssue issue = issues.get(0);
+        assertEquals(3, issue.getLine());
+        // log, 84 arguments and the literal; separators and the comment are not tokens
+        assertEquals(86, issue.getMetrics().get("tokenCount"));
+        assertEquals(call.substring(call.indexOf("log("), call.lastIndexOf(";")).length(),
+            issue.getMetrics().get("charLength"));
+    }
+
+    @Test
+    void shouldSkipStatementsHoldingAnonymousClasses() {
+        StringBuilder code = new StringBuilder("class C{ void m(){ register(new Listener() { public void on() { ");
+        for (int i = 0; i < 30; i++) {
+            code.append("count").append(i).append("++; ");
+        }
+        code.append("} }");
+        for (int i = 0; i < 90; i++) {
+            code.append(", value").append(i);
+        }
+        code.append("); } }");
+
+        List<String> issues = detector.detect(parseCode(code.toString()));
+        assertFalse(hasIssue(issues, "LongStatement"));
+    }
+}
@@ -1,6 +1,10 @@
 package com.devsync.detectors;
 
+import com.devsync.analyzer.ProjectSymbolIndex;
+import com.devsync.model.CodeIssue;
+import com.github.javaparser.ast.CompilationUnit;
 import org.junit.jupiter.api.Test;
+import java.nio.file.Path;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,5 +35,37 @@ class MagicNumberDetectorTest extends DetectorTestBase {
         List<String> issues = detector.detect(parseCode(sb.toString()));
         assertTrue(hasIssue(issues, "MagicNumber"));
     }
-}
 
+    private CompilationUnit file(String name, String body) {
+        CompilationUnit cu = parseCode("class " + name + " {\n" + body + "}\n");
+        cu.setStorage(Path.of(name + ".java"));
+        return cu;
+    }
+
+    @Test
+    void shouldReportLiteralRepeatedAcrossFilesOnce() {
+        List<CodeIssue> issues = detector.analyzeProject(ProjectSymbolIndex.of(0, true,
+            file("Sessions", "    long expiry(long t) { return t + 86400; }\n"),
+            file("Tokens", "    long ttl() { return 86400L; }\n    void testTtl() { long x = 86400; }\n"),
+            file("Cache", "    static final int DAY = 86400;\n    int age(int t) {\n        return t % 86400;\n    }\n")));
+
+        assertEquals(1, issues.size());
+        CodeIssue issue = issues.get(0);
+        assertEquals("Sessions.java", issue.getFile());
+        assertEquals(3, issue.getMetrics().get("occurrences"));
+        assertEquals(3, issue.getMetrics().get("files"));
+        assertEquals(List.of("Sessions.java:2", "Tokens.java:2", "Cache.java:4"), issue.getMetrics().get("locations"));
+        assertEquals("SECONDS_PER_DAY", issue.getMetrics().get("suggestedConstant"));
+    }
+
+    @Test
+    void shouldReportLiteralsBelowThresholdWhereTheyAppear() {
+        List<CodeIssue> issues = detector.analyzeProject(ProjectSymbolIndex.of(0, true,
+            file("A", "    double rate() { return 0.075; }\n"),
+            file("B", "    double fee() { return 0.075 * 2; }\n")));
+
+        assertEquals(2, issues.size());
+        assertTrue(issues.stream().allMatch(issue -> "0.075".equals(issue.getMetrics().get("value"))));
+        assertTrue(issues.stream().allMatch(issue -> (Boolean) issue.getMetrics().get("isRepeated")));
+    }
+}
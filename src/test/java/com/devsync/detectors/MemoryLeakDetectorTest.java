@@ -0,0 +1,52 @@
+package com.devsync.detectors;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryLeakDetectorTest extends DetectorTestBase {
+    private final MemoryLeakDetector detector = new MemoryLeakDetector();
+
+    @Test
+    void shouldReportOnlyResourcesThatAreNeverClosed() {
+        String code = "class C{ void read() throws Exception {" +
+            " FileInputStream in = new FileInputStream(\"a\");" +
+            " BufferedReader reader = new BufferedReader(null);" +
+            " reader.close(); } }";
+        List<String> issues = detector.detect(parseCode(code));
+        assertTrue(hasIssue(issues, "Resource 'in'"));
+        assertFalse(hasIssue(issues, "Resource 'reader'"));
+    }
+
+    @Test
+    void shouldNotReportResourcesInTryWithResources() {
+        String code = "class C{ void read() throws Exception {" +
+            " try (FileInputStream in = new FileInputStream(\"a\")) { FileInputStream other = new FileInputStream(\"b\"); } } }";
+        List<String> issues = detector.detect(parseCode(code));
+        assertFalse(hasIssue(issues, "may not be closed"));
+    }
+
+    @Test
+    void shouldReportListenersAndExecutorsWithoutCleanup() {
+        String code = "class C{" +
+            " void start(){ bus.addChangeListener(this); pool = new ThreadPoolExecutor(1, 1, 0, null, null); }" +
+            " void both(){ bus.registerHandler(this); bus.unregisterHandler(this); Thread t = new Thread(); t.interrupt(); } }";
+        List<String> issues = detector.detect(parseCode(code));
+        assertTrue(hasIssue(issues, "Listener registered in 'start'"));
+        assertTrue(hasIssue(issues, "Thread/Executor created in 'start'"));
+        assertFalse(hasIssue(issues, "in 'both'"));
+    }
+
+    @Test
+    void shouldReportStaticCollectionsGrownButNeverShrunk() {
+        String code = "class C{ void cache(){ Object o = new Object(){" +
+            " static java.util.List<String> seen = new java.util.ArrayList<>();" +
+            " static java.util.Map<String, String> recent = new java.util.HashMap<>();" +
+            " static java.util.Set<String> unused = new java.util.HashSet<>();" +
+            " void track(String s){ seen.add(s); recent.put(s, s); recent.remove(s); } }; } }";
+        List<String> issues = detector.detect(parseCode(code));
+        assertTrue(hasIssue(issues, "Static collection 'seen'"));
+        assertFalse(hasIssue(issues, "Static collection 'recent'"));
+        assertFalse(hasIssue(issues, "Static collection 'unused'"));
+    }
+}
@@ -1,5 +1,7 @@
 package com.devsync.detectors;
 
+import com.devsync.analyzer.ProjectSymbolIndex;
+import com.github.javaparser.ast.CompilationUnit;
 import org.junit.jupiter.api.Test;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,11 +24,23 @@ class UnnecessaryAbstractionDetectorTest extends DetectorTestBase {
     }
 
     @Test
-    void shouldReportInterfaceSimpleWrapper() {
+    void shouldNotReportInterfaceWithSeveralImplementations() {
         String code = "interface I{ void m(); } class A implements I{ public void m(){} } class B implements I{ public void m(){} }";
         List<String> issues = detector.detect(parseCode(code));
-        // Detector flags single-method interfaces as potentially unnecessary
-        assertTrue(hasIssue(issues, "UnnecessaryAbstraction"));
+        // Two implementations make the interface a real abstraction
+        assertFalse(hasIssue(issues, "UnnecessaryAbstraction"));
+    }
+
+    @Test
+    void countsImplementationsAndUsagesInOtherFiles() {
+        CompilationUnit api = parseCode("package app; public interface Store { void save(); }");
+        CompilationUnit impl = parseCode("package app.db; import app.Store; class DbStore implements Store { public void save(){} }");
+        CompilationUnit client = parseCode("package app; class Service { Store store; } class Audit { Store store; }");
+
+        assertEquals(1, detector.analyzeProject(ProjectSymbolIndex.of(api, impl)).size());
+        // Used as a type by two classes, above the default maximum of one
+        assertTrue(detector.analyzeProject(ProjectSymbolIndex.of(api, impl, client)).isEmpty());
+        assertTrue(detector.analyze(api).isEmpty());
     }
 }
 
@@ -17,7 +17,7 @@ class UnusedVariableDetectorTest extends DetectorTestBase {
 
     @Test
     void shouldDetectUnusedParameter() {
-        String code = "class C{ void m(int unusedParam, int usedParam){ System.out.println(usedParam); } }";
+        String code = "class C{ private void m(int unusedParam, int usedParam){ System.out.println(usedParam); } }";
         List<String> issues = detector.detect(parseCode(code));
         assertTrue(hasIssue(issues, "Variable 'unusedParam'"));
         assertFalse(hasIssue(issues, "Variable 'usedParam'"));
@@ -38,4 +38,55 @@ class UnusedVariableDetectorTest extends DetectorTestBase {
         assertTrue(hasIssue(issues, "Variable 'c'"));
         assertFalse(hasIssue(issues, "Variable 'b'"));
     }
+
+    @Test
+    void shouldResolveNamesByScope() {
+        String code = "class C{ void m(){ { int x = 1; System.out.println(x); } { int x = 2; } " +
+            "Runnable r = () -> { int y = 3; System.out.println(y); }; r.run(); } }";
+        List<String> issues = detector.detect(parseCode(code));
+        assertEquals(1, issues.size());
+        assertTrue(hasIssue(issues, "Variable 'x'"));
+    }
+
+    @Test
+    void shouldDetectUnusedPrivateFieldsAndPatternVariables() {
+        String code = "class C{ private int unusedField; private int count; public int exposed; " +
+            "int next(Object o){ if (o instanceof String s) { return 1; } return this.count++; } }";
+        List<String> issues = detector.detect(parseCode(code));
+        assertTrue(hasIssue(issues, "Variable 'unusedField'"));
+        assertTrue(hasIssue(issues, "Variable 's'"));
+        assertFalse(hasIssue(issues, "Variable 'count'"));
+        assertFalse(hasIssue(issues, "Variable 'exposed'"));
+    }
+
+    @Test
+    void shouldNotReportParametersImposedBySignature() {
+        String code = "abstract class C implements Runnable{ abstract void m(int a); " +
+            "@Override public boolean equals(Object other){ return false; } public void run(){ " +
+            "java.util.List.of(1).forEach(item -> System.out.println()); try { } catch (Exception e) { } } }";
+        List<String> issues = detector.detect(parseCode(code));
+        assertEquals(0, issues.size());
+    }
+
+    @Test
+    void shouldOnlyReportParametersOfSignaturesTheFileControls() {
+        String code = "class C{ public static void main(String[] args){ } " +
+            "public String get(@RequestParam String userId){ return \"\"; } " +
+            "public void onClick(View v){ } void run(int ignored){ } " +
+            "C(int size){ } static int twice(int x, int unused){ return x * 2; } }";
+        List<String> issues = detector.detect(parseCode(code));
+        assertEquals(2, issues.size());
+        assertTrue(hasIssue(issues, "Variable 'size'"));
+        assertTrue(hasIssue(issues, "Variable 'unused'"));
+    }
+
+    @Test
+    void shouldKeepCaseLocalsInScopeForTheRestOfTheSwitch() {
+        String code = "class C{ int m(int k){ switch (k) { case 1: int x = 1; break; case 2: x = 5; return x; } " +
+            "switch (k) { case 1 -> { int y = 1; } default -> { int y = 2; System.out.println(y); } } return 0; } }";
+        List<String> issues = detector.detect(parseCode(code));
+        assertFalse(hasIssue(issues, "Variable 'x'"));
+        assertEquals(1, issues.size());
+        assertTrue(hasIssue(issues, "Variable 'y'"));
+    }
 }
@@ -0,0 +1,79 @@
+package com.devsync.reports;
+
+import com.devsync.model.CodeIssue;
+import com.devsync.model.Severity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IssueFormatterTest {
+
+    @TempDir
+    Path reportDir;
+
+    private CodeIssue sampleIssue() {
+        CodeIssue issue = new CodeIssue("MagicNumber", "Order.java", 42, Severity.HIGH,
+            "Magic number '86400' in method - Business logic constant", "Extract to named constant");
+        issue.setDetailedReason("the literal value '86400' is hardcoded without explanation");
+        return issue.addMetric("value", "86400")
+            .addMetric("isRepeated", false)
+            .addMetric("riskScore", 0.8);
+    }
+
+    @Test
+    void rendersTheLegacyOneLineFormat() {
+        assertEquals("🟡 [MagicNumber] Order.java:42 - Magic number '86400' in method - Business logic constant" +
+                " | Suggestions: Extract to named constant" +
+                " | DetailedReason: the literal value '86400' is hardcoded without explanation" +
+                " | ThresholdDetails: {\"value\":\"86400\",\"isRepeated\":false,\"riskScore\":0.80}",
+            IssueFormatter.format(sampleIssue()));
+
+        CodeIssue parseError = new CodeIssue("ParseError", "Broken.java", CodeIssue.NO_LINE, Severity.ERROR,
+            "Parse errors: [unexpected token]", null);
+        assertEquals("❌ [ParseError] Broken.java - Parse errors: [unexpected token]", IssueFormatter.format(parseError));
+    }
+
+    @Test
+    void parsesLinesFromLegacyReports() {
+        CodeIssue parsed = IssueFormatter.parse("🚨 " + IssueFormatter.format(sampleIssue()));
+
+        assertNotNull(parsed);
+        assertEquals("MagicNumber", parsed.getType());
+        assertEquals("Order.java", parsed.getFile());
+        assertEquals(42, parsed.getLine());
+        assertEquals(Severity.HIGH, parsed.getSeverity());
+        assertEquals("Extract to named constant", parsed.getSuggestion());
+        assertEquals("{\"value\":\"86400\",\"isRepeated\":false,\"riskScore\":0.80}", parsed.getThresholdDetailsJson());
+    }
+
+    @Test
+    void storedIssuesSurviveTheRoundTrip() throws IOException {
+        String reportPath = reportDir.resolve("project_comprehensive.txt").toString();
+        ReportGenerator.writeIssues(reportPath, List.of(sampleIssue()));
+
+        List<CodeIssue> loaded = ReportGenerator.loadIssues(reportPath);
+
+        assertEquals(1, loaded.size());
+        assertEquals(Severity.HIGH, loaded.get(0).getSeverity());
+        assertEquals(IssueFormatter.format(sampleIssue()), IssueFormatter.format(loaded.get(0)));
+    }
+
+    @Test
+    void storedIssuesMatchTheIssuesTheReportLists() throws IOException {
+        String reportPath = reportDir.resolve("project_comprehensive.txt").toString();
+        CodeIssue low = new CodeIssue("UnusedVariable", "Order.java", 7, Severity.LOW, "Variable 'x' declared but never used", null);
+        Map<String, Object> results = new HashMap<>();
+        results.put("issues", List.of(low, sampleIssue(), sampleIssue()));
+
+        new ReportGenerator().writeComprehensiveReport(results, reportPath);
+
+        List<CodeIssue> loaded = ReportGenerator.loadIssues(reportPath);
+        assertEquals(List.of("MagicNumber", "UnusedVariable"), loaded.stream().map(CodeIssue::getType).toList());
+        assertEquals(2, ReportGenerator.readReportContent(reportPath).lines().filter(line -> line.startsWith("🚨")).count());
+    }
+}
@@ -0,0 +1,127 @@
+package com.devsync.services;
+
+import com.devsync.model.AnalysisJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisJobServiceTest {
+
+    private AnalysisJobService service;
+
+    private AnalysisJobService startService(int workers, int queueCapacity, String policy) {
+        service = new AnalysisJobService();
+        ReflectionTestUtils.setField(service, "workerThreads", workers);
+        ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(service, "rejectionPolicy", policy);
+        ReflectionTestUtils.setField(service, "retentionMinutes", 60);
+        service.start();
+        return service;
+    }
+
+    @AfterEach
+    void stop() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private static void awaitFinished(AnalysisJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished(), "job did not finish in time");
+    }
+
+    @Test
+    void runsJobsInTheBackgroundAndKeepsThemPollable() throws InterruptedException {
+        startService(1, 2, AnalysisJobService.POLICY_REJECT);
+
+        AnalysisJob job = service.submit("user-1", "demo.zip", running -> {
+            running.setStage(AnalysisJob.Stage.ANALYZING);
+            running.updateProgress(3, 4);
+            running.complete("done");
+        });
+        awaitFinished(job);
+
+        AnalysisJob polled = service.getJob(job.getId()).orElseThrow();
+        assertEquals(AnalysisJob.Stage.COMPLETED, polled.getStage());
+        assertEquals("done", polled.getResult());
+        assertEquals(100, polled.getProgressPercent());
+        assertNotNull(polled.getStartedAt());
+    }
+
+    @Test
+    void failsJobWhenWorkThrows() throws InterruptedException {
+        startService(1, 1, AnalysisJobService.POLICY_REJECT);
+
+        AnalysisJob job = service.submit("user-1", "broken.zip", running -> {
+            throw new IllegalStateException("boom");
+        });
+        awaitFinished(job);
+
+        assertEquals(AnalysisJob.Stage.FAILED, job.getStage());
+        assertTrue(job.getError().contains("boom"));
+    }
+
+    @Test
+    void rejectsJobsOnceWorkersAndQueueAreFull() throws InterruptedException {
+        startService(1, 1, AnalysisJobService.POLICY_REJECT);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        AnalysisJob running = service.submit("user-1", "a.zip", job -> {
+            started.countDown();
+            awaitQuietly(release);
+            job.complete("a");
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        AnalysisJob queued = service.submit("user-1", "b.zip", job -> job.complete("b"));
+
+        assertThrows(RejectedExecutionException.class,
+            () -> service.submit("user-1", "c.zip", job -> job.complete("c")));
+        assertEquals(1, service.getQueuedJobCount());
+
+        release.countDown();
+        awaitFinished(running);
+        awaitFinished(queued);
+        assertEquals("b", queued.getResult());
+    }
+
+    @Test
+    void callerRunsPolicyExecutesOnSubmittingThreadWhenFull() throws InterruptedException {
+        startService(1, 1, AnalysisJobService.POLICY_CALLER_RUNS);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        service.submit("user-1", "a.zip", job -> {
+            started.countDown();
+            awaitQuietly(release);
+            job.complete("a");
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        service.submit("user-1", "b.zip", job -> job.complete("b"));
+
+        Thread caller = Thread.currentThread();
+        AnalysisJob overflow = service.submit("user-1", "c.zip",
+            job -> job.complete(Thread.currentThread() == caller ? "caller" : "worker"));
+
+        assertEquals("caller", overflow.getResult());
+        release.countDown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.devsync.services;
+
+import com.devsync.analyzer.AnalysisMetrics;
+import com.devsync.analyzer.CodeAnalysisEngine;
+import com.devsync.model.UserSettings;
+import com.devsync.testsupport.SyntheticProjectGenerator;
+import com.devsync.utils.HashUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisPipelineServiceTest {
+
+    @TempDir
+    Path uploads;
+
+    private AnalysisPipelineService pipeline(boolean inMemory) {
+        AdminSettingsService adminSettings = Mockito.mock(AdminSettingsService.class);
+        Mockito.when(adminSettings.getExcludedPathPatterns()).thenReturn(List.of());
+        FileStorageService storage = Mockito.mock(FileStorageService.class);
+        Mockito.when(storage.getUploadsPath()).thenReturn(uploads.toString());
+
+        AnalysisPipelineService pipeline = new AnalysisPipelineService();
+        ReflectionTestUtils.setField(pipeline, "adminSettingsService", adminSettings);
+        ReflectionTestUtils.setField(pipeline, "fileStorageService", storage);
+        ReflectionTestUtils.setField(pipeline, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pipeline, "inMemoryUploads", inMemory);
+        return pipeline;
+    }
+
+    @Test
+    void hashesTheWholeArchiveWhileStagingInEitherMode() throws IOException {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        new SyntheticProjectGenerator(new SyntheticProjectGenerator.Config().seed(7).files(12)).writeZip(zip);
+        MockMultipartFile upload = new MockMultipartFile("file", "demo.zip", "application/zip", zip.toByteArray());
+        String expected = HashUtil.sha256Hex(zip.toByteArray());
+
+        AnalysisPipelineService inMemoryPipeline = pipeline(true);
+        AnalysisPipelineService.StagedUpload inMemory = inMemoryPipeline.stageUpload(upload);
+        AnalysisPipelineService.StagedUpload onDisk = pipeline(false).stageUpload(upload);
+
+        // Nothing is decompressed on the request thread
+        assertNull(inMemory.getSources());
+        inMemoryPipeline.loadSources(inMemory, new AnalysisMetrics(new SimpleMeterRegistry()));
+        assertEquals(12, inMemory.getSources().size());
+        assertEquals(expected, inMemory.getArchiveHash());
+        assertEquals(expected, onDisk.getArchiveHash());
+        pipeline(false).discardStagedUpload(onDisk);
+    }
+
+    @Test
+    void fingerprintChangesWithDetectorSettingsExclusionsAndAi() {
+        CodeAnalysisEngine defaults = new CodeAnalysisEngine();
+        defaults.configureFromSettings(new UserSettings("u1"));
+        UserSettings strict = new UserSettings("u2");
+        strict.setMaxMethodLength(10);
+        CodeAnalysisEngine tuned = new CodeAnalysisEngine();
+        tuned.configureFromSettings(strict);
+
+        String base = AnalysisPipelineService.effectiveFingerprint(defaults, List.of(), null);
+        assertEquals(base, AnalysisPipelineService.effectiveFingerprint(defaults, List.of(), null));
+        assertNotEquals(base, AnalysisPipelineService.effectiveFingerprint(tuned, List.of(), null));
+        assertNotEquals(base, AnalysisPipelineService.effectiveFingerprint(defaults, List.of("generated/"), null));
+        String withAi = AnalysisPipelineService.effectiveFingerprint(defaults, List.of(), "openai/gpt-4o");
+        assertNotEquals(base, withAi);
+        assertNotEquals(withAi, AnalysisPipelineService.effectiveFingerprint(defaults, List.of(), "openai/gpt-4o-mini"));
+    }
+
+    @Test
+    void fallsBackToDiskPastTheInMemoryBudget() throws IOException {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        new SyntheticProjectGenerator(new SyntheticProjectGenerator.Config().seed(7).files(12)).writeZip(zip);
+        MockMultipartFile upload = new MockMultipartFile("file", "demo.zip", "application/zip", zip.toByteArray());
+        AnalysisPipelineService pipeline = pipeline(true);
+
+        // Room for the archive but not for the sources it expands to
+        ReflectionTestUtils.setField(pipeline, "inMemoryMaxBytes", (long) zip.size() + 1);
+        AnalysisPipelineService.StagedUpload staged = pipeline.stageUpload(upload);
+        assertTrue(staged.isInMemory());
+        assertFalse(pipeline.stageUpload(upload).isInMemory());
+
+        pipeline.loadSources(staged, new AnalysisMetrics(new SimpleMeterRegistry()));
+        assertFalse(staged.isInMemory());
+        assertNull(staged.getSources());
+        assertTrue(java.nio.file.Files.isRegularFile(staged.getArchive()));
+        pipeline.discardStagedUpload(staged);
+        assertTrue(pipeline.stageUpload(upload).isInMemory());
+    }
+}
@@ -0,0 +1,232 @@
+package com.devsync.testsupport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generates synthetic Java projects for load and scaling tests. Output is fully
+ * determined by the configuration and seed: every file draws from its own
+ * Random seeded from (seed, file index), so a project can be streamed file by
+ * file at any size and regenerated byte for byte.
+ *
+ * Some methods are seeded with smells that the detectors must find exactly
+ * once each: an empty catch block, a switch without a default, or a parameter
+ * list long enough for LongParameterList. Ordinary generated code avoids these
+ * shapes, so {@link Manifest#getSeededSmells()} is the exact count the detectors
+ * should report for those types.
+ */
+public class SyntheticProjectGenerator {
+
+    public enum SeededSmell {
+        EMPTY_CATCH("EmptyCatch"),
+        MISSING_DEFAULT("MissingDefault"),
+        LONG_PARAMETER_LIST("LongParameterList");
+
+        private final String issueType;
+
+        SeededSmell(String issueType) {
+            this.issueType = issueType;
+        }
+
+        public String getIssueType() { return issueType; }
+    }
+
+    /**
+     * Shape of the generated project. Method lengths follow a geometric
+     * distribution around the mean, capped at maxMethodLength.
+     */
+    public static class Config {
+        private long seed = 1L;
+        private int files = 10;
+        private int packages = 5;
+        private int classesPerFile = 1;
+        private int methodsPerClass = 6;
+        private int meanMethodLength = 8;
+        private int maxMethodLength = 60;
+        private int maxNestingDepth = 3;
+        private double smellDensity = 0.1;
+
+        public Config seed(long seed) { this.seed = seed; return this; }
+        public Config files(int files) { this.files = files; return this; }
+        public Config packages(int packages) { this.packages = Math.max(1, packages); return this; }
+        public Config classesPerFile(int classesPerFile) { this.classesPerFile = Math.max(1, classesPerFile); return this; }
+        public Config methodsPerClass(int methodsPerClass) { this.methodsPerClass = methodsPerClass; return this; }
+        public Config meanMethodLength(int meanMethodLength) { this.meanMethodLength = Math.max(1, meanMethodLength); return this; }
+        public Config maxMethodLength(int maxMethodLength) { this.maxMethodLength = Math.max(1, maxMethodLength); return this; }
+        public Config maxNestingDepth(int maxNestingDepth) { this.maxNestingDepth = Math.max(0, maxNestingDepth); return this; }
+        public Config smellDensity(double smellDensity) { this.smellDensity = smellDensity; return this; }
+
+        public int getFiles() { return files; }
+    }
+
+    /**
+     * What was generated, including how many of each smell were seeded.
+     */
+    public static class Manifest {
+        private int files;
+        private int classes;
+        private int methods;
+        private long sourceBytes;
+        private final Map<String, Integer> seededSmells = new LinkedHashMap<>();
+
+        Manifest() {
+            for (SeededSmell smell : SeededSmell.values()) {
+                seededSmells.put(smell.getIssueType(), 0);
+            }
+        }
+
+        public int getFiles() { return files; }
+        public int getClasses() { return classes; }
+        public int getMethods() { return methods; }
+        public long getSourceBytes() { return sourceBytes; }
+
+        /**
+         * Issue type to seeded count, for every seeded type (zero included).
+         */
+        public Map<String, Integer> getSeededSmells() { return seededSmells; }
+    }
+
+    @FunctionalInterface
+    private interface FileSink {
+        void accept(String relativePath, byte[] content) throws IOException;
+    }
+
+    private final Config config;
+
+    public SyntheticProjectGenerator(Config config) {
+        this.config = config;
+    }
+
+    public Manifest writeTo(Path root) throws IOException {
+        return generate((relativePath, content) -> {
+            Path file = root.resolve(relativePath);
+            Files.createDirectories(file.getParent());
+            Files.write(file, content);
+        });
+    }
+
+    /**
+     * Writes the project as a ZIP archive, one entry per file, as an upload would
+     * arrive. The stream is finished but not closed.
+     */
+    public Manifest writeZip(OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        Manifest manifest = generate((relativePath, content) -> {
+            zip.putNextEntry(new ZipEntry(relativePath));
+            zip.write(content);
+            zip.closeEntry();
+        });
+        zip.finish();
+        return manifest;
+    }
+
+    private Manifest generate(FileSink sink) throws IOException {
+        Manifest manifest = new Manifest();
+        for (int i = 0; i < config.files; i++) {
+            String packageName = "com.synthetic.module" + (i % config.packages);
+            String className = "Component" + i;
+            String source = generateFile(i, packageName, className, manifest);
+            byte[] content = source.getBytes(StandardCharsets.UTF_8);
+            sink.accept("src/main/java/" + packageName.replace('.', '/') + "/" + className + ".java", content);
+            manifest.files++;
+            manifest.sourceBytes += content.length;
+        }
+        return manifest;
+    }
+
+    private String generateFile(int fileIndex, String packageName, String className, Manifest manifest) {
+        Random random = new Random(config.seed * 1_000_003L + fileIndex);
+        StringBuilder src = new StringBuilder(4096);
+        src.append("package ").append(packageName).append(";\n\n")
+           .append("import java.util.ArrayList;\n")
+           .append("import java.util.List;\n\n");
+
+        for (int c = 0; c < config.classesPerFile; c++) {
+            String name = c == 0 ? className : className + "Part" + c;
+            src.append(c == 0 ? "public class " : "class ").append(name).append(" {\n\n")
+               .append("    private final List<Integer> values = new ArrayList<>();\n")
+               .append("    private int total;\n\n");
+            for (int m = 0; m < config.methodsPerClass; m++) {
+                SeededSmell smell = random.nextDouble() < config.smellDensity
+                    ? SeededSmell.values()[random.nextInt(SeededSmell.values().length)]
+                    : null;
+                appendMethod(src, random, "step" + m, smell);
+                manifest.methods++;
+                if (smell != null) {
+                    manifest.seededSmells.merge(smell.getIssueType(), 1, Integer::sum);
+                }
+            }
+            src.append("}\n\n");
+            manifest.classes++;
+        }
+        return src.toString();
+    }
+
+    private void appendMethod(StringBuilder src, Random random, String name, SeededSmell smell) {
+        if (smell == SeededSmell.LONG_PARAMETER_LIST) {
+            src.append("    public int ").append(name)
+               .append("(int input, int offset, int limit, int scale, int step, int floor, int ceiling) {\n")
+               .append("        int result = input + offset + limit + scale + step + floor + ceiling;\n");
+        } else {
+            src.append("    public int ").append(name).append("(int input) {\n")
+               .append("        int result = input;\n");
+        }
+
+        int length = Math.min(config.maxMethodLength, sampleLength(random));
+        for (int s = 0; s < length; s++) {
+            appendStatement(src, random, "        ", random.nextInt(config.maxNestingDepth + 1));
+        }
+
+        if (smell == SeededSmell.EMPTY_CATCH) {
+            src.append("        try {\n")
+               .append("            result = Integer.parseInt(String.valueOf(result));\n")
+               .append("        } catch (NumberFormatException e) {\n")
+               .append("        }\n");
+        } else if (smell == SeededSmell.MISSING_DEFAULT) {
+            src.append("        switch (result % 3) {\n")
+               .append("            case 0:\n")
+               .append("                result++;\n")
+               .append("                break;\n")
+               .append("            case 1:\n")
+               .append("                result--;\n")
+               .append("                break;\n")
+               .append("        }\n");
+        }
+        src.append("        total += result;\n")
+           .append("        return result;\n")
+           .append("    }\n\n");
+    }
+
+    private void appendStatement(StringBuilder src, Random random, String indent, int depth) {
+        if (depth > 0) {
+            if (random.nextBoolean()) {
+                src.append(indent).append("if (result > ").append(random.nextInt(50)).append(") {\n");
+            } else {
+                src.append(indent).append("for (int i = 0; i < values.size(); i++) {\n");
+            }
+            appendStatement(src, random, indent + "    ", depth - 1);
+            src.append(indent).append("}\n");
+            return;
+        }
+        switch (random.nextInt(4)) {
+            case 0 -> src.append(indent).append("result += ").append(random.nextInt(10)).append(";\n");
+            case 1 -> src.append(indent).append("values.add(result);\n");
+            case 2 -> src.append(indent).append("result = Math.max(result, total);\n");
+            default -> src.append(indent).append("result = result * 2 - total;\n");
+        }
+    }
+
+    // Geometric distribution with the configured mean, at least one statement
+    private int sampleLength(Random random) {
+        double p = 1.0 / config.meanMethodLength;
+        return 1 + (int) Math.floor(Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - p + 1e-12));
+    }
+}
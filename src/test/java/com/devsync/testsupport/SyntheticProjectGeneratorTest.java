@@ -0,0 +1,65 @@
+package com.devsync.testsupport;
+
+import com.devsync.analyzer.CodeAnalysisEngine;
+import com.devsync.model.CodeIssue;
+import com.devsync.testsupport.SyntheticProjectGenerator.Config;
+import com.devsync.testsupport.SyntheticProjectGenerator.Manifest;
+import com.devsync.utils.ZipExtractor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticProjectGeneratorTest {
+
+    @TempDir
+    Path workDir;
+
+    private static byte[] zip(Config config) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SyntheticProjectGenerator(config).writeZip(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void sameSeedProducesIdenticalProjects() throws IOException {
+        Config config = new Config().seed(42).files(20).smellDensity(0.3);
+
+        assertArrayEquals(zip(config), zip(config));
+        assertFalse(Arrays.equals(zip(config), zip(new Config().seed(43).files(20).smellDensity(0.3))));
+    }
+
+    @Test
+    void detectorsFindExactlyTheSeededSmells() throws IOException {
+        Config config = new Config().seed(7).files(30).classesPerFile(2).maxNestingDepth(4).smellDensity(0.25);
+        Manifest manifest = new SyntheticProjectGenerator(config).writeTo(workDir);
+
+        Map<String, Object> results = new CodeAnalysisEngine().analyzeProject(workDir.toString());
+
+        assertEquals(30, results.get("processedFiles"));
+        @SuppressWarnings("unchecked")
+        List<CodeIssue> issues = (List<CodeIssue>) results.get("issues");
+        manifest.getSeededSmells().forEach((type, seeded) -> {
+            assertTrue(seeded > 0, "seed should plant some " + type);
+            assertEquals(seeded, (int) issues.stream().filter(issue -> type.equals(issue.getType())).count(), type);
+        });
+    }
+
+    @Test
+    void zipOutputExtractsToTheSameProject() throws IOException {
+        Config config = new Config().seed(3).files(12).packages(4);
+        Manifest manifest = new SyntheticProjectGenerator(config).writeZip(new ByteArrayOutputStream());
+
+        ZipExtractor.extractZip(new ByteArrayInputStream(zip(config)), workDir.toString());
+        Map<String, Object> results = new CodeAnalysisEngine().analyzeProject(workDir.toString());
+
+        assertEquals(manifest.getFiles(), results.get("totalFiles"));
+        assertEquals(4, results.get("totalPackages"));
+    }
+}
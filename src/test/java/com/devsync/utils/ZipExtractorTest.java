@@ -0,0 +1,124 @@
+package com.devsync.utils;
+
+import com.devsync.analyzer.SourceFile;
+import com.devsync.testsupport.SyntheticProjectGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipExtractorTest {
+
+    @TempDir
+    Path workDir;
+
+    private Path archive(String... namesAndContents) throws IOException {
+        Path archive = workDir.resolve("upload.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                zip.write(namesAndContents[i + 1].getBytes());
+                zip.closeEntry();
+            }
+        }
+        return archive;
+    }
+
+    private List<String> extractedFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).map(file -> dir.relativize(file).toString().replace('\\', '/')).sorted().toList();
+        }
+    }
+
+    @Test
+    void extractsSourcesInParallelAndSkipsEverythingElse() throws IOException {
+        Path archive = workDir.resolve("project.zip");
+        try (OutputStream out = Files.newOutputStream(archive)) {
+            new SyntheticProjectGenerator(new SyntheticProjectGenerator.Config().seed(11).files(40)).writeZip(out);
+        }
+        Path target = workDir.resolve("parallel");
+
+        ZipExtractor.extractZip(archive, target.toString());
+
+        Path streamed = workDir.resolve("streamed");
+        try (InputStream in = Files.newInputStream(archive)) {
+            ZipExtractor.extractZip(in, streamed.toString());
+        }
+        List<String> files = extractedFiles(target);
+        assertEquals(40, files.size());
+        assertEquals(files, extractedFiles(streamed));
+        for (String file : files) {
+            assertArrayEquals(Files.readAllBytes(streamed.resolve(file)), Files.readAllBytes(target.resolve(file)));
+        }
+    }
+
+    @Test
+    void writesOnlySourceEntries() throws IOException {
+        Path archive = archive(
+            "app/src/Main.java", "class Main {}",
+            "app/.gitignore", "generated/\n",
+            "app/lib/dependency.jar", "PK binary",
+            "app/docs/logo.png", "binary");
+        Path target = workDir.resolve("out");
+
+        ZipExtractor.extractZip(archive, target.toString());
+
+        assertEquals(List.of("app/.gitignore", "app/src/Main.java"), extractedFiles(target));
+    }
+
+    @Test
+    void rejectsEntriesOutsideTheTargetDirectory() throws IOException {
+        Path archive = archive("../escaped/Evil.java", "class Evil {}");
+        Path target = workDir.resolve("victim");
+
+        IOException error = assertThrows(IOException.class, () -> ZipExtractor.extractZip(archive, target.toString()));
+        assertTrue(error.getMessage().contains("outside target directory"));
+        assertFalse(Files.exists(workDir.resolve("escaped")));
+
+        // A sibling whose name merely starts with the target's name is still outside it
+        Path sibling = archive("../victim2/Evil.java", "class Evil {}");
+        assertThrows(IOException.class, () -> ZipExtractor.extractZip(sibling, target.toString()));
+    }
+
+    @Test
+    void rejectsEntriesBeyondTheCompressionRatioLimit() throws IOException {
+        Path archive = archive("bomb/Zeros.java", "0".repeat(4 * 1024 * 1024));
+
+        IOException error = assertThrows(IOException.class,
+            () -> ZipExtractor.extractZip(archive, workDir.resolve("bomb").toString()));
+        assertTrue(error.getMessage().contains("compression ratio"));
+        assertThrows(IOException.class, () -> ZipExtractor.readJavaSources(Files.newInputStream(archive)));
+    }
+
+    @Test
+    void keepsTheLastCopyOfEntriesWithTheSamePath() throws IOException {
+        // ZipOutputStream refuses duplicate names, so the second name is patched in afterwards
+        Path archive = archive("src/A.java", "class A { int first; }", "src/B.java", "class B { }",
+            "src/./A.java", "class A { int second; }", "src/Z.java", "class A { int third; }");
+        byte[] bytes = Files.readAllBytes(archive);
+        byte[] from = "src/Z.java".getBytes();
+        for (int i = 0; i + from.length <= bytes.length; i++) {
+            if (Arrays.equals(bytes, i, i + from.length, from, 0, from.length)) {
+                bytes[i + 4] = 'A';
+            }
+        }
+        Files.write(archive, bytes);
+
+        List<SourceFile> sources = ZipExtractor.readJavaSources(Files.newInputStream(archive));
+
+        assertEquals(List.of("src/A.java", "src/B.java"), sources.stream().map(SourceFile::getPath).toList());
+        assertEquals("class A { int third; }", new String(sources.get(0).readContent()));
+        Path store = Files.createDirectories(workDir.resolve("store"));
+        SourceStore.write(store.toFile(), sources);
+        assertEquals("class A { int third; }", SourceStore.read(store.toFile(), "A.java"));
+    }
+}